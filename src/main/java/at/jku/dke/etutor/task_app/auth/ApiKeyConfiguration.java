@@ -2,7 +2,9 @@
 
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.validation.annotation.Validated;
 
 import java.util.Collections;
@@ -56,14 +58,50 @@ public Optional<ApiKey> getApiKey(String key) {
         return this.apiKeys.stream().filter(x -> x.key().equals(key)).findFirst();
     }
 
+    /**
+     * Returns the API-key with the specified name.
+     *
+     * @param name The name of the API-key to find.
+     * @return The {@link ApiKey} instance or an empty result if no key was found.
+     */
+    public Optional<ApiKey> getApiKeyByName(String name) {
+        if (name == null || name.isBlank())
+            return Optional.empty();
+        return this.apiKeys.stream().filter(x -> x.name().equals(name)).findFirst();
+    }
+
     /**
      * Represents an API-key.
      *
-     * @param name  The name of the API-key.
-     * @param key   The API-key itself.
-     * @param roles The roles of the API-key (specifies what the application is allowed to do).
+     * @param name        The name of the API-key.
+     * @param key         The API-key itself.
+     * @param roles       The roles of the API-key (specifies what the application is allowed to do).
+     * @param callbackUrl The URL the evaluation results of submissions enqueued with this API-key are delivered to; might be
+     *                    {@code null} (see {@link at.jku.dke.etutor.task_app.grading.ResultCallbackDispatcher}).
      */
-    public record ApiKey(@NotEmpty String name, @NotEmpty String key, @NotEmpty List<String> roles) {
+    public record ApiKey(@NotEmpty String name, @NotEmpty String key, @NotEmpty List<String> roles, @Pattern(regexp = "https?://.+") String callbackUrl) {
+        /**
+         * Creates a new instance of class {@link ApiKey}.
+         *
+         * @param name        The name of the API-key.
+         * @param key         The API-key itself.
+         * @param roles       The roles of the API-key (specifies what the application is allowed to do).
+         * @param callbackUrl The URL the evaluation results of submissions enqueued with this API-key are delivered to.
+         */
+        @ConstructorBinding
+        public ApiKey {
+        }
+
+        /**
+         * Creates a new instance of class {@link ApiKey} without callback URL.
+         *
+         * @param name  The name of the API-key.
+         * @param key   The API-key itself.
+         * @param roles The roles of the API-key (specifies what the application is allowed to do).
+         */
+        public ApiKey(String name, String key, List<String> roles) {
+            this(name, key, roles, null);
+        }
     }
 
 }
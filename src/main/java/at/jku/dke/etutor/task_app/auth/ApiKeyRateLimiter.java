@@ -0,0 +1,187 @@
+package at.jku.dke.etutor.task_app.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Limits the request rate of the clients and meters their usage.
+ * <p>
+ * Each API-key with an applicable limit (see {@link RateLimitConfiguration}) gets a token bucket. The bucket is implemented as
+ * generic cell rate algorithm: a single atomic timestamp stores when the bucket will be full again, so that a request is
+ * checked with a single compare-and-set without locking. The usage counters are striped ({@link LongAdder}), so that
+ * concurrent requests of the same client do not contend.
+ */
+@Component
+@ManagedResource(objectName = "at.jku.dke.etutor:type=ApiKeyRateLimiter", description = "Limits the request rate of the clients and meters their usage")
+public class ApiKeyRateLimiter {
+    private static final Logger LOG = LoggerFactory.getLogger(ApiKeyRateLimiter.class);
+
+    private final Map<String, Client> clients;
+
+    /**
+     * Creates a new instance of class {@link ApiKeyRateLimiter}.
+     *
+     * @param apiKeyConfiguration The API-key configuration.
+     * @param config              The rate limit configuration.
+     */
+    public ApiKeyRateLimiter(ApiKeyConfiguration apiKeyConfiguration, RateLimitConfiguration config) {
+        var map = new TreeMap<String, Client>();
+        for (var apiKey : apiKeyConfiguration.getApiKeys()) {
+            var limit = getLimit(apiKey, config);
+            if (limit != null)
+                LOG.info("Limiting API-key {} to {} requests per second with a burst of {}", apiKey.name(), limit.getRefillRate(), limit.getCapacity());
+            map.put(apiKey.name(), new Client(limit == null ? null : new TokenBucket(limit, System.nanoTime())));
+        }
+        this.clients = Collections.unmodifiableMap(map);
+    }
+
+    private static RateLimitConfiguration.Limit getLimit(ApiKeyConfiguration.ApiKey apiKey, RateLimitConfiguration config) {
+        var limit = config.getApiKeys().get(apiKey.name());
+        if (limit != null)
+            return limit;
+        return apiKey.roles().stream()
+            .map(config.getRoles()::get)
+            .filter(Objects::nonNull)
+            .max(Comparator.comparingDouble(RateLimitConfiguration.Limit::getRefillRate).thenComparingInt(RateLimitConfiguration.Limit::getCapacity))
+            .orElse(null);
+    }
+
+    /**
+     * Takes a token from the bucket of the API-key and counts the request.
+     *
+     * @param apiKey The API-key sending the request.
+     * @return {@code 0} if the request is allowed; otherwise the number of nanoseconds until the next token is available.
+     */
+    public long tryAcquire(ApiKeyConfiguration.ApiKey apiKey) {
+        return this.tryAcquire(apiKey, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the bucket of the API-key and counts the request.
+     *
+     * @param apiKey The API-key sending the request.
+     * @param now    The current value of {@link System#nanoTime()}.
+     * @return {@code 0} if the request is allowed; otherwise the number of nanoseconds until the next token is available.
+     */
+    long tryAcquire(ApiKeyConfiguration.ApiKey apiKey, long now) {
+        var client = this.clients.get(apiKey.name());
+        if (client == null)
+            return 0;
+
+        client.requests.increment();
+        if (client.bucket == null)
+            return 0;
+
+        long wait = client.bucket.tryAcquire(now);
+        if (wait > 0)
+            client.rejected.increment();
+        return wait;
+    }
+
+    /**
+     * Counts submissions graded on behalf of the authenticated client.
+     *
+     * @param count The number of submissions.
+     */
+    public void recordGradings(int count) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof ApiKeyConfiguration.ApiKey apiKey))
+            return;
+
+        var client = this.clients.get(apiKey.name());
+        if (client != null)
+            client.gradings.add(count);
+    }
+
+    /**
+     * Gets the number of requests per API-key.
+     *
+     * @return The number of requests by API-key name.
+     */
+    @ManagedAttribute(description = "Number of requests per API-key")
+    public Map<String, Long> getRequestCounts() {
+        return this.collect(c -> c.requests.sum());
+    }
+
+    /**
+     * Gets the number of requests rejected because of the rate limit per API-key.
+     *
+     * @return The number of rejected requests by API-key name.
+     */
+    @ManagedAttribute(description = "Number of requests rejected because of the rate limit per API-key")
+    public Map<String, Long> getRejectedCounts() {
+        return this.collect(c -> c.rejected.sum());
+    }
+
+    /**
+     * Gets the number of submissions graded per API-key.
+     *
+     * @return The number of graded submissions by API-key name.
+     */
+    @ManagedAttribute(description = "Number of submissions graded per API-key")
+    public Map<String, Long> getGradingCounts() {
+        return this.collect(c -> c.gradings.sum());
+    }
+
+    private Map<String, Long> collect(Function<Client, Long> counter) {
+        var result = new LinkedHashMap<String, Long>();
+        this.clients.forEach((name, client) -> result.put(name, counter.apply(client)));
+        return result;
+    }
+
+    private record Client(TokenBucket bucket, LongAdder requests, LongAdder rejected, LongAdder gradings) {
+        Client(TokenBucket bucket) {
+            this(bucket, new LongAdder(), new LongAdder(), new LongAdder());
+        }
+    }
+
+    /**
+     * Token bucket stored as the theoretical arrival time of the next request.
+     */
+    static final class TokenBucket {
+        private final long interval;
+        private final long tolerance;
+        private final AtomicLong arrival;
+
+        /**
+         * Creates a new full bucket.
+         *
+         * @param limit The limit.
+         * @param now   The current value of {@link System#nanoTime()}.
+         */
+        TokenBucket(RateLimitConfiguration.Limit limit, long now) {
+            this.interval = Math.max(1, (long) (1_000_000_000 / limit.getRefillRate()));
+            this.tolerance = this.interval * (limit.getCapacity() - 1);
+            this.arrival = new AtomicLong(now);
+        }
+
+        /**
+         * Takes a token.
+         *
+         * @param now The current value of {@link System#nanoTime()}.
+         * @return {@code 0} if a token was taken; otherwise the number of nanoseconds until the next token is available.
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                long current = this.arrival.get();
+                // a bucket that has been full for a while does not hold more tokens
+                long next = current - now < 0 ? now : current;
+                long wait = next - now - this.tolerance;
+                if (wait > 0)
+                    return wait;
+                if (this.arrival.compareAndSet(current, next + this.interval))
+                    return 0;
+            }
+        }
+    }
+}
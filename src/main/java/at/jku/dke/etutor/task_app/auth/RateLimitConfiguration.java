@@ -0,0 +1,140 @@
+package at.jku.dke.etutor.task_app.auth;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loads the request rate limits of the clients from the application-properties.
+ * <p>
+ * A limit configured for the name of an API-key applies to that key. Otherwise, the most generous limit configured for one of
+ * the roles of the key applies; each key gets its own bucket though. Keys without applicable limit are not limited.
+ */
+@Validated
+@ConfigurationProperties("clients.rate-limit")
+public class RateLimitConfiguration {
+
+    @Valid
+    @NotNull
+    private Map<String, Limit> apiKeys;
+
+    @Valid
+    @NotNull
+    private Map<String, Limit> roles;
+
+    /**
+     * Creates a new instance of class {@link RateLimitConfiguration}.
+     */
+    public RateLimitConfiguration() {
+        this.apiKeys = new HashMap<>();
+        this.roles = new HashMap<>();
+    }
+
+    /**
+     * Gets the limits per API-key.
+     *
+     * @return The limits by API-key name.
+     */
+    public Map<String, Limit> getApiKeys() {
+        return apiKeys;
+    }
+
+    /**
+     * Sets the limits per API-key.
+     *
+     * @param apiKeys The limits by API-key name.
+     */
+    public void setApiKeys(Map<String, Limit> apiKeys) {
+        this.apiKeys = apiKeys;
+    }
+
+    /**
+     * Gets the limits per role.
+     *
+     * @return The limits by role.
+     */
+    public Map<String, Limit> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Sets the limits per role.
+     *
+     * @param roles The limits by role.
+     */
+    public void setRoles(Map<String, Limit> roles) {
+        this.roles = roles;
+    }
+
+    /**
+     * The token bucket of a client: each request takes a token, tokens are refilled at a constant rate.
+     */
+    public static class Limit {
+        @Min(1)
+        private int capacity;
+
+        @DecimalMin(value = "0", inclusive = false)
+        private double refillRate;
+
+        /**
+         * Creates a new instance of class {@link Limit}.
+         */
+        public Limit() {
+            this.capacity = 100;
+            this.refillRate = 10;
+        }
+
+        /**
+         * Creates a new instance of class {@link Limit}.
+         *
+         * @param capacity   The maximum number of tokens.
+         * @param refillRate The number of tokens added per second.
+         */
+        public Limit(int capacity, double refillRate) {
+            this.capacity = capacity;
+            this.refillRate = refillRate;
+        }
+
+        /**
+         * Gets the maximum number of tokens, i.e. the number of requests a client may send in a burst.
+         *
+         * @return The bucket capacity.
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Sets the maximum number of tokens, i.e. the number of requests a client may send in a burst.
+         *
+         * @param capacity The bucket capacity.
+         */
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Gets the number of tokens added per second, i.e. the sustained request rate.
+         *
+         * @return The refill rate.
+         */
+        public double getRefillRate() {
+            return refillRate;
+        }
+
+        /**
+         * Sets the number of tokens added per second, i.e. the sustained request rate.
+         *
+         * @param refillRate The refill rate.
+         */
+        public void setRefillRate(double refillRate) {
+            this.refillRate = refillRate;
+        }
+    }
+}
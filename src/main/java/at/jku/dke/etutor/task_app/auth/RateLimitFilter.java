@@ -0,0 +1,76 @@
+package at.jku.dke.etutor.task_app.auth;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter that rejects requests of authenticated clients exceeding their rate limit (see {@link ApiKeyRateLimiter}).
+ * <p>
+ * Each request takes one token: async dispatches (e.g. completing a {@code DeferredResult}) and error dispatches are not filtered,
+ * as they belong to a request that has already been admitted.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final ApiKeyRateLimiter rateLimiter;
+
+    /**
+     * Creates a new instance of class {@link RateLimitFilter}.
+     *
+     * @param rateLimiter The rate limiter.
+     */
+    public RateLimitFilter(ApiKeyRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Takes a token from the bucket of the authenticated client; responds with status 429 if no token is available.
+     *
+     * @param request  The request to process
+     * @param response The response associated with the request
+     * @param chain    Provides access to the next filter in the chain for this filter to pass the request and response to for further processing.
+     * @throws IOException      If an I/O error occurs during this filter's processing of the request.
+     * @throws ServletException If the processing fails for any other reason.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof ApiKeyConfiguration.ApiKey apiKey)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long wait = this.rateLimiter.tryAcquire(apiKey);
+        if (wait <= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+
+        var problem = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, "Rate limit of API-key " + apiKey.name() + " exceeded.");
+
+        PrintWriter writer = response.getWriter();
+        Jackson2ObjectMapperBuilder.json()
+            .build()
+            .writeValue(writer, problem);
+        writer.flush();
+        writer.close();
+    }
+
+}
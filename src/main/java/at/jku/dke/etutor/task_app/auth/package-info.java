@@ -16,5 +16,22 @@
  *     - ...
  * </pre>
  * You can find the supported roles in {@link at.jku.dke.etutor.task_app.auth.AuthConstants}.
+ * <p>
+ * The request rate of the clients can be limited per API-key or per role (see {@link at.jku.dke.etutor.task_app.auth.RateLimitConfiguration});
+ * requests exceeding the limit are rejected with status 429:
+ * <pre>
+ * clients:
+ *   rate-limit:
+ *     api-keys:
+ *       plag-check:
+ *         capacity: 20     # burst
+ *         refill-rate: 2   # requests per second
+ *     roles:
+ *       SUBMIT:
+ *         capacity: 200
+ *         refill-rate: 50
+ * </pre>
+ * The number of requests, rejected requests and graded submissions per API-key are exported via JMX
+ * (see {@link at.jku.dke.etutor.task_app.auth.ApiKeyRateLimiter}).
  */
 package at.jku.dke.etutor.task_app.auth;
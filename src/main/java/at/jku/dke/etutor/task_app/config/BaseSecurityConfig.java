@@ -1,10 +1,40 @@
 package at.jku.dke.etutor.task_app.config;
 
 import at.jku.dke.etutor.task_app.auth.ApiKeyConfiguration;
+import at.jku.dke.etutor.task_app.auth.ApiKeyRateLimiter;
 import at.jku.dke.etutor.task_app.auth.AuthConstants;
 import at.jku.dke.etutor.task_app.auth.AuthenticationFilter;
 import at.jku.dke.etutor.task_app.auth.AuthenticationService;
+import at.jku.dke.etutor.task_app.auth.RateLimitConfiguration;
+import at.jku.dke.etutor.task_app.auth.RateLimitFilter;
+import at.jku.dke.etutor.task_app.controllers.BinaryFormatsConfigurer;
 import at.jku.dke.etutor.task_app.controllers.ProblemDetailsExceptionHandler;
+import at.jku.dke.etutor.task_app.controllers.ResponseCompressionConfiguration;
+import at.jku.dke.etutor.task_app.controllers.ResponseCompressionCustomizer;
+import at.jku.dke.etutor.task_app.controllers.TaskResponseCache;
+import at.jku.dke.etutor.task_app.controllers.TaskResponseCacheConfiguration;
+import at.jku.dke.etutor.task_app.grading.GradingBulkheads;
+import at.jku.dke.etutor.task_app.grading.GradingCompletionRegistry;
+import at.jku.dke.etutor.task_app.grading.GradingCacheConfiguration;
+import at.jku.dke.etutor.task_app.grading.GradingConfiguration;
+import at.jku.dke.etutor.task_app.grading.GradingExecutor;
+import at.jku.dke.etutor.task_app.grading.GradingNotificationConfiguration;
+import at.jku.dke.etutor.task_app.grading.GradingResultCache;
+import at.jku.dke.etutor.task_app.grading.GradingResultNotifier;
+import at.jku.dke.etutor.task_app.grading.GradingResultWriter;
+import at.jku.dke.etutor.task_app.grading.GradingResultWriterConfiguration;
+import at.jku.dke.etutor.task_app.grading.GradingShutdownCoordinator;
+import at.jku.dke.etutor.task_app.grading.ResultCallbackConfiguration;
+import at.jku.dke.etutor.task_app.grading.ResultCallbackDispatcher;
+import at.jku.dke.etutor.task_app.grading.SandboxConfiguration;
+import at.jku.dke.etutor.task_app.grading.SandboxPool;
+import at.jku.dke.etutor.task_app.grading.SubmissionFingerprinter;
+import at.jku.dke.etutor.task_app.grading.SubmissionQueue;
+import at.jku.dke.etutor.task_app.grading.SubmissionQueueConfiguration;
+import at.jku.dke.etutor.task_app.grading.TaskArtifactCache;
+import at.jku.dke.etutor.task_app.grading.TaskArtifactCacheConfiguration;
+import at.jku.dke.etutor.task_app.grading.TaskRegistry;
+import at.jku.dke.etutor.task_app.grading.TaskRegistryConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -33,14 +63,31 @@
  *     <li>HTTP request authorizations are configured (all /api/ endpoints must be authenticated, actuator endpoints health/* are permitted by all, info needs to be authenticated and all other actuator endpoints need CRUD authority).</li>
  *     <li>Session management is configured to stateless</li>
  *     <li>An {@link AuthenticationFilter} is added to the filter chain</li>
+ *     <li>A {@link RateLimitFilter} limiting the request rate of the clients is added to the filter chain (see {@link RateLimitConfiguration})</li>
+ *     <li>The {@link GradingExecutor} used for background evaluations is registered (see {@link GradingConfiguration})</li>
+ *     <li>The {@link GradingShutdownCoordinator} draining the evaluations on shutdown is registered</li>
+ *     <li>The {@link GradingBulkheads} providing isolated worker pools per task type are registered</li>
+ *     <li>The durable {@link SubmissionQueue} is registered if enabled (see {@link SubmissionQueueConfiguration})</li>
+ *     <li>The {@link GradingResultCache} is registered if enabled (see {@link GradingCacheConfiguration})</li>
+ *     <li>The {@link SubmissionFingerprinter} identifying identical submissions is registered</li>
+ *     <li>The {@link GradingCompletionRegistry} notifying clients waiting for evaluation results is registered</li>
+ *     <li>The {@link GradingResultWriter} writing evaluation results in batches is registered if enabled (see {@link GradingResultWriterConfiguration})</li>
+ *     <li>The {@link GradingResultNotifier} announcing stored evaluation results to all nodes is registered if enabled (see {@link GradingNotificationConfiguration})</li>
+ *     <li>The {@link ResultCallbackDispatcher} delivering evaluation results to the callback URLs of the clients is registered if enabled (see {@link ResultCallbackConfiguration})</li>
+ *     <li>The {@link SandboxPool} of pre-started worker processes running student code is registered if enabled (see {@link SandboxConfiguration})</li>
+ *     <li>The {@link TaskArtifactCache} keeping precomputed evaluation artifacts of the tasks is registered (see {@link TaskArtifactCacheConfiguration})</li>
+ *     <li>The in-memory {@link TaskRegistry} of all tasks is registered if enabled (see {@link TaskRegistryConfiguration})</li>
+ *     <li>The {@link TaskResponseCache} answering repeated reads of tasks and task groups with ETags is registered if enabled (see {@link TaskResponseCacheConfiguration})</li>
+ *     <li>The {@link BinaryFormatsConfigurer} registering the CBOR and Smile message converters (if on the classpath) is registered</li>
+ *     <li>The {@link ResponseCompressionCustomizer} enabling gzip compression of responses is registered if enabled (see {@link ResponseCompressionConfiguration})</li>
  *     <li>Additional configuration can be done by overriding the {@link #additionalHttpRequestAuthorizationCustomization(AuthorizeHttpRequestsConfigurer.AuthorizationManagerRequestMatcherRegistry)} method</li>
  *     <li>Additional configuration can be done by overriding the {@link #additionalFilterChainCustomization(HttpSecurity)} method</li>
  * </ul>
  */
 @EnableWebSecurity
 @EnableMethodSecurity
-@EnableConfigurationProperties(value = {ApiKeyConfiguration.class})
-@ComponentScan(basePackageClasses = {AuthenticationService.class, ProblemDetailsExceptionHandler.class})
+@EnableConfigurationProperties(value = {ApiKeyConfiguration.class, RateLimitConfiguration.class, GradingConfiguration.class, SubmissionQueueConfiguration.class, GradingCacheConfiguration.class, GradingResultWriterConfiguration.class, GradingNotificationConfiguration.class, ResultCallbackConfiguration.class, SandboxConfiguration.class, TaskArtifactCacheConfiguration.class, TaskRegistryConfiguration.class, TaskResponseCacheConfiguration.class, ResponseCompressionConfiguration.class})
+@ComponentScan(basePackageClasses = {AuthenticationService.class, ProblemDetailsExceptionHandler.class, GradingExecutor.class})
 public abstract class BaseSecurityConfig {
 
     /**
@@ -54,11 +101,12 @@ protected BaseSecurityConfig() {
      *
      * @param http                  The HTTP security configuration.
      * @param authenticationService The authentication service.
+     * @param rateLimiter           The rate limiter of the clients.
      * @return The security filter chain.
      * @throws Exception If the configuration fails.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationService authenticationService) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationService authenticationService, ApiKeyRateLimiter rateLimiter) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable);
 
         http.headers(conf -> {
@@ -86,6 +134,7 @@ public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationService
         http.sessionManagement(conf -> conf.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         http.addFilterBefore(new AuthenticationFilter(authenticationService), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(new RateLimitFilter(rateLimiter), AuthenticationFilter.class);
 
         this.additionalFilterChainCustomization(http);
 
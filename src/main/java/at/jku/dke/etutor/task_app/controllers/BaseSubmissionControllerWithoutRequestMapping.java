@@ -1,16 +1,34 @@
 package at.jku.dke.etutor.task_app.controllers;
 
 import at.jku.dke.etutor.task_app.dto.*;
+import at.jku.dke.etutor.task_app.grading.EvaluationFailedException;
+import at.jku.dke.etutor.task_app.services.SubmissionFilter;
 import at.jku.dke.etutor.task_app.services.SubmissionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Base implementation of {@link SubmissionController}.
@@ -21,6 +39,8 @@
  * @param <A> The type of the submission input used in {@link SubmitSubmissionDto}.
  */
 public abstract class BaseSubmissionControllerWithoutRequestMapping<A> implements SubmissionController<A> {
+    private static final long RESULT_TIMEOUT_GRACE_MILLIS = 5000;
+    private static final int MAX_EVENT_TIMEOUT_SECONDS = 300;
 
     /**
      * The submission service.
@@ -61,41 +81,174 @@ public ResponseEntity<Serializable> submit(SubmitSubmissionDto<A> submission, bo
      * {@inheritDoc}
      */
     @Override
-    public ResponseEntity<GradingDto> getResult(UUID id, int timeout, boolean delete) {
+    public ResponseEntity<List<UUID>> enqueueBatch(List<SubmitSubmissionDto<A>> submissions) {
+        return ResponseEntity.accepted().body(this.submissionService.enqueueAll(submissions));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<ResponseBodyEmitter> executeBatch(List<SubmitSubmissionDto<A>> submissions, boolean persist) {
+        var results = this.submissionService.executeAll(submissions, persist);
+
+        // no request timeout, each evaluation is limited by the evaluation timeout
+        var emitter = new ResponseBodyEmitter(-1L);
+        var lock = new ReentrantLock();
+        var remaining = new AtomicInteger(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            int index = i;
+            results.get(i).whenComplete((result, ex) -> {
+                var line = ex == null ?
+                    new BatchGradingResultDto(index, result.submissionId(), result.grading()) :
+                    new BatchGradingResultDto(index, getFailedSubmissionId(ex), null);
+                lock.lock();
+                try {
+                    emitter.send(line, MediaType.APPLICATION_JSON);
+                    emitter.send("\n", MediaType.TEXT_PLAIN);
+                    if (remaining.decrementAndGet() == 0)
+                        emitter.complete();
+                } catch (IOException | IllegalStateException ignore) {
+                    // client disconnected; the evaluations continue and their results are stored anyway
+                } finally {
+                    lock.unlock();
+                }
+            });
+        }
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DeferredResult<ResponseEntity<GradingDto>> getResult(UUID id, int timeout, boolean delete, boolean partial) {
         if (timeout < 0)
             timeout = 0;
         if (timeout > 60)
             timeout = 60;
 
-        GradingDto result;
-        int remainingTimeout = timeout;
-        do {
-            result = this.submissionService.getEvaluationResult(id);
-            remainingTimeout--;
-
-            if (result == null && remainingTimeout > 0) {
+        // no thread is held while waiting; the response is sent as soon as the result is stored
+        var future = this.submissionService.awaitEvaluationResult(id, Duration.ofSeconds(timeout));
+        var deferred = new DeferredResult<ResponseEntity<GradingDto>>(TimeUnit.SECONDS.toMillis(timeout) + RESULT_TIMEOUT_GRACE_MILLIS,
+            () -> ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT).build());
+        var executor = new DelegatingSecurityContextExecutor(Runnable::run, SecurityContextHolder.getContext());
+        future.whenCompleteAsync((result, ex) -> {
+            if (ex != null) {
+                deferred.setErrorResult(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            } else if (result == null) {
+                var partialResult = partial ? this.submissionService.getPartialEvaluationResult(id) : null;
+                deferred.setResult(partialResult == null ?
+                    ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT).build() :
+                    ResponseEntity.status(HttpStatus.ACCEPTED).body(partialResult));
+            } else {
                 try {
-                    Thread.sleep(990);
-                } catch (InterruptedException ignore) {
+                    if (delete)
+                        this.submissionService.delete(id);
+                    deferred.setResult(ResponseEntity.ok(result));
+                } catch (RuntimeException deleteException) {
+                    deferred.setErrorResult(deleteException);
                 }
             }
-        } while (result == null && remainingTimeout > 0);
+        }, executor);
+        return deferred;
+    }
 
-        if (result == null) {
-            return ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT).build();
-        } else {
-            if (delete)
-                this.submissionService.delete(id);
-            return ResponseEntity.ok(result);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SseEmitter streamEvents(UUID id, int timeout) {
+        return this.streamAllEvents(List.of(id), timeout);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SseEmitter streamAllEvents(List<UUID> ids, int timeout) {
+        timeout = Math.clamp(timeout, 0, MAX_EVENT_TIMEOUT_SECONDS);
+        var distinctIds = ids.stream().distinct().toList();
+
+        // events are sent by the threads storing the results; no thread is held while waiting
+        var emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(timeout) + RESULT_TIMEOUT_GRACE_MILLIS);
+        var lock = new ReentrantLock();
+        var done = new HashSet<UUID>();
+        var futures = this.submissionService.watchEvaluations(distinctIds, Duration.ofSeconds(timeout),
+            event -> this.sendEvent(emitter, lock, done, event));
+
+        var remaining = new AtomicInteger(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            UUID id = distinctIds.get(i);
+            futures.get(i).whenComplete((result, ex) -> {
+                if (result != null)
+                    this.sendEvent(emitter, lock, done, new SubmissionEventDto(id, SubmissionStatus.DONE, result));
+                if (remaining.decrementAndGet() == 0)
+                    emitter.complete();
+            });
         }
+
+        // stop waiting if the client disconnects
+        Runnable cancel = () -> futures.forEach(future -> future.cancel(false));
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(ex -> cancel.run());
+        return emitter;
+    }
+
+    private static UUID getFailedSubmissionId(Throwable ex) {
+        if (ex instanceof CompletionException && ex.getCause() != null)
+            ex = ex.getCause();
+        return ex instanceof EvaluationFailedException failed ? failed.getSubmissionId() : null;
+    }
+
+    private void sendEvent(SseEmitter emitter, ReentrantLock lock, Set<UUID> done, SubmissionEventDto event) {
+        lock.lock();
+        try {
+            // a status change might be reported after the result
+            if (done.contains(event.submissionId()))
+                return;
+            if (event.status() == SubmissionStatus.DONE)
+                done.add(event.submissionId());
+            emitter.send(SseEmitter.event().data(event, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException ignore) {
+            // client disconnected
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<Void> cancel(UUID id) {
+        if (this.submissionService.cancel(id))
+            return ResponseEntity.noContent().build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResponseEntity<Page<SubmissionDto<A>>> getSubmissions(Pageable page, List<String> userFilter, List<Long> taskFilter, List<String> assignmentFilter,
+                                                                 List<SubmissionMode> modeFilter, Instant submittedFrom, Instant submittedTo, List<String> fields) {
+        var filter = new SubmissionFilter(userFilter, taskFilter, assignmentFilter, modeFilter, submittedFrom, submittedTo);
+        var result = this.submissionService.getSubmissions(page, filter, fields);
+        return ResponseEntity.ok(result);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public ResponseEntity<Page<SubmissionDto<A>>> getSubmissions(Pageable page, String userFilter, Long taskFilter, String assignmentFilter, SubmissionMode modeFilter) {
-        var result = this.submissionService.getSubmissions(page, userFilter, taskFilter, assignmentFilter, modeFilter);
+    public ResponseEntity<SubmissionSliceDto<A>> getSubmissionSlice(String cursor, int size, Sort.Direction direction, List<String> userFilter, List<Long> taskFilter,
+                                                                    List<String> assignmentFilter, List<SubmissionMode> modeFilter, Instant submittedFrom,
+                                                                    Instant submittedTo, List<String> fields) {
+        var filter = new SubmissionFilter(userFilter, taskFilter, assignmentFilter, modeFilter, submittedFrom, submittedTo);
+        var result = this.submissionService.getSubmissionSlice(filter, cursor, size, direction, fields);
         return ResponseEntity.ok(result);
     }
 
@@ -1,11 +1,14 @@
 package at.jku.dke.etutor.task_app.controllers;
 
+import at.jku.dke.etutor.task_app.auth.AuthConstants;
 import at.jku.dke.etutor.task_app.data.entities.Task;
 import at.jku.dke.etutor.task_app.dto.ModifyTaskDto;
 import at.jku.dke.etutor.task_app.dto.TaskModificationResponseDto;
 import at.jku.dke.etutor.task_app.services.TaskService;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.net.URI;
 import java.util.Optional;
@@ -27,6 +30,8 @@
      */
     protected final TaskService<E, A> taskService;
 
+    private TaskResponseCache responseCache;
+
     /**
      * Creates a new instance of class {@link BaseTaskControllerWithoutRequestMapping}.
      *
@@ -36,15 +41,31 @@ protected BaseTaskControllerWithoutRequestMapping(TaskService<E, A> taskService)
         this.taskService = taskService;
     }
 
+    /**
+     * Sets the cache answering repeated reads without loading the task again.
+     *
+     * @param responseCache The response cache.
+     */
+    @Autowired(required = false)
+    public void setResponseCache(TaskResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
+    @PreAuthorize(AuthConstants.CRUD_AUTHORITY) // cached responses do not pass the service
     public ResponseEntity<D> get(long id) {
+        if (this.responseCache != null)
+            return this.responseCache.get(TaskResponseCache.ResourceType.TASK, id, () -> this.load(id));
+        return ResponseEntity.ok(this.load(id));
+    }
+
+    private D load(long id) {
         Optional<E> entity = this.taskService.get(id);
         return entity
             .map(this::mapToDto)
-            .map(ResponseEntity::ok)
             .orElseThrow(() -> new EntityNotFoundException(String.format("Task %s does not exist.", id)));
     }
 
@@ -0,0 +1,58 @@
+package at.jku.dke.etutor.task_app.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the message converters for the binary formats CBOR ({@value MediaType#APPLICATION_CBOR_VALUE}) and Smile
+ * ({@value #APPLICATION_SMILE_VALUE}), which clients can request with the {@code Accept} header instead of JSON.
+ * <p>
+ * Binary formats are considerably cheaper to parse for service-to-service traffic with large grading results. The converters are
+ * only registered if the corresponding Jackson data format ({@code com.fasterxml.jackson.dataformat:jackson-dataformat-cbor} or
+ * {@code jackson-dataformat-smile}) is on the classpath; otherwise, requests only accepting a binary format are answered with
+ * status 406.
+ */
+@Component
+public class BinaryFormatsConfigurer implements WebMvcConfigurer {
+    private static final Logger LOG = LoggerFactory.getLogger(BinaryFormatsConfigurer.class);
+
+    /**
+     * The media type of Smile.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final boolean CBOR_PRESENT = ClassUtils.isPresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory", BinaryFormatsConfigurer.class.getClassLoader());
+    private static final boolean SMILE_PRESENT = ClassUtils.isPresent("com.fasterxml.jackson.dataformat.smile.SmileFactory", BinaryFormatsConfigurer.class.getClassLoader());
+
+    /**
+     * Creates a new instance of class {@link BinaryFormatsConfigurer}.
+     */
+    public BinaryFormatsConfigurer() {
+    }
+
+    /**
+     * Appends the converters of the available binary formats, unless they are registered already.
+     *
+     * @param converters The registered converters.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (CBOR_PRESENT && converters.stream().noneMatch(MappingJackson2CborHttpMessageConverter.class::isInstance)) {
+            LOG.debug("Registering CBOR message converter");
+            converters.add(new MappingJackson2CborHttpMessageConverter());
+        }
+        if (SMILE_PRESENT && converters.stream().noneMatch(MappingJackson2SmileHttpMessageConverter.class::isInstance)) {
+            LOG.debug("Registering Smile message converter");
+            converters.add(new MappingJackson2SmileHttpMessageConverter());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package at.jku.dke.etutor.task_app.controllers;
 
+import at.jku.dke.etutor.task_app.grading.GradingRejectedException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -152,4 +153,22 @@ public ResponseEntity<Object> handleDataIntegrityViolationException(DataIntegrit
         body.setType(URI.create(BASE_URL + "validation-error/data-integrity"));
         return handleExceptionInternal(ex, body, new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
     }
+
+    /**
+     * Handle exceptions of type {@link GradingRejectedException}.
+     *
+     * @param ex      The exception to handle.
+     * @param request The current request.
+     * @return The response entity.
+     */
+    @ExceptionHandler({GradingRejectedException.class})
+    public ResponseEntity<Object> handleGradingRejectedException(GradingRejectedException ex, WebRequest request) {
+        var status = HttpStatus.SERVICE_UNAVAILABLE;
+        var body = this.createProblemDetail(ex, status, ex.getLocalizedMessage(), null, null, request);
+        body.setType(URI.create(BASE_URL + "grading-rejected"));
+
+        var headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())));
+        return handleExceptionInternal(ex, body, headers, status, request);
+    }
 }
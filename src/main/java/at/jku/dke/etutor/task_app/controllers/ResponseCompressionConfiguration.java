@@ -0,0 +1,97 @@
+package at.jku.dke.etutor.task_app.controllers;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the settings of the response compression from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("api.compression")
+public class ResponseCompressionConfiguration {
+
+    private boolean enabled;
+
+    @NotNull
+    private DataSize minResponseSize;
+
+    @NotEmpty
+    private List<String> mimeTypes;
+
+    /**
+     * Creates a new instance of class {@link ResponseCompressionConfiguration}.
+     */
+    public ResponseCompressionConfiguration() {
+        this.enabled = false;
+        this.minResponseSize = DataSize.ofKilobytes(2);
+        this.mimeTypes = new ArrayList<>(List.of(
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_PROBLEM_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfigurer.APPLICATION_SMILE_VALUE,
+            MediaType.TEXT_PLAIN_VALUE,
+            MediaType.TEXT_HTML_VALUE));
+    }
+
+    /**
+     * Gets whether responses are compressed.
+     *
+     * @return {@code true} if responses are compressed for clients accepting gzip.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether responses are compressed.
+     *
+     * @param enabled {@code true} if responses should be compressed for clients accepting gzip.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the minimum size of compressed responses; smaller responses are not worth the CPU time.
+     *
+     * @return The minimum response size.
+     */
+    public DataSize getMinResponseSize() {
+        return minResponseSize;
+    }
+
+    /**
+     * Sets the minimum size of compressed responses; smaller responses are not worth the CPU time.
+     *
+     * @param minResponseSize The minimum response size.
+     */
+    public void setMinResponseSize(DataSize minResponseSize) {
+        this.minResponseSize = minResponseSize;
+    }
+
+    /**
+     * Gets the media types of compressed responses.
+     *
+     * @return The media types.
+     */
+    public List<String> getMimeTypes() {
+        return mimeTypes;
+    }
+
+    /**
+     * Sets the media types of compressed responses.
+     *
+     * @param mimeTypes The media types.
+     */
+    public void setMimeTypes(List<String> mimeTypes) {
+        this.mimeTypes = mimeTypes;
+    }
+}
@@ -0,0 +1,51 @@
+package at.jku.dke.etutor.task_app.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Enables gzip compression of responses for clients sending {@code Accept-Encoding: gzip}.
+ * <p>
+ * Grading results and pages of submissions contain large HTML feedback, which compresses well. Event streams are not compressed,
+ * as compression would delay the events. The settings replace the {@code server.compression} settings of Spring Boot; the
+ * embedded servers only support gzip, brotli has to be provided by a reverse proxy.
+ * <p>
+ * The customizer is only available if {@code api.compression.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "api.compression", name = "enabled", havingValue = "true")
+public class ResponseCompressionCustomizer implements WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> {
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseCompressionCustomizer.class);
+
+    private final ResponseCompressionConfiguration config;
+
+    /**
+     * Creates a new instance of class {@link ResponseCompressionCustomizer}.
+     *
+     * @param config The compression configuration.
+     */
+    public ResponseCompressionCustomizer(ResponseCompressionConfiguration config) {
+        this.config = config;
+    }
+
+    /**
+     * Enables compression on the web server.
+     *
+     * @param factory The web server factory.
+     */
+    @Override
+    public void customize(ConfigurableServletWebServerFactory factory) {
+        var compression = new Compression();
+        compression.setEnabled(true);
+        compression.setMinResponseSize(this.config.getMinResponseSize());
+        compression.setMimeTypes(this.config.getMimeTypes().toArray(String[]::new));
+
+        LOG.info("Compressing responses of types {} larger than {}", this.config.getMimeTypes(), this.config.getMinResponseSize());
+        factory.setCompression(compression);
+    }
+}
@@ -5,6 +5,7 @@
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,12 +15,18 @@
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -40,14 +47,16 @@
      * @return The submission identifier if {@code runInBackground} is {@code true}; the grading result if {@code runInBackground} is {@code false}; or an error response.
      * @implSpec Only clients with role {@link at.jku.dke.etutor.task_app.auth.AuthConstants#SUBMIT} should be allowed to access this endpoint.
      */
-    @PostMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE}, consumes = {MediaType.APPLICATION_JSON_VALUE})
+    @PostMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatsConfigurer.APPLICATION_SMILE_VALUE}, consumes = {MediaType.APPLICATION_JSON_VALUE})
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Submission graded", content = @Content(schema = @Schema(implementation = GradingResultDto.class), mediaType = MediaType.APPLICATION_JSON_VALUE)),
         @ApiResponse(responseCode = "202", description = "Submission enqueued for grading", content = @Content(schema = @Schema(implementation = UUID.class, description = "The submission identifier."),
             mediaType = MediaType.TEXT_PLAIN_VALUE), headers = @Header(name = "Location", description = "The location of the submission result.")),
         @ApiResponse(responseCode = "400", description = "Invalid submission data", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
         @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
-        @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE))
+        @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "503", description = "Grading capacity exhausted, try again later", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE),
+            headers = @Header(name = "Retry-After", description = "The number of seconds to wait before retrying."))
     })
     @Operation(
         summary = "Execute and grade submission",
@@ -57,18 +66,64 @@ ResponseEntity<Serializable> submit(@RequestBody SubmitSubmissionDto<T> submissi
                                         @Parameter(description = "Whether to run the grading in background or wait for grading to finish.") @RequestParam(required = false, defaultValue = "false") boolean runInBackground,
                                         @Parameter(description = "Whether to persist the submission. Only applies if <code>runInBackground</code> is <code>false</code>.") @RequestParam(required = false, defaultValue = "true") boolean persist);
 
+    /**
+     * Enqueues a batch of submissions for grading.
+     *
+     * @param submissions The submissions (at most {@value at.jku.dke.etutor.task_app.services.SubmissionService#MAX_BATCH_SIZE}).
+     * @return The submission identifiers in the order of the submissions or an error response.
+     * @implSpec Only clients with role {@link at.jku.dke.etutor.task_app.auth.AuthConstants#SUBMIT} should be allowed to access this endpoint.
+     */
+    @PostMapping(value = "/batch", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatsConfigurer.APPLICATION_SMILE_VALUE}, consumes = {MediaType.APPLICATION_JSON_VALUE})
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Submissions enqueued for grading", content = @Content(array = @ArraySchema(schema = @Schema(implementation = UUID.class)),
+            mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = "400", description = "Invalid submission data", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE))
+    })
+    @Operation(
+        summary = "Enqueue batch of submissions",
+        description = "Stores all submissions and enqueues them for grading. Returns the submission identifiers in the order of the submissions. Requires the SUBMIT role.",
+        security = @SecurityRequirement(name = AuthConstants.API_KEY_REQUIREMENT))
+    ResponseEntity<List<UUID>> enqueueBatch(@RequestBody List<SubmitSubmissionDto<T>> submissions);
+
+    /**
+     * Executes and grades a batch of submissions in parallel and streams the results as newline-delimited JSON as soon as they are available.
+     *
+     * @param submissions The submissions (at most {@value at.jku.dke.etutor.task_app.services.SubmissionService#MAX_BATCH_SIZE}).
+     * @param persist     Whether to persist the submissions (default: {@code true}).
+     * @return The stream of {@link BatchGradingResultDto}s in order of completion or an error response.
+     * @implSpec Only clients with role {@link at.jku.dke.etutor.task_app.auth.AuthConstants#SUBMIT} should be allowed to access this endpoint.
+     */
+    @PostMapping(value = "/batch", produces = {MediaType.APPLICATION_NDJSON_VALUE}, consumes = {MediaType.APPLICATION_JSON_VALUE})
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Grading results, one per line in order of completion", content = @Content(schema = @Schema(implementation = BatchGradingResultDto.class),
+            mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+        @ApiResponse(responseCode = "400", description = "Invalid submission data", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE))
+    })
+    @Operation(
+        summary = "Execute and grade batch of submissions",
+        description = "Grades all submissions in parallel and streams the results as newline-delimited JSON in order of completion; use the <code>index</code> of a result to correlate it with the submission. The <code>grading</code> of a result is <code>null</code> if the evaluation failed; the <code>submissionId</code> of a persisted submission is set nevertheless. Requires the SUBMIT role.",
+        security = @SecurityRequirement(name = AuthConstants.API_KEY_REQUIREMENT))
+    ResponseEntity<ResponseBodyEmitter> executeBatch(@RequestBody List<SubmitSubmissionDto<T>> submissions,
+                                                     @Parameter(description = "Whether to persist the submissions.") @RequestParam(required = false, defaultValue = "true") boolean persist);
+
     /**
      * Returns the evaluation result for a submission.
      *
      * @param id      The submission identifier.
      * @param timeout The maximum time to wait for the result in seconds (default: {@code 10}, maximum: {@code 60}).
      * @param delete  Whether the submission should be deleted.
-     * @return The result of the submission or an error response.
+     * @param partial Whether the criteria evaluated so far should be returned if the result is not available within the timeout.
+     * @return The result of the submission or an error response; completed as soon as the result is available.
      * @implSpec Only clients with role {@link at.jku.dke.etutor.task_app.auth.AuthConstants#SUBMIT} should be allowed to access this endpoint.
      */
-    @GetMapping(value = "/{id}/result", produces = {MediaType.APPLICATION_JSON_VALUE})
+    @GetMapping(value = "/{id}/result", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatsConfigurer.APPLICATION_SMILE_VALUE})
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Grading result"),
+        @ApiResponse(responseCode = "202", description = "Partial grading result containing the criteria evaluated so far, try again later"),
         @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
         @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
         @ApiResponse(responseCode = "404", description = "Submission does not exist", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
@@ -76,36 +131,150 @@ ResponseEntity<Serializable> submit(@RequestBody SubmitSubmissionDto<T> submissi
     })
     @Operation(
         summary = "Get evaluation result",
-        description = "Returns the evaluation result for the requested submission. Waits for the specified timeout for the result to be available. Requires the SUBMIT role.",
+        description = "Returns the evaluation result for the requested submission. Waits for the specified timeout for the result to be available; the response is sent as soon as the result is stored. If <code>partial</code> is set and the submission is still evaluated, the criteria evaluated so far are returned with status 202 instead of status 408. Requires the SUBMIT role.",
+        security = @SecurityRequirement(name = AuthConstants.API_KEY_REQUIREMENT))
+    DeferredResult<ResponseEntity<GradingDto>> getResult(@Parameter(description = "The submission identifier.") @PathVariable UUID id,
+                                                         @Parameter(description = "The maximum amount of seconds to wait for the result.") @RequestHeader(value = "X-API-TIMEOUT", required = false, defaultValue = "10") int timeout,
+                                                         @Parameter(description = "Whether to delete the submission after retrieval.") @RequestParam(required = false, defaultValue = "false") boolean delete,
+                                                         @Parameter(description = "Whether to return the criteria evaluated so far if the result is not yet available.") @RequestParam(required = false, defaultValue = "false") boolean partial);
+
+    /**
+     * Streams the evaluation status and the evaluation result of a submission as server-sent events.
+     *
+     * @param id      The submission identifier.
+     * @param timeout The maximum time to stream in seconds (default: {@code 60}, maximum: {@code 300}).
+     * @return The stream of {@link SubmissionEventDto}s or an error response; completed as soon as the result has been sent.
+     * @implSpec Only clients with role {@link at.jku.dke.etutor.task_app.auth.AuthConstants#SUBMIT} should be allowed to access this endpoint.
+     */
+    @GetMapping(value = "/{id}/events", produces = {MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status changes and grading result", content = @Content(schema = @Schema(implementation = SubmissionEventDto.class),
+            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+        @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "404", description = "Submission does not exist", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE))
+    })
+    @Operation(
+        summary = "Stream evaluation status",
+        description = "Streams the evaluation status (<code>QUEUED</code>, <code>RUNNING</code>) of the requested submission as server-sent events, followed by a <code>DONE</code> event containing the evaluation result. <code>RUNNING</code> events are repeated with the criteria evaluated so far if the evaluation reports them progressively. The stream is closed after the result has been sent or the timeout elapsed; close the event source after the <code>DONE</code> event, otherwise it reconnects. Requires the SUBMIT role.",
+        security = @SecurityRequirement(name = AuthConstants.API_KEY_REQUIREMENT))
+    SseEmitter streamEvents(@Parameter(description = "The submission identifier.") @PathVariable UUID id,
+                            @Parameter(description = "The maximum amount of seconds to stream.") @RequestParam(required = false, defaultValue = "60") int timeout);
+
+    /**
+     * Streams the evaluation statuses and the evaluation results of multiple submissions as server-sent events over a single connection.
+     *
+     * @param ids     The submission identifiers (at most {@value at.jku.dke.etutor.task_app.services.SubmissionService#MAX_BATCH_SIZE}).
+     * @param timeout The maximum time to stream in seconds (default: {@code 60}, maximum: {@code 300}).
+     * @return The stream of {@link SubmissionEventDto}s or an error response; completed as soon as all results have been sent.
+     * @implSpec Only clients with role {@link at.jku.dke.etutor.task_app.auth.AuthConstants#SUBMIT} should be allowed to access this endpoint.
+     */
+    @GetMapping(value = "/events", produces = {MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status changes and grading results", content = @Content(schema = @Schema(implementation = SubmissionEventDto.class),
+            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+        @ApiResponse(responseCode = "400", description = "Invalid submission identifiers", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "404", description = "Submission does not exist", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE))
+    })
+    @Operation(
+        summary = "Stream evaluation statuses of multiple submissions",
+        description = "Streams the evaluation statuses and results of all requested submissions as server-sent events; use the <code>submissionId</code> of an event to correlate it with the submission. The stream is closed after all results have been sent or the timeout elapsed. Requires the SUBMIT role.",
+        security = @SecurityRequirement(name = AuthConstants.API_KEY_REQUIREMENT))
+    SseEmitter streamAllEvents(@Parameter(description = "The submission identifiers.") @RequestParam("id") List<UUID> ids,
+                               @Parameter(description = "The maximum amount of seconds to stream.") @RequestParam(required = false, defaultValue = "60") int timeout);
+
+    /**
+     * Cancels the queued or running evaluation of a submission.
+     *
+     * @param id The submission identifier.
+     * @return No content if the evaluation was cancelled or an error response.
+     * @implSpec Only clients with role {@link at.jku.dke.etutor.task_app.auth.AuthConstants#SUBMIT} should be allowed to access this endpoint.
+     */
+    @PostMapping(value = "/{id}/cancel")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Evaluation cancelled"),
+        @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "404", description = "Submission does not exist", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "409", description = "Submission has already been evaluated or is not queued or evaluated by this instance")
+    })
+    @Operation(
+        summary = "Cancel evaluation",
+        description = "Cancels the queued or running evaluation of the requested submission. A cancellation result is stored as evaluation result, so that clients waiting for the result stop waiting. Requires the SUBMIT role.",
         security = @SecurityRequirement(name = AuthConstants.API_KEY_REQUIREMENT))
-    ResponseEntity<GradingDto> getResult(@Parameter(description = "The submission identifier.") @PathVariable UUID id,
-                                         @Parameter(description = "The maximum amount of seconds to wait for the result.") @RequestHeader(value = "X-API-TIMEOUT", required = false, defaultValue = "10") int timeout,
-                                         @Parameter(description = "Whether to delete the submission after retrieval.") @RequestParam(required = false, defaultValue = "false") boolean delete);
+    ResponseEntity<Void> cancel(@Parameter(description = "The submission identifier.") @PathVariable UUID id);
 
     /**
      * Returns a paged (filtered) list of submissions.
      *
      * @param page             The page of submissions to load.
-     * @param userFilter       Optional user filter string (applies equals to {@link SubmissionDto#userId()}).
-     * @param taskFilter       Optional task filter (applies equals to {@link SubmissionDto#taskId()}).
-     * @param assignmentFilter Optional assignment filter string (applies equals to {@link SubmissionDto#assignmentId()}).
-     * @param modeFilter       Optional mode filter (applies equals to {@link SubmissionDto#mode()}).
+     * @param userFilter       Optional user filter (applies equals to one of the values to {@link SubmissionDto#userId()}).
+     * @param taskFilter       Optional task filter (applies equals to one of the values to {@link SubmissionDto#taskId()}).
+     * @param assignmentFilter Optional assignment filter (applies equals to one of the values to {@link SubmissionDto#assignmentId()}).
+     * @param modeFilter       Optional mode filter (applies equals to one of the values to {@link SubmissionDto#mode()}).
+     * @param submittedFrom    Optional minimum submission time (inclusive).
+     * @param submittedTo      Optional maximum submission time (exclusive).
+     * @param fields           Optional list of the fields to return; the columns of other fields are not read.
      * @return Page of submissions or an error response.
      * @implSpec Only clients with role {@link at.jku.dke.etutor.task_app.auth.AuthConstants#READ_SUBMISSION} should be allowed to access this endpoint.
      */
-    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE})
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatsConfigurer.APPLICATION_SMILE_VALUE})
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Paged list of Submission"),
+        @ApiResponse(responseCode = "400", description = "Unknown field or sort property requested", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
         @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
         @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE))
     })
     @Operation(
         summary = "Get submissions",
-        description = "Returns a paged and filtered list of submissions. Requires the READ_SUBMISSION role.",
+        description = "Returns a paged and filtered list of submissions. The returned fields can be restricted with <code>fields</code>, e.g. <code>fields=id,userId,submissionTime</code>; the large <code>evaluationResult</code> and <code>submission</code> fields are only read if requested. Sorting is supported by id, submissionTime, userId and assignmentId. For walking through many submissions, use the slice endpoint. Requires the READ_SUBMISSION role.",
         security = @SecurityRequirement(name = AuthConstants.API_KEY_REQUIREMENT))
     ResponseEntity<Page<SubmissionDto<T>>> getSubmissions(@ParameterObject Pageable page,
-                                                          @Parameter(description = "User filter string (applies equals to userId.") @RequestParam(required = false) String userFilter,
-                                                          @Parameter(description = "Task filter string (applies equals to taskId.") @RequestParam(required = false) Long taskFilter,
-                                                          @Parameter(description = "Assignment filter string (applies equals to assignmentId.") @RequestParam(required = false) String assignmentFilter,
-                                                          @Parameter(description = "Submission mode filter string (applies equals to mode.") @RequestParam(required = false) SubmissionMode modeFilter);
+                                                          @Parameter(description = "User filter (applies equals to one of the values to userId).") @RequestParam(required = false) List<String> userFilter,
+                                                          @Parameter(description = "Task filter (applies equals to one of the values to taskId).") @RequestParam(required = false) List<Long> taskFilter,
+                                                          @Parameter(description = "Assignment filter (applies equals to one of the values to assignmentId).") @RequestParam(required = false) List<String> assignmentFilter,
+                                                          @Parameter(description = "Submission mode filter (applies equals to one of the values to mode).") @RequestParam(required = false) List<SubmissionMode> modeFilter,
+                                                          @Parameter(description = "Minimum submission time (inclusive).") @RequestParam(required = false) Instant submittedFrom,
+                                                          @Parameter(description = "Maximum submission time (exclusive).") @RequestParam(required = false) Instant submittedTo,
+                                                          @Parameter(description = "The fields to return (comma separated); the identifier is always returned. Fields that are not requested are null (or 0 for numeric fields).") @RequestParam(required = false) List<String> fields);
+
+    /**
+     * Returns a slice of (filtered) submissions ordered by submission time and identifier.
+     *
+     * @param cursor           The cursor returned with the previous slice; omit for the first slice.
+     * @param size             The maximum number of submissions of the slice.
+     * @param direction        The direction of the order.
+     * @param userFilter       Optional user filter (applies equals to one of the values to {@link SubmissionDto#userId()}).
+     * @param taskFilter       Optional task filter (applies equals to one of the values to {@link SubmissionDto#taskId()}).
+     * @param assignmentFilter Optional assignment filter (applies equals to one of the values to {@link SubmissionDto#assignmentId()}).
+     * @param modeFilter       Optional mode filter (applies equals to one of the values to {@link SubmissionDto#mode()}).
+     * @param submittedFrom    Optional minimum submission time (inclusive).
+     * @param submittedTo      Optional maximum submission time (exclusive).
+     * @param fields           Optional list of the fields to return; the columns of other fields are not read.
+     * @return Slice of submissions or an error response.
+     * @implSpec Only clients with role {@link at.jku.dke.etutor.task_app.auth.AuthConstants#READ_SUBMISSION} should be allowed to access this endpoint.
+     */
+    @GetMapping(value = "/slice", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatsConfigurer.APPLICATION_SMILE_VALUE})
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Slice of submissions"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or size or unknown field requested", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE)),
+        @ApiResponse(responseCode = "403", description = "Operation not allowed", content = @Content(schema = @Schema(implementation = ProblemDetail.class), mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE))
+    })
+    @Operation(
+        summary = "Get slice of submissions",
+        description = "Returns a slice of the filtered submissions ordered by submission time and identifier. Pass the returned <code>nextCursor</code> to load the next slice; loading a slice costs the same regardless of its position, as no offset and no count are used. Requires the READ_SUBMISSION role.",
+        security = @SecurityRequirement(name = AuthConstants.API_KEY_REQUIREMENT))
+    ResponseEntity<SubmissionSliceDto<T>> getSubmissionSlice(@Parameter(description = "The cursor returned with the previous slice; omit for the first slice.") @RequestParam(required = false) String cursor,
+                                                             @Parameter(description = "The maximum number of submissions of the slice.") @RequestParam(required = false, defaultValue = "20") int size,
+                                                             @Parameter(description = "The direction of the order.") @RequestParam(required = false, defaultValue = "DESC") Sort.Direction direction,
+                                                             @Parameter(description = "User filter (applies equals to one of the values to userId).") @RequestParam(required = false) List<String> userFilter,
+                                                             @Parameter(description = "Task filter (applies equals to one of the values to taskId).") @RequestParam(required = false) List<Long> taskFilter,
+                                                             @Parameter(description = "Assignment filter (applies equals to one of the values to assignmentId).") @RequestParam(required = false) List<String> assignmentFilter,
+                                                             @Parameter(description = "Submission mode filter (applies equals to one of the values to mode).") @RequestParam(required = false) List<SubmissionMode> modeFilter,
+                                                             @Parameter(description = "Minimum submission time (inclusive).") @RequestParam(required = false) Instant submittedFrom,
+                                                             @Parameter(description = "Maximum submission time (exclusive).") @RequestParam(required = false) Instant submittedTo,
+                                                             @Parameter(description = "The fields to return (comma separated); the identifier is always returned. Fields that are not requested are null (or 0 for numeric fields).") @RequestParam(required = false) List<String> fields);
 }
@@ -0,0 +1,253 @@
+package at.jku.dke.etutor.task_app.controllers;
+
+import at.jku.dke.etutor.task_app.grading.TaskInvalidation;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidationNotifier;
+import at.jku.dke.etutor.task_app.grading.TinyLfuCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Answers repeated reads of tasks and task groups without loading and serializing them again.
+ * <p>
+ * Each task and task group has a version, which is incremented whenever the resource is modified or deleted. Responses carry an
+ * ETag built from the version; requests whose {@code If-None-Match} header contains the current ETag are answered with status 304
+ * without loading the resource. If enabled, the serialized response bodies of the current versions are cached as well (W-TinyLFU
+ * eviction, see {@link TinyLfuCache}).
+ * <p>
+ * The versions are kept in memory of each node. The modifying node increments the version within the modifying transaction; all
+ * nodes increment it when the modification is announced by the {@link TaskInvalidationNotifier} after commit, so a node never
+ * answers with a stale version once the announcement has been delivered. The ETags contain a random value chosen on startup, so that
+ * ETags of other nodes or previous runs never match. The cache is only available if {@code api.response-cache.enabled} is
+ * {@code true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "api.response-cache", name = "enabled", havingValue = "true")
+@ManagedResource(objectName = "at.jku.dke.etutor:type=TaskResponseCache", description = "Answers repeated reads of tasks and task groups")
+public class TaskResponseCache {
+
+    /**
+     * The type of cached resources.
+     */
+    public enum ResourceType {
+        /**
+         * A task.
+         */
+        TASK,
+        /**
+         * A task group.
+         */
+        TASK_GROUP
+    }
+
+    private final ObjectMapper objectMapper;
+    private final String epoch;
+    private final Map<ResourceId, Long> versions;
+    private final TinyLfuCache<ResourceVersion, byte[]> bodies;
+    private final LongAdder notModified;
+
+    /**
+     * Creates a new instance of class {@link TaskResponseCache}.
+     *
+     * @param config       The cache configuration.
+     * @param objectMapper The object mapper serializing the response bodies.
+     */
+    public TaskResponseCache(TaskResponseCacheConfiguration config, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        this.versions = new ConcurrentHashMap<>();
+        this.bodies = config.isCacheBodies() ? new TinyLfuCache<>(config.getMaximumSize(), null) : null;
+        this.notModified = new LongAdder();
+    }
+
+    /**
+     * Subscribes to the modifications of tasks and task groups announced by all nodes.
+     *
+     * @param invalidationNotifier The invalidation notifier.
+     */
+    @Autowired(required = false)
+    public void setInvalidationNotifier(TaskInvalidationNotifier invalidationNotifier) {
+        invalidationNotifier.subscribe(invalidation -> this.invalidate(
+            invalidation.type() == TaskInvalidation.Type.TASK ? ResourceType.TASK : ResourceType.TASK_GROUP, invalidation.id()));
+    }
+
+    /**
+     * Returns the response for the resource: status 304 if the request contains the current ETag, otherwise the cached body or the
+     * body loaded by the loader.
+     *
+     * @param type   The resource type.
+     * @param id     The resource identifier.
+     * @param loader Loads the resource and maps it to the DTO; throws an exception if the resource does not exist.
+     * @param <D>    The type of the DTO.
+     * @return The response carrying the current ETag.
+     */
+    @SuppressWarnings("unchecked")
+    public <D> ResponseEntity<D> get(ResourceType type, long id, Supplier<D> loader) {
+        var resourceId = new ResourceId(type, id);
+        long version = this.getVersion(resourceId);
+        // weak, as the same version is served in several formats
+        String etag = "W/\"" + type.name().toLowerCase() + '-' + id + '-' + this.epoch + '-' + version + '"';
+
+        var request = getRequest();
+        if (request != null && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            this.notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        if (this.bodies == null || (request != null && !prefersJson(request.getHeader(HttpHeaders.ACCEPT))))
+            return ResponseEntity.ok().eTag(etag).body(loader.get());
+
+        var key = new ResourceVersion(resourceId, version);
+        byte[] body = this.bodies.get(key);
+        if (body == null) {
+            body = this.serialize(loader.get());
+            // the resource might have been modified while it was loaded
+            if (this.getVersion(resourceId) == version)
+                this.bodies.put(key, body);
+        }
+
+        // the serialized body is written as is by the byte array message converter
+        return (ResponseEntity<D>) ResponseEntity.ok()
+            .eTag(etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
+    /**
+     * Increments the version of the resource, so that cached responses and ETags of the previous version are not used anymore.
+     *
+     * @param type The resource type.
+     * @param id   The resource identifier.
+     */
+    public void invalidate(ResourceType type, long id) {
+        var resourceId = new ResourceId(type, id);
+        this.versions.merge(resourceId, 1L, Long::sum);
+        if (this.bodies != null)
+            this.bodies.invalidateAll(key -> key.resource().equals(resourceId));
+    }
+
+    private long getVersion(ResourceId resourceId) {
+        return this.versions.getOrDefault(resourceId, 0L);
+    }
+
+    private byte[] serialize(Object dto) {
+        try {
+            return this.objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize response", ex);
+        }
+    }
+
+    private static HttpServletRequest getRequest() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes))
+            return null;
+        return attributes.getRequest();
+    }
+
+    /**
+     * Returns whether JSON is (one of) the most preferred media types of the {@code Accept} header; only JSON bodies are cached.
+     *
+     * @param accept The header value.
+     * @return {@code true} if the client prefers JSON.
+     */
+    static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank())
+            return true;
+
+        try {
+            var mediaTypes = MediaType.parseMediaTypes(accept);
+            double quality = mediaTypes.stream().mapToDouble(MediaType::getQualityValue).max().orElse(1);
+            return mediaTypes.stream()
+                .filter(t -> t.getQualityValue() == quality)
+                .anyMatch(t -> t.includes(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether the {@code If-None-Match} header contains the ETag (weak comparison).
+     *
+     * @param ifNoneMatch The header value.
+     * @param etag        The current ETag.
+     * @return {@code true} if the header contains the ETag.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null)
+            return false;
+        String tag = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (stripWeak(candidate.trim()).equals(tag))
+                return true;
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Gets the number of requests answered with status 304.
+     *
+     * @return The number of requests.
+     */
+    @ManagedAttribute(description = "Number of requests answered with status 304")
+    public long getNotModifiedCount() {
+        return this.notModified.sum();
+    }
+
+    /**
+     * Gets the number of responses answered with a cached body.
+     *
+     * @return The number of hits.
+     */
+    @ManagedAttribute(description = "Number of responses answered with a cached body")
+    public long getHitCount() {
+        return this.bodies == null ? 0 : this.bodies.getHitCount();
+    }
+
+    /**
+     * Gets the number of responses whose body had to be loaded.
+     *
+     * @return The number of misses.
+     */
+    @ManagedAttribute(description = "Number of responses whose body had to be loaded")
+    public long getMissCount() {
+        return this.bodies == null ? 0 : this.bodies.getMissCount();
+    }
+
+    /**
+     * Gets the number of cached response bodies.
+     *
+     * @return The number of bodies.
+     */
+    @ManagedAttribute(description = "Number of cached response bodies")
+    public int getSize() {
+        return this.bodies == null ? 0 : this.bodies.size();
+    }
+
+    private record ResourceId(ResourceType type, long id) {
+    }
+
+    private record ResourceVersion(ResourceId resource, long version) {
+    }
+}
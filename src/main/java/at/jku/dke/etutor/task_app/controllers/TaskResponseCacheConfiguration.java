@@ -0,0 +1,84 @@
+package at.jku.dke.etutor.task_app.controllers;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Loads the settings of the conditional requests and the response cache of the task and task group endpoints from the
+ * application-properties.
+ */
+@Validated
+@ConfigurationProperties("api.response-cache")
+public class TaskResponseCacheConfiguration {
+
+    private boolean enabled;
+
+    private boolean cacheBodies;
+
+    @Min(1)
+    private int maximumSize;
+
+    /**
+     * Creates a new instance of class {@link TaskResponseCacheConfiguration}.
+     */
+    public TaskResponseCacheConfiguration() {
+        this.enabled = false;
+        this.cacheBodies = true;
+        this.maximumSize = 1000;
+    }
+
+    /**
+     * Gets whether ETags and conditional requests are enabled.
+     *
+     * @return {@code true} if the responses carry an ETag and unchanged resources are answered with status 304.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether ETags and conditional requests are enabled.
+     *
+     * @param enabled {@code true} if the responses should carry an ETag and unchanged resources should be answered with status 304.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets whether the serialized response bodies are cached.
+     *
+     * @return {@code true} if the serialized bodies are cached.
+     */
+    public boolean isCacheBodies() {
+        return cacheBodies;
+    }
+
+    /**
+     * Sets whether the serialized response bodies are cached.
+     *
+     * @param cacheBodies {@code true} if the serialized bodies should be cached.
+     */
+    public void setCacheBodies(boolean cacheBodies) {
+        this.cacheBodies = cacheBodies;
+    }
+
+    /**
+     * Gets the maximum number of cached response bodies.
+     *
+     * @return The maximum size.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of cached response bodies.
+     *
+     * @param maximumSize The maximum size.
+     */
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+}
@@ -3,5 +3,26 @@
  * <p>
  * This package also contains base implementations of these interfaces that can be used by task apps.
  * The documentation of the REST-API can be found <a href="../../../../../../api.html">here</a>.
+ * <p>
+ * The task administration UI reads the same tasks and task groups repeatedly. If the {@link at.jku.dke.etutor.task_app.controllers.TaskResponseCache}
+ * is enabled, the responses carry an ETag, requests with an {@code If-None-Match} header containing the current ETag are answered
+ * with status 304, and the serialized responses are cached until the task or task group is modified:
+ * <pre>
+ * api:
+ *   response-cache:
+ *     enabled: true
+ *     cache-bodies: true
+ *     maximum-size: 1000
+ * </pre>
+ * <p>
+ * Grading results, submissions, tasks and task groups are returned as CBOR or Smile if the client requests it in the {@code Accept}
+ * header and the corresponding Jackson data format is on the classpath (see {@link at.jku.dke.etutor.task_app.controllers.BinaryFormatsConfigurer}).
+ * Responses can be compressed with gzip for clients sending {@code Accept-Encoding: gzip}:
+ * <pre>
+ * api:
+ *   compression:
+ *     enabled: true
+ *     min-response-size: 2KB
+ * </pre>
  */
 package at.jku.dke.etutor.task_app.controllers;
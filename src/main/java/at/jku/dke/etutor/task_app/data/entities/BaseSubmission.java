@@ -27,6 +27,8 @@
  * &#64;Entity
  * &#64;Table(name = "submission")
  * </pre>
+ * The submission listings sort by {@code (submission_time, id)} and filter by user, task and assignment; the table should have
+ * indexes on these columns.
  *
  * @param <T> The type of the task.
  */
@@ -0,0 +1,14 @@
+package at.jku.dke.etutor.task_app.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Represents the grading result of a submission of a batch.
+ *
+ * @param index        The index of the submission in the batch.
+ * @param submissionId The submission identifier; {@code null} if the submission is not persisted, also if its evaluation failed.
+ * @param grading      The grading result; {@code null} if the evaluation failed.
+ */
+public record BatchGradingResultDto(int index, UUID submissionId, GradingDto grading) implements Serializable {
+}
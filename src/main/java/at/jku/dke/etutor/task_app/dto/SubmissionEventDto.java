@@ -0,0 +1,15 @@
+package at.jku.dke.etutor.task_app.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Represents a change of the evaluation status of a submission.
+ *
+ * @param submissionId The submission identifier.
+ * @param status       The new status.
+ * @param grading      The grading result if the status is {@link SubmissionStatus#DONE}; the criteria evaluated so far if the
+ *                     status is {@link SubmissionStatus#RUNNING} (might be {@code null}).
+ */
+public record SubmissionEventDto(UUID submissionId, SubmissionStatus status, GradingDto grading) implements Serializable {
+}
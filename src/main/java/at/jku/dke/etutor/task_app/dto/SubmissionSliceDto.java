@@ -0,0 +1,22 @@
+package at.jku.dke.etutor.task_app.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Data transfer object for a slice of submissions ordered by submission time and identifier.
+ *
+ * @param content    The submissions of the slice.
+ * @param hasNext    Whether further submissions exist.
+ * @param nextCursor The cursor of the next slice or {@code null} if there is no further submission.
+ * @param <T>        The type of the submission.
+ */
+@Schema(description = "Slice of submissions")
+public record SubmissionSliceDto<T>(
+    @Schema(description = "The submissions of the slice.") @NotNull List<SubmissionDto<T>> content,
+    @Schema(description = "Whether further submissions exist.") boolean hasNext,
+    @Schema(description = "The cursor to pass for loading the next slice; null if there is no further submission.") String nextCursor) implements Serializable {
+}
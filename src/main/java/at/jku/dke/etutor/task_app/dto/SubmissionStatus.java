@@ -0,0 +1,26 @@
+package at.jku.dke.etutor.task_app.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Provides the evaluation statuses of a submission.
+ */
+public enum SubmissionStatus {
+    /**
+     * Submission is waiting for its evaluation.
+     */
+    @Schema(description = "Submission is waiting for its evaluation.")
+    QUEUED,
+
+    /**
+     * Submission is being evaluated.
+     */
+    @Schema(description = "Submission is being evaluated.")
+    RUNNING,
+
+    /**
+     * Evaluation result is available.
+     */
+    @Schema(description = "Evaluation result is available.")
+    DONE
+}
@@ -0,0 +1,125 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import jakarta.validation.constraints.Min;
+
+/**
+ * The settings of a bulkhead, i.e. an isolated worker pool for the evaluations of one task type.
+ * <p>
+ * Settings that are not set are taken from {@link GradingConfiguration}.
+ */
+public class BulkheadConfiguration {
+
+    @Min(1)
+    private Integer corePoolSize;
+
+    @Min(1)
+    private Integer maxPoolSize;
+
+    @Min(1)
+    private Integer queueCapacity;
+
+    @Min(1)
+    private Integer maxConcurrentEvaluations;
+
+    private boolean workStealing;
+
+    /**
+     * Creates a new instance of class {@link BulkheadConfiguration}.
+     */
+    public BulkheadConfiguration() {
+        this.workStealing = false;
+    }
+
+    /**
+     * Gets the number of workers to keep in the pool, even if they are idle.
+     *
+     * @return The core pool size or {@code null} if the global setting (limited by the max pool size) applies.
+     */
+    public Integer getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    /**
+     * Sets the number of workers to keep in the pool, even if they are idle.
+     *
+     * @param corePoolSize The core pool size or {@code null} if the global setting (limited by the max pool size) should apply.
+     */
+    public void setCorePoolSize(Integer corePoolSize) {
+        this.corePoolSize = corePoolSize;
+    }
+
+    /**
+     * Gets the maximum number of workers.
+     *
+     * @return The maximum pool size or {@code null} if the global setting applies.
+     */
+    public Integer getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * Sets the maximum number of workers.
+     *
+     * @param maxPoolSize The maximum pool size or {@code null} if the global setting should apply.
+     */
+    public void setMaxPoolSize(Integer maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * Gets the maximum number of submissions per lane waiting for evaluation.
+     *
+     * @return The queue capacity or {@code null} if the global setting applies.
+     */
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of submissions per lane waiting for evaluation.
+     *
+     * @param queueCapacity The queue capacity or {@code null} if the global setting should apply.
+     */
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Gets the maximum number of evaluations (background and synchronous) running at the same time.
+     *
+     * @return The maximum number of concurrent evaluations or {@code null} if the global setting applies.
+     */
+    public Integer getMaxConcurrentEvaluations() {
+        return maxConcurrentEvaluations;
+    }
+
+    /**
+     * Sets the maximum number of evaluations (background and synchronous) running at the same time.
+     *
+     * @param maxConcurrentEvaluations The maximum number of concurrent evaluations or {@code null} if the global setting should apply.
+     */
+    public void setMaxConcurrentEvaluations(Integer maxConcurrentEvaluations) {
+        this.maxConcurrentEvaluations = maxConcurrentEvaluations;
+    }
+
+    /**
+     * Gets whether the bulkhead may borrow idle workers of other pools.
+     *
+     * @return {@code true} if work stealing is enabled.
+     */
+    public boolean isWorkStealing() {
+        return workStealing;
+    }
+
+    /**
+     * Sets whether the bulkhead may borrow idle workers of other pools.
+     * <p>
+     * If enabled and all workers of the bulkhead are busy, new evaluations are executed by an idle worker of the shared pool
+     * or of another bulkhead. A pool only lends workers if none of its own submissions is waiting.
+     *
+     * @param workStealing {@code true} to enable work stealing.
+     */
+    public void setWorkStealing(boolean workStealing) {
+        this.workStealing = workStealing;
+    }
+}
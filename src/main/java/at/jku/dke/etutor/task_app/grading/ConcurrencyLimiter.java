@@ -0,0 +1,216 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of evaluations running at the same time.
+ * <p>
+ * If the limit is adaptive, it is adjusted to the observed evaluation latency (gradient algorithm): the latency of recent
+ * evaluations is compared to the long-term average. While recent evaluations are as fast as usual, the limit grows by the square
+ * root of the limit, so that idle resources are used. If recent evaluations get slower than {@code rttTolerance} times the
+ * average, e.g. because the exercise database is overloaded, the limit shrinks in proportion. The limit stays between the
+ * configured minimum and maximum, and is not increased while less than half of the permits are used.
+ * <p>
+ * Otherwise, the limit is fixed to the maximum.
+ */
+public final class ConcurrencyLimiter {
+    private static final int SHORT_WINDOW = 10;
+
+    private final ReentrantLock lock;
+    private final Condition available;
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final int longWindow;
+    private double limit;
+    private int inFlight;
+    private long samples;
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * Creates a new instance of class {@link ConcurrencyLimiter} with a fixed limit.
+     *
+     * @param limit The maximum number of concurrent evaluations.
+     */
+    public ConcurrencyLimiter(int limit) {
+        this(limit, new GradingConfiguration.ConcurrencyLimitConfiguration());
+    }
+
+    /**
+     * Creates a new instance of class {@link ConcurrencyLimiter}.
+     *
+     * @param maxLimit The maximum number of concurrent evaluations.
+     * @param config   The settings of the adaptive limit.
+     */
+    public ConcurrencyLimiter(int maxLimit, GradingConfiguration.ConcurrencyLimitConfiguration config) {
+        this.lock = new ReentrantLock();
+        this.available = this.lock.newCondition();
+        this.adaptive = config.isAdaptive();
+        this.maxLimit = maxLimit;
+        this.minLimit = Math.min(config.getMinLimit(), maxLimit);
+        this.smoothing = config.getSmoothing();
+        this.rttTolerance = config.getRttTolerance();
+        this.longWindow = config.getLongWindow();
+        this.limit = this.adaptive ? Math.clamp(config.getInitialLimit(), this.minLimit, maxLimit) : maxLimit;
+    }
+
+    /**
+     * Waits until the number of running evaluations is below the limit and acquires a permit.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            while (this.inFlight >= this.getPermits())
+                this.available.await();
+            this.inFlight++;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Acquires a permit if the number of running evaluations falls below the limit within the timeout.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of the timeout.
+     * @return {@code true} if a permit was acquired; {@code false} if the timeout elapsed.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.inFlight >= this.getPermits()) {
+                if (remaining <= 0)
+                    return false;
+                remaining = this.available.awaitNanos(remaining);
+            }
+            this.inFlight++;
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a permit and adjusts the limit to the latency of the evaluation.
+     *
+     * @param latencyNanos The duration of the evaluation in nanoseconds.
+     */
+    public void release(long latencyNanos) {
+        this.lock.lock();
+        try {
+            int inFlightBefore = this.inFlight;
+            this.inFlight--;
+            if (this.adaptive && latencyNanos > 0)
+                this.update(latencyNanos, inFlightBefore);
+
+            int free = this.getPermits() - this.inFlight;
+            for (int i = 0; i < free; i++)
+                this.available.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void update(long latencyNanos, int inFlight) {
+        this.samples++;
+        if (this.samples == 1) {
+            this.shortRtt = latencyNanos;
+            this.longRtt = latencyNanos;
+            return;
+        }
+
+        // exponential moving averages; simple average while warming up
+        this.shortRtt += (latencyNanos - this.shortRtt) / Math.min(this.samples, SHORT_WINDOW);
+        this.longRtt += (latencyNanos - this.longRtt) / Math.min(this.samples, this.longWindow);
+
+        // let the average follow a permanently lower latency, otherwise the limit would grow without bounds
+        if (this.longRtt / this.shortRtt > 2)
+            this.longRtt *= 0.95;
+
+        // the latency says nothing about a higher limit if the current limit is not used
+        if (inFlight < this.limit / 2)
+            return;
+
+        double gradient = Math.clamp(this.rttTolerance * this.longRtt / this.shortRtt, 0.5, 1.0);
+        double newLimit = this.limit * gradient + Math.sqrt(this.limit);
+        this.limit = Math.clamp(this.limit * (1 - this.smoothing) + newLimit * this.smoothing, this.minLimit, this.maxLimit);
+    }
+
+    private int getPermits() {
+        return (int) this.limit;
+    }
+
+    /**
+     * Gets the current limit.
+     *
+     * @return The maximum number of evaluations currently allowed to run at the same time.
+     */
+    public int getLimit() {
+        this.lock.lock();
+        try {
+            return this.getPermits();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of acquired permits.
+     *
+     * @return The number of running evaluations.
+     */
+    public int getInFlight() {
+        this.lock.lock();
+        try {
+            return this.inFlight;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the long-term average latency of the evaluations.
+     *
+     * @return The average latency in milliseconds or {@code 0} if the limit is fixed or no evaluation has completed.
+     */
+    public double getLatencyEstimate() {
+        this.lock.lock();
+        try {
+            return this.longRtt / 1_000_000;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the average latency of the recent evaluations.
+     *
+     * @return The recent latency in milliseconds or {@code 0} if the limit is fixed or no evaluation has completed.
+     */
+    public double getRecentLatency() {
+        this.lock.lock();
+        try {
+            return this.shortRtt / 1_000_000;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether the limit is adjusted to the evaluation latency.
+     *
+     * @return {@code true} if the limit is adaptive.
+     */
+    public boolean isAdaptive() {
+        return this.adaptive;
+    }
+}
@@ -0,0 +1,22 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.CriterionDto;
+
+/**
+ * Receives the criteria of an evaluation as soon as they are evaluated.
+ */
+@FunctionalInterface
+public interface CriterionSink {
+    /**
+     * A sink discarding all criteria.
+     */
+    CriterionSink NONE = criterion -> {
+    };
+
+    /**
+     * Reports an evaluated criterion.
+     *
+     * @param criterion The criterion.
+     */
+    void accept(CriterionDto criterion);
+}
@@ -0,0 +1,18 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Exception thrown if an evaluation was cancelled or exceeded its deadline.
+ */
+public class EvaluationCancelledException extends CancellationException {
+
+    /**
+     * Creates a new instance of class {@link EvaluationCancelledException}.
+     *
+     * @param message The detail message.
+     */
+    public EvaluationCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,30 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown if the evaluation of a stored submission failed.
+ */
+public class EvaluationFailedException extends RuntimeException {
+    private final UUID submissionId;
+
+    /**
+     * Creates a new instance of class {@link EvaluationFailedException}.
+     *
+     * @param submissionId The identifier of the stored submission.
+     * @param cause        The cause of the failure.
+     */
+    public EvaluationFailedException(UUID submissionId, Throwable cause) {
+        super("The evaluation of submission " + submissionId + " failed", cause);
+        this.submissionId = submissionId;
+    }
+
+    /**
+     * Gets the identifier of the stored submission.
+     *
+     * @return The submission identifier.
+     */
+    public UUID getSubmissionId() {
+        return submissionId;
+    }
+}
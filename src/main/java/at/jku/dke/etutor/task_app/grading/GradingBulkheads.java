@@ -0,0 +1,132 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Provides the isolated worker pools (bulkheads) for the evaluations of different task types.
+ * <p>
+ * Task apps hosting several task types can configure a bulkhead per submission service in {@link GradingConfiguration#getBulkheads()},
+ * so that a slow task type cannot occupy all grading workers. Services without a configured bulkhead use the shared
+ * {@link GradingExecutor}.
+ */
+@Component
+@ManagedResource(objectName = "at.jku.dke.etutor:type=GradingBulkheads", description = "Isolated worker pools for the evaluations of different task types")
+public class GradingBulkheads implements DisposableBean {
+    private static final Logger LOG = LoggerFactory.getLogger(GradingBulkheads.class);
+
+    private final GradingExecutor sharedExecutor;
+    private final Map<String, GradingExecutor> executors;
+
+    /**
+     * Creates a new instance of class {@link GradingBulkheads}.
+     *
+     * @param config         The grading configuration.
+     * @param sharedExecutor The executor used by services without bulkhead.
+     */
+    public GradingBulkheads(GradingConfiguration config, GradingExecutor sharedExecutor) {
+        this.sharedExecutor = sharedExecutor;
+
+        var map = new TreeMap<String, GradingExecutor>();
+        config.getBulkheads().forEach((name, bulkhead) -> {
+            LOG.info("Creating grading bulkhead {}", name);
+            map.put(name, new GradingExecutor(config.forBulkhead(bulkhead), "grading-" + name));
+        });
+        this.executors = Collections.unmodifiableMap(map);
+
+        // work stealing
+        config.getBulkheads().forEach((name, bulkhead) -> {
+            if (!bulkhead.isWorkStealing())
+                return;
+
+            var lenders = new ArrayList<GradingExecutor>();
+            lenders.add(sharedExecutor);
+            this.executors.forEach((other, executor) -> {
+                if (!other.equals(name))
+                    lenders.add(executor);
+            });
+            this.executors.get(name).setLenders(lenders);
+        });
+    }
+
+    /**
+     * Returns the executor of the specified bulkhead.
+     *
+     * @param name The bulkhead name; might be {@code null}.
+     * @return The executor of the bulkhead or the shared executor if no bulkhead with the specified name is configured.
+     */
+    public GradingExecutor getExecutor(String name) {
+        if (name == null)
+            return this.sharedExecutor;
+        return this.executors.getOrDefault(name, this.sharedExecutor);
+    }
+
+    /**
+     * Returns the executors of all bulkheads (without the shared executor).
+     *
+     * @return The bulkhead executors.
+     */
+    public Collection<GradingExecutor> getExecutors() {
+        return this.executors.values();
+    }
+
+    /**
+     * Gets the names of the configured bulkheads.
+     *
+     * @return The bulkhead names.
+     */
+    @ManagedAttribute(description = "Names of the configured bulkheads")
+    public Set<String> getBulkheadNames() {
+        return this.executors.keySet();
+    }
+
+    /**
+     * Gets the number of tasks waiting for a worker per bulkhead.
+     *
+     * @return The queue depths by bulkhead.
+     */
+    @ManagedAttribute(description = "Number of tasks waiting for a worker per bulkhead")
+    public Map<String, Integer> getQueueDepths() {
+        var result = new LinkedHashMap<String, Integer>();
+        this.executors.forEach((name, executor) -> result.put(name, executor.getQueueDepth()));
+        return result;
+    }
+
+    /**
+     * Gets the number of evaluations currently running per bulkhead.
+     *
+     * @return The number of running evaluations by bulkhead.
+     */
+    @ManagedAttribute(description = "Number of evaluations currently running per bulkhead")
+    public Map<String, Integer> getRunningEvaluations() {
+        var result = new LinkedHashMap<String, Integer>();
+        this.executors.forEach((name, executor) -> result.put(name, executor.getRunningEvaluations()));
+        return result;
+    }
+
+    /**
+     * Gets the number of rejected tasks per bulkhead.
+     *
+     * @return The number of rejections by bulkhead.
+     */
+    @ManagedAttribute(description = "Number of rejected tasks per bulkhead")
+    public Map<String, Long> getRejectedCounts() {
+        var result = new LinkedHashMap<String, Long>();
+        this.executors.forEach((name, executor) -> result.put(name, executor.getRejectedCount()));
+        return result;
+    }
+
+    /**
+     * Shuts down the workers of all bulkheads; the shared executor is shut down separately.
+     */
+    @Override
+    public void destroy() {
+        this.executors.values().forEach(GradingExecutor::destroy);
+    }
+}
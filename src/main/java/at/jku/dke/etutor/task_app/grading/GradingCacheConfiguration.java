@@ -0,0 +1,85 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Loads the settings of the grading result cache from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("grading.cache")
+public class GradingCacheConfiguration {
+
+    private boolean enabled;
+
+    @Min(1)
+    private int maximumSize;
+
+    private Duration timeToLive;
+
+    /**
+     * Creates a new instance of class {@link GradingCacheConfiguration}.
+     */
+    public GradingCacheConfiguration() {
+        this.enabled = false;
+        this.maximumSize = 10000;
+        this.timeToLive = Duration.ofHours(24);
+    }
+
+    /**
+     * Gets whether the grading result cache is enabled.
+     *
+     * @return {@code true} if the results of identical submissions are reused.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the grading result cache is enabled.
+     *
+     * @param enabled {@code true} if the results of identical submissions should be reused.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the maximum number of cached results.
+     *
+     * @return The maximum size.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of cached results.
+     *
+     * @param maximumSize The maximum size.
+     */
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Gets the duration after which a cached result expires.
+     *
+     * @return The time to live or {@code null} if results do not expire.
+     */
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Sets the duration after which a cached result expires.
+     *
+     * @param timeToLive The time to live or {@code null} if results should not expire.
+     */
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+}
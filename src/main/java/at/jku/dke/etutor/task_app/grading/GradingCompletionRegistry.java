@@ -0,0 +1,203 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Registry of clients waiting for evaluation results.
+ * <p>
+ * Waiters are completed as soon as the result of the submission is stored by this node, so that clients neither have to poll the
+ * database nor have to hold a thread while waiting. Results stored by other nodes are loaded if the {@link GradingResultNotifier}
+ * signals them (see {@link #reload(UUID)}).
+ * <p>
+ * The registry also keeps the partial results of submissions evaluated by this node until their result is stored (see
+ * {@link #progress(UUID, GradingDto)}).
+ */
+@Component
+@ManagedResource(objectName = "at.jku.dke.etutor:type=GradingCompletionRegistry", description = "Registry of clients waiting for evaluation results")
+public class GradingCompletionRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(GradingCompletionRegistry.class);
+
+    private final Map<UUID, List<Waiter>> waiters;
+    private final Map<UUID, GradingDto> partialResults;
+
+    /**
+     * Creates a new instance of class {@link GradingCompletionRegistry}.
+     */
+    public GradingCompletionRegistry() {
+        this.waiters = new ConcurrentHashMap<>();
+        this.partialResults = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers a waiter for the result of the specified submission.
+     * <p>
+     * The waiter is removed from the registry as soon as the returned future is completed, e.g. by the timeout or by the caller.
+     *
+     * @param submissionId The submission identifier.
+     * @param timeout      The maximum time to wait.
+     * @param loader       Loads the stored result of the submission if it was stored by another node; returns {@code null} if
+     *                     no result is stored.
+     * @return The future completed with the result or with {@code null} if the timeout elapsed.
+     */
+    public CompletableFuture<GradingDto> await(UUID submissionId, Duration timeout, Supplier<GradingDto> loader) {
+        return this.await(submissionId, timeout, loader, null);
+    }
+
+    /**
+     * Registers a waiter for the result of the specified submission that is informed about partial results.
+     * <p>
+     * The waiter is removed from the registry as soon as the returned future is completed, e.g. by the timeout or by the caller.
+     *
+     * @param submissionId The submission identifier.
+     * @param timeout      The maximum time to wait.
+     * @param loader       Loads the stored result of the submission if it was stored by another node; returns {@code null} if
+     *                     no result is stored.
+     * @param onProgress   Receives the partial results reported while the submission is evaluated by this node; might be {@code null}.
+     * @return The future completed with the result or with {@code null} if the timeout elapsed.
+     */
+    public CompletableFuture<GradingDto> await(UUID submissionId, Duration timeout, Supplier<GradingDto> loader, Consumer<GradingDto> onProgress) {
+        var waiter = new Waiter(new CompletableFuture<>(), loader, onProgress);
+        this.waiters.compute(submissionId, (id, list) -> {
+            var result = list == null ? new ArrayList<Waiter>(1) : list;
+            result.add(waiter);
+            return result;
+        });
+        waiter.future().whenComplete((result, ex) -> this.remove(submissionId, waiter));
+        return waiter.future().completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Completes all waiters of the specified submission.
+     *
+     * @param submissionId The submission identifier.
+     * @param result       The evaluation result.
+     */
+    public void complete(UUID submissionId, GradingDto result) {
+        this.partialResults.remove(submissionId);
+
+        // once removed from the map, the list is not modified anymore
+        var list = this.waiters.remove(submissionId);
+        if (list != null)
+            list.forEach(waiter -> waiter.future().complete(result));
+    }
+
+    /**
+     * Stores the partial result of the specified submission and informs its waiters.
+     *
+     * @param submissionId  The submission identifier.
+     * @param partialResult The result containing the criteria evaluated so far.
+     */
+    public void progress(UUID submissionId, GradingDto partialResult) {
+        this.partialResults.put(submissionId, partialResult);
+
+        var listeners = new ArrayList<Consumer<GradingDto>>();
+        this.waiters.computeIfPresent(submissionId, (id, list) -> {
+            list.stream().map(Waiter::onProgress).filter(Objects::nonNull).forEach(listeners::add);
+            return list;
+        });
+        for (var listener : listeners) {
+            try {
+                listener.accept(partialResult);
+            } catch (RuntimeException ex) {
+                LOG.warn("Could not report partial result of submission {}", submissionId, ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the partial result of the specified submission.
+     *
+     * @param submissionId The submission identifier.
+     * @return The partial result or {@code null} if the submission is not evaluated by this node or no criteria have been reported.
+     */
+    public GradingDto getPartialResult(UUID submissionId) {
+        return this.partialResults.get(submissionId);
+    }
+
+    /**
+     * Removes the partial result of the specified submission, e.g. because its evaluation failed.
+     *
+     * @param submissionId The submission identifier.
+     */
+    public void clearPartialResult(UUID submissionId) {
+        this.partialResults.remove(submissionId);
+    }
+
+    /**
+     * Loads the result of the specified submission and completes its waiters if the result has been stored, e.g. by another node.
+     *
+     * @param submissionId The submission identifier.
+     */
+    public void reload(UUID submissionId) {
+        var loader = new AtomicReference<Supplier<GradingDto>>();
+        this.waiters.computeIfPresent(submissionId, (id, list) -> {
+            loader.set(list.getFirst().loader());
+            return list;
+        });
+        if (loader.get() == null)
+            return;
+
+        try {
+            var result = loader.get().get();
+            if (result != null)
+                this.complete(submissionId, result);
+        } catch (RuntimeException ex) {
+            LOG.warn("Could not load result of submission {}", submissionId, ex);
+        }
+    }
+
+    /**
+     * Loads the results of all submissions with waiting clients and completes the waiters of the stored results.
+     */
+    public void reloadAll() {
+        this.getWaitingSubmissions().forEach(this::reload);
+    }
+
+    /**
+     * Returns the identifiers of the submissions with waiting clients.
+     *
+     * @return The submission identifiers.
+     */
+    public Set<UUID> getWaitingSubmissions() {
+        return Set.copyOf(this.waiters.keySet());
+    }
+
+    /**
+     * Gets the number of submissions with waiting clients.
+     *
+     * @return The number of submissions.
+     */
+    @ManagedAttribute(description = "Number of submissions with waiting clients")
+    public int getWaitingCount() {
+        return this.waiters.size();
+    }
+
+    private void remove(UUID submissionId, Waiter waiter) {
+        this.waiters.computeIfPresent(submissionId, (id, list) -> {
+            list.remove(waiter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private record Waiter(CompletableFuture<GradingDto> future, Supplier<GradingDto> loader, Consumer<GradingDto> onProgress) {
+    }
+}
@@ -0,0 +1,718 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loads the grading settings from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("grading")
+public class GradingConfiguration {
+
+    @Min(1)
+    private int corePoolSize;
+
+    @Min(1)
+    private int maxPoolSize;
+
+    @Min(1)
+    private int queueCapacity;
+
+    @NotNull
+    private Duration keepAlive;
+
+    @NotNull
+    private RejectionPolicy rejectionPolicy;
+
+    @NotNull
+    private Duration retryAfter;
+
+    private boolean virtualThreads;
+
+    @Min(1)
+    private int maxConcurrentEvaluations;
+
+    @NotNull
+    private Duration slotTimeout;
+
+    private Duration evaluationTimeout;
+
+    @NotNull
+    private Duration shutdownGracePeriod;
+
+    @Valid
+    @NotNull
+    private LaneConfiguration run;
+
+    @Valid
+    @NotNull
+    private LaneConfiguration diagnose;
+
+    @Valid
+    @NotNull
+    private LaneConfiguration submit;
+
+    @Valid
+    @NotNull
+    private Map<String, BulkheadConfiguration> bulkheads;
+
+    @Valid
+    @NotNull
+    private ConcurrencyLimitConfiguration concurrencyLimit;
+
+    /**
+     * Creates a new instance of class {@link GradingConfiguration}.
+     */
+    public GradingConfiguration() {
+        this.corePoolSize = Runtime.getRuntime().availableProcessors();
+        this.maxPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        this.queueCapacity = 500;
+        this.keepAlive = Duration.ofSeconds(60);
+        this.rejectionPolicy = RejectionPolicy.ABORT;
+        this.retryAfter = Duration.ofSeconds(10);
+        this.virtualThreads = false;
+        this.maxConcurrentEvaluations = 200;
+        this.slotTimeout = Duration.ofSeconds(30);
+        this.evaluationTimeout = null;
+        this.shutdownGracePeriod = Duration.ofSeconds(30);
+        this.run = new LaneConfiguration(4, 1.0);
+        this.diagnose = new LaneConfiguration(4, 1.0);
+        this.submit = new LaneConfiguration(1, 0.75);
+        this.bulkheads = new HashMap<>();
+        this.concurrencyLimit = new ConcurrencyLimitConfiguration();
+    }
+
+    /**
+     * Creates the configuration of the specified bulkhead; settings not set in the bulkhead are copied from this configuration.
+     *
+     * @param bulkhead The bulkhead configuration.
+     * @return The grading configuration of the bulkhead.
+     */
+    public GradingConfiguration forBulkhead(BulkheadConfiguration bulkhead) {
+        var result = new GradingConfiguration();
+        result.maxPoolSize = bulkhead.getMaxPoolSize() != null ? bulkhead.getMaxPoolSize() : this.maxPoolSize;
+        result.corePoolSize = bulkhead.getCorePoolSize() != null ? bulkhead.getCorePoolSize() : Math.min(this.corePoolSize, result.maxPoolSize);
+        result.queueCapacity = bulkhead.getQueueCapacity() != null ? bulkhead.getQueueCapacity() : this.queueCapacity;
+        result.maxConcurrentEvaluations = bulkhead.getMaxConcurrentEvaluations() != null ? bulkhead.getMaxConcurrentEvaluations() : this.maxConcurrentEvaluations;
+        result.keepAlive = this.keepAlive;
+        result.rejectionPolicy = this.rejectionPolicy;
+        result.retryAfter = this.retryAfter;
+        result.virtualThreads = this.virtualThreads;
+        result.slotTimeout = this.slotTimeout;
+        result.evaluationTimeout = this.evaluationTimeout;
+        result.shutdownGracePeriod = this.shutdownGracePeriod;
+        result.run = this.run;
+        result.diagnose = this.diagnose;
+        result.submit = this.submit;
+        result.concurrencyLimit = this.concurrencyLimit;
+        return result;
+    }
+
+    /**
+     * Gets the number of workers to keep in the pool, even if they are idle.
+     *
+     * @return The core pool size.
+     */
+    public int getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    /**
+     * Sets the number of workers to keep in the pool, even if they are idle.
+     *
+     * @param corePoolSize The core pool size.
+     */
+    public void setCorePoolSize(int corePoolSize) {
+        this.corePoolSize = corePoolSize;
+    }
+
+    /**
+     * Gets the maximum number of workers.
+     *
+     * @return The maximum pool size.
+     */
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * Sets the maximum number of workers.
+     * <p>
+     * Workers exceeding the core pool size are only started if no idle worker is available.
+     *
+     * @param maxPoolSize The maximum pool size.
+     */
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * Gets the maximum number of submissions per lane waiting for evaluation.
+     *
+     * @return The queue capacity.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of submissions per lane waiting for evaluation.
+     * <p>
+     * The value can be overridden per lane using {@link LaneConfiguration#setQueueCapacity(Integer)}.
+     *
+     * @param queueCapacity The queue capacity.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Gets the time idle workers exceeding the core pool size are kept alive.
+     *
+     * @return The keep-alive time.
+     */
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Sets the time idle workers exceeding the core pool size are kept alive.
+     *
+     * @param keepAlive The keep-alive time.
+     */
+    public void setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Gets the policy applied if the queue is full.
+     *
+     * @return The rejection policy.
+     */
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * Sets the policy applied if the queue is full.
+     *
+     * @param rejectionPolicy The rejection policy.
+     */
+    public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    /**
+     * Gets the time clients should wait before retrying a rejected submission.
+     *
+     * @return The retry-after duration.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Sets the time clients should wait before retrying a rejected submission.
+     *
+     * @param retryAfter The retry-after duration.
+     */
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets whether background evaluations run on virtual threads.
+     *
+     * @return {@code true} if virtual threads are used; {@code false} if the worker pool is used.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Sets whether background evaluations run on virtual threads.
+     * <p>
+     * If enabled, each background evaluation gets its own virtual thread and the pool sizes are ignored;
+     * the number of evaluations running at the same time is then only limited by {@link #getMaxConcurrentEvaluations()}.
+     *
+     * @param virtualThreads {@code true} to use virtual threads; {@code false} to use the worker pool.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Gets the maximum number of evaluations (background and synchronous) running at the same time.
+     *
+     * @return The maximum number of concurrent evaluations.
+     */
+    public int getMaxConcurrentEvaluations() {
+        return maxConcurrentEvaluations;
+    }
+
+    /**
+     * Sets the maximum number of evaluations (background and synchronous) running at the same time.
+     * <p>
+     * Use this value to protect resources used by the evaluations, e.g. the database connection pool.
+     *
+     * @param maxConcurrentEvaluations The maximum number of concurrent evaluations.
+     */
+    public void setMaxConcurrentEvaluations(int maxConcurrentEvaluations) {
+        this.maxConcurrentEvaluations = maxConcurrentEvaluations;
+    }
+
+    /**
+     * Gets the maximum time a synchronous evaluation waits for a free evaluation slot.
+     *
+     * @return The slot timeout.
+     */
+    public Duration getSlotTimeout() {
+        return slotTimeout;
+    }
+
+    /**
+     * Sets the maximum time a synchronous evaluation waits for a free evaluation slot.
+     *
+     * @param slotTimeout The slot timeout.
+     */
+    public void setSlotTimeout(Duration slotTimeout) {
+        this.slotTimeout = slotTimeout;
+    }
+
+    /**
+     * Gets the maximum duration of an evaluation.
+     *
+     * @return The evaluation timeout or {@code null} if evaluations are not limited.
+     */
+    public Duration getEvaluationTimeout() {
+        return evaluationTimeout;
+    }
+
+    /**
+     * Sets the maximum duration of an evaluation.
+     * <p>
+     * If an evaluation exceeds this duration, a timeout result is stored and the thread running the evaluation is interrupted.
+     * The value can be overridden per lane using {@link LaneConfiguration#setTimeout(Duration)}. Evaluations are not limited by
+     * default.
+     *
+     * @param evaluationTimeout The evaluation timeout or {@code null} if evaluations should not be limited.
+     */
+    public void setEvaluationTimeout(Duration evaluationTimeout) {
+        this.evaluationTimeout = evaluationTimeout;
+    }
+
+    /**
+     * Gets the maximum time queued and running evaluations may take to finish when the application shuts down.
+     *
+     * @return The shutdown grace period.
+     */
+    public Duration getShutdownGracePeriod() {
+        return shutdownGracePeriod;
+    }
+
+    /**
+     * Sets the maximum time queued and running evaluations may take to finish when the application shuts down.
+     * <p>
+     * Evaluations not finished within this period are handed back (see {@link GradingShutdownCoordinator}).
+     *
+     * @param shutdownGracePeriod The shutdown grace period.
+     */
+    public void setShutdownGracePeriod(Duration shutdownGracePeriod) {
+        this.shutdownGracePeriod = shutdownGracePeriod;
+    }
+
+    /**
+     * Gets the settings of the lane for submissions in mode {@link SubmissionMode#RUN}.
+     *
+     * @return The lane configuration.
+     */
+    public LaneConfiguration getRun() {
+        return run;
+    }
+
+    /**
+     * Sets the settings of the lane for submissions in mode {@link SubmissionMode#RUN}.
+     *
+     * @param run The lane configuration.
+     */
+    public void setRun(LaneConfiguration run) {
+        this.run = run;
+    }
+
+    /**
+     * Gets the settings of the lane for submissions in mode {@link SubmissionMode#DIAGNOSE}.
+     *
+     * @return The lane configuration.
+     */
+    public LaneConfiguration getDiagnose() {
+        return diagnose;
+    }
+
+    /**
+     * Sets the settings of the lane for submissions in mode {@link SubmissionMode#DIAGNOSE}.
+     *
+     * @param diagnose The lane configuration.
+     */
+    public void setDiagnose(LaneConfiguration diagnose) {
+        this.diagnose = diagnose;
+    }
+
+    /**
+     * Gets the settings of the lane for submissions in mode {@link SubmissionMode#SUBMIT}.
+     *
+     * @return The lane configuration.
+     */
+    public LaneConfiguration getSubmit() {
+        return submit;
+    }
+
+    /**
+     * Sets the settings of the lane for submissions in mode {@link SubmissionMode#SUBMIT}.
+     *
+     * @param submit The lane configuration.
+     */
+    public void setSubmit(LaneConfiguration submit) {
+        this.submit = submit;
+    }
+
+    /**
+     * Gets the bulkheads, i.e. isolated worker pools, by name.
+     *
+     * @return The bulkhead configurations.
+     */
+    public Map<String, BulkheadConfiguration> getBulkheads() {
+        return bulkheads;
+    }
+
+    /**
+     * Sets the bulkheads, i.e. isolated worker pools, by name.
+     * <p>
+     * Submission services whose bulkhead name (by default, the bean name) is configured here evaluate submissions on their own
+     * worker pool; all other services share the default pool.
+     *
+     * @param bulkheads The bulkhead configurations.
+     */
+    public void setBulkheads(Map<String, BulkheadConfiguration> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    /**
+     * Gets the settings of the adaptive limit of concurrent evaluations.
+     *
+     * @return The concurrency limit configuration.
+     */
+    public ConcurrencyLimitConfiguration getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Sets the settings of the adaptive limit of concurrent evaluations.
+     *
+     * @param concurrencyLimit The concurrency limit configuration.
+     */
+    public void setConcurrencyLimit(ConcurrencyLimitConfiguration concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    /**
+     * Gets the settings of the lane for submissions in the specified mode.
+     *
+     * @param mode The submission mode.
+     * @return The lane configuration.
+     */
+    public LaneConfiguration getLane(SubmissionMode mode) {
+        return switch (mode) {
+            case RUN -> this.run;
+            case DIAGNOSE -> this.diagnose;
+            case SUBMIT -> this.submit;
+        };
+    }
+
+    /**
+     * The settings of a lane, i.e. the queue of the submissions of one {@link SubmissionMode}.
+     */
+    public static class LaneConfiguration {
+
+        @Min(1)
+        private int weight;
+
+        @DecimalMin(value = "0.0", inclusive = false)
+        @DecimalMax("1.0")
+        private double maxShare;
+
+        @Min(1)
+        private Integer queueCapacity;
+
+        private Duration timeout;
+
+        /**
+         * Creates a new instance of class {@link LaneConfiguration}.
+         */
+        public LaneConfiguration() {
+            this(1, 1.0);
+        }
+
+        /**
+         * Creates a new instance of class {@link LaneConfiguration}.
+         *
+         * @param weight   The weight.
+         * @param maxShare The maximum share of workers.
+         */
+        public LaneConfiguration(int weight, double maxShare) {
+            this.weight = weight;
+            this.maxShare = maxShare;
+        }
+
+        /**
+         * Gets the weight of the lane.
+         *
+         * @return The weight.
+         */
+        public int getWeight() {
+            return weight;
+        }
+
+        /**
+         * Sets the weight of the lane.
+         * <p>
+         * If submissions of multiple lanes are waiting, free workers take them in proportion to the lane weights,
+         * e.g. a lane with weight 4 is served four times as often as a lane with weight 1.
+         *
+         * @param weight The weight.
+         */
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+
+        /**
+         * Gets the maximum share of workers evaluating submissions of this lane at the same time.
+         *
+         * @return The maximum share (between 0 and 1).
+         */
+        public double getMaxShare() {
+            return maxShare;
+        }
+
+        /**
+         * Sets the maximum share of workers evaluating submissions of this lane at the same time.
+         * <p>
+         * A value less than 1 keeps workers free for the other lanes, e.g. so that interactive runs are not starved by
+         * a burst of final submissions. At least one worker is always available for each lane.
+         *
+         * @param maxShare The maximum share (between 0 and 1).
+         */
+        public void setMaxShare(double maxShare) {
+            this.maxShare = maxShare;
+        }
+
+        /**
+         * Gets the maximum number of submissions waiting in this lane.
+         *
+         * @return The queue capacity or {@code null} if {@link GradingConfiguration#getQueueCapacity()} applies.
+         */
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Sets the maximum number of submissions waiting in this lane.
+         *
+         * @param queueCapacity The queue capacity or {@code null} if {@link GradingConfiguration#getQueueCapacity()} should apply.
+         */
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * Gets the maximum duration of an evaluation in this lane.
+         *
+         * @return The timeout or {@code null} if {@link GradingConfiguration#getEvaluationTimeout()} applies.
+         */
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        /**
+         * Sets the maximum duration of an evaluation in this lane.
+         *
+         * @param timeout The timeout or {@code null} if {@link GradingConfiguration#getEvaluationTimeout()} should apply.
+         */
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * The settings of the adaptive limit of concurrent evaluations (see {@link ConcurrencyLimiter}).
+     * <p>
+     * If enabled, {@link GradingConfiguration#getMaxConcurrentEvaluations()} is the upper bound of the limit.
+     */
+    public static class ConcurrencyLimitConfiguration {
+
+        private boolean adaptive;
+
+        @Min(1)
+        private int minLimit;
+
+        @Min(1)
+        private int initialLimit;
+
+        @DecimalMin(value = "0.0", inclusive = false)
+        @DecimalMax("1.0")
+        private double smoothing;
+
+        @DecimalMin("1.0")
+        private double rttTolerance;
+
+        @Min(1)
+        private int longWindow;
+
+        /**
+         * Creates a new instance of class {@link ConcurrencyLimitConfiguration}.
+         */
+        public ConcurrencyLimitConfiguration() {
+            this.adaptive = false;
+            this.minLimit = 2;
+            this.initialLimit = 20;
+            this.smoothing = 0.2;
+            this.rttTolerance = 1.5;
+            this.longWindow = 600;
+        }
+
+        /**
+         * Gets whether the limit is adjusted to the evaluation latency.
+         *
+         * @return {@code true} if the limit is adaptive; {@code false} if the maximum number of concurrent evaluations applies.
+         */
+        public boolean isAdaptive() {
+            return adaptive;
+        }
+
+        /**
+         * Sets whether the limit is adjusted to the evaluation latency.
+         *
+         * @param adaptive {@code true} if the limit should be adaptive; {@code false} if the maximum number of concurrent evaluations should apply.
+         */
+        public void setAdaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+        }
+
+        /**
+         * Gets the lower bound of the limit.
+         *
+         * @return The minimum limit.
+         */
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        /**
+         * Sets the lower bound of the limit.
+         *
+         * @param minLimit The minimum limit.
+         */
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        /**
+         * Gets the limit before any evaluation has completed.
+         *
+         * @return The initial limit.
+         */
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        /**
+         * Sets the limit before any evaluation has completed.
+         *
+         * @param initialLimit The initial limit.
+         */
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        /**
+         * Gets the weight of a new limit compared to the current limit.
+         *
+         * @return The smoothing factor (between 0 and 1).
+         */
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        /**
+         * Sets the weight of a new limit compared to the current limit.
+         * <p>
+         * Lower values let the limit change more slowly.
+         *
+         * @param smoothing The smoothing factor (between 0 and 1).
+         */
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        /**
+         * Gets the factor by which recent evaluations may be slower than the average before the limit is decreased.
+         *
+         * @return The latency tolerance.
+         */
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        /**
+         * Sets the factor by which recent evaluations may be slower than the average before the limit is decreased.
+         *
+         * @param rttTolerance The latency tolerance (at least 1).
+         */
+        public void setRttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+        }
+
+        /**
+         * Gets the number of evaluations the long-term average latency is computed of.
+         *
+         * @return The window size.
+         */
+        public int getLongWindow() {
+            return longWindow;
+        }
+
+        /**
+         * Sets the number of evaluations the long-term average latency is computed of.
+         *
+         * @param longWindow The window size.
+         */
+        public void setLongWindow(int longWindow) {
+            this.longWindow = longWindow;
+        }
+    }
+
+    /**
+     * The policy applied if a submission cannot be queued because the queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Rejects the submission with a {@link GradingRejectedException}.
+         */
+        ABORT,
+
+        /**
+         * Evaluates the submission in the calling thread.
+         */
+        CALLER_RUNS
+    }
+}
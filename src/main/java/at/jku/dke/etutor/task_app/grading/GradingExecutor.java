@@ -0,0 +1,857 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Executes evaluations of submissions on a bounded pool of workers or on virtual threads.
+ * <p>
+ * The pool size, queue capacity and the behavior if the queue is full can be configured using {@link GradingConfiguration}.
+ * Independent of the execution mode, the number of evaluations running at the same time is limited by
+ * {@link GradingConfiguration#getMaxConcurrentEvaluations()}; this applies to background and synchronous evaluations. The limit can
+ * be adjusted to the observed evaluation latency (see {@link GradingConfiguration#getConcurrencyLimit()}): background submissions
+ * wait in their lane and synchronous evaluations are rejected after {@link GradingConfiguration#getSlotTimeout()} while the limit
+ * is reached.
+ * <p>
+ * Waiting submissions are queued in one lane per {@link SubmissionMode}. Free workers take submissions from the lanes in proportion
+ * to the lane weights (stride scheduling), and each lane may only occupy its configured share of the workers. This way, interactive
+ * runs are not starved by a burst of final submissions. The time submissions wait in each lane is recorded in a {@link LatencyHistogram}.
+ */
+@Component
+@ManagedResource(objectName = "at.jku.dke.etutor:type=GradingExecutor", description = "Executes evaluations of submissions")
+public class GradingExecutor implements DisposableBean {
+    private static final Logger LOG = LoggerFactory.getLogger(GradingExecutor.class);
+
+    private final GradingConfiguration config;
+    private final ExecutorService executor;
+    private final ThreadPoolExecutor pool;
+    private final ConcurrencyLimiter evaluationSlots;
+    private final Map<SubmissionMode, Lane> lanes;
+    private final ReentrantLock lock;
+    private final int maxWorkers;
+    private final LongAdder completedCount;
+    private final LongAdder rejectedCount;
+    private final LongAdder lentCount;
+    private final LongAdder timedOutCount;
+    private final LongAdder handedBackCount;
+    private final ScheduledThreadPoolExecutor watchdog;
+    private final Map<UUID, GradingJob> jobs;
+    private volatile List<GradingExecutor> lenders;
+    private int workerCount;
+    private double virtualTime;
+
+    /**
+     * Creates a new instance of class {@link GradingExecutor}.
+     *
+     * @param config The grading configuration.
+     */
+    @Autowired
+    public GradingExecutor(GradingConfiguration config) {
+        this(config, "grading");
+    }
+
+    /**
+     * Creates a new instance of class {@link GradingExecutor}.
+     *
+     * @param config The grading configuration.
+     * @param name   The name of the executor used as prefix of the thread names.
+     */
+    public GradingExecutor(GradingConfiguration config, String name) {
+        if (config.getCorePoolSize() > config.getMaxPoolSize())
+            throw new IllegalArgumentException("The core pool size must not be greater than the max pool size.");
+
+        this.config = config;
+        this.evaluationSlots = new ConcurrencyLimiter(config.getMaxConcurrentEvaluations(), config.getConcurrencyLimit());
+        this.lock = new ReentrantLock();
+        this.completedCount = new LongAdder();
+        this.rejectedCount = new LongAdder();
+        this.lentCount = new LongAdder();
+        this.timedOutCount = new LongAdder();
+        this.handedBackCount = new LongAdder();
+        this.jobs = new ConcurrentHashMap<>();
+        var watchdogThreadFactory = new CustomizableThreadFactory(name + "-watchdog-");
+        watchdogThreadFactory.setDaemon(true);
+        this.watchdog = new ScheduledThreadPoolExecutor(1, watchdogThreadFactory);
+        this.watchdog.setRemoveOnCancelPolicy(true);
+        this.lenders = List.of();
+
+        if (config.isVirtualThreads()) {
+            this.pool = null;
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+            this.maxWorkers = config.getMaxConcurrentEvaluations();
+        } else {
+            var queue = new WorkerQueue();
+            this.pool = new ThreadPoolExecutor(
+                config.getCorePoolSize(),
+                config.getMaxPoolSize(),
+                config.getKeepAlive().toMillis(),
+                TimeUnit.MILLISECONDS,
+                queue,
+                new CustomizableThreadFactory(name + "-"),
+                (task, executor) -> queue.force(task, executor));
+            queue.pool = this.pool;
+            this.executor = this.pool;
+            this.maxWorkers = config.getMaxPoolSize();
+        }
+
+        this.lanes = new EnumMap<>(SubmissionMode.class);
+        for (SubmissionMode mode : SubmissionMode.values())
+            this.lanes.put(mode, new Lane(config.getLane(mode), config.getQueueCapacity(), this.maxWorkers));
+    }
+
+    /**
+     * Executes the task on a grading worker using the lane of {@link SubmissionMode#SUBMIT}.
+     *
+     * @param task The task to execute.
+     * @throws GradingRejectedException If the queue is full and the rejection policy is {@link GradingConfiguration.RejectionPolicy#ABORT}.
+     */
+    public void execute(Runnable task) {
+        this.execute(SubmissionMode.SUBMIT, task);
+    }
+
+    /**
+     * Executes the task on a grading worker using the lane of the specified submission mode.
+     *
+     * @param mode The submission mode.
+     * @param task The task to execute.
+     * @throws GradingRejectedException If the lane is full and the rejection policy is {@link GradingConfiguration.RejectionPolicy#ABORT}.
+     */
+    public void execute(SubmissionMode mode, Runnable task) {
+        // borrow an idle worker of another pool if all own workers are busy
+        if (!this.lenders.isEmpty() && !this.hasIdleWorker(this.lanes.get(mode))) {
+            for (GradingExecutor lender : this.lenders) {
+                if (lender.tryExecuteIfIdle(mode, task))
+                    return;
+            }
+        }
+
+        try {
+            this.submit(this.lanes.get(mode), task);
+        } catch (RejectedExecutionException ex) {
+            this.rejectedCount.increment();
+            if (this.config.getRejectionPolicy() == GradingConfiguration.RejectionPolicy.CALLER_RUNS && !this.executor.isShutdown()) {
+                LOG.debug("Grading queue of lane {} is full, running task in calling thread", mode);
+                this.evaluateInCallingThread(() -> {
+                    task.run();
+                    return null;
+                });
+                return;
+            }
+
+            if (this.executor.isShutdown())
+                throw new GradingRejectedException("The grading executor is shutting down, try again later.", this.config.getRetryAfter(), ex);
+
+            LOG.warn("Grading queue of lane {} is full, rejecting task", mode);
+            throw new GradingRejectedException("The grading queue is full, try again later.", this.config.getRetryAfter(), ex);
+        }
+    }
+
+    /**
+     * Runs the evaluation in the calling thread as soon as an evaluation slot is available.
+     *
+     * @param evaluation The evaluation to run.
+     * @param <R>        The type of the evaluation result.
+     * @return The evaluation result.
+     * @throws GradingRejectedException If no evaluation slot became available within {@link GradingConfiguration#getSlotTimeout()}.
+     */
+    public <R> R evaluateInCallingThread(Supplier<R> evaluation) {
+        try {
+            if (!this.evaluationSlots.tryAcquire(this.config.getSlotTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                this.rejectedCount.increment();
+                LOG.warn("No evaluation slot available, rejecting evaluation");
+                throw new GradingRejectedException("The grading capacity is exhausted, try again later.", this.config.getRetryAfter(), null);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GradingRejectedException("Interrupted while waiting for an evaluation slot.", this.config.getRetryAfter(), ex);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return evaluation.get();
+        } finally {
+            this.evaluationSlots.release(System.nanoTime() - start);
+            this.completedCount.increment();
+        }
+    }
+
+    /**
+     * Executes the job on a grading worker using the lane of the job's submission mode.
+     * <p>
+     * The job can be cancelled using {@link #cancel(UUID)} while it is queued or running; it times out after {@link GradingJob#getTimeout()}.
+     *
+     * @param job  The job.
+     * @param task The evaluation.
+     * @throws GradingRejectedException If the lane is full and the rejection policy is {@link GradingConfiguration.RejectionPolicy#ABORT}.
+     */
+    public void execute(GradingJob job, Runnable task) {
+        this.register(job);
+        try {
+            this.execute(job.getMode(), () -> this.runJob(job, () -> {
+                task.run();
+                return null;
+            }));
+        } catch (RuntimeException ex) {
+            this.unregister(job);
+            throw ex;
+        }
+    }
+
+    /**
+     * Runs the job in the calling thread as soon as an evaluation slot is available.
+     *
+     * @param job        The job.
+     * @param evaluation The evaluation to run.
+     * @param <R>        The type of the evaluation result.
+     * @return The evaluation result or {@code null} if the job was cancelled before it started.
+     * @throws GradingRejectedException If no evaluation slot became available within {@link GradingConfiguration#getSlotTimeout()}.
+     */
+    public <R> R evaluateInCallingThread(GradingJob job, Supplier<R> evaluation) {
+        this.register(job);
+        try {
+            return this.evaluateInCallingThread(() -> this.runJob(job, evaluation));
+        } finally {
+            this.unregister(job);
+        }
+    }
+
+    /**
+     * Cancels the queued or running job of the specified submission.
+     *
+     * @param id The submission identifier.
+     * @return {@code true} if the job was cancelled; {@code false} if no job of the submission is queued or running.
+     */
+    public boolean cancel(UUID id) {
+        var job = this.jobs.get(id);
+        if (job == null || !job.cancel())
+            return false;
+
+        LOG.info("Cancelled evaluation of submission {}", id);
+        return true;
+    }
+
+    /**
+     * Returns the queued or running job of the specified submission.
+     *
+     * @param id The submission identifier.
+     * @return The job or {@code null} if no job of the submission is queued or running on this executor.
+     */
+    public GradingJob getJob(UUID id) {
+        return this.jobs.get(id);
+    }
+
+    /**
+     * Returns the maximum duration of evaluations of the specified mode.
+     *
+     * @param mode The submission mode.
+     * @return The timeout or {@code null} if unlimited.
+     */
+    public Duration getEvaluationTimeout(SubmissionMode mode) {
+        var timeout = this.config.getLane(mode).getTimeout();
+        return timeout != null ? timeout : this.config.getEvaluationTimeout();
+    }
+
+    private <R> R runJob(GradingJob job, Supplier<R> evaluation) {
+        try {
+            if (!job.start()) {
+                LOG.debug("Skipping cancelled job of submission {}", job.getId());
+                return null;
+            }
+
+            ScheduledFuture<?> deadline = null;
+            if (job.getTimeout() != null) {
+                deadline = this.watchdog.schedule(() -> {
+                    if (job.timeout())
+                        LOG.warn("Evaluation of submission {} exceeded timeout of {}", job.getId(), job.getTimeout());
+                }, job.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            }
+
+            try {
+                return evaluation.get();
+            } finally {
+                if (deadline != null)
+                    deadline.cancel(false);
+                job.finish();
+                if (job.getState() == GradingJob.State.TIMED_OUT)
+                    this.timedOutCount.increment();
+            }
+        } finally {
+            this.unregister(job);
+        }
+    }
+
+    private void register(GradingJob job) {
+        if (job.getId() != null)
+            this.jobs.put(job.getId(), job);
+    }
+
+    private void unregister(GradingJob job) {
+        if (job.getId() != null)
+            this.jobs.remove(job.getId(), job);
+    }
+
+    /**
+     * Sets the executors whose idle workers may be borrowed if all workers of this executor are busy.
+     *
+     * @param lenders The lending executors.
+     */
+    void setLenders(List<GradingExecutor> lenders) {
+        this.lenders = List.copyOf(lenders);
+    }
+
+    /**
+     * Executes the task of another executor if this executor has an idle worker and no waiting tasks.
+     *
+     * @param mode The submission mode.
+     * @param task The task to execute.
+     * @return {@code true} if the task was accepted.
+     */
+    boolean tryExecuteIfIdle(SubmissionMode mode, Runnable task) {
+        var lane = this.lanes.get(mode);
+        this.lock.lock();
+        try {
+            if (!this.hasIdleWorker(lane) || this.lanes.values().stream().anyMatch(l -> !l.queue.isEmpty()))
+                return false;
+        } finally {
+            this.lock.unlock();
+        }
+
+        try {
+            this.submit(lane, task);
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+        this.lentCount.increment();
+        return true;
+    }
+
+    private boolean hasIdleWorker(Lane lane) {
+        this.lock.lock();
+        try {
+            return this.workerCount < this.maxWorkers && lane.running < lane.maxRunning && lane.queue.isEmpty();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void submit(Lane lane, Runnable task) {
+        var queued = new QueuedTask(task, System.nanoTime());
+        boolean startWorker;
+
+        this.lock.lock();
+        try {
+            if (this.executor.isShutdown())
+                throw new RejectedExecutionException("Grading executor has been shut down");
+            if (lane.queue.size() >= lane.queueCapacity)
+                throw new RejectedExecutionException("Queue capacity of " + lane.queueCapacity + " reached");
+
+            // an idle lane must not collect credit while it has nothing to do
+            if (lane.queue.isEmpty())
+                lane.pass = Math.max(lane.pass, this.virtualTime);
+            lane.queue.add(queued);
+
+            startWorker = this.workerCount < this.maxWorkers && lane.running < lane.maxRunning;
+            if (startWorker)
+                this.workerCount++;
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (!startWorker)
+            return;
+
+        try {
+            this.executor.execute(this::work);
+        } catch (RejectedExecutionException ex) {
+            this.lock.lock();
+            try {
+                this.workerCount--;
+                lane.queue.remove(queued);
+            } finally {
+                this.lock.unlock();
+            }
+            throw ex;
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Lane lane;
+            QueuedTask next;
+
+            this.lock.lock();
+            try {
+                lane = this.nextLane();
+                if (lane == null) {
+                    this.workerCount--;
+                    return;
+                }
+
+                next = lane.queue.poll();
+                lane.running++;
+                this.virtualTime = lane.pass;
+                lane.pass += 1.0 / lane.weight;
+            } finally {
+                this.lock.unlock();
+            }
+
+            lane.waitTime.record(System.nanoTime() - next.enqueuedAt());
+            Thread.interrupted(); // do not let a stale interrupt abort the next task
+            try {
+                this.runInSlot(next.task());
+            } catch (RuntimeException ex) {
+                LOG.error("Grading task failed", ex);
+            } finally {
+                this.lock.lock();
+                try {
+                    lane.running--;
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        }
+    }
+
+    private Lane nextLane() {
+        Lane result = null;
+        for (Lane lane : this.lanes.values()) {
+            if (lane.queue.isEmpty() || lane.running >= lane.maxRunning)
+                continue;
+            if (result == null || lane.pass < result.pass)
+                result = lane;
+        }
+        return result;
+    }
+
+    private void runInSlot(Runnable task) {
+        try {
+            this.evaluationSlots.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while waiting for an evaluation slot, task is not executed");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            this.evaluationSlots.release(System.nanoTime() - start);
+            this.completedCount.increment();
+        }
+    }
+
+    /**
+     * Gets the histogram of the time submissions of the specified mode waited for a worker.
+     *
+     * @param mode The submission mode.
+     * @return The wait time histogram.
+     */
+    public LatencyHistogram getWaitTimeHistogram(SubmissionMode mode) {
+        return this.lanes.get(mode).waitTime;
+    }
+
+    /**
+     * Gets whether background evaluations run on virtual threads.
+     *
+     * @return {@code true} if virtual threads are used.
+     */
+    @ManagedAttribute(description = "Whether background evaluations run on virtual threads")
+    public boolean isVirtualThreads() {
+        return this.pool == null;
+    }
+
+    /**
+     * Gets the number of tasks waiting for a worker.
+     *
+     * @return The queue depth.
+     */
+    @ManagedAttribute(description = "Number of tasks waiting for a worker")
+    public int getQueueDepth() {
+        this.lock.lock();
+        try {
+            return this.lanes.values().stream().mapToInt(l -> l.queue.size()).sum();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the maximum number of tasks waiting for a worker in all lanes.
+     *
+     * @return The queue capacity.
+     */
+    @ManagedAttribute(description = "Maximum number of tasks waiting for a worker in all lanes")
+    public int getQueueCapacity() {
+        return this.lanes.values().stream().mapToInt(l -> l.queueCapacity).sum();
+    }
+
+    /**
+     * Gets the number of tasks waiting for a worker per lane.
+     *
+     * @return The queue depths by lane.
+     */
+    @ManagedAttribute(description = "Number of tasks waiting for a worker per lane")
+    public Map<String, Integer> getLaneQueueDepths() {
+        this.lock.lock();
+        try {
+            var result = new LinkedHashMap<String, Integer>();
+            this.lanes.forEach((mode, lane) -> result.put(mode.name(), lane.queue.size()));
+            return result;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of tasks currently executed per lane.
+     *
+     * @return The number of running tasks by lane.
+     */
+    @ManagedAttribute(description = "Number of tasks currently executed per lane")
+    public Map<String, Integer> getLaneRunningTasks() {
+        this.lock.lock();
+        try {
+            var result = new LinkedHashMap<String, Integer>();
+            this.lanes.forEach((mode, lane) -> result.put(mode.name(), lane.running));
+            return result;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the cumulative histograms of the time tasks waited for a worker per lane.
+     *
+     * @return The wait time histograms by lane.
+     */
+    @ManagedAttribute(description = "Cumulative histograms of the time tasks waited for a worker per lane")
+    public Map<String, Map<String, Long>> getLaneWaitTimes() {
+        var result = new LinkedHashMap<String, Map<String, Long>>();
+        this.lanes.forEach((mode, lane) -> result.put(mode.name(), lane.waitTime.toMap()));
+        return result;
+    }
+
+    /**
+     * Gets the number of tasks that can be accepted at the moment without being rejected.
+     *
+     * @return The available capacity.
+     */
+    @ManagedAttribute(description = "Number of tasks that can be accepted at the moment without being rejected")
+    public int getAvailableCapacity() {
+        if (this.executor.isShutdown())
+            return 0;
+
+        this.lock.lock();
+        try {
+            int queued = this.lanes.values().stream().mapToInt(l -> l.queueCapacity - l.queue.size()).sum();
+            return queued + Math.max(0, this.maxWorkers - this.workerCount);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of tasks of the specified mode that can be accepted at the moment without being rejected.
+     *
+     * @param mode The submission mode.
+     * @return The available capacity of the lane.
+     */
+    public int getAvailableCapacity(SubmissionMode mode) {
+        if (this.executor.isShutdown())
+            return 0;
+
+        var lane = this.lanes.get(mode);
+        this.lock.lock();
+        try {
+            int idle = Math.min(this.maxWorkers - this.workerCount, lane.maxRunning - lane.running);
+            return lane.queueCapacity - lane.queue.size() + Math.max(0, idle);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of workers currently executing a task.
+     *
+     * @return The number of active workers.
+     */
+    @ManagedAttribute(description = "Number of workers currently executing a task")
+    public int getActiveWorkers() {
+        return this.pool == null ? this.getRunningEvaluations() : this.pool.getActiveCount();
+    }
+
+    /**
+     * Gets the current number of workers in the pool.
+     *
+     * @return The pool size.
+     */
+    @ManagedAttribute(description = "Current number of workers in the pool")
+    public int getPoolSize() {
+        if (this.pool != null)
+            return this.pool.getPoolSize();
+
+        this.lock.lock();
+        try {
+            return this.workerCount;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the maximum number of workers.
+     *
+     * @return The maximum pool size.
+     */
+    @ManagedAttribute(description = "Maximum number of workers")
+    public int getMaxPoolSize() {
+        return this.maxWorkers;
+    }
+
+    /**
+     * Gets the number of evaluations (background and synchronous) currently running.
+     *
+     * @return The number of running evaluations.
+     */
+    @ManagedAttribute(description = "Number of evaluations (background and synchronous) currently running")
+    public int getRunningEvaluations() {
+        return this.evaluationSlots.getInFlight();
+    }
+
+    /**
+     * Gets the maximum number of evaluations (background and synchronous) running at the same time.
+     *
+     * @return The maximum number of concurrent evaluations.
+     */
+    @ManagedAttribute(description = "Maximum number of evaluations (background and synchronous) running at the same time")
+    public int getMaxConcurrentEvaluations() {
+        return this.config.getMaxConcurrentEvaluations();
+    }
+
+    /**
+     * Gets the current limit of evaluations running at the same time; equals the maximum unless the limit is adaptive.
+     *
+     * @return The current concurrency limit.
+     */
+    @ManagedAttribute(description = "Current limit of evaluations running at the same time (adaptive or maximum)")
+    public int getConcurrencyLimit() {
+        return this.evaluationSlots.getLimit();
+    }
+
+    /**
+     * Gets the long-term average evaluation latency the adaptive limit is based on.
+     *
+     * @return The average latency in milliseconds or {@code 0} if the limit is not adaptive.
+     */
+    @ManagedAttribute(description = "Long-term average evaluation latency in milliseconds (adaptive limit only)")
+    public double getLatencyEstimate() {
+        return this.evaluationSlots.getLatencyEstimate();
+    }
+
+    /**
+     * Gets the average latency of the recent evaluations the adaptive limit is based on.
+     *
+     * @return The recent latency in milliseconds or {@code 0} if the limit is not adaptive.
+     */
+    @ManagedAttribute(description = "Average latency of the recent evaluations in milliseconds (adaptive limit only)")
+    public double getRecentLatency() {
+        return this.evaluationSlots.getRecentLatency();
+    }
+
+    /**
+     * Gets the number of completed tasks.
+     *
+     * @return The number of completed tasks.
+     */
+    @ManagedAttribute(description = "Number of completed tasks")
+    public long getCompletedCount() {
+        return this.completedCount.sum();
+    }
+
+    /**
+     * Gets the number of tasks that could not be queued because the queue was full or no evaluation slot was available.
+     *
+     * @return The number of rejections.
+     */
+    @ManagedAttribute(description = "Number of tasks that could not be queued because the queue was full or no evaluation slot was available")
+    public long getRejectedCount() {
+        return this.rejectedCount.sum();
+    }
+
+    /**
+     * Gets the number of tasks of other executors executed by borrowed workers of this executor.
+     *
+     * @return The number of lent tasks.
+     */
+    @ManagedAttribute(description = "Number of tasks of other executors executed by borrowed workers of this executor")
+    public long getLentCount() {
+        return this.lentCount.sum();
+    }
+
+    /**
+     * Gets the number of evaluations that exceeded their timeout.
+     *
+     * @return The number of timeouts.
+     */
+    @ManagedAttribute(description = "Number of evaluations that exceeded their timeout")
+    public long getTimedOutCount() {
+        return this.timedOutCount.sum();
+    }
+
+    /**
+     * Gets the number of jobs handed back because they did not finish before the shutdown.
+     *
+     * @return The number of handed back jobs.
+     */
+    @ManagedAttribute(description = "Number of jobs handed back because they did not finish before the shutdown")
+    public long getHandedBackCount() {
+        return this.handedBackCount.sum();
+    }
+
+    /**
+     * Gets whether the executor stopped accepting background tasks.
+     *
+     * @return {@code true} if the executor is draining or has been shut down.
+     */
+    @ManagedAttribute(description = "Whether the executor stopped accepting background tasks")
+    public boolean isDraining() {
+        return this.executor.isShutdown();
+    }
+
+    /**
+     * Stops accepting background tasks; already queued and running tasks are still executed.
+     * <p>
+     * Synchronous evaluations ({@link #evaluateInCallingThread(Supplier)}) are still accepted, as they are bound to a request the
+     * web server finishes during its graceful shutdown.
+     */
+    public void drain() {
+        LOG.info("Draining grading executor");
+        this.executor.shutdown();
+    }
+
+    /**
+     * Waits until all queued and running evaluations have finished after {@link #drain()}.
+     *
+     * @param timeout The maximum time to wait.
+     * @return {@code true} if all evaluations have finished; {@code false} if the timeout elapsed before.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        if (!this.executor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS))
+            return false;
+
+        // evaluations in calling threads are not tracked by the workers
+        while (this.evaluationSlots.getInFlight() > 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return false;
+            Thread.sleep(Math.min(TimeUnit.NANOSECONDS.toMillis(remaining) + 1, 50));
+        }
+        return true;
+    }
+
+    /**
+     * Hands back all queued and running jobs, e.g. because they did not finish within the shutdown grace period.
+     * <p>
+     * Handed back jobs are not started anymore or are interrupted (see {@link GradingJob#whenFinished()}).
+     *
+     * @return The number of handed back jobs.
+     */
+    public int handBack() {
+        // queued jobs first, otherwise a worker of an interrupted job could start one of them
+        int count = 0;
+        for (GradingJob job : this.jobs.values()) {
+            if (job.getState() == GradingJob.State.QUEUED && job.handBack())
+                count++;
+        }
+        for (GradingJob job : this.jobs.values()) {
+            if (job.handBack())
+                count++;
+        }
+        this.handedBackCount.add(count);
+        return count;
+    }
+
+    /**
+     * Shuts down the workers; already queued tasks are still executed.
+     */
+    @Override
+    public void destroy() {
+        LOG.info("Shutting down grading executor");
+        this.executor.shutdown();
+        this.watchdog.shutdown();
+    }
+
+    /**
+     * Waits until all tasks have completed after {@link #destroy()}.
+     *
+     * @param timeout The maximum time to wait.
+     * @return {@code true} if all tasks have completed; {@code false} if the timeout elapsed before.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return this.executor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS) &&
+               this.watchdog.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    private record QueuedTask(Runnable task, long enqueuedAt) {
+    }
+
+    private static final class Lane {
+        private final ArrayDeque<QueuedTask> queue;
+        private final int queueCapacity;
+        private final int weight;
+        private final int maxRunning;
+        private final LatencyHistogram waitTime;
+        private int running;
+        private double pass;
+
+        private Lane(GradingConfiguration.LaneConfiguration config, int defaultQueueCapacity, int maxWorkers) {
+            this.queueCapacity = config.getQueueCapacity() == null ? defaultQueueCapacity : config.getQueueCapacity();
+            this.queue = new ArrayDeque<>();
+            this.weight = config.getWeight();
+            this.maxRunning = Math.max(1, (int) Math.ceil(config.getMaxShare() * maxWorkers));
+            this.waitTime = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Queue of the worker pool which lets the pool start new workers (up to the max pool size) instead of queueing if no worker is idle.
+     */
+    private static final class WorkerQueue extends LinkedTransferQueue<Runnable> {
+        private transient ThreadPoolExecutor pool;
+
+        @Override
+        public boolean offer(Runnable runnable) {
+            return this.tryTransfer(runnable) || (this.pool.getPoolSize() >= this.pool.getMaximumPoolSize() && super.offer(runnable));
+        }
+
+        private void force(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown())
+                throw new RejectedExecutionException("Grading executor has been shut down");
+            super.offer(runnable);
+        }
+    }
+}
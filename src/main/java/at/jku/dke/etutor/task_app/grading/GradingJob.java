@@ -0,0 +1,287 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a single evaluation that can time out or be cancelled.
+ * <p>
+ * Cancellation is cooperative: the thread running the evaluation is interrupted, so blocking operations (e.g. JDBC queries, sleeps)
+ * abort. Long-running computations should call {@link #throwIfCancelled()} regularly.
+ */
+public final class GradingJob {
+    private static final ThreadLocal<GradingJob> CURRENT = new ThreadLocal<>();
+
+    private final UUID id;
+    private final SubmissionMode mode;
+    private final Duration timeout;
+    private final Runnable onTimeout;
+    private final AtomicReference<State> state;
+    private final ReentrantLock threadLock;
+    private final CompletableFuture<Void> started;
+    private final CompletableFuture<State> finished;
+    private Thread thread;
+
+    /**
+     * Creates a new instance of class {@link GradingJob}.
+     *
+     * @param id        The submission identifier; might be {@code null} if the submission is not persisted.
+     * @param mode      The submission mode.
+     * @param timeout   The maximum duration of the evaluation; {@code null} if unlimited.
+     * @param onTimeout The action executed as soon as the deadline is exceeded (before the evaluation is interrupted); might be {@code null}.
+     */
+    public GradingJob(UUID id, SubmissionMode mode, Duration timeout, Runnable onTimeout) {
+        this.id = id;
+        this.mode = mode;
+        this.timeout = timeout;
+        this.onTimeout = onTimeout;
+        this.state = new AtomicReference<>(State.QUEUED);
+        this.threadLock = new ReentrantLock();
+        this.started = new CompletableFuture<>();
+        this.finished = new CompletableFuture<>();
+    }
+
+    /**
+     * Returns the job evaluated by the current thread.
+     *
+     * @return The current job or {@code null} if the current thread does not evaluate a job.
+     */
+    public static GradingJob current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Throws an {@link EvaluationCancelledException} if the job evaluated by the current thread was cancelled or timed out.
+     *
+     * @throws EvaluationCancelledException If the current job was cancelled or timed out.
+     */
+    public static void throwIfCancelled() {
+        var job = CURRENT.get();
+        if (job != null && job.isTerminated())
+            throw new EvaluationCancelledException("Evaluation " + switch (job.getState()) {
+                case TIMED_OUT -> "timed out";
+                case HANDED_BACK -> "was interrupted by the shutdown";
+                default -> "was cancelled";
+            });
+    }
+
+    /**
+     * Marks the job as running in the current thread.
+     *
+     * @return {@code true} if the job was started; {@code false} if it was cancelled before.
+     */
+    boolean start() {
+        this.threadLock.lock();
+        try {
+            if (!this.state.compareAndSet(State.QUEUED, State.RUNNING))
+                return false;
+            this.thread = Thread.currentThread();
+        } finally {
+            this.threadLock.unlock();
+        }
+        CURRENT.set(this);
+        this.started.complete(null);
+        return true;
+    }
+
+    /**
+     * Detaches the job from the current thread and clears a pending interrupt caused by the job.
+     */
+    void finish() {
+        this.state.compareAndSet(State.RUNNING, State.COMPLETED);
+        CURRENT.remove();
+
+        // no interrupt caused by this job may reach the thread after it was detached
+        this.threadLock.lock();
+        try {
+            this.thread = null;
+            if (this.isTerminated())
+                Thread.interrupted();
+        } finally {
+            this.threadLock.unlock();
+        }
+        this.finished.complete(this.state.get());
+    }
+
+    /**
+     * Marks the job as completed.
+     * <p>
+     * Call this method before storing the evaluation result; the result must be discarded if this method returns {@code false}.
+     *
+     * @return {@code true} if the job was completed; {@code false} if it was cancelled or timed out before.
+     */
+    public boolean complete() {
+        return this.state.compareAndSet(State.RUNNING, State.COMPLETED) || this.state.get() == State.COMPLETED;
+    }
+
+    /**
+     * Cancels the job and interrupts the thread evaluating it.
+     *
+     * @return {@code true} if the job was cancelled; {@code false} if it already completed or timed out.
+     */
+    public boolean cancel() {
+        if (this.state.compareAndSet(State.QUEUED, State.CANCELLED)) {
+            // the job will never be started, so it is finished now
+            this.finished.complete(State.CANCELLED);
+            return true;
+        }
+        if (!this.state.compareAndSet(State.RUNNING, State.CANCELLED))
+            return false;
+        this.interrupt();
+        return true;
+    }
+
+    /**
+     * Gives the job back because the executor shuts down, and interrupts the thread evaluating it.
+     * <p>
+     * Unlike a cancelled job, the submission should be evaluated later (e.g. by another node).
+     *
+     * @return {@code true} if the job was handed back; {@code false} if it already completed, was cancelled or timed out.
+     */
+    public boolean handBack() {
+        if (this.state.compareAndSet(State.QUEUED, State.HANDED_BACK)) {
+            this.finished.complete(State.HANDED_BACK);
+            return true;
+        }
+        if (!this.state.compareAndSet(State.RUNNING, State.HANDED_BACK))
+            return false;
+        this.interrupt();
+        return true;
+    }
+
+    /**
+     * Marks the job as timed out, executes the timeout action and interrupts the thread evaluating it.
+     *
+     * @return {@code true} if the job timed out; {@code false} if it already completed or was cancelled.
+     */
+    boolean timeout() {
+        if (!this.state.compareAndSet(State.RUNNING, State.TIMED_OUT))
+            return false;
+        try {
+            if (this.onTimeout != null)
+                this.onTimeout.run();
+        } finally {
+            this.interrupt();
+        }
+        return true;
+    }
+
+    private void interrupt() {
+        this.threadLock.lock();
+        try {
+            if (this.thread != null)
+                this.thread.interrupt();
+        } finally {
+            this.threadLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the submission identifier.
+     *
+     * @return The submission identifier; might be {@code null}.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Gets the submission mode.
+     *
+     * @return The submission mode.
+     */
+    public SubmissionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the maximum duration of the evaluation.
+     *
+     * @return The timeout or {@code null} if unlimited.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Gets the state of the job.
+     *
+     * @return The state.
+     */
+    public State getState() {
+        return this.state.get();
+    }
+
+    /**
+     * Returns a future that is completed as soon as the evaluation of the job has been started.
+     * <p>
+     * The future is never completed if the job is cancelled before it was started.
+     *
+     * @return The future.
+     */
+    public CompletableFuture<Void> whenStarted() {
+        return this.started.copy();
+    }
+
+    /**
+     * Returns a future that is completed with the final state of the job as soon as the thread evaluating it has been detached, or
+     * as soon as the job has been cancelled before it was started.
+     * <p>
+     * The future is never completed if the job is never submitted to a {@link GradingExecutor}.
+     *
+     * @return The future.
+     */
+    public CompletableFuture<State> whenFinished() {
+        return this.finished.copy();
+    }
+
+    /**
+     * Returns whether the job was cancelled, timed out or handed back.
+     *
+     * @return {@code true} if the job was cancelled, timed out or handed back.
+     */
+    public boolean isTerminated() {
+        var s = this.state.get();
+        return s == State.CANCELLED || s == State.TIMED_OUT || s == State.HANDED_BACK;
+    }
+
+    /**
+     * The states of a job.
+     */
+    public enum State {
+        /**
+         * The job waits for a worker.
+         */
+        QUEUED,
+
+        /**
+         * The job is being evaluated.
+         */
+        RUNNING,
+
+        /**
+         * The evaluation finished.
+         */
+        COMPLETED,
+
+        /**
+         * The job was cancelled.
+         */
+        CANCELLED,
+
+        /**
+         * The evaluation exceeded its deadline.
+         */
+        TIMED_OUT,
+
+        /**
+         * The job was not finished before the executor shut down and has to be evaluated again.
+         */
+        HANDED_BACK
+    }
+}
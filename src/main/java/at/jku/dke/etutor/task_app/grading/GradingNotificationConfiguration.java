@@ -0,0 +1,89 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Loads the settings of the cross-node result notifications from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("grading.notification")
+public class GradingNotificationConfiguration {
+
+    private boolean enabled;
+
+    @NotEmpty
+    private String channel;
+
+    @NotNull
+    private Duration pollInterval;
+
+    /**
+     * Creates a new instance of class {@link GradingNotificationConfiguration}.
+     */
+    public GradingNotificationConfiguration() {
+        this.enabled = false;
+        this.channel = "grading_result";
+        this.pollInterval = Duration.ofSeconds(2);
+    }
+
+    /**
+     * Gets whether cross-node result notifications are enabled.
+     *
+     * @return {@code true} if stored results are announced to all nodes.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether cross-node result notifications are enabled.
+     *
+     * @param enabled {@code true} if stored results should be announced to all nodes.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the name of the notification channel.
+     *
+     * @return The channel name.
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Sets the name of the notification channel.
+     *
+     * @param channel The channel name; must be shared by all nodes.
+     */
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Gets the interval in which the results of waiting clients are polled while the listener is not connected; also used as delay
+     * between reconnection attempts.
+     *
+     * @return The poll interval.
+     */
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Sets the interval in which the results of waiting clients are polled while the listener is not connected; also used as delay
+     * between reconnection attempts.
+     *
+     * @param pollInterval The poll interval.
+     */
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+}
@@ -0,0 +1,35 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.time.Duration;
+
+/**
+ * Thrown if a submission cannot be accepted for evaluation because the grading capacity is exhausted.
+ */
+public class GradingRejectedException extends RuntimeException {
+
+    /**
+     * The time the client should wait before retrying.
+     */
+    private final Duration retryAfter;
+
+    /**
+     * Creates a new instance of class {@link GradingRejectedException}.
+     *
+     * @param message    The detail message.
+     * @param retryAfter The time the client should wait before retrying.
+     * @param cause      The cause.
+     */
+    public GradingRejectedException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the time the client should wait before retrying.
+     *
+     * @return The retry-after duration.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,170 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache for the evaluation results of identical submissions.
+ * <p>
+ * Many students submit identical solutions (e.g. copied examples or solutions of trivial tasks). The cache stores the result of an
+ * evaluation under the {@link SubmissionFingerprint} of the submission, so that identical submissions are not evaluated again.
+ * <p>
+ * Cached results of a task are removed if the task is invalidated (see {@link SubmissionFingerprinter#invalidateTask(long)});
+ * results of previous task versions are never returned, even if their evaluation was still running during the modification.
+ * <p>
+ * The cache is only available if {@code grading.cache.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grading.cache", name = "enabled", havingValue = "true")
+@ManagedResource(objectName = "at.jku.dke.etutor:type=GradingResultCache", description = "Cache for the evaluation results of identical submissions")
+public class GradingResultCache {
+    private static final Logger LOG = LoggerFactory.getLogger(GradingResultCache.class);
+
+    private final SubmissionFingerprinter fingerprinter;
+    private final TinyLfuCache<SubmissionFingerprint, CachedResult> cache;
+    private final LongAdder savedNanos;
+
+    /**
+     * Creates a new instance of class {@link GradingResultCache}.
+     *
+     * @param config        The cache configuration.
+     * @param fingerprinter The fingerprinter creating the keys of the cache.
+     */
+    public GradingResultCache(GradingCacheConfiguration config, SubmissionFingerprinter fingerprinter) {
+        this.fingerprinter = fingerprinter;
+        this.cache = new TinyLfuCache<>(config.getMaximumSize(), config.getTimeToLive());
+        this.savedNanos = new LongAdder();
+        fingerprinter.addInvalidationListener(this::invalidateTask);
+    }
+
+    /**
+     * Returns the cached result for the specified fingerprint.
+     *
+     * @param fingerprint The submission fingerprint.
+     * @return The evaluation result or {@code null} if no result is cached.
+     */
+    public GradingDto get(SubmissionFingerprint fingerprint) {
+        var cached = this.cache.get(fingerprint);
+        if (cached == null)
+            return null;
+
+        this.savedNanos.add(cached.evaluationNanos());
+        return cached.result();
+    }
+
+    /**
+     * Caches the result for the specified fingerprint.
+     * <p>
+     * The result is ignored if the task has been modified since the fingerprint was created.
+     *
+     * @param fingerprint    The submission fingerprint.
+     * @param result         The evaluation result.
+     * @param evaluationTime The time the evaluation took.
+     */
+    public void put(SubmissionFingerprint fingerprint, GradingDto result, Duration evaluationTime) {
+        if (!this.fingerprinter.isCurrent(fingerprint))
+            return;
+        this.cache.put(fingerprint, new CachedResult(result, evaluationTime.toNanos()));
+    }
+
+    /**
+     * Removes the cached results of the specified task, e.g. because the task has been modified.
+     *
+     * @param taskId The task identifier.
+     */
+    private void invalidateTask(long taskId) {
+        int removed = this.cache.invalidateAll(key -> key.taskId() == taskId);
+        LOG.debug("Removed {} cached results of task {}", removed, taskId);
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    @ManagedOperation(description = "Removes all cached results")
+    public void clear() {
+        this.cache.clear();
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return The number of cached results.
+     */
+    @ManagedAttribute(description = "Number of cached results")
+    public int getSize() {
+        return this.cache.size();
+    }
+
+    /**
+     * Gets the number of submissions whose result was taken from the cache.
+     *
+     * @return The number of hits.
+     */
+    @ManagedAttribute(description = "Number of submissions whose result was taken from the cache")
+    public long getHitCount() {
+        return this.cache.getHitCount();
+    }
+
+    /**
+     * Gets the number of submissions that had to be evaluated.
+     *
+     * @return The number of misses.
+     */
+    @ManagedAttribute(description = "Number of submissions that had to be evaluated")
+    public long getMissCount() {
+        return this.cache.getMissCount();
+    }
+
+    /**
+     * Gets the ratio of submissions whose result was taken from the cache.
+     *
+     * @return The hit ratio between 0 and 1.
+     */
+    @ManagedAttribute(description = "Ratio of submissions whose result was taken from the cache")
+    public double getHitRatio() {
+        long hits = this.getHitCount();
+        long total = hits + this.getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Gets the number of results removed because the cache was full.
+     *
+     * @return The number of evictions.
+     */
+    @ManagedAttribute(description = "Number of results removed because the cache was full")
+    public long getEvictionCount() {
+        return this.cache.getEvictionCount();
+    }
+
+    /**
+     * Gets the evaluation time saved by cache hits.
+     *
+     * @return The sum of the original evaluation times of all hits.
+     */
+    public Duration getSavedEvaluationTime() {
+        return Duration.ofNanos(this.savedNanos.sum());
+    }
+
+    /**
+     * Gets the evaluation time saved by cache hits in milliseconds.
+     *
+     * @return The sum of the original evaluation times of all hits in milliseconds.
+     */
+    @ManagedAttribute(description = "Evaluation time saved by cache hits in milliseconds")
+    public long getSavedEvaluationTimeMillis() {
+        return this.getSavedEvaluationTime().toMillis();
+    }
+
+    private record CachedResult(GradingDto result, long evaluationNanos) {
+    }
+}
@@ -0,0 +1,301 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Announces stored evaluation results to all nodes using PostgreSQL {@code LISTEN}/{@code NOTIFY}.
+ * <p>
+ * The node storing a result sends the submission identifier to the notification channel. Every node listens to the channel on a
+ * dedicated connection and completes its waiting clients (see {@link GradingCompletionRegistry}) by loading the announced results.
+ * While the listener is not connected (e.g. because the database restarted), the results of all waiting clients are polled
+ * periodically instead.
+ * <p>
+ * The notifier requires the PostgreSQL JDBC driver and is only available if {@code grading.notification.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grading.notification", name = "enabled", havingValue = "true")
+@ManagedResource(objectName = "at.jku.dke.etutor:type=GradingResultNotifier", description = "Announces stored evaluation results to all nodes")
+public class GradingResultNotifier implements SmartLifecycle {
+    private static final Logger LOG = LoggerFactory.getLogger(GradingResultNotifier.class);
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final int IDS_PER_NOTIFICATION = 200; // payloads are limited to 8000 bytes
+    private static final int RECEIVE_TIMEOUT_MILLIS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GradingCompletionRegistry registry;
+    private final GradingNotificationConfiguration config;
+    private final LongAdder published;
+    private final LongAdder received;
+    private final LongAdder connectionLosses;
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listener;
+
+    /**
+     * Creates a new instance of class {@link GradingResultNotifier}.
+     *
+     * @param jdbcTemplate The JDBC template.
+     * @param registry     The registry of waiting clients.
+     * @param config       The notification configuration.
+     */
+    public GradingResultNotifier(JdbcTemplate jdbcTemplate, GradingCompletionRegistry registry, GradingNotificationConfiguration config) {
+        if (!CHANNEL_PATTERN.matcher(config.getChannel()).matches())
+            throw new IllegalArgumentException("Invalid notification channel: " + config.getChannel());
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.registry = registry;
+        this.config = config;
+        this.published = new LongAdder();
+        this.received = new LongAdder();
+        this.connectionLosses = new LongAdder();
+    }
+
+    /**
+     * Announces the stored result of the specified submission.
+     * <p>
+     * If the current transaction has not been committed yet, the notification is delivered on commit.
+     *
+     * @param submissionId The submission identifier.
+     */
+    public void publish(UUID submissionId) {
+        this.publish(List.of(submissionId));
+    }
+
+    /**
+     * Announces the stored results of the specified submissions.
+     * <p>
+     * If the current transaction has not been committed yet, the notifications are delivered on commit.
+     *
+     * @param submissionIds The submission identifiers.
+     */
+    public void publish(Collection<UUID> submissionIds) {
+        var ids = new ArrayList<>(submissionIds);
+        for (int i = 0; i < ids.size(); i += IDS_PER_NOTIFICATION) {
+            var payload = String.join(",", ids.subList(i, Math.min(ids.size(), i + IDS_PER_NOTIFICATION)).stream().map(UUID::toString).toList());
+            try {
+                this.jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Object>) rs -> null, this.config.getChannel(), payload);
+                this.published.increment();
+            } catch (RuntimeException ex) {
+                // waiting clients of other nodes receive the result by polling or timeout
+                LOG.warn("Could not announce results of {} submissions", ids.size(), ex);
+            }
+        }
+    }
+
+    /**
+     * Completes the waiting clients of the submissions announced in the payload.
+     *
+     * @param payload The notification payload.
+     */
+    void receive(String payload) {
+        this.received.increment();
+        for (String id : payload.split(",")) {
+            try {
+                this.registry.reload(UUID.fromString(id.trim()));
+            } catch (IllegalArgumentException ex) {
+                LOG.warn("Ignoring invalid submission identifier {} in notification", id);
+            }
+        }
+    }
+
+    private void listen() {
+        while (this.running) {
+            try (Connection connection = this.getDataSource().getConnection()) {
+                var receiver = new NotificationReceiver(connection);
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + this.config.getChannel());
+                }
+                this.listening = true;
+                LOG.info("Listening for evaluation results on channel {}", this.config.getChannel());
+
+                // results stored while not listening
+                this.registry.reloadAll();
+                while (this.running) {
+                    for (String payload : receiver.receive(RECEIVE_TIMEOUT_MILLIS))
+                        this.receive(payload);
+                }
+            } catch (SQLException | ReflectiveOperationException | RuntimeException ex) {
+                if (!this.running)
+                    break;
+                if (this.listening) {
+                    this.connectionLosses.increment();
+                    LOG.warn("Lost connection of result listener, polling results until reconnected", ex);
+                } else {
+                    LOG.debug("Could not connect result listener", ex);
+                }
+            } finally {
+                this.listening = false;
+            }
+
+            this.pollUntilReconnect();
+        }
+    }
+
+    private void pollUntilReconnect() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(this.config.getPollInterval().toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (this.running)
+            this.registry.reloadAll();
+    }
+
+    private DataSource getDataSource() {
+        var dataSource = this.jdbcTemplate.getDataSource();
+        if (dataSource == null)
+            throw new IllegalStateException("No data source configured");
+        return dataSource;
+    }
+
+    /**
+     * Returns whether the listener is connected.
+     *
+     * @return {@code true} if notifications are received; {@code false} if results are polled.
+     */
+    @ManagedAttribute(description = "Whether notifications are received (otherwise results are polled)")
+    public boolean isListening() {
+        return this.listening;
+    }
+
+    /**
+     * Gets the number of sent notifications.
+     *
+     * @return The number of sent notifications.
+     */
+    @ManagedAttribute(description = "Number of sent notifications")
+    public long getPublishedCount() {
+        return this.published.sum();
+    }
+
+    /**
+     * Gets the number of received notifications.
+     *
+     * @return The number of received notifications.
+     */
+    @ManagedAttribute(description = "Number of received notifications")
+    public long getReceivedCount() {
+        return this.received.sum();
+    }
+
+    /**
+     * Gets the number of times the listener lost its connection.
+     *
+     * @return The number of connection losses.
+     */
+    @ManagedAttribute(description = "Number of times the listener lost its connection")
+    public long getConnectionLossCount() {
+        return this.connectionLosses.sum();
+    }
+
+    /**
+     * Starts listening for notifications.
+     */
+    @Override
+    public void start() {
+        this.running = true;
+        var thread = new CustomizableThreadFactory("grading-result-listener-").newThread(this::listen);
+        thread.setDaemon(true);
+        thread.start();
+        this.listener = thread;
+    }
+
+    /**
+     * Stops listening for notifications.
+     */
+    @Override
+    public void stop() {
+        LOG.info("Stopping result listener");
+        this.running = false;
+        var thread = this.listener;
+        this.listener = null;
+        if (thread == null)
+            return;
+
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns whether the notifier is running.
+     *
+     * @return {@code true} if the notifier listens for notifications or polls results.
+     */
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Returns the lifecycle phase; the component is stopped after the evaluations have been drained.
+     *
+     * @return The phase after {@link GradingShutdownCoordinator#PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return GradingShutdownCoordinator.PHASE - 1;
+    }
+
+    /**
+     * Receives notifications using the PostgreSQL JDBC driver, which is accessed reflectively as it is an optional dependency.
+     */
+    private static final class NotificationReceiver {
+        private final Object connection;
+        private final Method getNotifications;
+        private final Method getParameter;
+
+        NotificationReceiver(Connection connection) throws SQLException, ReflectiveOperationException {
+            var classLoader = GradingResultNotifier.class.getClassLoader();
+            Class<?> pgConnection = ClassUtils.forName("org.postgresql.PGConnection", classLoader);
+            this.connection = connection.unwrap(pgConnection);
+            this.getNotifications = pgConnection.getMethod("getNotifications", int.class);
+            this.getParameter = ClassUtils.forName("org.postgresql.PGNotification", classLoader).getMethod("getParameter");
+        }
+
+        List<String> receive(int timeoutMillis) throws SQLException, ReflectiveOperationException {
+            Object[] notifications;
+            try {
+                notifications = (Object[]) this.getNotifications.invoke(this.connection, timeoutMillis);
+            } catch (InvocationTargetException ex) {
+                if (ex.getCause() instanceof SQLException sqlException)
+                    throw sqlException;
+                throw ex;
+            }
+
+            if (notifications == null)
+                return List.of();
+            var payloads = new ArrayList<String>(notifications.length);
+            for (Object notification : notifications)
+                payloads.add((String) this.getParameter.invoke(notification));
+            return payloads;
+        }
+    }
+}
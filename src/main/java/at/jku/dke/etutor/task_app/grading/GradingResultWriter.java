@@ -0,0 +1,293 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for evaluation results.
+ * <p>
+ * Instead of loading and saving the submission entity in a separate transaction per result, finished results are buffered and
+ * written with batched {@code UPDATE} statements as soon as the flush interval elapsed or the batch size is reached. Results
+ * are visible in the database at most one flush interval after they have been added; {@link #getPending(UUID)} returns results
+ * that have not been written yet. The buffer is written when the application shuts down; results added afterward are written
+ * immediately.
+ * <p>
+ * The writer requires PostgreSQL and a {@code json} or {@code jsonb} column {@code evaluation_result} in the submission table
+ * (the table name can be configured). It is only available if {@code grading.write-behind.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grading.write-behind", name = "enabled", havingValue = "true")
+@ManagedResource(objectName = "at.jku.dke.etutor:type=GradingResultWriter", description = "Write-behind buffer for evaluation results")
+public class GradingResultWriter implements SmartLifecycle {
+    private static final Logger LOG = LoggerFactory.getLogger(GradingResultWriter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final GradingResultWriterConfiguration config;
+    private final String updateSql;
+    private final ReentrantLock lock;
+    private final ReentrantLock flushLock;
+    private final LongAdder written;
+    private final LongAdder batches;
+    private final LongAdder failures;
+    private Map<UUID, GradingDto> pending;
+    private Map<UUID, GradingDto> flushing;
+    private volatile ScheduledExecutorService scheduler;
+    private GradingResultNotifier resultNotifier;
+
+    /**
+     * Creates a new instance of class {@link GradingResultWriter}.
+     *
+     * @param jdbcTemplate The JDBC template.
+     * @param objectMapper The object mapper used to serialize the results.
+     * @param config       The writer configuration.
+     */
+    public GradingResultWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, GradingResultWriterConfiguration config) {
+        if (!SubmissionQueue.TABLE_NAME_PATTERN.matcher(config.getTableName()).matches())
+            throw new IllegalArgumentException("Invalid submission table name: " + config.getTableName());
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.updateSql = "UPDATE " + config.getTableName() + " SET evaluation_result = CAST(? AS jsonb) WHERE id = ?";
+        this.lock = new ReentrantLock();
+        this.flushLock = new ReentrantLock();
+        this.written = new LongAdder();
+        this.batches = new LongAdder();
+        this.failures = new LongAdder();
+        this.pending = new LinkedHashMap<>();
+        this.flushing = Map.of();
+    }
+
+    /**
+     * Sets the notifier announcing written results to all nodes.
+     *
+     * @param resultNotifier The result notifier.
+     */
+    @Autowired(required = false)
+    public void setResultNotifier(GradingResultNotifier resultNotifier) {
+        this.resultNotifier = resultNotifier;
+    }
+
+    /**
+     * Adds the result of the specified submission to the buffer.
+     * <p>
+     * A buffered result of the same submission is replaced.
+     *
+     * @param submissionId The submission identifier.
+     * @param result       The evaluation result.
+     */
+    public void write(UUID submissionId, GradingDto result) {
+        int size;
+        this.lock.lock();
+        try {
+            this.pending.put(submissionId, result);
+            size = this.pending.size();
+        } finally {
+            this.lock.unlock();
+        }
+
+        var executor = this.scheduler;
+        if (executor == null || size >= this.config.getMaxPending()) {
+            // not running or buffer full: write in the calling thread
+            this.flush();
+        } else if (size == this.config.getBatchSize()) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException ex) {
+                this.flush();
+            }
+        }
+    }
+
+    /**
+     * Returns the buffered result of the specified submission.
+     *
+     * @param submissionId The submission identifier.
+     * @return The result or {@code null} if no result of the submission is waiting to be written.
+     */
+    public GradingDto getPending(UUID submissionId) {
+        this.lock.lock();
+        try {
+            var result = this.pending.get(submissionId);
+            return result != null ? result : this.flushing.get(submissionId);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes all buffered results.
+     * <p>
+     * If the batch cannot be written, its results are returned to the buffer (unless a newer result has been added meanwhile)
+     * and written with the next flush.
+     */
+    @ManagedOperation(description = "Writes all buffered results")
+    public void flush() {
+        this.flushLock.lock();
+        try {
+            Map<UUID, GradingDto> batch;
+            this.lock.lock();
+            try {
+                if (this.pending.isEmpty())
+                    return;
+                batch = this.pending;
+                this.flushing = batch;
+                this.pending = new LinkedHashMap<>();
+            } finally {
+                this.lock.unlock();
+            }
+
+            try {
+                var args = new ArrayList<Object[]>(batch.size());
+                for (var entry : batch.entrySet())
+                    args.add(new Object[]{this.objectMapper.writeValueAsString(entry.getValue()), entry.getKey()});
+                this.jdbcTemplate.batchUpdate(this.updateSql, args);
+                this.written.add(batch.size());
+                this.batches.increment();
+                LOG.debug("Wrote {} evaluation results", batch.size());
+                if (this.resultNotifier != null)
+                    this.resultNotifier.publish(batch.keySet());
+            } catch (JsonProcessingException | RuntimeException ex) {
+                LOG.error("Could not write {} evaluation results, retrying with next flush", batch.size(), ex);
+                this.failures.increment();
+                this.lock.lock();
+                try {
+                    batch.forEach(this.pending::putIfAbsent);
+                } finally {
+                    this.lock.unlock();
+                }
+            } finally {
+                this.lock.lock();
+                try {
+                    this.flushing = Map.of();
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of results waiting to be written.
+     *
+     * @return The number of buffered results.
+     */
+    @ManagedAttribute(description = "Number of results waiting to be written")
+    public int getPendingCount() {
+        this.lock.lock();
+        try {
+            return this.pending.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of written results.
+     *
+     * @return The number of written results.
+     */
+    @ManagedAttribute(description = "Number of written results")
+    public long getWrittenCount() {
+        return this.written.sum();
+    }
+
+    /**
+     * Gets the number of executed batches.
+     *
+     * @return The number of batches.
+     */
+    @ManagedAttribute(description = "Number of executed batches")
+    public long getBatchCount() {
+        return this.batches.sum();
+    }
+
+    /**
+     * Gets the number of batches that could not be written.
+     *
+     * @return The number of failed batches.
+     */
+    @ManagedAttribute(description = "Number of batches that could not be written")
+    public long getFailedBatchCount() {
+        return this.failures.sum();
+    }
+
+    /**
+     * Starts writing the buffer periodically.
+     */
+    @Override
+    public void start() {
+        LOG.info("Starting write-behind buffer for evaluation results");
+        long interval = this.config.getFlushInterval().toMillis();
+        var executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("grading-result-writer-"));
+        executor.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+        this.scheduler = executor;
+    }
+
+    /**
+     * Stops writing the buffer periodically and writes all buffered results.
+     */
+    @Override
+    public void stop() {
+        LOG.info("Stopping write-behind buffer for evaluation results");
+        var executor = this.scheduler;
+        this.scheduler = null;
+        if (executor != null)
+            executor.shutdown();
+        this.flush();
+    }
+
+    /**
+     * Returns whether the buffer is written periodically.
+     *
+     * @return {@code true} if the writer is running.
+     */
+    @Override
+    public boolean isRunning() {
+        return this.scheduler != null;
+    }
+
+    /**
+     * Returns the lifecycle phase; the component is stopped after the evaluations have been drained.
+     *
+     * @return The phase after {@link GradingShutdownCoordinator#PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return GradingShutdownCoordinator.PHASE - 1;
+    }
+
+    private void flushSafely() {
+        try {
+            this.flush();
+        } catch (RuntimeException ex) {
+            LOG.error("Could not write evaluation results", ex);
+        }
+    }
+}
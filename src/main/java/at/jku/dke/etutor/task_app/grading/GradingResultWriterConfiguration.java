@@ -0,0 +1,132 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Loads the settings of the write-behind buffer for evaluation results from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("grading.write-behind")
+public class GradingResultWriterConfiguration {
+
+    private boolean enabled;
+
+    @NotEmpty
+    private String tableName;
+
+    @NotNull
+    private Duration flushInterval;
+
+    @Min(1)
+    private int batchSize;
+
+    @Min(1)
+    private int maxPending;
+
+    /**
+     * Creates a new instance of class {@link GradingResultWriterConfiguration}.
+     */
+    public GradingResultWriterConfiguration() {
+        this.enabled = false;
+        this.tableName = "submission";
+        this.flushInterval = Duration.ofMillis(200);
+        this.batchSize = 100;
+        this.maxPending = 10000;
+    }
+
+    /**
+     * Gets whether the write-behind buffer is enabled.
+     *
+     * @return {@code true} if evaluation results are written in batches.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the write-behind buffer is enabled.
+     *
+     * @param enabled {@code true} if evaluation results should be written in batches.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the name of the submission table.
+     *
+     * @return The table name.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Sets the name of the submission table.
+     *
+     * @param tableName The table name (optionally qualified with the schema).
+     */
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    /**
+     * Gets the interval in which buffered results are written, i.e. the maximum time a result stays in the buffer.
+     *
+     * @return The flush interval.
+     */
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Sets the interval in which buffered results are written, i.e. the maximum time a result stays in the buffer.
+     *
+     * @param flushInterval The flush interval.
+     */
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Gets the number of buffered results that triggers a flush before the flush interval elapsed.
+     *
+     * @return The batch size.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of buffered results that triggers a flush before the flush interval elapsed.
+     *
+     * @param batchSize The batch size.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the maximum number of buffered results; if exceeded, the thread adding a result writes the buffer itself.
+     *
+     * @return The maximum number of buffered results.
+     */
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * Sets the maximum number of buffered results; if exceeded, the thread adding a result writes the buffer itself.
+     *
+     * @param maxPending The maximum number of buffered results.
+     */
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+}
@@ -0,0 +1,139 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the grading executors when the application shuts down, so that rolling deployments do not lose evaluations.
+ * <p>
+ * On shutdown, the readiness state is set to {@link ReadinessState#REFUSING_TRAFFIC} and the executors stop accepting background
+ * evaluations (new submissions are rejected with status 503, the durable {@link SubmissionQueue} does not claim submissions anymore).
+ * Queued and running evaluations may finish within {@link GradingConfiguration#getShutdownGracePeriod()}; evaluations not finished by
+ * then are handed back: submissions claimed from the durable queue are returned to the queue and evaluated by another node.
+ * <p>
+ * The coordinator stops in phase {@link #PHASE}; grading components it depends on (e.g. {@link GradingResultWriter},
+ * {@link SubmissionQueue}) stop in a later phase.
+ */
+@Component
+public class GradingShutdownCoordinator implements SmartLifecycle {
+    private static final Logger LOG = LoggerFactory.getLogger(GradingShutdownCoordinator.class);
+    private static final Duration HAND_BACK_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * The lifecycle phase of the coordinator.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE;
+
+    private final GradingConfiguration config;
+    private final GradingExecutor gradingExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private GradingBulkheads gradingBulkheads;
+    private volatile boolean running;
+
+    /**
+     * Creates a new instance of class {@link GradingShutdownCoordinator}.
+     *
+     * @param config          The grading configuration.
+     * @param gradingExecutor The shared grading executor.
+     * @param eventPublisher  The publisher of the readiness state.
+     */
+    public GradingShutdownCoordinator(GradingConfiguration config, GradingExecutor gradingExecutor, ApplicationEventPublisher eventPublisher) {
+        this.config = config;
+        this.gradingExecutor = gradingExecutor;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Sets the grading bulkheads whose executors are drained as well.
+     *
+     * @param gradingBulkheads The grading bulkheads.
+     */
+    @Autowired(required = false)
+    public void setGradingBulkheads(GradingBulkheads gradingBulkheads) {
+        this.gradingBulkheads = gradingBulkheads;
+    }
+
+    /**
+     * Marks the coordinator as running.
+     */
+    @Override
+    public void start() {
+        this.running = true;
+    }
+
+    /**
+     * Drains the executors; blocks until all evaluations have finished or have been handed back.
+     */
+    @Override
+    public void stop() {
+        if (!this.running)
+            return;
+        this.running = false;
+
+        AvailabilityChangeEvent.publish(this.eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        var executors = new ArrayList<GradingExecutor>();
+        executors.add(this.gradingExecutor);
+        if (this.gradingBulkheads != null)
+            executors.addAll(this.gradingBulkheads.getExecutors());
+
+        LOG.info("Draining evaluations within {}", this.config.getShutdownGracePeriod());
+        executors.forEach(GradingExecutor::drain);
+        try {
+            if (awaitIdle(executors, this.config.getShutdownGracePeriod())) {
+                LOG.info("All evaluations finished");
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        int count = executors.stream().mapToInt(GradingExecutor::handBack).sum();
+        LOG.warn("Handed back {} evaluations not finished within the grace period", count);
+        try {
+            if (!awaitIdle(executors, HAND_BACK_TIMEOUT))
+                LOG.warn("Handed back evaluations did not stop within {}", HAND_BACK_TIMEOUT);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean awaitIdle(List<GradingExecutor> executors, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (GradingExecutor executor : executors) {
+            if (!executor.awaitIdle(Duration.ofNanos(Math.max(0, deadline - System.nanoTime()))))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the executors accept evaluations.
+     *
+     * @return {@code true} if the coordinator has been started and not yet stopped.
+     */
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Returns the lifecycle phase.
+     *
+     * @return {@link #PHASE}
+     */
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
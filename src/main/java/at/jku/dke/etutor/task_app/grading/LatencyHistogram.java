@@ -0,0 +1,155 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram with fixed buckets for latencies (e.g. the time a submission waits for a worker).
+ * <p>
+ * Recording is lock-free and can be used concurrently; the bucket counts are cumulative in the snapshot returned by
+ * {@link #toMap()}, i.e. each bucket contains all values less than or equal to its upper bound.
+ */
+public class LatencyHistogram {
+    private static final long[] DEFAULT_BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+    private final long[] boundsMillis;
+    private final long[] boundsNanos;
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sumNanos;
+    private final AtomicLong maxNanos;
+
+    /**
+     * Creates a new instance of class {@link LatencyHistogram} with buckets from 1 ms to 60 s.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_BOUNDS_MILLIS);
+    }
+
+    /**
+     * Creates a new instance of class {@link LatencyHistogram}.
+     *
+     * @param boundsMillis The upper bounds of the buckets in milliseconds in ascending order.
+     */
+    public LatencyHistogram(long... boundsMillis) {
+        if (boundsMillis.length == 0)
+            throw new IllegalArgumentException("At least one bucket bound is required.");
+        for (int i = 1; i < boundsMillis.length; i++) {
+            if (boundsMillis[i] <= boundsMillis[i - 1])
+                throw new IllegalArgumentException("Bucket bounds must be in ascending order.");
+        }
+
+        this.boundsMillis = boundsMillis.clone();
+        this.boundsNanos = Arrays.stream(boundsMillis).map(TimeUnit.MILLISECONDS::toNanos).toArray();
+        this.buckets = new LongAdder[boundsMillis.length + 1];
+        for (int i = 0; i < this.buckets.length; i++)
+            this.buckets[i] = new LongAdder();
+        this.count = new LongAdder();
+        this.sumNanos = new LongAdder();
+        this.maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param nanos The value in nanoseconds; negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int index = Arrays.binarySearch(this.boundsNanos, value);
+        this.buckets[index >= 0 ? index : -index - 1].increment();
+        this.count.increment();
+        this.sumNanos.add(value);
+        this.maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param duration The value.
+     */
+    public void record(Duration duration) {
+        this.record(duration.toNanos());
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The number of values.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Gets the sum of all recorded values.
+     *
+     * @return The sum.
+     */
+    public Duration getSum() {
+        return Duration.ofNanos(this.sumNanos.sum());
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum.
+     */
+    public Duration getMax() {
+        return Duration.ofNanos(this.maxNanos.get());
+    }
+
+    /**
+     * Estimates the specified percentile using the upper bound of the bucket the percentile falls into.
+     *
+     * @param percentile The percentile (between 0 and 1).
+     * @return The estimated percentile; {@link Duration#ZERO} if no value was recorded yet.
+     */
+    public Duration getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 1)
+            throw new IllegalArgumentException("The percentile must be between 0 and 1.");
+
+        long[] counts = this.snapshot();
+        long total = Arrays.stream(counts).sum();
+        if (total == 0)
+            return Duration.ZERO;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long cumulative = 0;
+        for (int i = 0; i < this.boundsNanos.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank)
+                return Duration.ofNanos(Math.min(this.boundsNanos[i], this.maxNanos.get()));
+        }
+        return this.getMax();
+    }
+
+    /**
+     * Returns the cumulative bucket counts keyed by their upper bound (e.g. {@code 250ms}); the last bucket is {@code +Inf}.
+     *
+     * @return The bucket counts.
+     */
+    public Map<String, Long> toMap() {
+        long[] counts = this.snapshot();
+        var result = new LinkedHashMap<String, Long>();
+        long cumulative = 0;
+        for (int i = 0; i < this.boundsMillis.length; i++) {
+            cumulative += counts[i];
+            result.put(this.boundsMillis[i] + "ms", cumulative);
+        }
+        result.put("+Inf", cumulative + counts[counts.length - 1]);
+        return result;
+    }
+
+    private long[] snapshot() {
+        long[] counts = new long[this.buckets.length];
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = this.buckets[i].sum();
+        return counts;
+    }
+}
@@ -0,0 +1,40 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link TaskInvalidationChannel} delivering the announcements to the subscribers of this node in the calling thread.
+ */
+public class LocalTaskInvalidationChannel implements TaskInvalidationChannel {
+
+    private final List<Consumer<TaskInvalidation>> listeners;
+
+    /**
+     * Creates a new instance of class {@link LocalTaskInvalidationChannel}.
+     */
+    public LocalTaskInvalidationChannel() {
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Delivers the announcement to all subscribers.
+     *
+     * @param invalidation The announcement.
+     */
+    @Override
+    public void publish(TaskInvalidation invalidation) {
+        this.listeners.forEach(l -> l.accept(invalidation));
+    }
+
+    /**
+     * Subscribes to announced tasks and task groups.
+     *
+     * @param listener The listener receiving the announcements.
+     */
+    @Override
+    public void subscribe(Consumer<TaskInvalidation> listener) {
+        this.listeners.add(listener);
+    }
+}
@@ -0,0 +1,264 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Loads the settings of the result callbacks from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("grading.callback")
+public class ResultCallbackConfiguration {
+
+    private boolean enabled;
+
+    @NotEmpty
+    private String tableName;
+
+    @NotEmpty
+    private String submissionTableName;
+
+    @NotNull
+    private Duration pollInterval;
+
+    @Min(1)
+    private int batchSize;
+
+    @Min(1)
+    private int maxConcurrency;
+
+    @NotNull
+    private Duration requestTimeout;
+
+    @NotNull
+    private Duration initialBackoff;
+
+    @NotNull
+    private Duration maxBackoff;
+
+    @Min(1)
+    private int maxAttempts;
+
+    @NotNull
+    private Duration leaseDuration;
+
+    /**
+     * Creates a new instance of class {@link ResultCallbackConfiguration}.
+     */
+    public ResultCallbackConfiguration() {
+        this.enabled = false;
+        this.tableName = "result_callback";
+        this.submissionTableName = "submission";
+        this.pollInterval = Duration.ofSeconds(1);
+        this.batchSize = 50;
+        this.maxConcurrency = 4;
+        this.requestTimeout = Duration.ofSeconds(10);
+        this.initialBackoff = Duration.ofSeconds(1);
+        this.maxBackoff = Duration.ofMinutes(10);
+        this.maxAttempts = 10;
+        this.leaseDuration = Duration.ofMinutes(1);
+    }
+
+    /**
+     * Gets whether result callbacks are enabled.
+     *
+     * @return {@code true} if evaluation results are delivered to the callback URLs of the clients.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether result callbacks are enabled.
+     *
+     * @param enabled {@code true} if evaluation results should be delivered to the callback URLs of the clients.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the name of the callback outbox table.
+     *
+     * @return The table name.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Sets the name of the callback outbox table.
+     *
+     * @param tableName The table name (optionally qualified with the schema).
+     */
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    /**
+     * Gets the name of the submission table.
+     *
+     * @return The table name.
+     */
+    public String getSubmissionTableName() {
+        return submissionTableName;
+    }
+
+    /**
+     * Sets the name of the submission table.
+     *
+     * @param submissionTableName The table name (optionally qualified with the schema).
+     */
+    public void setSubmissionTableName(String submissionTableName) {
+        this.submissionTableName = submissionTableName;
+    }
+
+    /**
+     * Gets the interval in which due callbacks are delivered.
+     *
+     * @return The poll interval.
+     */
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Sets the interval in which due callbacks are delivered.
+     *
+     * @param pollInterval The poll interval.
+     */
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Gets the maximum number of results delivered to a callback URL with a single request.
+     *
+     * @return The batch size.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of results delivered to a callback URL with a single request.
+     *
+     * @param batchSize The batch size.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the maximum number of concurrent callback requests.
+     *
+     * @return The maximum number of concurrent requests.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of concurrent callback requests.
+     *
+     * @param maxConcurrency The maximum number of concurrent requests.
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Gets the timeout of a callback request.
+     *
+     * @return The request timeout.
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Sets the timeout of a callback request.
+     *
+     * @param requestTimeout The request timeout.
+     */
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Gets the delay before the first retry of a failed callback; the delay is doubled with each further attempt.
+     *
+     * @return The initial backoff.
+     */
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * Sets the delay before the first retry of a failed callback; the delay is doubled with each further attempt.
+     *
+     * @param initialBackoff The initial backoff.
+     */
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    /**
+     * Gets the maximum delay between two attempts of a callback.
+     *
+     * @return The maximum backoff.
+     */
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * Sets the maximum delay between two attempts of a callback.
+     *
+     * @param maxBackoff The maximum backoff.
+     */
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Gets the maximum number of delivery attempts after which a callback is marked as failed.
+     *
+     * @return The maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of delivery attempts after which a callback is marked as failed.
+     *
+     * @param maxAttempts The maximum number of attempts.
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Gets the duration for which a node reserves the callbacks it delivers; must exceed the request timeout.
+     *
+     * @return The lease duration.
+     */
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    /**
+     * Sets the duration for which a node reserves the callbacks it delivers; must exceed the request timeout.
+     *
+     * @param leaseDuration The lease duration.
+     */
+    public void setLeaseDuration(Duration leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+}
@@ -0,0 +1,388 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.auth.ApiKeyConfiguration;
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import at.jku.dke.etutor.task_app.dto.GradingResultDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers evaluation results of background submissions to the callback URLs of the clients.
+ * <p>
+ * If the API key used to enqueue a submission has a {@link ApiKeyConfiguration.ApiKey#callbackUrl()}, a callback is stored in an
+ * outbox table. As soon as the result of the submission is stored (by any node), the callback becomes due and the result is sent
+ * to the callback URL with a {@code POST} request containing a JSON array of {@link GradingResultDto}s; results of the same client
+ * are sent in batches. The request carries the header {@value #SIGNATURE_HEADER} with the HMAC-SHA256 signature of the body,
+ * using the API key as secret. Callbacks that could not be delivered (status code other than 2xx) are retried with exponential
+ * backoff and marked as failed after the maximum number of attempts.
+ * <p>
+ * The dispatcher requires PostgreSQL and following table (the table names can be configured):
+ * <pre>
+ * CREATE TABLE result_callback (
+ *     submission_id   UUID PRIMARY KEY REFERENCES submission (id) ON DELETE CASCADE,
+ *     client          VARCHAR(255)             NOT NULL,
+ *     state           VARCHAR(20)              NOT NULL,
+ *     next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+ *     locked_until    TIMESTAMP WITH TIME ZONE,
+ *     attempts        INTEGER                  NOT NULL DEFAULT 0
+ * );
+ * CREATE INDEX ix_result_callback_due ON result_callback (state, next_attempt_at);
+ * </pre>
+ * The dispatcher is only available if {@code grading.callback.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grading.callback", name = "enabled", havingValue = "true")
+@ManagedResource(objectName = "at.jku.dke.etutor:type=ResultCallbackDispatcher", description = "Delivers evaluation results to the callback URLs of the clients")
+public class ResultCallbackDispatcher implements SmartLifecycle {
+    /**
+     * The name of the header containing the signature of the request body ({@code sha256=<hex>}).
+     */
+    public static final String SIGNATURE_HEADER = "X-ETUTOR-SIGNATURE";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResultCallbackDispatcher.class);
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApiKeyConfiguration apiKeyConfig;
+    private final ResultCallbackConfiguration config;
+    private final HttpClient httpClient;
+    private final Sql sql;
+    private final AtomicBoolean wakeUpScheduled;
+    private final LongAdder delivered;
+    private final LongAdder failedRequests;
+    private final LongAdder abandoned;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile ExecutorService senders;
+
+    /**
+     * Creates a new instance of class {@link ResultCallbackDispatcher}.
+     *
+     * @param jdbcTemplate The JDBC template.
+     * @param objectMapper The object mapper used to serialize the results.
+     * @param apiKeyConfig The API key configuration containing the callback URLs.
+     * @param config       The callback configuration.
+     */
+    public ResultCallbackDispatcher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ApiKeyConfiguration apiKeyConfig, ResultCallbackConfiguration config) {
+        if (!SubmissionQueue.TABLE_NAME_PATTERN.matcher(config.getTableName()).matches())
+            throw new IllegalArgumentException("Invalid callback table name: " + config.getTableName());
+        if (!SubmissionQueue.TABLE_NAME_PATTERN.matcher(config.getSubmissionTableName()).matches())
+            throw new IllegalArgumentException("Invalid submission table name: " + config.getSubmissionTableName());
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.apiKeyConfig = apiKeyConfig;
+        this.config = config;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(config.getRequestTimeout()).build();
+        this.sql = new Sql(config.getTableName(), config.getSubmissionTableName());
+        this.wakeUpScheduled = new AtomicBoolean();
+        this.delivered = new LongAdder();
+        this.failedRequests = new LongAdder();
+        this.abandoned = new LongAdder();
+    }
+
+    /**
+     * Stores callbacks for the specified submissions if the API key of the current client has a callback URL.
+     *
+     * @param submissionIds The identifiers of the submissions enqueued by the current client.
+     * @return {@code true} if callbacks have been stored; {@code false} if the client does not have a callback URL.
+     */
+    public boolean register(Collection<UUID> submissionIds) {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof ApiKeyConfiguration.ApiKey apiKey) || apiKey.callbackUrl() == null)
+            return false;
+
+        this.jdbcTemplate.batchUpdate(this.sql.insert, submissionIds.stream().map(id -> new Object[]{id, apiKey.name()}).toList());
+        return true;
+    }
+
+    /**
+     * Delivers due callbacks as soon as possible instead of waiting for the next poll, e.g. because a result has been stored.
+     */
+    public void wakeUp() {
+        var executor = this.scheduler;
+        if (executor == null || !this.wakeUpScheduled.compareAndSet(false, true))
+            return;
+        try {
+            executor.execute(() -> {
+                this.wakeUpScheduled.set(false);
+                this.dispatchSafely();
+            });
+        } catch (RejectedExecutionException ex) {
+            this.wakeUpScheduled.set(false);
+        }
+    }
+
+    /**
+     * Delivers all due callbacks.
+     *
+     * @return The number of callbacks that have been attempted.
+     */
+    @ManagedOperation(description = "Delivers all due callbacks")
+    public int dispatch() {
+        int limit = this.config.getBatchSize() * this.config.getMaxConcurrency();
+        int total = 0;
+        int count;
+        do {
+            count = this.dispatchOnce(limit);
+            total += count;
+        } while (count == limit);
+        return total;
+    }
+
+    private int dispatchOnce(int limit) {
+        var callbacks = this.jdbcTemplate.query(this.sql.claim, (rs, rowNum) -> new Callback(
+            rs.getObject("submission_id", UUID.class),
+            rs.getString("client"),
+            rs.getInt("attempts"),
+            rs.getString("evaluation_result")), this.config.getLeaseDuration().toMillis(), limit);
+        if (callbacks.isEmpty())
+            return 0;
+
+        // batches per client
+        var byClient = new LinkedHashMap<String, List<Callback>>();
+        for (var callback : callbacks)
+            byClient.computeIfAbsent(callback.client(), c -> new ArrayList<>()).add(callback);
+
+        var executor = this.senders;
+        var requests = new ArrayList<CompletableFuture<Void>>();
+        for (var entry : byClient.entrySet()) {
+            var list = entry.getValue();
+            for (int i = 0; i < list.size(); i += this.config.getBatchSize()) {
+                var batch = list.subList(i, Math.min(list.size(), i + this.config.getBatchSize()));
+                if (executor == null)
+                    this.deliver(entry.getKey(), batch);
+                else
+                    requests.add(CompletableFuture.runAsync(() -> this.deliver(entry.getKey(), batch), executor));
+            }
+        }
+        CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+        return callbacks.size();
+    }
+
+    private void deliver(String client, List<Callback> batch) {
+        var apiKey = this.apiKeyConfig.getApiKeyByName(client).filter(key -> key.callbackUrl() != null).orElse(null);
+        if (apiKey == null) {
+            LOG.warn("Discarding {} callbacks of client {} without callback URL", batch.size(), client);
+            this.complete(batch);
+            return;
+        }
+
+        try {
+            var results = new ArrayList<GradingResultDto>(batch.size());
+            for (var callback : batch)
+                results.add(new GradingResultDto(callback.submissionId(), this.objectMapper.readValue(callback.result(), GradingDto.class)));
+            var body = this.objectMapper.writeValueAsBytes(results);
+
+            var request = HttpRequest.newBuilder(URI.create(apiKey.callbackUrl()))
+                .timeout(this.config.getRequestTimeout())
+                .header("Content-Type", "application/json")
+                .header(SIGNATURE_HEADER, "sha256=" + sign(apiKey.key(), body))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+            var response = this.httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                this.complete(batch);
+                this.delivered.add(batch.size());
+                LOG.debug("Delivered {} results to client {}", batch.size(), client);
+                return;
+            }
+            LOG.warn("Callback of client {} returned status code {}, retrying {} results later", client, response.statusCode(), batch.size());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Callback of client {} was interrupted, retrying {} results later", client, batch.size());
+        } catch (IOException | GeneralSecurityException | RuntimeException ex) {
+            LOG.warn("Could not deliver {} results to client {}, retrying later", batch.size(), client, ex);
+        }
+        this.retry(batch);
+    }
+
+    private void complete(List<Callback> batch) {
+        this.jdbcTemplate.batchUpdate(this.sql.complete, batch.stream().map(callback -> new Object[]{callback.submissionId()}).toList());
+    }
+
+    private void retry(List<Callback> batch) {
+        this.failedRequests.increment();
+        int maxAttempts = this.config.getMaxAttempts();
+        this.jdbcTemplate.batchUpdate(this.sql.retry, batch.stream().map(callback -> new Object[]{
+            maxAttempts, this.getBackoff(callback.attempts()), callback.submissionId()
+        }).toList());
+
+        long failed = batch.stream().filter(callback -> callback.attempts() + 1 >= maxAttempts).count();
+        if (failed > 0) {
+            this.abandoned.add(failed);
+            LOG.error("Giving up delivering {} results after {} attempts", failed, maxAttempts);
+        }
+    }
+
+    /**
+     * Returns the delay before the next attempt of a callback (exponential backoff with jitter).
+     *
+     * @param attempts The number of failed attempts before the current one.
+     * @return The delay in milliseconds.
+     */
+    long getBackoff(int attempts) {
+        long initial = this.config.getInitialBackoff().toMillis();
+        long max = this.config.getMaxBackoff().toMillis();
+        long backoff = attempts < 31 ? Math.min(max, initial * (1L << attempts)) : max;
+
+        // spread retries of failed batches
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    private static String sign(String secret, byte[] body) throws GeneralSecurityException {
+        var mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+
+    private void dispatchSafely() {
+        try {
+            this.dispatch();
+        } catch (RuntimeException ex) {
+            LOG.error("Could not deliver callbacks", ex);
+        }
+    }
+
+    /**
+     * Gets the number of delivered results.
+     *
+     * @return The number of delivered results.
+     */
+    @ManagedAttribute(description = "Number of delivered results")
+    public long getDeliveredCount() {
+        return this.delivered.sum();
+    }
+
+    /**
+     * Gets the number of failed callback requests.
+     *
+     * @return The number of failed requests.
+     */
+    @ManagedAttribute(description = "Number of failed callback requests")
+    public long getFailedRequestCount() {
+        return this.failedRequests.sum();
+    }
+
+    /**
+     * Gets the number of callbacks marked as failed after the maximum number of attempts.
+     *
+     * @return The number of failed callbacks.
+     */
+    @ManagedAttribute(description = "Number of callbacks marked as failed after the maximum number of attempts")
+    public long getFailedCallbackCount() {
+        return this.abandoned.sum();
+    }
+
+    /**
+     * Starts delivering callbacks periodically.
+     */
+    @Override
+    public void start() {
+        LOG.info("Starting result callback delivery");
+        this.senders = Executors.newFixedThreadPool(this.config.getMaxConcurrency(), new CustomizableThreadFactory("grading-callback-"));
+        long interval = this.config.getPollInterval().toMillis();
+        var executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("grading-callback-poll-"));
+        executor.scheduleWithFixedDelay(this::dispatchSafely, interval, interval, TimeUnit.MILLISECONDS);
+        this.scheduler = executor;
+    }
+
+    /**
+     * Stops delivering callbacks.
+     * <p>
+     * Callbacks being delivered keep their lease until it expires and are delivered by any node afterward.
+     */
+    @Override
+    public void stop() {
+        LOG.info("Stopping result callback delivery");
+        var executor = this.scheduler;
+        this.scheduler = null;
+        if (executor != null)
+            executor.shutdown();
+        var pool = this.senders;
+        this.senders = null;
+        if (pool != null)
+            pool.shutdown();
+    }
+
+    /**
+     * Returns whether callbacks are delivered periodically.
+     *
+     * @return {@code true} if the dispatcher is running.
+     */
+    @Override
+    public boolean isRunning() {
+        return this.scheduler != null;
+    }
+
+    /**
+     * Returns the lifecycle phase; the component is stopped after the evaluations have been drained.
+     *
+     * @return The phase after {@link GradingShutdownCoordinator#PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return GradingShutdownCoordinator.PHASE - 1;
+    }
+
+    private record Callback(UUID submissionId, String client, int attempts, String result) {
+    }
+
+    private static final class Sql {
+        private static final String DELAY = "now() + ? * INTERVAL '1 millisecond'";
+
+        private final String insert;
+        private final String claim;
+        private final String complete;
+        private final String retry;
+
+        private Sql(String table, String submissionTable) {
+            this.insert = "INSERT INTO " + table + " (submission_id, client, state, next_attempt_at, attempts) VALUES (?, ?, 'PENDING', now(), 0)";
+            this.claim = "WITH claimed AS (UPDATE " + table + " SET locked_until = " + DELAY + " WHERE submission_id IN (" +
+                         "SELECT c.submission_id FROM " + table + " c JOIN " + submissionTable + " s ON s.id = c.submission_id " +
+                         "WHERE c.state = 'PENDING' AND c.next_attempt_at <= now() AND (c.locked_until IS NULL OR c.locked_until < now()) " +
+                         "AND s.evaluation_result IS NOT NULL ORDER BY c.next_attempt_at LIMIT ? FOR UPDATE OF c SKIP LOCKED) " +
+                         "RETURNING submission_id, client, attempts) " +
+                         "SELECT claimed.submission_id, claimed.client, claimed.attempts, CAST(s.evaluation_result AS TEXT) AS evaluation_result " +
+                         "FROM claimed JOIN " + submissionTable + " s ON s.id = claimed.submission_id";
+            this.complete = "DELETE FROM " + table + " WHERE submission_id = ?";
+            this.retry = "UPDATE " + table + " SET attempts = attempts + 1, state = CASE WHEN attempts + 1 >= ? THEN 'FAILED' ELSE 'PENDING' END, " +
+                         "next_attempt_at = " + DELAY + ", locked_until = NULL WHERE submission_id = ?";
+        }
+    }
+}
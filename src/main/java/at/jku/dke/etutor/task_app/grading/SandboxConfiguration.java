@@ -0,0 +1,284 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the settings of the sandbox worker pool from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("grading.sandbox")
+public class SandboxConfiguration {
+
+    private boolean enabled;
+
+    @NotNull
+    private List<String> command;
+
+    private String workingDirectory;
+
+    @NotNull
+    private Map<String, String> environment;
+
+    @Min(1)
+    private int size;
+
+    @NotNull
+    private Duration acquireTimeout;
+
+    @NotNull
+    private Duration jobTimeout;
+
+    @Min(1)
+    private int maxJobsPerWorker;
+
+    private DataSize maxMemory;
+
+    private String healthCheckRequest;
+
+    @NotNull
+    private Duration healthCheckTimeout;
+
+    @NotNull
+    private Duration healthCheckInterval;
+
+    /**
+     * Creates a new instance of class {@link SandboxConfiguration}.
+     */
+    public SandboxConfiguration() {
+        this.enabled = false;
+        this.command = new ArrayList<>();
+        this.environment = new HashMap<>();
+        this.size = Runtime.getRuntime().availableProcessors();
+        this.acquireTimeout = Duration.ofSeconds(30);
+        this.jobTimeout = Duration.ofSeconds(10);
+        this.maxJobsPerWorker = 500;
+        this.healthCheckTimeout = Duration.ofSeconds(10);
+        this.healthCheckInterval = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Gets whether the sandbox worker pool is enabled.
+     *
+     * @return {@code true} if the worker processes are started.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the sandbox worker pool is enabled.
+     *
+     * @param enabled {@code true} if the worker processes should be started.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the command starting a worker process (program and arguments).
+     *
+     * @return The command.
+     */
+    public List<String> getCommand() {
+        return command;
+    }
+
+    /**
+     * Sets the command starting a worker process (program and arguments).
+     *
+     * @param command The command.
+     */
+    public void setCommand(List<String> command) {
+        this.command = command;
+    }
+
+    /**
+     * Gets the working directory of the worker processes.
+     *
+     * @return The working directory or {@code null} if the working directory of the application is used.
+     */
+    public String getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    /**
+     * Sets the working directory of the worker processes.
+     *
+     * @param workingDirectory The working directory or {@code null} if the working directory of the application should be used.
+     */
+    public void setWorkingDirectory(String workingDirectory) {
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Gets the additional environment variables of the worker processes.
+     *
+     * @return The environment variables.
+     */
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * Sets the additional environment variables of the worker processes.
+     *
+     * @param environment The environment variables.
+     */
+    public void setEnvironment(Map<String, String> environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Gets the number of worker processes kept running.
+     *
+     * @return The pool size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the number of worker processes kept running.
+     *
+     * @param size The pool size.
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets the maximum time to wait for an idle worker before the evaluation is rejected.
+     *
+     * @return The acquire timeout.
+     */
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    /**
+     * Sets the maximum time to wait for an idle worker before the evaluation is rejected.
+     *
+     * @param acquireTimeout The acquire timeout.
+     */
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * Gets the default time limit of a job; the worker is killed if it does not respond in time.
+     *
+     * @return The job timeout.
+     */
+    public Duration getJobTimeout() {
+        return jobTimeout;
+    }
+
+    /**
+     * Sets the default time limit of a job; the worker is killed if it does not respond in time.
+     *
+     * @param jobTimeout The job timeout.
+     */
+    public void setJobTimeout(Duration jobTimeout) {
+        this.jobTimeout = jobTimeout;
+    }
+
+    /**
+     * Gets the number of jobs after which a worker is replaced by a new one.
+     *
+     * @return The maximum number of jobs per worker.
+     */
+    public int getMaxJobsPerWorker() {
+        return maxJobsPerWorker;
+    }
+
+    /**
+     * Sets the number of jobs after which a worker is replaced by a new one.
+     *
+     * @param maxJobsPerWorker The maximum number of jobs per worker.
+     */
+    public void setMaxJobsPerWorker(int maxJobsPerWorker) {
+        this.maxJobsPerWorker = maxJobsPerWorker;
+    }
+
+    /**
+     * Gets the resident memory of a worker process after which it is replaced by a new one (only supported on Linux).
+     *
+     * @return The maximum memory or {@code null} if the memory is not limited.
+     */
+    public DataSize getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Sets the resident memory of a worker process after which it is replaced by a new one (only supported on Linux).
+     *
+     * @param maxMemory The maximum memory or {@code null} if the memory should not be limited.
+     */
+    public void setMaxMemory(DataSize maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * Gets the request sent to new and idle workers to check whether they respond.
+     *
+     * @return The health check request or {@code null} if only the liveness of the processes is checked.
+     */
+    public String getHealthCheckRequest() {
+        return healthCheckRequest;
+    }
+
+    /**
+     * Sets the request sent to new and idle workers to check whether they respond; must not contain line breaks.
+     *
+     * @param healthCheckRequest The health check request or {@code null} if only the liveness of the processes should be checked.
+     */
+    public void setHealthCheckRequest(String healthCheckRequest) {
+        this.healthCheckRequest = healthCheckRequest;
+    }
+
+    /**
+     * Gets the maximum time a worker may take to answer the health check request, including the startup of new workers.
+     *
+     * @return The health check timeout.
+     */
+    public Duration getHealthCheckTimeout() {
+        return healthCheckTimeout;
+    }
+
+    /**
+     * Sets the maximum time a worker may take to answer the health check request, including the startup of new workers.
+     *
+     * @param healthCheckTimeout The health check timeout.
+     */
+    public void setHealthCheckTimeout(Duration healthCheckTimeout) {
+        this.healthCheckTimeout = healthCheckTimeout;
+    }
+
+    /**
+     * Gets the interval in which idle workers are checked and missing workers are started.
+     *
+     * @return The health check interval.
+     */
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    /**
+     * Sets the interval in which idle workers are checked and missing workers are started.
+     *
+     * @param healthCheckInterval The health check interval.
+     */
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+}
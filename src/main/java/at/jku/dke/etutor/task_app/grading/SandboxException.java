@@ -0,0 +1,26 @@
+package at.jku.dke.etutor.task_app.grading;
+
+/**
+ * Thrown if a sandbox worker process did not answer a job, e.g. because it crashed or closed its output.
+ */
+public class SandboxException extends RuntimeException {
+
+    /**
+     * Creates a new instance of class {@link SandboxException}.
+     *
+     * @param message The detail message.
+     */
+    public SandboxException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates a new instance of class {@link SandboxException}.
+     *
+     * @param message The detail message.
+     * @param cause   The cause.
+     */
+    public SandboxException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
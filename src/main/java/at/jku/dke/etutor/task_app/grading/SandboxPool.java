@@ -0,0 +1,485 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of pre-started worker processes that run student code outside the application.
+ * <p>
+ * Starting a process (and its runtime) for every submission often takes longer than the evaluation itself. The pool keeps
+ * {@link SandboxConfiguration#getSize()} worker processes running and hands them to evaluations one job at a time. A worker reads
+ * one request per line from its standard input and answers each request with exactly one line on its standard output (e.g. a JSON
+ * document without line breaks); its standard error is discarded.
+ * <p>
+ * A worker is replaced by a new process
+ * <ul>
+ *     <li>after {@link SandboxConfiguration#getMaxJobsPerWorker()} jobs,</li>
+ *     <li>if its resident memory exceeds {@link SandboxConfiguration#getMaxMemory()} (Linux only),</li>
+ *     <li>if it does not answer a job within the time limit ({@link SandboxTimeoutException}), crashes ({@link SandboxException})
+ *     or fails a health check.</li>
+ * </ul>
+ * Workers are started in the background, so that evaluations do not wait for the startup of a replacement. If the thread running
+ * a job is interrupted (e.g. because the evaluation was cancelled), the worker is killed.
+ * <p>
+ * The pool is only available if {@code grading.sandbox.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grading.sandbox", name = "enabled", havingValue = "true")
+@ManagedResource(objectName = "at.jku.dke.etutor:type=SandboxPool", description = "Pool of pre-started worker processes running student code")
+public class SandboxPool implements SmartLifecycle {
+    private static final Logger LOG = LoggerFactory.getLogger(SandboxPool.class);
+
+    private final SandboxConfiguration config;
+    private final LinkedBlockingDeque<Worker> idle;
+    private final AtomicInteger workers;
+    private final LongAdder completedJobs;
+    private final LongAdder timedOutJobs;
+    private final LongAdder failedJobs;
+    private final LongAdder recycledWorkers;
+    private final LongAdder failedStarts;
+    private volatile boolean running;
+    private ExecutorService readers;
+    private ScheduledExecutorService maintenance;
+
+    /**
+     * Creates a new instance of class {@link SandboxPool}.
+     *
+     * @param config The sandbox configuration.
+     */
+    public SandboxPool(SandboxConfiguration config) {
+        if (config.getCommand() == null || config.getCommand().isEmpty())
+            throw new IllegalArgumentException("No sandbox worker command configured");
+        if (config.getHealthCheckRequest() != null)
+            requireSingleLine(config.getHealthCheckRequest());
+
+        this.config = config;
+        this.idle = new LinkedBlockingDeque<>();
+        this.workers = new AtomicInteger();
+        this.completedJobs = new LongAdder();
+        this.timedOutJobs = new LongAdder();
+        this.failedJobs = new LongAdder();
+        this.recycledWorkers = new LongAdder();
+        this.failedStarts = new LongAdder();
+    }
+
+    /**
+     * Sends the request to an idle worker and returns its response, using the default time limit.
+     *
+     * @param request The request; must not contain line breaks.
+     * @return The response of the worker.
+     * @throws SandboxTimeoutException If the worker did not answer within the time limit.
+     * @throws SandboxException        If the worker did not answer the request.
+     * @throws GradingRejectedException If no worker became idle within the acquire timeout.
+     */
+    public String execute(String request) {
+        return this.execute(request, this.config.getJobTimeout());
+    }
+
+    /**
+     * Sends the request to an idle worker and returns its response.
+     *
+     * @param request The request; must not contain line breaks.
+     * @param timeout The time limit of the job.
+     * @return The response of the worker.
+     * @throws SandboxTimeoutException If the worker did not answer within the time limit.
+     * @throws SandboxException        If the worker did not answer the request.
+     * @throws GradingRejectedException If no worker became idle within the acquire timeout.
+     */
+    public String execute(String request, Duration timeout) {
+        requireSingleLine(request);
+        if (!this.running)
+            throw new IllegalStateException("Sandbox pool is not running");
+
+        var worker = this.acquire();
+        try {
+            var response = worker.exchange(request, timeout);
+            this.completedJobs.increment();
+            this.release(worker);
+            return response;
+        } catch (SandboxTimeoutException ex) {
+            this.timedOutJobs.increment();
+            this.retire(worker);
+            throw ex;
+        } catch (SandboxException | EvaluationCancelledException ex) {
+            this.failedJobs.increment();
+            this.retire(worker);
+            throw ex;
+        }
+    }
+
+    private Worker acquire() {
+        // a worker might be missing because it could not be started
+        if (this.idle.isEmpty() && this.workers.get() < this.config.getSize())
+            this.replenish();
+
+        try {
+            var worker = this.idle.pollFirst(this.config.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (worker == null)
+                throw new GradingRejectedException("No sandbox worker available", this.config.getAcquireTimeout(), null);
+            return worker;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new EvaluationCancelledException("Waiting for a sandbox worker was interrupted");
+        }
+    }
+
+    private void release(Worker worker) {
+        if (!this.running || !worker.isAlive() || worker.jobs >= this.config.getMaxJobsPerWorker() || this.exceedsMemory(worker)) {
+            this.retire(worker);
+            return;
+        }
+
+        // recently used workers are reused first, so that idle workers can be checked
+        this.idle.offerFirst(worker);
+    }
+
+    private void retire(Worker worker) {
+        LOG.debug("Retiring sandbox worker {} after {} jobs", worker.pid(), worker.jobs);
+        worker.destroy();
+        this.workers.decrementAndGet();
+        this.recycledWorkers.increment();
+        this.replenish();
+    }
+
+    private boolean exceedsMemory(Worker worker) {
+        var maxMemory = this.config.getMaxMemory();
+        if (maxMemory == null)
+            return false;
+        long memory = worker.residentMemory();
+        return memory >= 0 && memory > maxMemory.toBytes();
+    }
+
+    private void replenish() {
+        var executor = this.maintenance;
+        if (!this.running || executor == null)
+            return;
+        try {
+            executor.execute(this::fill);
+        } catch (RuntimeException ex) {
+            LOG.debug("Could not schedule start of sandbox workers", ex);
+        }
+    }
+
+    private void fill() {
+        while (this.running) {
+            int count = this.workers.get();
+            if (count >= this.config.getSize())
+                return;
+            if (!this.workers.compareAndSet(count, count + 1))
+                continue;
+
+            Worker worker = null;
+            try {
+                worker = this.startWorker();
+                if (!this.isHealthy(worker))
+                    throw new SandboxException("Health check failed");
+                this.idle.offerLast(worker);
+            } catch (IOException | SandboxException ex) {
+                this.failedStarts.increment();
+                this.workers.decrementAndGet();
+                if (worker != null)
+                    worker.destroy();
+                // retried by the next health check
+                LOG.warn("Could not start sandbox worker", ex);
+                return;
+            }
+        }
+    }
+
+    private Worker startWorker() throws IOException {
+        var builder = new ProcessBuilder(this.config.getCommand())
+            .redirectError(ProcessBuilder.Redirect.DISCARD);
+        if (this.config.getWorkingDirectory() != null)
+            builder.directory(new File(this.config.getWorkingDirectory()));
+        builder.environment().putAll(this.config.getEnvironment());
+
+        var worker = new Worker(builder.start(), this.readers);
+        LOG.debug("Started sandbox worker {}", worker.pid());
+        return worker;
+    }
+
+    private boolean isHealthy(Worker worker) {
+        if (!worker.isAlive() || this.exceedsMemory(worker))
+            return false;
+        if (this.config.getHealthCheckRequest() == null)
+            return true;
+
+        try {
+            worker.exchange(this.config.getHealthCheckRequest(), this.config.getHealthCheckTimeout());
+            worker.jobs--; // health checks do not count as jobs
+            return true;
+        } catch (SandboxException ex) {
+            LOG.debug("Sandbox worker {} failed health check", worker.pid(), ex);
+            return false;
+        }
+    }
+
+    private void checkHealth() {
+        // workers are checked one at a time, so that the other idle workers remain available for jobs
+        for (Worker worker : List.copyOf(this.idle)) {
+            if (!this.running)
+                break;
+            if (!this.idle.remove(worker))
+                continue; // acquired for a job in the meantime
+
+            if (this.isHealthy(worker))
+                this.idle.offerLast(worker);
+            else
+                this.retire(worker);
+        }
+        this.fill();
+    }
+
+    private static void requireSingleLine(String request) {
+        if (request.indexOf('\n') >= 0 || request.indexOf('\r') >= 0)
+            throw new IllegalArgumentException("Sandbox requests must not contain line breaks");
+    }
+
+    /**
+     * Gets the number of running worker processes.
+     *
+     * @return The number of workers.
+     */
+    @ManagedAttribute(description = "Number of running worker processes")
+    public int getWorkerCount() {
+        return this.workers.get();
+    }
+
+    /**
+     * Gets the number of idle worker processes.
+     *
+     * @return The number of idle workers.
+     */
+    @ManagedAttribute(description = "Number of idle worker processes")
+    public int getIdleWorkerCount() {
+        return this.idle.size();
+    }
+
+    /**
+     * Gets the number of answered jobs.
+     *
+     * @return The number of completed jobs.
+     */
+    @ManagedAttribute(description = "Number of answered jobs")
+    public long getCompletedJobCount() {
+        return this.completedJobs.sum();
+    }
+
+    /**
+     * Gets the number of jobs that exceeded their time limit.
+     *
+     * @return The number of timed out jobs.
+     */
+    @ManagedAttribute(description = "Number of jobs that exceeded their time limit")
+    public long getTimedOutJobCount() {
+        return this.timedOutJobs.sum();
+    }
+
+    /**
+     * Gets the number of jobs not answered because the worker crashed or the job was interrupted.
+     *
+     * @return The number of failed jobs.
+     */
+    @ManagedAttribute(description = "Number of jobs not answered because the worker crashed or the job was interrupted")
+    public long getFailedJobCount() {
+        return this.failedJobs.sum();
+    }
+
+    /**
+     * Gets the number of replaced worker processes.
+     *
+     * @return The number of recycled workers.
+     */
+    @ManagedAttribute(description = "Number of replaced worker processes")
+    public long getRecycledWorkerCount() {
+        return this.recycledWorkers.sum();
+    }
+
+    /**
+     * Gets the number of worker processes that could not be started or failed their first health check.
+     *
+     * @return The number of failed starts.
+     */
+    @ManagedAttribute(description = "Number of worker processes that could not be started")
+    public long getFailedStartCount() {
+        return this.failedStarts.sum();
+    }
+
+    /**
+     * Starts the worker processes and the periodic health checks.
+     */
+    @Override
+    public void start() {
+        this.readers = Executors.newCachedThreadPool(daemonThreadFactory("sandbox-reader-"));
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("sandbox-maintenance-"));
+        this.running = true;
+
+        // workers are started before the application accepts submissions
+        this.fill();
+        LOG.info("Started {} sandbox workers", this.workers.get());
+
+        long interval = this.config.getHealthCheckInterval().toMillis();
+        this.maintenance.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the health checks and kills all worker processes; busy workers are killed as soon as their job is answered.
+     */
+    @Override
+    public void stop() {
+        LOG.info("Stopping sandbox workers");
+        this.running = false;
+        if (this.maintenance != null)
+            this.maintenance.shutdownNow();
+
+        var workers = new ArrayList<Worker>();
+        this.idle.drainTo(workers);
+        for (Worker worker : workers) {
+            worker.destroy();
+            this.workers.decrementAndGet();
+        }
+        if (this.readers != null)
+            this.readers.shutdownNow();
+    }
+
+    /**
+     * Returns whether the pool is running.
+     *
+     * @return {@code true} if workers are available for jobs.
+     */
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Returns the lifecycle phase; the component is stopped after the evaluations have been drained.
+     *
+     * @return The phase after {@link GradingShutdownCoordinator#PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return GradingShutdownCoordinator.PHASE - 1;
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory(String prefix) {
+        var factory = new CustomizableThreadFactory(prefix);
+        factory.setDaemon(true);
+        return factory;
+    }
+
+    /**
+     * A worker process exchanging one line per job.
+     */
+    private static final class Worker {
+        private final Process process;
+        private final BufferedWriter input;
+        private final BufferedReader output;
+        private final ExecutorService readers;
+        private int jobs;
+
+        Worker(Process process, ExecutorService readers) {
+            this.process = process;
+            this.input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            this.readers = readers;
+        }
+
+        String exchange(String request, Duration timeout) {
+            this.jobs++;
+            Future<String> response;
+            try {
+                this.input.write(request);
+                this.input.newLine();
+                this.input.flush();
+
+                // reading cannot be interrupted, so a separate thread reads while the caller waits for the time limit
+                response = this.readers.submit(this.output::readLine);
+            } catch (IOException ex) {
+                throw new SandboxException("Could not send request to sandbox worker " + this.pid(), ex);
+            }
+
+            try {
+                var line = response.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (line == null)
+                    throw new SandboxException("Sandbox worker " + this.pid() + " exited with code " + this.exitCode());
+                return line;
+            } catch (TimeoutException ex) {
+                this.destroy();
+                throw new SandboxTimeoutException("Sandbox worker " + this.pid() + " did not respond within " + timeout.toMillis() + " ms");
+            } catch (InterruptedException ex) {
+                this.destroy();
+                Thread.currentThread().interrupt();
+                throw new EvaluationCancelledException("Sandbox job of worker " + this.pid() + " was interrupted");
+            } catch (ExecutionException ex) {
+                throw new SandboxException("Could not read response of sandbox worker " + this.pid(), ex.getCause());
+            }
+        }
+
+        boolean isAlive() {
+            return this.process.isAlive();
+        }
+
+        long pid() {
+            return this.process.pid();
+        }
+
+        long residentMemory() {
+            try {
+                List<String> lines = Files.readAllLines(Path.of("/proc", Long.toString(this.pid()), "status"));
+                for (String line : lines) {
+                    // VmRSS:	   12345 kB
+                    if (line.startsWith("VmRSS:"))
+                        return Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                }
+            } catch (IOException | RuntimeException ex) {
+                LOG.trace("Could not determine memory of sandbox worker {}", this.pid(), ex);
+            }
+            return -1;
+        }
+
+        private String exitCode() {
+            try {
+                return this.process.waitFor(1, TimeUnit.SECONDS) ? Integer.toString(this.process.exitValue()) : "unknown";
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return "unknown";
+            }
+        }
+
+        void destroy() {
+            // also kill processes started by the worker; they are reparented once the worker exited
+            this.process.descendants().forEach(ProcessHandle::destroyForcibly);
+            this.process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package at.jku.dke.etutor.task_app.grading;
+
+/**
+ * Thrown if a sandbox worker process did not answer a job within its time limit; the worker has been killed.
+ */
+public class SandboxTimeoutException extends SandboxException {
+
+    /**
+     * Creates a new instance of class {@link SandboxTimeoutException}.
+     *
+     * @param message The detail message.
+     */
+    public SandboxTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,75 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent computations of the same key, so that only the first caller (the leader) computes the value and all
+ * other callers (the followers) wait for its result.
+ * <p>
+ * The leader MUST complete the future of its flight in any case (also if the computation fails or is never executed), otherwise
+ * the followers wait forever. The flight is removed as soon as its future is completed.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> flights;
+    private final LongAdder coalesced;
+
+    /**
+     * Creates a new instance of class {@link SingleFlight}.
+     */
+    public SingleFlight() {
+        this.flights = new ConcurrentHashMap<>();
+        this.coalesced = new LongAdder();
+    }
+
+    /**
+     * Joins the flight of the specified key or starts a new flight if none is in progress.
+     *
+     * @param key The key.
+     * @return The flight.
+     */
+    public Flight<V> join(K key) {
+        var future = new CompletableFuture<V>();
+        var existing = this.flights.putIfAbsent(key, future);
+        if (existing != null) {
+            this.coalesced.increment();
+            return new Flight<>(existing, false);
+        }
+
+        future.whenComplete((value, ex) -> this.flights.remove(key, future));
+        return new Flight<>(future, true);
+    }
+
+    /**
+     * Gets the number of flights in progress.
+     *
+     * @return The number of flights.
+     */
+    public int getInFlightCount() {
+        return this.flights.size();
+    }
+
+    /**
+     * Gets the number of callers that joined an existing flight.
+     *
+     * @return The number of followers.
+     */
+    public long getCoalescedCount() {
+        return this.coalesced.sum();
+    }
+
+    /**
+     * A computation in progress.
+     *
+     * @param future The future completed with the result of the computation.
+     * @param leader {@code true} if the caller started the flight and must compute the value.
+     * @param <V>    The value type.
+     */
+    public record Flight<V>(CompletableFuture<V> future, boolean leader) {
+    }
+}
@@ -0,0 +1,12 @@
+package at.jku.dke.etutor.task_app.grading;
+
+/**
+ * Identifies submissions that lead to identical evaluation results.
+ *
+ * @param taskId      The task identifier.
+ * @param taskVersion The version of the task at the time the fingerprint was created.
+ * @param hash        The SHA-256 hash of the task, the normalized submission, the mode, the feedback level and the language.
+ * @see SubmissionFingerprinter
+ */
+public record SubmissionFingerprint(long taskId, long taskVersion, String hash) {
+}
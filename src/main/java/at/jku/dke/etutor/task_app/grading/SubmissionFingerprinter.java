@@ -0,0 +1,133 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * Creates {@link SubmissionFingerprint}s of submissions.
+ * <p>
+ * The fingerprint is a SHA-256 hash of the task, the normalized submission (serialized as JSON with sorted properties), the submission
+ * mode, the feedback level and the language. Every task has a version that is incremented if the task is modified or deleted
+ * (see {@link #invalidateTask(long)}), so that evaluation results of the previous version are not reused. The versions are kept in
+ * memory of each node; tasks modified on other nodes are invalidated when their modification is announced by the
+ * {@link TaskInvalidationNotifier}.
+ */
+@Component
+public class SubmissionFingerprinter {
+    private static final Logger LOG = LoggerFactory.getLogger(SubmissionFingerprinter.class);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final Map<Long, Long> taskVersions;
+    private final List<LongConsumer> invalidationListeners;
+
+    /**
+     * Creates a new instance of class {@link SubmissionFingerprinter}.
+     *
+     * @param objectMapper The object mapper used to serialize submissions.
+     */
+    public SubmissionFingerprinter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer().with(JsonNodeFeature.WRITE_PROPERTIES_SORTED);
+        this.taskVersions = new ConcurrentHashMap<>();
+        this.invalidationListeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Subscribes to the modifications of tasks announced by all nodes, so that the versions of tasks modified on other nodes are
+     * incremented as well.
+     *
+     * @param invalidationNotifier The invalidation notifier.
+     */
+    @Autowired(required = false)
+    public void setInvalidationNotifier(TaskInvalidationNotifier invalidationNotifier) {
+        invalidationNotifier.subscribe(invalidation -> {
+            if (invalidation.type() == TaskInvalidation.Type.TASK)
+                this.invalidateTask(invalidation.id());
+        });
+    }
+
+    /**
+     * Creates the fingerprint of a submission.
+     *
+     * @param taskId        The task identifier.
+     * @param submission    The normalized submission.
+     * @param mode          The submission mode.
+     * @param feedbackLevel The feedback level.
+     * @param language      The language.
+     * @return The fingerprint or {@code null} if the submission cannot be serialized.
+     */
+    public SubmissionFingerprint create(long taskId, Object submission, SubmissionMode mode, int feedbackLevel, String language) {
+        long version = this.taskVersions.getOrDefault(taskId, 0L);
+        try {
+            // convert to a tree first, so that the properties of all nested objects are ordered by name
+            byte[] payload = this.writer.writeValueAsBytes(this.objectMapper.valueToTree(submission));
+
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update((taskId + "|" + version + "|" + mode + "|" + feedbackLevel + "|" + language + "|").getBytes(StandardCharsets.UTF_8));
+            digest.update(payload);
+            return new SubmissionFingerprint(taskId, version, HexFormat.of().formatHex(digest.digest()));
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            LOG.warn("Could not compute fingerprint of submission of task {}", taskId, ex);
+            return null;
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    }
+
+    /**
+     * Returns whether the fingerprint was created for the current version of its task.
+     *
+     * @param fingerprint The fingerprint.
+     * @return {@code true} if the task has not been modified since the fingerprint was created.
+     */
+    public boolean isCurrent(SubmissionFingerprint fingerprint) {
+        return this.taskVersions.getOrDefault(fingerprint.taskId(), 0L) == fingerprint.taskVersion();
+    }
+
+    /**
+     * Returns the current version of the specified task.
+     *
+     * @param taskId The task identifier.
+     * @return The number of times the task has been invalidated.
+     */
+    public long getTaskVersion(long taskId) {
+        return this.taskVersions.getOrDefault(taskId, 0L);
+    }
+
+    /**
+     * Increments the version of the specified task, e.g. because the task has been modified, and notifies the registered listeners.
+     *
+     * @param taskId The task identifier.
+     */
+    public void invalidateTask(long taskId) {
+        this.taskVersions.merge(taskId, 1L, Long::sum);
+        this.invalidationListeners.forEach(listener -> listener.accept(taskId));
+    }
+
+    /**
+     * Registers a listener that is notified with the task identifier if a task is invalidated.
+     *
+     * @param listener The listener.
+     */
+    public void addInvalidationListener(LongConsumer listener) {
+        this.invalidationListeners.add(listener);
+    }
+}
@@ -0,0 +1,398 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Durable queue for submissions that should be evaluated in background.
+ * <p>
+ * Enqueued submissions are stored in a companion table of the submission table, so that they survive restarts and can be claimed
+ * by any node. Nodes claim submissions using {@code SELECT ... FOR UPDATE SKIP LOCKED} and hold a lease while evaluating them.
+ * Leases of running evaluations are renewed periodically; submissions with expired leases (e.g. because the node died) are returned to
+ * the queue. Submissions that reached the maximum number of attempts are marked as failed and reported to the worker of their queue
+ * (see {@link Worker#fail(UUID)}). The queue requires PostgreSQL and following table (the table name can be configured):
+ * <pre>
+ * CREATE TABLE submission_queue (
+ *     submission_id    UUID PRIMARY KEY REFERENCES submission (id) ON DELETE CASCADE,
+ *     queue            VARCHAR(255)             NOT NULL,
+ *     state            VARCHAR(20)              NOT NULL,
+ *     enqueued_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+ *     lease_owner      VARCHAR(255),
+ *     lease_expires_at TIMESTAMP WITH TIME ZONE,
+ *     attempts         INTEGER                  NOT NULL DEFAULT 0
+ * );
+ * CREATE INDEX ix_submission_queue_claim ON submission_queue (queue, state, enqueued_at);
+ * </pre>
+ * The queue is only available if {@code grading.queue.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grading.queue", name = "enabled", havingValue = "true")
+@ManagedResource(objectName = "at.jku.dke.etutor:type=SubmissionQueue", description = "Durable queue for submissions")
+public class SubmissionQueue implements SmartLifecycle {
+    private static final Logger LOG = LoggerFactory.getLogger(SubmissionQueue.class);
+    static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SubmissionQueueConfiguration config;
+    private final String nodeId;
+    private final Map<String, Worker> workers;
+    private final Set<UUID> leased;
+    private final Sql sql;
+    private volatile ScheduledExecutorService scheduler;
+    private long lastMaintenance;
+
+    /**
+     * Creates a new instance of class {@link SubmissionQueue}.
+     *
+     * @param jdbcTemplate The JDBC template.
+     * @param config       The queue configuration.
+     */
+    public SubmissionQueue(JdbcTemplate jdbcTemplate, SubmissionQueueConfiguration config) {
+        if (!TABLE_NAME_PATTERN.matcher(config.getTableName()).matches())
+            throw new IllegalArgumentException("Invalid queue table name: " + config.getTableName());
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.nodeId = config.getNodeId() == null || config.getNodeId().isBlank() ? generateNodeId() : config.getNodeId();
+        this.workers = new ConcurrentHashMap<>();
+        this.leased = ConcurrentHashMap.newKeySet();
+        this.sql = new Sql(config.getTableName());
+    }
+
+    /**
+     * Registers the worker that evaluates the submissions of the specified queue.
+     *
+     * @param queue  The name of the queue.
+     * @param worker The worker.
+     */
+    public void register(String queue, Worker worker) {
+        LOG.info("Registering worker for submission queue {}", queue);
+        this.workers.put(queue, worker);
+    }
+
+    /**
+     * Adds the submission to the queue.
+     *
+     * @param queue        The name of the queue.
+     * @param submissionId The submission identifier.
+     */
+    public void add(String queue, UUID submissionId) {
+        LOG.debug("Adding submission {} to queue {}", submissionId, queue);
+        this.jdbcTemplate.update(this.sql.insert, submissionId, queue);
+    }
+
+    /**
+     * Tries to claim the specified submission for this node.
+     *
+     * @param submissionId The submission identifier.
+     * @return {@code true} if the submission was claimed; {@code false} if it is not queued (anymore).
+     */
+    public boolean tryClaim(UUID submissionId) {
+        boolean claimed = this.jdbcTemplate.update(this.sql.claimOne, this.nodeId, this.config.getLeaseDuration().toMillis(), submissionId) == 1;
+        if (claimed)
+            this.leased.add(submissionId);
+        return claimed;
+    }
+
+    /**
+     * Claims up to {@code limit} submissions of the specified queue for this node.
+     *
+     * @param queue The name of the queue.
+     * @param limit The maximum number of submissions to claim.
+     * @return The identifiers of the claimed submissions.
+     */
+    public List<UUID> claim(String queue, int limit) {
+        List<UUID> ids = this.jdbcTemplate.queryForList(this.sql.claim, UUID.class, this.nodeId, this.config.getLeaseDuration().toMillis(), queue, limit);
+        this.leased.addAll(ids);
+        return ids;
+    }
+
+    /**
+     * Removes the evaluated submission from the queue.
+     *
+     * @param submissionId The submission identifier.
+     */
+    public void complete(UUID submissionId) {
+        this.jdbcTemplate.update(this.sql.complete, submissionId);
+        this.leased.remove(submissionId);
+    }
+
+    /**
+     * Removes the submission from the queue if it is waiting or claimed by this node, e.g. because its evaluation was cancelled.
+     *
+     * @param submissionId The submission identifier.
+     * @return {@code true} if the submission was removed; {@code false} if it is not queued or evaluated by another node.
+     */
+    public boolean remove(UUID submissionId) {
+        boolean removed = this.jdbcTemplate.update(this.sql.remove, submissionId, this.nodeId) > 0;
+        this.leased.remove(submissionId);
+        return removed;
+    }
+
+    /**
+     * Returns the claimed submission to the queue after a failed evaluation attempt.
+     * <p>
+     * If the maximum number of attempts is reached, the submission is marked as failed instead and reported to the worker of its queue.
+     *
+     * @param submissionId The submission identifier.
+     */
+    public void release(UUID submissionId) {
+        var released = this.jdbcTemplate.query(this.sql.release, QueueEntry.MAPPER, this.config.getMaxAttempts(), submissionId, this.nodeId);
+        this.leased.remove(submissionId);
+        released.forEach(this::failIfExhausted);
+    }
+
+    /**
+     * Returns the claimed submission to the queue without counting an evaluation attempt.
+     * <p>
+     * Use this method if the submission could not be evaluated because of missing capacity.
+     *
+     * @param submissionId The submission identifier.
+     */
+    public void requeue(UUID submissionId) {
+        this.jdbcTemplate.update(this.sql.requeue, submissionId, this.nodeId);
+        this.leased.remove(submissionId);
+    }
+
+    /**
+     * Returns submissions with expired leases to the queue.
+     * <p>
+     * Submissions that reached the maximum number of attempts are marked as failed instead and reported to the worker of their queue.
+     *
+     * @return The number of returned or failed submissions.
+     */
+    public int reap() {
+        var reaped = this.jdbcTemplate.query(this.sql.reap, QueueEntry.MAPPER, this.config.getMaxAttempts());
+        if (!reaped.isEmpty())
+            LOG.warn("Returned {} submissions with expired lease to the queue", reaped.size());
+        reaped.forEach(this::failIfExhausted);
+        return reaped.size();
+    }
+
+    /**
+     * Renews the leases of all submissions currently evaluated by this node.
+     */
+    public void renewLeases() {
+        var ids = List.copyOf(this.leased);
+        if (ids.isEmpty())
+            return;
+
+        long leaseMillis = this.config.getLeaseDuration().toMillis();
+        this.jdbcTemplate.batchUpdate(this.sql.renew, ids.stream().map(id -> new Object[]{leaseMillis, id, this.nodeId}).toList());
+    }
+
+    /**
+     * Claims submissions for all registered workers according to their available capacity and performs the periodic maintenance
+     * (lease renewal and reaping of expired leases).
+     */
+    public void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            if (now - this.lastMaintenance >= this.config.getLeaseDuration().toMillis() / 3) {
+                this.lastMaintenance = now;
+                this.renewLeases();
+                this.reap();
+            }
+
+            for (var entry : this.workers.entrySet()) {
+                int limit = Math.min(this.config.getBatchSize(), entry.getValue().getAvailableCapacity());
+                if (limit <= 0)
+                    continue;
+
+                for (UUID id : this.claim(entry.getKey(), limit))
+                    this.dispatch(entry.getValue(), id);
+            }
+        } catch (RuntimeException ex) {
+            LOG.error("Could not poll submission queue", ex);
+        }
+    }
+
+    private void failIfExhausted(QueueEntry entry) {
+        if (!entry.failed())
+            return;
+
+        LOG.warn("Submission {} failed after {} evaluation attempts", entry.submissionId(), this.config.getMaxAttempts());
+        var worker = this.workers.get(entry.queue());
+        if (worker == null)
+            return;
+        try {
+            worker.fail(entry.submissionId());
+        } catch (RuntimeException ex) {
+            LOG.error("Could not report failed submission {}", entry.submissionId(), ex);
+        }
+    }
+
+    private void dispatch(Worker worker, UUID submissionId) {
+        try {
+            worker.process(submissionId);
+        } catch (RuntimeException ex) {
+            LOG.error("Could not process queued submission {}", submissionId, ex);
+            this.release(submissionId);
+        }
+    }
+
+    /**
+     * Gets the identifier of this node used as lease owner.
+     *
+     * @return The node identifier.
+     */
+    @ManagedAttribute(description = "Identifier of this node used as lease owner")
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    /**
+     * Gets the number of submissions currently leased by this node.
+     *
+     * @return The number of leased submissions.
+     */
+    @ManagedAttribute(description = "Number of submissions currently leased by this node")
+    public int getLeasedCount() {
+        return this.leased.size();
+    }
+
+    /**
+     * Starts polling the queue.
+     */
+    @Override
+    public void start() {
+        LOG.info("Starting submission queue polling on node {}", this.nodeId);
+        long interval = this.config.getPollInterval().toMillis();
+        var executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("submission-queue-"));
+        executor.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+        this.scheduler = executor;
+    }
+
+    /**
+     * Stops polling the queue.
+     * <p>
+     * Submissions already claimed by this node keep their leases until they expire.
+     */
+    @Override
+    public void stop() {
+        LOG.info("Stopping submission queue polling");
+        var executor = this.scheduler;
+        this.scheduler = null;
+        if (executor != null)
+            executor.shutdown();
+    }
+
+    /**
+     * Returns whether the queue is currently polled.
+     *
+     * @return {@code true} if the queue is polled.
+     */
+    @Override
+    public boolean isRunning() {
+        return this.scheduler != null;
+    }
+
+    /**
+     * Returns the lifecycle phase; the component is stopped after the evaluations have been drained.
+     *
+     * @return The phase after {@link GradingShutdownCoordinator#PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return GradingShutdownCoordinator.PHASE - 1;
+    }
+
+    private static String generateNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            host = "localhost";
+        }
+        return host + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Evaluates submissions claimed from the queue.
+     */
+    public interface Worker {
+        /**
+         * Returns the number of submissions the worker can accept at the moment.
+         *
+         * @return The available capacity.
+         */
+        int getAvailableCapacity();
+
+        /**
+         * Processes the claimed submission.
+         * <p>
+         * The worker has to call {@link #complete(UUID)}, {@link #release(UUID)} or {@link #requeue(UUID)} after processing.
+         *
+         * @param submissionId The submission identifier.
+         */
+        void process(UUID submissionId);
+
+        /**
+         * Called after the submission has been marked as failed because the maximum number of evaluation attempts is reached.
+         * <p>
+         * The submission might have been claimed by another node whose lease expired. The worker should store a result, so that
+         * clients waiting for the evaluation are notified.
+         *
+         * @param submissionId The submission identifier.
+         */
+        default void fail(UUID submissionId) {
+        }
+    }
+
+    private record QueueEntry(UUID submissionId, String queue, boolean failed) {
+        private static final RowMapper<QueueEntry> MAPPER = (rs, rowNum) ->
+            new QueueEntry(rs.getObject("submission_id", UUID.class), rs.getString("queue"), "FAILED".equals(rs.getString("state")));
+    }
+
+    private static final class Sql {
+        private static final String LEASE_EXPIRATION = "now() + ? * INTERVAL '1 millisecond'";
+
+        private final String insert;
+        private final String claim;
+        private final String claimOne;
+        private final String complete;
+        private final String remove;
+        private final String release;
+        private final String requeue;
+        private final String reap;
+        private final String renew;
+
+        private Sql(String table) {
+            this.insert = "INSERT INTO " + table + " (submission_id, queue, state, enqueued_at, attempts) VALUES (?, ?, 'QUEUED', now(), 0)";
+            this.claim = "UPDATE " + table + " SET state = 'RUNNING', lease_owner = ?, lease_expires_at = " + LEASE_EXPIRATION + ", attempts = attempts + 1 " +
+                         "WHERE submission_id IN (SELECT submission_id FROM " + table + " WHERE queue = ? AND state = 'QUEUED' ORDER BY enqueued_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                         "RETURNING submission_id";
+            this.claimOne = "UPDATE " + table + " SET state = 'RUNNING', lease_owner = ?, lease_expires_at = " + LEASE_EXPIRATION + ", attempts = attempts + 1 " +
+                            "WHERE submission_id = ? AND state = 'QUEUED'";
+            this.complete = "DELETE FROM " + table + " WHERE submission_id = ?";
+            this.remove = "DELETE FROM " + table + " WHERE submission_id = ? AND (state <> 'RUNNING' OR lease_owner = ?)";
+            this.release = "UPDATE " + table + " SET state = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'QUEUED' END, lease_owner = NULL, lease_expires_at = NULL " +
+                           "WHERE submission_id = ? AND lease_owner = ? RETURNING submission_id, queue, state";
+            this.requeue = "UPDATE " + table + " SET state = 'QUEUED', lease_owner = NULL, lease_expires_at = NULL, attempts = attempts - 1 " +
+                           "WHERE submission_id = ? AND lease_owner = ?";
+            this.reap = "UPDATE " + table + " SET state = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'QUEUED' END, lease_owner = NULL, lease_expires_at = NULL " +
+                        "WHERE state = 'RUNNING' AND lease_expires_at < now() RETURNING submission_id, queue, state";
+            this.renew = "UPDATE " + table + " SET lease_expires_at = " + LEASE_EXPIRATION + " WHERE submission_id = ? AND lease_owner = ?";
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Loads the settings of the durable submission queue from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("grading.queue")
+public class SubmissionQueueConfiguration {
+
+    private boolean enabled;
+
+    @NotEmpty
+    private String tableName;
+
+    private String nodeId;
+
+    @NotNull
+    private Duration pollInterval;
+
+    @Min(1)
+    private int batchSize;
+
+    @NotNull
+    private Duration leaseDuration;
+
+    @Min(1)
+    private int maxAttempts;
+
+    /**
+     * Creates a new instance of class {@link SubmissionQueueConfiguration}.
+     */
+    public SubmissionQueueConfiguration() {
+        this.enabled = false;
+        this.tableName = "submission_queue";
+        this.pollInterval = Duration.ofSeconds(1);
+        this.batchSize = 10;
+        this.leaseDuration = Duration.ofMinutes(5);
+        this.maxAttempts = 3;
+    }
+
+    /**
+     * Gets whether the durable submission queue is enabled.
+     *
+     * @return {@code true} if enqueued submissions are stored in the queue table.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the durable submission queue is enabled.
+     *
+     * @param enabled {@code true} if enqueued submissions should be stored in the queue table.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the name of the queue table.
+     *
+     * @return The table name.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Sets the name of the queue table.
+     *
+     * @param tableName The table name.
+     */
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    /**
+     * Gets the identifier of this node used as lease owner.
+     *
+     * @return The node identifier or {@code null} if it should be generated.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Sets the identifier of this node used as lease owner.
+     *
+     * @param nodeId The node identifier; must be unique across all nodes.
+     */
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Gets the interval in which the queue is polled for new submissions.
+     *
+     * @return The poll interval.
+     */
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Sets the interval in which the queue is polled for new submissions.
+     *
+     * @param pollInterval The poll interval.
+     */
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Gets the maximum number of submissions claimed per poll.
+     *
+     * @return The batch size.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of submissions claimed per poll.
+     *
+     * @param batchSize The batch size.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the duration of a lease.
+     *
+     * @return The lease duration.
+     */
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    /**
+     * Sets the duration of a lease.
+     * <p>
+     * Leases of running evaluations are renewed periodically; submissions whose lease expired (e.g. because the node died) are
+     * returned to the queue and claimed by another node.
+     *
+     * @param leaseDuration The lease duration.
+     */
+    public void setLeaseDuration(Duration leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Gets the maximum number of evaluation attempts per submission.
+     *
+     * @return The maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of evaluation attempts per submission.
+     *
+     * @param maxAttempts The maximum number of attempts; afterward, the submission is marked as failed.
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+}
@@ -0,0 +1,299 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache for data derived from a task that is needed to evaluate its submissions, e.g. the parsed reference solution or the expected
+ * result set.
+ * <p>
+ * An artifact is built once per task version: concurrent requests for the same artifact wait for a single build, and the artifact is
+ * kept in memory (W-TinyLFU eviction, see {@link TinyLfuCache}). If a spill directory is configured, serializable artifacts are also
+ * written to disk, so that artifacts evicted from memory are read from disk instead of being rebuilt. Only classes accepted by the
+ * configured filter (see {@link TaskArtifactCacheConfiguration#getSpillFilter()}) are deserialized from disk.
+ * <p>
+ * The artifacts of a task are removed if the task is invalidated (see {@link SubmissionFingerprinter#invalidateTask(long)}), which
+ * happens whenever a task is modified or deleted; artifacts built from a previous task version are never returned.
+ */
+@Component
+@ManagedResource(objectName = "at.jku.dke.etutor:type=TaskArtifactCache", description = "Cache for precomputed evaluation artifacts of tasks")
+public class TaskArtifactCache {
+    private static final Logger LOG = LoggerFactory.getLogger(TaskArtifactCache.class);
+    private static final String FILE_EXTENSION = ".artifact";
+
+    private final SubmissionFingerprinter fingerprinter;
+    private final TinyLfuCache<ArtifactKey, Object> cache;
+    private final SingleFlight<ArtifactKey, Object> builds;
+    private final Path spillDirectory;
+    private final ObjectInputFilter spillFilter;
+    private final LongAdder buildCount;
+    private final LongAdder buildNanos;
+    private final LongAdder spillHits;
+
+    /**
+     * Creates a new instance of class {@link TaskArtifactCache}.
+     *
+     * @param config        The cache configuration.
+     * @param fingerprinter The fingerprinter managing the task versions.
+     */
+    public TaskArtifactCache(TaskArtifactCacheConfiguration config, SubmissionFingerprinter fingerprinter) {
+        this.fingerprinter = fingerprinter;
+        this.cache = new TinyLfuCache<>(config.getMaximumSize(), config.getTimeToLive());
+        this.builds = new SingleFlight<>();
+        this.spillDirectory = config.getSpillDirectory();
+        this.spillFilter = ObjectInputFilter.Config.createFilter(config.getSpillFilter() == null ?
+            TaskArtifactCacheConfiguration.DEFAULT_SPILL_FILTER : config.getSpillFilter());
+        this.buildCount = new LongAdder();
+        this.buildNanos = new LongAdder();
+        this.spillHits = new LongAdder();
+        this.initSpillDirectory();
+        fingerprinter.addInvalidationListener(this::invalidateTask);
+    }
+
+    private void initSpillDirectory() {
+        if (this.spillDirectory == null)
+            return;
+
+        // task versions start at 0 again, so artifacts of a previous run might be outdated
+        try {
+            Files.createDirectories(this.spillDirectory);
+            this.deleteSpilled("*" + FILE_EXTENSION);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not initialize artifact spill directory " + this.spillDirectory, ex);
+        }
+    }
+
+    /**
+     * Returns the artifact of the current version of the task, building it if it is not cached.
+     *
+     * @param taskId  The task identifier.
+     * @param name    The name of the artifact; a task can have several artifacts.
+     * @param builder Builds the artifact from the task; must not return {@code null}.
+     * @param <A>     The artifact type.
+     * @return The artifact.
+     */
+    @SuppressWarnings("unchecked")
+    public <A> A get(long taskId, String name, Supplier<A> builder) {
+        var key = new ArtifactKey(taskId, this.fingerprinter.getTaskVersion(taskId), name);
+        Object value = this.cache.get(key);
+        if (value != null)
+            return (A) value;
+
+        value = this.readSpilled(key);
+        if (value != null) {
+            this.spillHits.increment();
+            this.store(key, value, false);
+            return (A) value;
+        }
+
+        var flight = this.builds.join(key);
+        if (!flight.leader()) {
+            try {
+                return (A) flight.future().join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause)
+                    throw cause;
+                throw ex;
+            }
+        }
+
+        try {
+            LOG.debug("Building artifact {} of task {}", name, taskId);
+            long start = System.nanoTime();
+            A artifact = builder.get();
+            if (artifact == null)
+                throw new IllegalStateException("The artifact " + name + " of task " + taskId + " must not be null.");
+            this.buildCount.increment();
+            this.buildNanos.add(System.nanoTime() - start);
+
+            this.store(key, artifact, true);
+            flight.future().complete(artifact);
+            return artifact;
+        } catch (RuntimeException ex) {
+            flight.future().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            if (!flight.future().isDone())
+                flight.future().completeExceptionally(new IllegalStateException("Building artifact " + name + " of task " + taskId + " failed."));
+        }
+    }
+
+    private void store(ArtifactKey key, Object value, boolean spill) {
+        // the artifact was built from a task version that has been modified in the meantime
+        if (this.fingerprinter.getTaskVersion(key.taskId()) != key.taskVersion())
+            return;
+
+        this.cache.put(key, value);
+        if (spill)
+            this.writeSpilled(key, value);
+    }
+
+    private Object readSpilled(ArtifactKey key) {
+        if (this.spillDirectory == null)
+            return null;
+
+        Path file = this.getSpillFile(key);
+        try (var in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            in.setObjectInputFilter(this.spillFilter);
+            return in.readObject();
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException | ClassNotFoundException ex) {
+            LOG.warn("Could not read spilled artifact {} of task {}", key.name(), key.taskId(), ex);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignore) {
+                // written again after the next build
+            }
+            return null;
+        }
+    }
+
+    private void writeSpilled(ArtifactKey key, Object value) {
+        if (this.spillDirectory == null || !(value instanceof Serializable))
+            return;
+
+        Path file = this.getSpillFile(key);
+        try {
+            Path tmp = Files.createTempFile(this.spillDirectory, "artifact-", ".tmp");
+            try (var out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeObject(value);
+            } catch (IOException ex) {
+                Files.deleteIfExists(tmp);
+                throw ex;
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            LOG.warn("Could not spill artifact {} of task {}", key.name(), key.taskId(), ex);
+        }
+    }
+
+    private Path getSpillFile(ArtifactKey key) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(key.name().getBytes(StandardCharsets.UTF_8));
+            return this.spillDirectory.resolve("task-" + key.taskId() + "-" + key.taskVersion() + "-" + HexFormat.of().formatHex(digest) + FILE_EXTENSION);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    }
+
+    private void deleteSpilled(String glob) throws IOException {
+        try (var files = Files.newDirectoryStream(this.spillDirectory, glob)) {
+            for (Path file : files)
+                Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Removes the artifacts of the specified task, e.g. because the task has been modified.
+     *
+     * @param taskId The task identifier.
+     */
+    private void invalidateTask(long taskId) {
+        int removed = this.cache.invalidateAll(key -> key.taskId() == taskId);
+        LOG.debug("Removed {} artifacts of task {}", removed, taskId);
+
+        if (this.spillDirectory == null)
+            return;
+        try {
+            this.deleteSpilled("task-" + taskId + "-*" + FILE_EXTENSION);
+        } catch (IOException ex) {
+            LOG.warn("Could not delete spilled artifacts of task {}", taskId, ex);
+        }
+    }
+
+    /**
+     * Removes all artifacts from memory; spilled artifacts are kept.
+     */
+    @ManagedOperation(description = "Removes all artifacts from memory")
+    public void clear() {
+        this.cache.clear();
+    }
+
+    /**
+     * Gets the number of artifacts kept in memory.
+     *
+     * @return The number of artifacts.
+     */
+    @ManagedAttribute(description = "Number of artifacts kept in memory")
+    public int getSize() {
+        return this.cache.size();
+    }
+
+    /**
+     * Gets the number of requests served from memory.
+     *
+     * @return The number of hits.
+     */
+    @ManagedAttribute(description = "Number of requests served from memory")
+    public long getHitCount() {
+        return this.cache.getHitCount();
+    }
+
+    /**
+     * Gets the number of requests served from the spill directory.
+     *
+     * @return The number of spill hits.
+     */
+    @ManagedAttribute(description = "Number of requests served from the spill directory")
+    public long getSpillHitCount() {
+        return this.spillHits.sum();
+    }
+
+    /**
+     * Gets the number of built artifacts.
+     *
+     * @return The number of builds.
+     */
+    @ManagedAttribute(description = "Number of built artifacts")
+    public long getBuildCount() {
+        return this.buildCount.sum();
+    }
+
+    /**
+     * Gets the time spent building artifacts.
+     *
+     * @return The sum of all build times.
+     */
+    public Duration getBuildTime() {
+        return Duration.ofNanos(this.buildNanos.sum());
+    }
+
+    /**
+     * Gets the time spent building artifacts in milliseconds.
+     *
+     * @return The sum of all build times in milliseconds.
+     */
+    @ManagedAttribute(description = "Time spent building artifacts in milliseconds")
+    public long getBuildTimeMillis() {
+        return this.getBuildTime().toMillis();
+    }
+
+    /**
+     * Gets the number of artifacts removed from memory because the cache was full.
+     *
+     * @return The number of evictions.
+     */
+    @ManagedAttribute(description = "Number of artifacts removed from memory because the cache was full")
+    public long getEvictionCount() {
+        return this.cache.getEvictionCount();
+    }
+
+    private record ArtifactKey(long taskId, long taskVersion, String name) {
+    }
+}
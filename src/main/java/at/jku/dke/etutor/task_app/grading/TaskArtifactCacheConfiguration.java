@@ -0,0 +1,116 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Loads the settings of the task artifact cache from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("grading.artifacts")
+public class TaskArtifactCacheConfiguration {
+    /**
+     * The default filter of deserialized spilled artifacts: classes of the {@code java.base} module and of the eTutor packages.
+     */
+    public static final String DEFAULT_SPILL_FILTER = "maxdepth=100;java.base/*;at.jku.dke.**;!*";
+
+    @Min(1)
+    private int maximumSize;
+
+    private Duration timeToLive;
+
+    private Path spillDirectory;
+
+    private String spillFilter;
+
+    /**
+     * Creates a new instance of class {@link TaskArtifactCacheConfiguration}.
+     */
+    public TaskArtifactCacheConfiguration() {
+        this.maximumSize = 1000;
+        this.timeToLive = null;
+        this.spillDirectory = null;
+        this.spillFilter = DEFAULT_SPILL_FILTER;
+    }
+
+    /**
+     * Gets the maximum number of artifacts kept in memory.
+     *
+     * @return The maximum size.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of artifacts kept in memory.
+     *
+     * @param maximumSize The maximum size.
+     */
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Gets the duration after which an artifact is removed from memory.
+     *
+     * @return The time to live or {@code null} if artifacts do not expire.
+     */
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Sets the duration after which an artifact is removed from memory.
+     *
+     * @param timeToLive The time to live or {@code null} if artifacts should not expire.
+     */
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Gets the directory serializable artifacts are written to, so that artifacts evicted from memory do not have to be rebuilt.
+     *
+     * @return The spill directory or {@code null} if artifacts are only kept in memory.
+     */
+    public Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * Sets the directory serializable artifacts are written to, so that artifacts evicted from memory do not have to be rebuilt.
+     * <p>
+     * The directory is cleared on startup and must not be writable by other users, as the artifacts are deserialized from it.
+     *
+     * @param spillDirectory The spill directory or {@code null} if artifacts should only be kept in memory.
+     */
+    public void setSpillDirectory(Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Gets the filter that restricts the classes deserialized when reading spilled artifacts.
+     *
+     * @return The filter pattern in the syntax of {@link java.io.ObjectInputFilter.Config#createFilter(String)}.
+     */
+    public String getSpillFilter() {
+        return spillFilter;
+    }
+
+    /**
+     * Sets the filter that restricts the classes deserialized when reading spilled artifacts.
+     * <p>
+     * Artifacts containing rejected classes are rebuilt instead of being read from disk. Extend the {@link #DEFAULT_SPILL_FILTER} if
+     * artifacts contain classes of other packages.
+     *
+     * @param spillFilter The filter pattern in the syntax of {@link java.io.ObjectInputFilter.Config#createFilter(String)}.
+     */
+    public void setSpillFilter(String spillFilter) {
+        this.spillFilter = spillFilter;
+    }
+}
@@ -0,0 +1,46 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.io.Serializable;
+
+/**
+ * Announcement of a created, modified or deleted task or task group.
+ *
+ * @param type The type of the modified resource.
+ * @param id   The identifier of the task or task group.
+ */
+public record TaskInvalidation(Type type, long id) implements Serializable {
+
+    /**
+     * The type of the modified resource.
+     */
+    public enum Type {
+        /**
+         * A task.
+         */
+        TASK,
+        /**
+         * A task group; the tasks of the group have to be reloaded as well.
+         */
+        TASK_GROUP
+    }
+
+    /**
+     * Creates the announcement of a modified task.
+     *
+     * @param taskId The task identifier.
+     * @return The announcement.
+     */
+    public static TaskInvalidation task(long taskId) {
+        return new TaskInvalidation(Type.TASK, taskId);
+    }
+
+    /**
+     * Creates the announcement of a modified task group.
+     *
+     * @param taskGroupId The task group identifier.
+     * @return The announcement.
+     */
+    public static TaskInvalidation taskGroup(long taskGroupId) {
+        return new TaskInvalidation(Type.TASK_GROUP, taskGroupId);
+    }
+}
@@ -0,0 +1,29 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.util.function.Consumer;
+
+/**
+ * Channel announcing modified tasks and task groups to all nodes, so that each node invalidates its task caches (see
+ * {@link TaskInvalidationNotifier}).
+ * <p>
+ * The default implementation ({@link LocalTaskInvalidationChannel}) only delivers to the node that modified the task. Applications
+ * running several nodes register a bean of this type delivering to all nodes, e.g. using a message broker or PostgreSQL
+ * {@code LISTEN}/{@code NOTIFY}.
+ */
+public interface TaskInvalidationChannel {
+    /**
+     * Announces that the specified task or task group has been created, modified or deleted.
+     * <p>
+     * The announcement must also be delivered to the subscribers of this node.
+     *
+     * @param invalidation The announcement.
+     */
+    void publish(TaskInvalidation invalidation);
+
+    /**
+     * Subscribes to announced tasks and task groups.
+     *
+     * @param listener The listener receiving the announcements.
+     */
+    void subscribe(Consumer<TaskInvalidation> listener);
+}
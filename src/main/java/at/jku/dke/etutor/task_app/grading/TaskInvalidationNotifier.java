@@ -0,0 +1,88 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Announces created, modified and deleted tasks and task groups to the task caches of all nodes.
+ * <p>
+ * The task services publish every modification after the commit of the modifying transaction; the caches holding data derived
+ * from tasks ({@link SubmissionFingerprinter}, {@link TaskRegistry}, the response cache of the API) subscribe, so that they are
+ * invalidated on every node. The announcements are delivered by the {@link TaskInvalidationChannel} bean of the application, or by
+ * a {@link LocalTaskInvalidationChannel} if there is none.
+ */
+@Component
+public class TaskInvalidationNotifier {
+    private static final Logger LOG = LoggerFactory.getLogger(TaskInvalidationNotifier.class);
+
+    private final TaskInvalidationChannel channel;
+
+    /**
+     * Creates a new instance of class {@link TaskInvalidationNotifier}.
+     *
+     * @param channel The channel of the application, if any.
+     */
+    @Autowired
+    public TaskInvalidationNotifier(ObjectProvider<TaskInvalidationChannel> channel) {
+        this(channel.getIfAvailable(LocalTaskInvalidationChannel::new));
+    }
+
+    /**
+     * Creates a new instance of class {@link TaskInvalidationNotifier}.
+     *
+     * @param channel The channel delivering the announcements.
+     */
+    public TaskInvalidationNotifier(TaskInvalidationChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Announces the modification to all nodes.
+     *
+     * @param invalidation The announcement.
+     */
+    public void publish(TaskInvalidation invalidation) {
+        try {
+            this.channel.publish(invalidation);
+        } catch (RuntimeException ex) {
+            LOG.error("Could not announce modification of {} {}", invalidation.type(), invalidation.id(), ex);
+        }
+    }
+
+    /**
+     * Announces the modification to all nodes after the current transaction has been committed, or immediately if no transaction
+     * is active.
+     *
+     * @param invalidation The announcement.
+     */
+    public void publishAfterCommit(TaskInvalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.publish(invalidation);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED)
+                    publish(invalidation);
+            }
+        });
+    }
+
+    /**
+     * Subscribes to the announcements of all nodes.
+     *
+     * @param listener The listener receiving the announcements.
+     */
+    public void subscribe(Consumer<TaskInvalidation> listener) {
+        this.channel.subscribe(listener);
+    }
+}
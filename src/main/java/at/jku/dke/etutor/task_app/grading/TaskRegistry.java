@@ -0,0 +1,259 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.data.entities.Task;
+import at.jku.dke.etutor.task_app.data.entities.TaskInGroup;
+import at.jku.dke.etutor.task_app.data.repositories.TaskRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps all tasks in memory, so that the grading does not load the task of each submission from the database.
+ * <p>
+ * The tasks of all {@link TaskRepository task repositories} are loaded on startup. The registry is read-mostly: lookups read an
+ * immutable map without locking, modifications copy the map and replace it. Tasks and task groups modified by the task services are
+ * announced by the {@link TaskInvalidationNotifier}; every node receiving the announcement reloads the affected tasks from the
+ * database.
+ * <p>
+ * The registered tasks are detached entities: they must not be modified, and only their task group is loaded eagerly, other lazy
+ * associations cannot be accessed. Tasks not found in the registry (e.g. while it is loaded) should be loaded from the database.
+ * <p>
+ * The registry is only available if {@code grading.task-registry.enabled} is {@code true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grading.task-registry", name = "enabled", havingValue = "true")
+@ManagedResource(objectName = "at.jku.dke.etutor:type=TaskRegistry", description = "Keeps all tasks in memory")
+public class TaskRegistry implements SmartLifecycle {
+    private static final Logger LOG = LoggerFactory.getLogger(TaskRegistry.class);
+
+    private final List<TaskRepository<?>> repositories;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock lock;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder refreshes;
+    private TaskInvalidationNotifier invalidationNotifier;
+    private volatile Map<Long, Task> tasks;
+    private volatile boolean running;
+
+    /**
+     * Creates a new instance of class {@link TaskRegistry}.
+     *
+     * @param repositories       The repositories of the tasks.
+     * @param transactionManager The transaction manager used to load the tasks.
+     */
+    public TaskRegistry(List<TaskRepository<?>> repositories, PlatformTransactionManager transactionManager) {
+        this.repositories = repositories;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // tasks are refreshed after the commit of the modifying transaction, whose resources are still bound
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.lock = new ReentrantLock();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.refreshes = new LongAdder();
+        this.invalidationNotifier = new TaskInvalidationNotifier(new LocalTaskInvalidationChannel());
+        this.tasks = Map.of();
+    }
+
+    /**
+     * Sets the notifier announcing modified tasks and task groups to all nodes.
+     * <p>
+     * If no notifier is set, only tasks invalidated on this registry are refreshed.
+     *
+     * @param invalidationNotifier The invalidation notifier.
+     */
+    @Autowired(required = false)
+    public void setInvalidationNotifier(TaskInvalidationNotifier invalidationNotifier) {
+        this.invalidationNotifier = invalidationNotifier;
+    }
+
+    /**
+     * Subscribes to the invalidation notifier and loads all tasks.
+     */
+    @Override
+    public void start() {
+        this.invalidationNotifier.subscribe(this::onInvalidation);
+        this.running = true;
+        this.reload();
+    }
+
+    /**
+     * Marks the registry as stopped.
+     */
+    @Override
+    public void stop() {
+        this.running = false;
+    }
+
+    /**
+     * Returns whether the registry has been started.
+     *
+     * @return {@code true} if the registry has been started and not yet stopped.
+     */
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Returns the task with the specified identifier.
+     *
+     * @param taskId The task identifier.
+     * @return The detached task or an empty result if the task is not registered.
+     */
+    public Optional<Task> get(long taskId) {
+        Task task = this.tasks.get(taskId);
+        if (task == null)
+            this.misses.increment();
+        else
+            this.hits.increment();
+        return Optional.ofNullable(task);
+    }
+
+    /**
+     * Announces that the specified task has been created, modified or deleted, so that all nodes reload it.
+     *
+     * @param taskId The task identifier.
+     */
+    public void invalidate(long taskId) {
+        this.invalidationNotifier.publish(TaskInvalidation.task(taskId));
+    }
+
+    /**
+     * Announces that the tasks of the specified task group have been modified, e.g. because the group has been modified or deleted.
+     *
+     * @param taskGroupId The task group identifier.
+     */
+    public void invalidateTaskGroup(long taskGroupId) {
+        this.invalidationNotifier.publish(TaskInvalidation.taskGroup(taskGroupId));
+    }
+
+    /**
+     * Loads all tasks from the database.
+     */
+    @ManagedOperation(description = "Loads all tasks from the database")
+    public void reload() {
+        this.lock.lock();
+        try {
+            var loaded = new HashMap<Long, Task>();
+            this.transactionTemplate.executeWithoutResult(status -> {
+                for (var repository : this.repositories) {
+                    for (Task task : repository.findAll())
+                        loaded.put(task.getId(), initialize(task));
+                }
+            });
+            this.tasks = Map.copyOf(loaded);
+            LOG.info("Loaded {} tasks into the task registry", loaded.size());
+        } catch (RuntimeException ex) {
+            LOG.error("Could not load the tasks into the task registry", ex);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void onInvalidation(TaskInvalidation invalidation) {
+        if (invalidation.type() == TaskInvalidation.Type.TASK) {
+            this.refresh(invalidation.id());
+            return;
+        }
+
+        this.tasks.values().stream()
+            .filter(t -> t instanceof TaskInGroup<?> task && task.getTaskGroup() != null && Objects.equals(task.getTaskGroup().getId(), invalidation.id()))
+            .map(Task::getId)
+            .toList()
+            .forEach(this::refresh);
+    }
+
+    private void refresh(long taskId) {
+        this.lock.lock();
+        try {
+            Task task = null;
+            try {
+                task = this.transactionTemplate.execute(status -> this.repositories.stream()
+                    .map(r -> r.findById(taskId))
+                    .flatMap(Optional::stream)
+                    .findFirst()
+                    .map(TaskRegistry::initialize)
+                    .orElse(null));
+            } catch (RuntimeException ex) {
+                // the task is loaded from the database until the next refresh
+                LOG.warn("Could not refresh task {} in the task registry", taskId, ex);
+            }
+
+            var copy = new HashMap<>(this.tasks);
+            if (task == null)
+                copy.remove(taskId);
+            else
+                copy.put(taskId, task);
+            this.tasks = Map.copyOf(copy);
+            this.refreshes.increment();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private static Task initialize(Task task) {
+        if (task instanceof TaskInGroup<?> taskInGroup)
+            Hibernate.initialize(taskInGroup.getTaskGroup());
+        return task;
+    }
+
+    /**
+     * Gets the number of registered tasks.
+     *
+     * @return The number of tasks.
+     */
+    @ManagedAttribute(description = "Number of registered tasks")
+    public int getSize() {
+        return this.tasks.size();
+    }
+
+    /**
+     * Gets the number of lookups of registered tasks.
+     *
+     * @return The number of hits.
+     */
+    @ManagedAttribute(description = "Number of lookups of registered tasks")
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups of tasks not registered.
+     *
+     * @return The number of misses.
+     */
+    @ManagedAttribute(description = "Number of lookups of tasks not registered")
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the number of tasks reloaded because they have been modified.
+     *
+     * @return The number of refreshes.
+     */
+    @ManagedAttribute(description = "Number of tasks reloaded because they have been modified")
+    public long getRefreshCount() {
+        return this.refreshes.sum();
+    }
+}
@@ -0,0 +1,39 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Loads the settings of the in-memory task registry from the application-properties.
+ */
+@Validated
+@ConfigurationProperties("grading.task-registry")
+public class TaskRegistryConfiguration {
+
+    private boolean enabled;
+
+    /**
+     * Creates a new instance of class {@link TaskRegistryConfiguration}.
+     */
+    public TaskRegistryConfiguration() {
+        this.enabled = false;
+    }
+
+    /**
+     * Gets whether the task registry is enabled.
+     *
+     * @return {@code true} if the tasks are kept in memory.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the task registry is enabled.
+     *
+     * @param enabled {@code true} if the tasks should be kept in memory.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,312 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded cache with optional time-to-live, using a simplified W-TinyLFU eviction policy.
+ * <p>
+ * New entries are added to a small LRU window (1 % of the capacity). Entries evicted from the window only replace the least
+ * recently used entry of the main region if they were accessed more frequently, as estimated by a count-min sketch of the
+ * recent accesses. This keeps popular entries cached even if many entries are only requested once.
+ * <p>
+ * All operations are guarded by a single lock; the cache is intended for values that are expensive to compute compared to the
+ * lock overhead.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class TinyLfuCache<K, V> {
+    private final ReentrantLock lock;
+    private final LinkedHashMap<K, Entry<V>> window;
+    private final LinkedHashMap<K, Entry<V>> main;
+    private final FrequencySketch sketch;
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final long timeToLiveNanos;
+    private final LongSupplier ticker;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Creates a new instance of class {@link TinyLfuCache}.
+     *
+     * @param maximumSize The maximum number of entries.
+     * @param timeToLive  The duration after which an entry expires or {@code null} if entries should not expire.
+     */
+    public TinyLfuCache(int maximumSize, Duration timeToLive) {
+        this(maximumSize, timeToLive, System::nanoTime);
+    }
+
+    /**
+     * Creates a new instance of class {@link TinyLfuCache}.
+     *
+     * @param maximumSize The maximum number of entries.
+     * @param timeToLive  The duration after which an entry expires or {@code null} if entries should not expire.
+     * @param ticker      The source of the current time in nanoseconds.
+     */
+    TinyLfuCache(int maximumSize, Duration timeToLive, LongSupplier ticker) {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        if (timeToLive != null && (timeToLive.isNegative() || timeToLive.isZero()))
+            throw new IllegalArgumentException("The time to live must be positive.");
+
+        this.lock = new ReentrantLock();
+        this.window = new LinkedHashMap<>(16, 0.75f, true);
+        this.main = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch(maximumSize);
+        this.windowCapacity = Math.max(1, maximumSize / 100);
+        this.mainCapacity = maximumSize - this.windowCapacity;
+        this.timeToLiveNanos = timeToLive == null ? 0 : timeToLive.toNanos();
+        this.ticker = ticker;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Returns the value cached for the specified key.
+     *
+     * @param key The key.
+     * @return The value or {@code null} if no (unexpired) value is cached.
+     */
+    public V get(K key) {
+        this.lock.lock();
+        try {
+            this.sketch.increment(key);
+            var entry = this.window.get(key);
+            if (entry == null)
+                entry = this.main.get(key);
+            if (entry != null && this.isExpired(entry)) {
+                this.window.remove(key);
+                this.main.remove(key);
+                entry = null;
+            }
+
+            if (entry == null) {
+                this.misses.increment();
+                return null;
+            }
+            this.hits.increment();
+            return entry.value();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Caches the value for the specified key.
+     * <p>
+     * The value might be evicted immediately if the cache is full and the key is accessed less frequently than the cached keys.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    public void put(K key, V value) {
+        var entry = new Entry<>(value, this.timeToLiveNanos == 0 ? 0 : this.ticker.getAsLong() + this.timeToLiveNanos);
+        this.lock.lock();
+        try {
+            if (this.main.containsKey(key)) {
+                this.main.put(key, entry);
+                return;
+            }
+
+            this.window.put(key, entry);
+            if (this.window.size() > this.windowCapacity) {
+                var candidate = removeEldest(this.window);
+                this.admit(candidate.getKey(), candidate.getValue());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the value cached for the specified key.
+     *
+     * @param key The key.
+     */
+    public void invalidate(K key) {
+        this.lock.lock();
+        try {
+            this.window.remove(key);
+            this.main.remove(key);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all values whose key matches the predicate.
+     *
+     * @param predicate The predicate.
+     * @return The number of removed values.
+     */
+    public int invalidateAll(Predicate<? super K> predicate) {
+        this.lock.lock();
+        try {
+            int size = this.window.size() + this.main.size();
+            this.window.keySet().removeIf(predicate);
+            this.main.keySet().removeIf(predicate);
+            return size - this.window.size() - this.main.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        this.lock.lock();
+        try {
+            this.window.clear();
+            this.main.clear();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of cached values (including expired values that have not been removed yet).
+     *
+     * @return The number of values.
+     */
+    public int size() {
+        this.lock.lock();
+        try {
+            return this.window.size() + this.main.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of lookups that returned a cached value.
+     *
+     * @return The number of hits.
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that did not return a cached value.
+     *
+     * @return The number of misses.
+     */
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the number of values removed because the cache was full.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    private void admit(K key, Entry<V> entry) {
+        if (this.main.size() < this.mainCapacity) {
+            this.main.put(key, entry);
+            return;
+        }
+
+        this.evictions.increment();
+        if (this.main.isEmpty())
+            return;
+
+        // replace the least recently used entry only if the candidate is more popular (or the victim is expired anyway)
+        var victim = this.main.entrySet().iterator().next();
+        if (this.isExpired(victim.getValue()) || this.sketch.frequency(key) > this.sketch.frequency(victim.getKey())) {
+            removeEldest(this.main);
+            this.main.put(key, entry);
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return entry.expiresAt() != 0 && this.ticker.getAsLong() - entry.expiresAt() >= 0;
+    }
+
+    private static <X, Y> Map.Entry<X, Y> removeEldest(LinkedHashMap<X, Y> map) {
+        Iterator<Map.Entry<X, Y>> iterator = map.entrySet().iterator();
+        var eldest = iterator.next();
+        var result = Map.entry(eldest.getKey(), eldest.getValue());
+        iterator.remove();
+        return result;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    /**
+     * Count-min sketch with 4-bit counters that are halved periodically, so that the frequencies reflect recent accesses.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, Math.min(maximumSize, 1 << 24)) - 1) << 1;
+            this.table = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(16, maximumSize);
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = this.index(hash, i);
+                if (this.table[i][index] < MAX_COUNT) {
+                    this.table[i][index]++;
+                    added = true;
+                }
+            }
+
+            if (added && ++this.additions >= this.sampleSize)
+                this.reset();
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++)
+                frequency = Math.min(frequency, this.table[i][this.index(hash, i)]);
+            return frequency;
+        }
+
+        private void reset() {
+            for (byte[] row : this.table) {
+                for (int i = 0; i < row.length; i++)
+                    row[i] >>= 1;
+            }
+            this.additions /= 2;
+        }
+
+        private int index(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & this.mask;
+        }
+
+        private static int spread(int hash) {
+            hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+            return (hash >>> 16) ^ hash;
+        }
+    }
+}
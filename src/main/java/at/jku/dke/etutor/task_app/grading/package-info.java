@@ -0,0 +1,216 @@
+/**
+ * This package contains the infrastructure used to run evaluations of submissions.
+ * <p>
+ * Background evaluations are executed by the {@link at.jku.dke.etutor.task_app.grading.GradingExecutor}, which can be configured in the application properties:
+ * <pre>
+ * grading:
+ *   core-pool-size: 4
+ *   max-pool-size: 8
+ *   queue-capacity: 500
+ *   keep-alive: 60s
+ *   rejection-policy: ABORT
+ *   retry-after: 10s
+ *   virtual-threads: false
+ *   max-concurrent-evaluations: 200
+ *   slot-timeout: 30s
+ *   evaluation-timeout: 2m
+ *   shutdown-grace-period: 30s
+ *   run:
+ *     weight: 4
+ *     max-share: 1.0
+ *   diagnose:
+ *     weight: 4
+ *     max-share: 1.0
+ *   submit:
+ *     weight: 1
+ *     max-share: 0.75
+ *     queue-capacity: 1000
+ * </pre>
+ * Submissions wait in one lane per submission mode. Free workers serve the lanes in proportion to their {@code weight}, and a lane
+ * never occupies more than {@code max-share} of the workers, so that a burst of final submissions at a deadline does not starve
+ * interactive runs. The {@code queue-capacity} and {@code timeout} of a lane default to {@code grading.queue-capacity} and
+ * {@code grading.evaluation-timeout}.
+ * <p>
+ * Evaluations are only limited if {@code grading.evaluation-timeout} or the {@code timeout} of their lane is set. Evaluations
+ * exceeding their timeout are interrupted and a timeout result is stored immediately, so that clients stop waiting.
+ * Evaluations can also be cancelled using {@code POST /api/submission/{id}/cancel}. Cancellation is cooperative: blocking operations
+ * abort on interruption, long-running computations should call {@link at.jku.dke.etutor.task_app.grading.GradingJob#throwIfCancelled()}.
+ * <p>
+ * When the application shuts down, the {@link at.jku.dke.etutor.task_app.grading.GradingShutdownCoordinator} sets the readiness state
+ * to refusing traffic, rejects new background submissions with status 503 and lets queued and running evaluations finish within
+ * {@code shutdown-grace-period}. Unfinished evaluations are handed back; with the durable submission queue they are returned to the
+ * queue and evaluated by another node. Set {@code server.shutdown: graceful} so that synchronous evaluations finish as well.
+ * <p>
+ * Most evaluations are I/O bound (e.g. they execute queries on exercise databases). For such task apps, enable {@code grading.virtual-threads}
+ * to run each background evaluation on its own virtual thread, and {@code spring.threads.virtual.enabled} to let Spring Boot serve
+ * requests (including synchronous evaluations) on virtual threads. The {@code max-concurrent-evaluations} setting then limits
+ * how many evaluations run at the same time, e.g. to not exhaust the database connection pool.
+ * Evaluations should avoid blocking I/O inside {@code synchronized} blocks as this pins the virtual thread to its carrier thread.
+ * <p>
+ * Instead of tuning {@code max-concurrent-evaluations} by hand, the limit can adapt to the observed evaluation latency
+ * (see {@link at.jku.dke.etutor.task_app.grading.ConcurrencyLimiter}). The limit grows while evaluations are as fast as usual and
+ * shrinks as soon as they get slower, e.g. because the exercise database is overloaded; {@code max-concurrent-evaluations} is the
+ * upper bound. Each bulkhead adapts its own limit. The current limit and latency estimates are exported as JMX attributes of the executor:
+ * <pre>
+ * grading:
+ *   max-concurrent-evaluations: 200
+ *   concurrency-limit:
+ *     adaptive: true
+ *     min-limit: 2
+ *     initial-limit: 20
+ *     smoothing: 0.2
+ *     rtt-tolerance: 1.5
+ *     long-window: 600
+ * </pre>
+ * <p>
+ * Task apps hosting several task types can isolate the evaluations of each type in a bulkhead with its own worker pool
+ * (see {@link at.jku.dke.etutor.task_app.grading.GradingBulkheads}). Bulkheads are keyed by the bean name of the submission service
+ * (or the value returned by {@code getBulkheadName()}); unset settings are taken from the global configuration:
+ * <pre>
+ * grading:
+ *   bulkheads:
+ *     sqlSubmissionService:
+ *       max-pool-size: 4
+ *       queue-capacity: 100
+ *       max-concurrent-evaluations: 10
+ *       work-stealing: true
+ * </pre>
+ * With {@code work-stealing}, a saturated bulkhead borrows idle workers of the shared pool and of other bulkheads that have no waiting submissions.
+ * <p>
+ * By default, enqueued submissions are only held in memory of the node that received them. If the
+ * {@link at.jku.dke.etutor.task_app.grading.SubmissionQueue} is enabled, enqueued submissions are stored in a database table instead
+ * (see the class documentation for the required table), so that they survive restarts and are distributed across all nodes:
+ * <pre>
+ * grading:
+ *   queue:
+ *     enabled: true
+ *     table-name: submission_queue
+ *     poll-interval: 1s
+ *     batch-size: 10
+ *     lease-duration: 5m
+ *     max-attempts: 3
+ * </pre>
+ * <p>
+ * The results of identical submissions can be reused with the {@link at.jku.dke.etutor.task_app.grading.GradingResultCache}. Cached
+ * results of a task are invalidated if the task is modified or deleted:
+ * <pre>
+ * grading:
+ *   cache:
+ *     enabled: true
+ *     maximum-size: 10000
+ *     time-to-live: 24h
+ * </pre>
+ * Independent of the cache, concurrent identical submissions (same {@link at.jku.dke.etutor.task_app.grading.SubmissionFingerprint})
+ * share a single evaluation, and each submission stores its own copy of the result. Submission services whose evaluation depends
+ * on more than the task and the submission must override {@code isCacheable()}.
+ * <p>
+ * At peak load, the {@link at.jku.dke.etutor.task_app.grading.GradingResultWriter} reduces the database load by writing evaluation
+ * results in batches. A result is written at the latest after the flush interval, or earlier if the batch size is reached:
+ * <pre>
+ * grading:
+ *   write-behind:
+ *     enabled: true
+ *     table-name: submission
+ *     flush-interval: 200ms
+ *     batch-size: 100
+ *     max-pending: 10000
+ * </pre>
+ * <p>
+ * Clients waiting for a result ({@code GET /api/submission/{id}/result?timeout=...}) are completed as soon as the result is stored
+ * by the node they are connected to. If several nodes share the database, the
+ * {@link at.jku.dke.etutor.task_app.grading.GradingResultNotifier} announces stored results to all nodes using PostgreSQL
+ * {@code LISTEN}/{@code NOTIFY}; while its listener connection is lost, the results of waiting clients are polled:
+ * <pre>
+ * grading:
+ *   notification:
+ *     enabled: true
+ *     channel: grading_result
+ *     poll-interval: 2s
+ * </pre>
+ * <p>
+ * Evaluations computing their criteria one after another can report each criterion to a
+ * {@link at.jku.dke.etutor.task_app.grading.CriterionSink} by overriding
+ * {@code BaseSubmissionService.evaluate(SubmitSubmissionDto, CriterionSink)}. The criteria evaluated so far are returned by
+ * {@code GET /api/submission/{id}/result?partial=true} (status 202) and streamed as {@code RUNNING} events; they are kept in
+ * memory of the evaluating node only.
+ * <p>
+ * Instead of waiting for results, clients can have the results of their background submissions delivered by the
+ * {@link at.jku.dke.etutor.task_app.grading.ResultCallbackDispatcher}. The callback URL is configured per API key; deliveries are
+ * batched per client and retried with exponential backoff:
+ * <pre>
+ * clients:
+ *   api-keys:
+ *     - name: task-administration
+ *       key: ...
+ *       roles: [SUBMIT]
+ *       callback-url: https://admin.example.org/api/grading-results
+ * grading:
+ *   callback:
+ *     enabled: true
+ *     table-name: result_callback
+ *     batch-size: 50
+ *     max-concurrency: 4
+ *     initial-backoff: 1s
+ *     max-backoff: 10m
+ *     max-attempts: 10
+ * </pre>
+ * <p>
+ * Evaluations running student code in external processes can use the {@link at.jku.dke.etutor.task_app.grading.SandboxPool}
+ * instead of starting a process per submission. The pool keeps worker processes running that answer one request line with one
+ * response line, and replaces workers after a number of jobs, on memory growth or if they exceed the time limit of a job:
+ * <pre>
+ * grading:
+ *   sandbox:
+ *     enabled: true
+ *     command: [java, -jar, sandbox-worker.jar]
+ *     size: 4
+ *     job-timeout: 10s
+ *     max-jobs-per-worker: 500
+ *     max-memory: 512MB
+ *     health-check-request: '{"type":"ping"}'
+ * </pre>
+ * <p>
+ * Data derived from a task that is needed for every evaluation (e.g. the parsed reference solution) is kept in the
+ * {@link at.jku.dke.etutor.task_app.grading.TaskArtifactCache}: task services build the artifacts after a task has been created or
+ * updated, evaluations retrieve them by name, and the artifacts of a task are removed when the task is modified or deleted.
+ * Serializable artifacts evicted from memory can be spilled to a private directory, which is cleared on startup:
+ * <pre>
+ * grading:
+ *   artifacts:
+ *     maximum-size: 1000
+ *     time-to-live: 1d
+ *     spill-directory: /var/cache/task-app/artifacts
+ * </pre>
+ * <p>
+ * As the tasks change rarely, they can be kept in memory by the {@link at.jku.dke.etutor.task_app.grading.TaskRegistry}, so that
+ * submissions and evaluations do not load their task from the database (see
+ * {@code BaseSubmissionService#getTask(long)}). The registry is loaded on startup and refreshed after tasks or task groups have been
+ * modified:
+ * <pre>
+ * grading:
+ *   task-registry:
+ *     enabled: true
+ * </pre>
+ * <p>
+ * The task services announce every modified task and task group after commit by the
+ * {@link at.jku.dke.etutor.task_app.grading.TaskInvalidationNotifier}; the task registry, the task versions of the
+ * {@link at.jku.dke.etutor.task_app.grading.SubmissionFingerprinter} (which key the result and artifact caches) and the response
+ * cache of the API are invalidated on receipt. By default, announcements are only delivered to the node that modified the task.
+ * Applications running several nodes provide a {@link at.jku.dke.etutor.task_app.grading.TaskInvalidationChannel} bean delivering
+ * them to all nodes.
+ * <p>
+ * Batches of submissions ({@code POST /api/submission/batch}) are stored in a single transaction and evaluated in parallel;
+ * submissions that do not fit into the grading queue are evaluated by the request thread instead of being rejected. Enable JDBC
+ * batching to store a batch with few round trips:
+ * <pre>
+ * spring:
+ *   jpa:
+ *     properties:
+ *       hibernate:
+ *         jdbc.batch_size: 50
+ *         order_inserts: true
+ * </pre>
+ * <p>
+ * The executor statistics (queue depth, active workers, rejections, wait time histograms per lane) are exported as JMX attributes if JMX is enabled ({@code spring.jmx.enabled=true}).
+ */
+package at.jku.dke.etutor.task_app.grading;
@@ -1,30 +1,85 @@
 package at.jku.dke.etutor.task_app.services;
 
+import at.jku.dke.etutor.task_app.auth.ApiKeyRateLimiter;
 import at.jku.dke.etutor.task_app.auth.AuthConstants;
 import at.jku.dke.etutor.task_app.data.entities.Submission;
 import at.jku.dke.etutor.task_app.data.entities.Task;
 import at.jku.dke.etutor.task_app.data.repositories.SubmissionRepository;
 import at.jku.dke.etutor.task_app.data.repositories.TaskRepository;
 import at.jku.dke.etutor.task_app.dto.*;
+import at.jku.dke.etutor.task_app.grading.CriterionSink;
+import at.jku.dke.etutor.task_app.grading.EvaluationCancelledException;
+import at.jku.dke.etutor.task_app.grading.EvaluationFailedException;
+import at.jku.dke.etutor.task_app.grading.GradingCompletionRegistry;
+import at.jku.dke.etutor.task_app.grading.GradingBulkheads;
+import at.jku.dke.etutor.task_app.grading.GradingConfiguration;
+import at.jku.dke.etutor.task_app.grading.GradingExecutor;
+import at.jku.dke.etutor.task_app.grading.GradingJob;
+import at.jku.dke.etutor.task_app.grading.GradingResultCache;
+import at.jku.dke.etutor.task_app.grading.GradingResultNotifier;
+import at.jku.dke.etutor.task_app.grading.GradingResultWriter;
+import at.jku.dke.etutor.task_app.grading.GradingRejectedException;
+import at.jku.dke.etutor.task_app.grading.ResultCallbackDispatcher;
+import at.jku.dke.etutor.task_app.grading.SingleFlight;
+import at.jku.dke.etutor.task_app.grading.SubmissionFingerprint;
+import at.jku.dke.etutor.task_app.grading.SubmissionFingerprinter;
+import at.jku.dke.etutor.task_app.grading.SubmissionQueue;
+import at.jku.dke.etutor.task_app.grading.TaskArtifactCache;
+import at.jku.dke.etutor.task_app.grading.TaskRegistry;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.lang.NonNull;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * This class provides methods for managing {@link Submission}s.
@@ -33,12 +88,24 @@
  * @param <S> The submission type.
  * @param <U> The type of the submission input used in {@link SubmitSubmissionDto}.
  */
-public abstract class BaseSubmissionService<T extends Task, S extends Submission<T>, U> implements SubmissionService<U> {
+public abstract class BaseSubmissionService<T extends Task, S extends Submission<T>, U> implements SubmissionService<U>, BeanNameAware {
     /**
      * The logger used in this class.
      */
     protected static final Logger LOG = LoggerFactory.getLogger(BaseSubmissionService.class);
 
+    /**
+     * The fields of {@link SubmissionDto} which can be requested in
+     * {@link #getSubmissions(Pageable, SubmissionFilter, Collection)}.
+     */
+    public static final Set<String> SUBMISSION_FIELDS = Set.of("id", "userId", "assignmentId", "taskId", "submissionTime", "language",
+        "feedbackLevel", "mode", "submission", "evaluationResult");
+
+    /**
+     * The properties submissions can be sorted by; these correspond to columns that are usually indexed.
+     */
+    public static final Set<String> SORT_FIELDS = Set.of("id", "submissionTime", "userId", "assignmentId");
+
     /**
      * The submission repository.
      */
@@ -49,6 +116,23 @@
      */
     protected final TaskRepository<T> taskRepository;
 
+    private GradingExecutor gradingExecutor;
+    private GradingBulkheads gradingBulkheads;
+    private String beanName;
+    private SubmissionQueue submissionQueue;
+    private GradingResultCache resultCache;
+    private SubmissionFingerprinter submissionFingerprinter;
+    private GradingResultWriter resultWriter;
+    private GradingCompletionRegistry completionRegistry = new GradingCompletionRegistry();
+    private GradingResultNotifier resultNotifier;
+    private ResultCallbackDispatcher callbackDispatcher;
+    private ApiKeyRateLimiter rateLimiter;
+    private TaskArtifactCache artifactCache;
+    private TaskRegistry taskRegistry;
+    private EntityManager entityManager;
+    private final SingleFlight<SubmissionFingerprint, GradingDto> inFlight = new SingleFlight<>();
+    private final Map<UUID, CompletableFuture<GradingDto>> leaderFlights = new ConcurrentHashMap<>();
+
     /**
      * Creates a new instance of class {@link BaseSubmissionService}.
      *
@@ -60,6 +144,238 @@ protected BaseSubmissionService(SubmissionRepository<S> submissionRepository, Ta
         this.taskRepository = taskRepository;
     }
 
+    /**
+     * Sets the executor used for background evaluations.
+     * <p>
+     * If no executor is set, a shared executor with the default {@link GradingConfiguration} is used.
+     *
+     * @param gradingExecutor The grading executor.
+     */
+    @Autowired(required = false)
+    public void setGradingExecutor(GradingExecutor gradingExecutor) {
+        this.gradingExecutor = gradingExecutor;
+    }
+
+    /**
+     * Sets the bulkheads providing isolated worker pools per task type.
+     * <p>
+     * If set, evaluations are executed by the bulkhead with the name returned by {@link #getBulkheadName()}.
+     *
+     * @param gradingBulkheads The grading bulkheads.
+     */
+    @Autowired(required = false)
+    public void setGradingBulkheads(GradingBulkheads gradingBulkheads) {
+        this.gradingBulkheads = gradingBulkheads;
+    }
+
+    /**
+     * Sets the name of the bean of this service.
+     *
+     * @param name The bean name.
+     */
+    @Override
+    public void setBeanName(@NonNull String name) {
+        this.beanName = name;
+    }
+
+    /**
+     * Returns the name of the bulkhead (see {@link GradingConfiguration#getBulkheads()}) evaluating the submissions of this service.
+     * <p>
+     * By default, the bean name of the service is used. Override this method, e.g. to return the task type.
+     *
+     * @return The bulkhead name.
+     */
+    protected String getBulkheadName() {
+        return this.beanName;
+    }
+
+    /**
+     * Returns the executor used for evaluations.
+     *
+     * @return The grading executor.
+     */
+    protected GradingExecutor getGradingExecutor() {
+        if (this.gradingBulkheads != null)
+            return this.gradingBulkheads.getExecutor(this.getBulkheadName());
+        return this.gradingExecutor != null ? this.gradingExecutor : DefaultGradingExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Sets the durable queue used for background evaluations.
+     * <p>
+     * If a queue is set, enqueued submissions are stored in the queue and survive restarts of the application; they are evaluated
+     * by the node that claims them. Otherwise, submissions are evaluated only in memory of the node that received them.
+     *
+     * @param submissionQueue The submission queue.
+     */
+    @Autowired(required = false)
+    public void setSubmissionQueue(SubmissionQueue submissionQueue) {
+        this.submissionQueue = submissionQueue;
+        if (submissionQueue != null)
+            submissionQueue.register(this.getQueueName(), new QueueWorker());
+    }
+
+    /**
+     * Returns the name of the queue in the {@link SubmissionQueue} this service claims submissions from.
+     * <p>
+     * Override this method if multiple task apps share the same queue table.
+     *
+     * @return The queue name.
+     */
+    protected String getQueueName() {
+        return this.getClass().getName();
+    }
+
+    /**
+     * Sets the cache for the evaluation results of identical submissions.
+     *
+     * @param resultCache The grading result cache.
+     */
+    @Autowired(required = false)
+    public void setResultCache(GradingResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Sets the fingerprinter used to identify identical submissions.
+     * <p>
+     * If set, concurrent identical submissions share a single evaluation and each submission gets its own copy of the result.
+     * Submissions stored in the durable {@link SubmissionQueue} are not coalesced, as they might be evaluated by other nodes.
+     *
+     * @param submissionFingerprinter The submission fingerprinter.
+     */
+    @Autowired(required = false)
+    public void setSubmissionFingerprinter(SubmissionFingerprinter submissionFingerprinter) {
+        this.submissionFingerprinter = submissionFingerprinter;
+    }
+
+    /**
+     * Sets the write-behind buffer for evaluation results.
+     * <p>
+     * If set, results of background evaluations are written in batches instead of loading and saving the submission entity for each
+     * result. Results of submissions in the durable {@link SubmissionQueue} are still written before the submission is removed from
+     * the queue.
+     *
+     * @param resultWriter The grading result writer.
+     */
+    @Autowired(required = false)
+    public void setResultWriter(GradingResultWriter resultWriter) {
+        this.resultWriter = resultWriter;
+    }
+
+    /**
+     * Sets the registry of clients waiting for evaluation results.
+     * <p>
+     * If no registry is set, a registry private to this service is used.
+     *
+     * @param completionRegistry The completion registry.
+     */
+    @Autowired(required = false)
+    public void setCompletionRegistry(GradingCompletionRegistry completionRegistry) {
+        this.completionRegistry = completionRegistry;
+    }
+
+    /**
+     * Sets the notifier announcing stored evaluation results to all nodes.
+     * <p>
+     * If set, clients waiting for a result on another node are completed as soon as the result is stored by this node.
+     *
+     * @param resultNotifier The result notifier.
+     */
+    @Autowired(required = false)
+    public void setResultNotifier(GradingResultNotifier resultNotifier) {
+        this.resultNotifier = resultNotifier;
+    }
+
+    /**
+     * Sets the dispatcher delivering evaluation results to the callback URLs of the clients.
+     * <p>
+     * If set, the results of submissions enqueued by clients with a callback URL are delivered to the callback URL.
+     *
+     * @param callbackDispatcher The result callback dispatcher.
+     */
+    @Autowired(required = false)
+    public void setCallbackDispatcher(ResultCallbackDispatcher callbackDispatcher) {
+        this.callbackDispatcher = callbackDispatcher;
+    }
+
+    /**
+     * Sets the rate limiter metering the usage of the clients.
+     * <p>
+     * If set, the submitted submissions are counted per API-key.
+     *
+     * @param rateLimiter The rate limiter.
+     */
+    @Autowired(required = false)
+    public void setRateLimiter(ApiKeyRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Sets the cache of the evaluation artifacts of the tasks.
+     * <p>
+     * If set, the artifacts retrieved with {@link #getTaskArtifact(long, String, Supplier)} are built once per task version instead
+     * of once per evaluation.
+     *
+     * @param artifactCache The artifact cache.
+     */
+    @Autowired(required = false)
+    public void setArtifactCache(TaskArtifactCache artifactCache) {
+        this.artifactCache = artifactCache;
+    }
+
+    /**
+     * Sets the in-memory registry of the tasks.
+     * <p>
+     * If set, the tasks of the submissions are taken from the registry instead of the database (see {@link #getTask(long)}).
+     *
+     * @param taskRegistry The task registry.
+     */
+    @Autowired(required = false)
+    public void setTaskRegistry(TaskRegistry taskRegistry) {
+        this.taskRegistry = taskRegistry;
+    }
+
+    /**
+     * Sets the entity manager used for listing only the requested fields of submissions.
+     * <p>
+     * If no entity manager is set, {@link #getSubmissions(Pageable, SubmissionFilter, Collection)} loads the whole entities.
+     *
+     * @param entityManager The entity manager.
+     */
+    @Autowired(required = false)
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns whether the evaluation result of the submission may be shared with identical submissions, i.e. whether it may be taken
+     * from and stored in the {@link GradingResultCache} and whether the submission may share the evaluation of an identical submission
+     * that is evaluated at the same time.
+     * <p>
+     * By default, all submissions are cacheable. Override this method if the evaluation does not only depend on the task, the submission,
+     * the mode, the feedback level and the language (e.g. if it depends on the user or on data that changes without modifying the task).
+     *
+     * @param submission The submission.
+     * @return {@code true} if the result may be cached.
+     */
+    protected boolean isCacheable(SubmitSubmissionDto<U> submission) {
+        return true;
+    }
+
+    /**
+     * Normalizes the submission before its {@link SubmissionFingerprint} is computed.
+     * <p>
+     * Override this method to remove differences that do not affect the evaluation (e.g. whitespace or letter case of keywords),
+     * so that more submissions are considered identical.
+     *
+     * @param submission The submission.
+     * @return The normalized submission; must be serializable to JSON.
+     */
+    protected Object normalizeSubmission(U submission) {
+        return submission;
+    }
+
     //#region --- Submit ---
 
     /**
@@ -67,19 +383,122 @@ protected BaseSubmissionService(SubmissionRepository<S> submissionRepository, Ta
      *
      * @param submission The submission.
      * @return The submission identifier.
+     * @throws GradingRejectedException If the grading queue is full; the submission is not stored in this case.
+     *                                  Never thrown if a {@link SubmissionQueue} is used.
      */
     @Override
     @PreAuthorize(AuthConstants.SUBMIT_AUTHORITY)
     public UUID enqueue(@Valid SubmitSubmissionDto<U> submission) {
         LOG.info("Enqueueing submission of task {} for assignment {} for user {}", submission.taskId(), submission.assignmentId(), submission.userId());
+        this.recordGradings(1);
 
-        // create submission
         S entity = this.createSubmission(submission);
+        this.registerCallbacks(List.of(entity.getId()));
+        this.enqueue(submission, entity, false);
+        return entity.getId();
+    }
+
+    /**
+     * Enqueues all submissions for evaluation.
+     * <p>
+     * The submissions are stored in a single transaction; JDBC batching is used if
+     * {@code spring.jpa.properties.hibernate.jdbc.batch_size} is set. Submissions that do not fit into the grading queue are
+     * evaluated in the calling thread instead of rejecting the batch, which slows down the caller until capacity is available.
+     *
+     * @param submissions The submissions.
+     * @return The submission identifiers in the order of the submissions.
+     */
+    @Override
+    @PreAuthorize(AuthConstants.SUBMIT_AUTHORITY)
+    public List<UUID> enqueueAll(@NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid SubmitSubmissionDto<U>> submissions) {
+        LOG.info("Enqueueing batch of {} submissions", submissions.size());
+        this.recordGradings(submissions.size());
+
+        List<S> entities = this.createSubmissions(submissions);
+        var ids = entities.stream().map(Submission::getId).toList();
+        this.registerCallbacks(ids);
+        for (int i = 0; i < entities.size(); i++)
+            this.enqueue(submissions.get(i), entities.get(i), true);
+        return ids;
+    }
+
+    private void recordGradings(int count) {
+        if (this.rateLimiter != null)
+            this.rateLimiter.recordGradings(count);
+    }
+
+    private void registerCallbacks(List<UUID> ids) {
+        if (this.callbackDispatcher == null)
+            return;
+        try {
+            this.callbackDispatcher.register(ids);
+        } catch (RuntimeException ex) {
+            // the client can still request the results
+            LOG.error("Could not store result callbacks of {} submissions", ids.size(), ex);
+        }
+    }
+
+    private void enqueue(SubmitSubmissionDto<U> submission, S entity, boolean callerRunsIfRejected) {
+        UUID id = entity.getId();
+
+        // reuse result of identical submission
+        var fingerprint = this.createFingerprint(submission);
+        var cached = this.getCachedResult(fingerprint);
+        if (cached != null) {
+            LOG.debug("Using cached result for submission {}", id);
+            entity.setEvaluationResult(cached);
+            this.submissionRepository.save(entity);
+            this.notifyResult(id, cached, true);
+            return;
+        }
+
+        // store submission in durable queue
+        if (this.submissionQueue != null) {
+            try {
+                this.submissionQueue.add(this.getQueueName(), id);
+            } catch (RuntimeException ex) {
+                LOG.error("Could not add submission {} to queue, deleting it", id);
+                this.submissionRepository.deleteById(id);
+                throw ex;
+            }
+
+            // evaluate locally if possible, otherwise the submission is claimed by the next poll of any node
+            if (this.getGradingExecutor().getAvailableCapacity(submission.mode()) > 0 && this.submissionQueue.tryClaim(id))
+                this.executeQueued(submission, id, fingerprint);
+            return;
+        }
+
+        // share the evaluation of an identical submission
+        var flight = fingerprint == null ? null : this.inFlight.join(fingerprint);
+        if (flight != null && !flight.leader()) {
+            LOG.debug("Submission {} shares the evaluation of an identical submission", id);
+            flight.future().whenComplete((result, ex) -> {
+                if (ex == null) {
+                    this.storeResult(id, result);
+                    return;
+                }
+                try {
+                    this.executeInBackground(submission, id, fingerprint, null);
+                } catch (GradingRejectedException rex) {
+                    LOG.error("Could not enqueue submission {} after evaluation of identical submission did not complete", id, rex);
+                }
+            });
+            return;
+        }
 
         // enqueue submission for evaluation
-        CompletableFuture.runAsync(() -> this.execute(submission, entity.getId(), true));
+        try {
+            this.executeInBackground(submission, id, fingerprint, flight == null ? null : flight.future());
+        } catch (GradingRejectedException ex) {
+            if (!callerRunsIfRejected) {
+                LOG.warn("Could not enqueue submission {}, deleting it", id);
+                this.submissionRepository.deleteById(id);
+                throw ex;
+            }
 
-        return entity.getId();
+            LOG.debug("Grading queue is full, evaluating submission {} in calling thread", id);
+            this.executeInCallingThread(submission, id, fingerprint);
+        }
     }
 
     /**
@@ -88,25 +507,435 @@ public UUID enqueue(@Valid SubmitSubmissionDto<U> submission) {
      * @param submission The submission.
      * @param persist    Whether the submission should be stored permanently.
      * @return The evaluation results.
+     * @throws GradingRejectedException If no evaluation slot became available in time; the submission is not stored in this case.
      */
     @Override
     @PreAuthorize(AuthConstants.SUBMIT_AUTHORITY)
     public GradingResultDto execute(@Valid SubmitSubmissionDto<U> submission, boolean persist) {
-        S entity = null;
+        this.recordGradings(1);
 
         // Persist
-        if (persist)
-            entity = this.createSubmission(submission);
+        S entity = persist ? this.createSubmission(submission) : null;
+        UUID id = entity == null ? null : entity.getId();
+
+        // reuse result of identical submission
+        var fingerprint = this.createFingerprint(submission);
+        var cached = this.getCachedResult(fingerprint);
+        if (cached != null) {
+            LOG.debug("Using cached result for submission of task {} for user {}", submission.taskId(), submission.userId());
+            if (entity != null) {
+                entity.setEvaluationResult(cached);
+                this.submissionRepository.save(entity);
+                this.notifyResult(id, cached, true);
+            }
+            return new GradingResultDto(id, cached);
+        }
+
+        // share the evaluation of an identical submission
+        var flight = fingerprint == null ? null : this.inFlight.join(fingerprint);
+        if (flight != null && !flight.leader()) {
+            var shared = this.awaitFlight(flight.future(), submission);
+            if (shared != null) {
+                LOG.debug("Using result of identical submission for submission of task {} for user {}", submission.taskId(), submission.userId());
+                if (entity != null) {
+                    entity.setEvaluationResult(shared);
+                    this.submissionRepository.save(entity);
+                    this.notifyResult(id, shared, true);
+                }
+                return new GradingResultDto(id, shared);
+            }
+            flight = null;
+        }
 
         // Execute
-        return this.execute(submission, entity == null ? null : entity.getId(), persist);
+        var job = this.createJob(submission, id);
+        var leaderFlight = flight == null ? null : flight.future();
+        try {
+            var result = this.getGradingExecutor().evaluateInCallingThread(job, () -> this.execute(submission, id, persist, fingerprint, true));
+            if (result != null) {
+                if (leaderFlight != null)
+                    leaderFlight.complete(result.grading());
+                return result;
+            }
+        } catch (EvaluationCancelledException ex) {
+            LOG.info("Evaluation of submission of task {} for user {} was cancelled or timed out", submission.taskId(), submission.userId());
+        } catch (GradingRejectedException ex) {
+            if (id != null)
+                this.submissionRepository.deleteById(id);
+            throw ex;
+        } finally {
+            this.failFlight(null, leaderFlight);
+        }
+
+        // cancelled or timed out; the result of persisted submissions has already been stored
+        return new GradingResultDto(id, this.createTerminationResult(submission, job));
+    }
+
+    /**
+     * Executes all submissions in parallel on the grading executor.
+     * <p>
+     * The submissions are stored in a single transaction; JDBC batching is used if
+     * {@code spring.jpa.properties.hibernate.jdbc.batch_size} is set. Submissions that do not fit into the grading queue are
+     * evaluated in the calling thread instead of rejecting the batch.
+     *
+     * @param submissions The submissions.
+     * @param persist     Whether the submissions should be stored permanently.
+     * @return The futures of the evaluation results in the order of the submissions; a future completes exceptionally if the
+     * evaluation of the submission failed, with an {@link EvaluationFailedException} if the submission has been stored.
+     */
+    @Override
+    @PreAuthorize(AuthConstants.SUBMIT_AUTHORITY)
+    public List<CompletableFuture<GradingResultDto>> executeAll(@NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid SubmitSubmissionDto<U>> submissions, boolean persist) {
+        LOG.info("Executing batch of {} submissions", submissions.size());
+        this.recordGradings(submissions.size());
+
+        List<S> entities = persist ? this.createSubmissions(submissions) : null;
+        var results = new ArrayList<CompletableFuture<GradingResultDto>>(submissions.size());
+        for (int i = 0; i < submissions.size(); i++) {
+            UUID id = entities == null ? null : entities.get(i).getId();
+            var future = this.executeAsync(submissions.get(i), id, persist);
+            results.add(id == null ? future : future.exceptionallyCompose(ex -> CompletableFuture.failedFuture(
+                new EvaluationFailedException(id, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex))));
+        }
+        return results;
+    }
+
+    /**
+     * Cancels the queued or running evaluation of the specified submission and stores a cancellation result.
+     *
+     * @param id The submission identifier.
+     * @return {@code true} if the evaluation was cancelled; {@code false} if the submission has already been evaluated or is
+     * not queued or evaluated by this node.
+     * @throws EntityNotFoundException If the submission does not exist.
+     */
+    @Override
+    @Transactional
+    @PreAuthorize(AuthConstants.SUBMIT_AUTHORITY)
+    public boolean cancel(UUID id) {
+        LOG.info("Cancelling evaluation of submission {}", id);
+        var entity = this.submissionRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Submission " + id + " does not exist"));
+        if (entity.getEvaluationResult() != null)
+            return false;
+
+        boolean cancelled = this.getGradingExecutor().cancel(id);
+        if (this.submissionQueue != null)
+            cancelled |= this.submissionQueue.remove(id);
+        if (!cancelled)
+            return false;
+
+        this.failFlight(id, this.leaderFlights.get(id));
+        var result = this.createCancelledResult(entity.getTask().getId(), entity.getLanguage());
+        entity.setEvaluationResult(result);
+        this.submissionRepository.save(entity);
+        this.notifyResult(id, result, true);
+        return true;
+    }
+
+    /**
+     * Returns the maximum duration of the evaluation of the submission.
+     * <p>
+     * By default, the timeout configured for the submission mode is used. Override this method to set timeouts per task.
+     *
+     * @param submission The submission.
+     * @return The timeout or {@code null} if the evaluation should not be limited.
+     */
+    protected Duration getEvaluationTimeout(SubmitSubmissionDto<U> submission) {
+        return this.getGradingExecutor().getEvaluationTimeout(submission.mode());
+    }
+
+    /**
+     * Creates the result stored for submissions whose evaluation exceeded the timeout.
+     *
+     * @param taskId   The task identifier.
+     * @param language The language of the submission.
+     * @param timeout  The exceeded timeout.
+     * @return The evaluation result.
+     */
+    protected GradingDto createTimeoutResult(long taskId, String language, Duration timeout) {
+        long seconds = (timeout.toMillis() + 999) / 1000;
+        String feedback = "de".equals(language) ?
+            "Die Auswertung wurde abgebrochen, da sie länger als " + seconds + " Sekunden gedauert hat." :
+            "The evaluation was aborted because it took longer than " + seconds + " seconds.";
+        return new GradingDto(this.getMaxPoints(taskId), BigDecimal.ZERO, feedback, List.of());
+    }
+
+    /**
+     * Creates the result stored for submissions whose evaluation was cancelled.
+     *
+     * @param taskId   The task identifier.
+     * @param language The language of the submission.
+     * @return The evaluation result.
+     */
+    protected GradingDto createCancelledResult(long taskId, String language) {
+        String feedback = "de".equals(language) ? "Die Auswertung wurde abgebrochen." : "The evaluation was cancelled.";
+        return new GradingDto(this.getMaxPoints(taskId), BigDecimal.ZERO, feedback, List.of());
+    }
+
+    /**
+     * Creates the result stored for queued submissions whose evaluation failed repeatedly.
+     *
+     * @param taskId   The task identifier.
+     * @param language The language of the submission.
+     * @return The evaluation result.
+     */
+    protected GradingDto createFailedResult(long taskId, String language) {
+        String feedback = "de".equals(language) ?
+            "Die Auswertung ist fehlgeschlagen. Bitte versuchen Sie es später erneut." :
+            "The evaluation failed. Please try again later.";
+        return new GradingDto(this.getMaxPoints(taskId), BigDecimal.ZERO, feedback, List.of());
+    }
+
+    private GradingDto createTerminationResult(SubmitSubmissionDto<U> submission, GradingJob job) {
+        return job.getState() == GradingJob.State.TIMED_OUT ?
+            this.createTimeoutResult(submission.taskId(), submission.language(), job.getTimeout()) :
+            this.createCancelledResult(submission.taskId(), submission.language());
+    }
+
+    private BigDecimal getMaxPoints(long taskId) {
+        return this.getTask(taskId).map(Task::getMaxPoints).orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Returns the task with the specified identifier.
+     * <p>
+     * If a {@link TaskRegistry} is set, the task is taken from the registry without accessing the database; the task is detached
+     * then and must not be modified. Otherwise, or if the task is not registered, it is loaded from the database.
+     *
+     * @param taskId The task identifier.
+     * @return The task or an empty result if the task does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    protected Optional<T> getTask(long taskId) {
+        if (this.taskRegistry != null) {
+            var task = this.taskRegistry.get(taskId);
+            if (task.isPresent())
+                return task.map(t -> (T) t);
+        }
+        return this.taskRepository.findById(taskId);
+    }
+
+    private GradingJob createJob(SubmitSubmissionDto<U> submission, UUID id) {
+        Duration timeout = this.getEvaluationTimeout(submission);
+        Runnable onTimeout = id == null || timeout == null ? null :
+            () -> this.storeResult(id, this.createTimeoutResult(submission.taskId(), submission.language(), timeout));
+        return new GradingJob(id, submission.mode(), timeout, onTimeout);
+    }
+
+    private void storeResult(UUID id, GradingDto result) {
+        if (this.resultWriter != null) {
+            this.resultWriter.write(id, result);
+            this.notifyResult(id, result, false);
+            return;
+        }
+        this.saveResult(id, result);
     }
 
-    private GradingResultDto execute(SubmitSubmissionDto<U> submission, UUID entityId, boolean persist) {
+    private void saveResult(UUID id, GradingDto result) {
+        try {
+            this.submissionRepository.findById(id).ifPresent(entity -> {
+                entity.setEvaluationResult(result);
+                this.submissionRepository.save(entity);
+                this.notifyResult(id, result, true);
+            });
+        } catch (RuntimeException ex) {
+            LOG.error("Could not store result of submission {}", id, ex);
+        }
+    }
+
+    private void notifyResult(UUID id, GradingDto result, boolean stored) {
+        if (result == null)
+            return;
+        this.completionRegistry.complete(id, result);
+
+        // results written behind are announced by the writer
+        if (stored && this.resultNotifier != null)
+            this.resultNotifier.publish(id);
+        if (this.callbackDispatcher != null)
+            this.callbackDispatcher.wakeUp();
+    }
+
+    private SubmissionFingerprint createFingerprint(SubmitSubmissionDto<U> submission) {
+        if (this.submissionFingerprinter == null || !this.isCacheable(submission))
+            return null;
+        return this.submissionFingerprinter.create(submission.taskId(), this.normalizeSubmission(submission.submission()), submission.mode(),
+            submission.feedbackLevel(), submission.language());
+    }
+
+    private GradingDto getCachedResult(SubmissionFingerprint fingerprint) {
+        return fingerprint == null || this.resultCache == null ? null : this.resultCache.get(fingerprint);
+    }
+
+    private GradingDto awaitFlight(CompletableFuture<GradingDto> flight, SubmitSubmissionDto<U> submission) {
+        Duration timeout = this.getEvaluationTimeout(submission);
+        try {
+            return timeout == null ? flight.get() : flight.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException ex) {
+            LOG.debug("Evaluation of identical submission of task {} did not complete, evaluating submission separately", submission.taskId());
+            return null;
+        }
+    }
+
+    private void executeInBackground(SubmitSubmissionDto<U> submission, UUID id, SubmissionFingerprint fingerprint, CompletableFuture<GradingDto> flight) {
+        if (flight != null)
+            this.leaderFlights.put(id, flight);
+
+        var job = this.createJob(submission, id);
+        job.whenFinished().thenAccept(state -> {
+            if (state == GradingJob.State.HANDED_BACK)
+                LOG.warn("Evaluation of submission {} was interrupted by the shutdown; enable the durable submission queue to hand it to another node", id);
+        });
+
+        try {
+            this.getGradingExecutor().execute(job, () -> {
+                try {
+                    var result = this.execute(submission, id, true, fingerprint, true);
+                    if (flight != null)
+                        flight.complete(result.grading());
+                } catch (EvaluationCancelledException ex) {
+                    LOG.debug("Evaluation of submission {} was cancelled or timed out", id);
+                } catch (RuntimeException ex) {
+                    LOG.error("Evaluation of submission {} failed", id, ex);
+                } finally {
+                    this.failFlight(id, flight);
+                }
+            });
+        } catch (GradingRejectedException ex) {
+            this.failFlight(id, flight);
+            throw ex;
+        }
+    }
+
+    private void executeInCallingThread(SubmitSubmissionDto<U> submission, UUID id, SubmissionFingerprint fingerprint) {
+        try {
+            this.getGradingExecutor().evaluateInCallingThread(this.createJob(submission, id), () -> this.execute(submission, id, true, fingerprint, true));
+        } catch (EvaluationCancelledException ex) {
+            LOG.debug("Evaluation of submission {} was cancelled or timed out", id);
+        } catch (RuntimeException ex) {
+            LOG.error("Evaluation of submission {} failed", id, ex);
+        }
+    }
+
+    private CompletableFuture<GradingResultDto> executeAsync(SubmitSubmissionDto<U> submission, UUID id, boolean persist) {
+        // reuse result of identical submission
+        var fingerprint = this.createFingerprint(submission);
+        var cached = this.getCachedResult(fingerprint);
+        if (cached != null) {
+            if (id != null)
+                this.storeResult(id, cached);
+            return CompletableFuture.completedFuture(new GradingResultDto(id, cached));
+        }
+
+        // the evaluation completes the future; jobs cancelled before they started or timed out complete it when they finish
+        var future = new CompletableFuture<GradingResultDto>();
+        var job = this.createJob(submission, id);
+        job.whenFinished().thenAccept(state -> {
+            if (state == GradingJob.State.CANCELLED || state == GradingJob.State.TIMED_OUT || state == GradingJob.State.HANDED_BACK)
+                future.complete(new GradingResultDto(id, this.createTerminationResult(submission, job)));
+        });
+        Runnable task = () -> {
+            try {
+                future.complete(this.execute(submission, id, persist, fingerprint, true));
+            } catch (EvaluationCancelledException ex) {
+                LOG.debug("Evaluation of submission {} was cancelled or timed out", id);
+            } catch (RuntimeException ex) {
+                LOG.error("Evaluation of submission {} failed", id, ex);
+                future.completeExceptionally(ex);
+            }
+        };
+
+        try {
+            this.getGradingExecutor().execute(job, task);
+        } catch (GradingRejectedException ex) {
+            LOG.debug("Grading queue is full, evaluating submission {} in calling thread", id);
+            try {
+                this.getGradingExecutor().evaluateInCallingThread(job, () -> {
+                    task.run();
+                    return null;
+                });
+            } catch (GradingRejectedException rex) {
+                future.completeExceptionally(rex);
+            }
+        }
+        return future;
+    }
+
+    private void failFlight(UUID id, CompletableFuture<GradingDto> flight) {
+        if (flight == null)
+            return;
+        if (id != null)
+            this.leaderFlights.remove(id, flight);
+        flight.completeExceptionally(new EvaluationCancelledException("The evaluation of the identical submission did not complete"));
+    }
+
+    private void executeQueued(SubmitSubmissionDto<U> submission, UUID id, SubmissionFingerprint fingerprint) {
+        var job = this.createJob(submission, id);
+        job.whenFinished().thenAccept(state -> {
+            if (state == GradingJob.State.HANDED_BACK) {
+                LOG.info("Returning submission {} to queue because of shutdown", id);
+                this.submissionQueue.requeue(id);
+            }
+        });
+
+        try {
+            this.getGradingExecutor().execute(job, () -> {
+                try {
+                    this.execute(submission, id, true, fingerprint, false);
+                    this.submissionQueue.complete(id);
+                } catch (EvaluationCancelledException ex) {
+                    LOG.debug("Evaluation of queued submission {} was cancelled or timed out", id);
+                    if (job.getState() != GradingJob.State.HANDED_BACK)
+                        this.submissionQueue.complete(id);
+                } catch (RuntimeException ex) {
+                    LOG.error("Evaluation of queued submission {} failed", id, ex);
+                    this.submissionQueue.release(id);
+                }
+            });
+        } catch (GradingRejectedException ex) {
+            LOG.debug("Grading executor is busy, returning submission {} to queue", id);
+            this.submissionQueue.requeue(id);
+        }
+    }
+
+    private GradingResultDto execute(SubmitSubmissionDto<U> submission, UUID entityId, boolean persist, SubmissionFingerprint fingerprint, boolean writeBehind) {
+        try {
+            return this.evaluateAndStore(submission, entityId, persist, fingerprint, writeBehind);
+        } finally {
+            // the partial result is replaced by the stored result or discarded if the evaluation failed
+            if (entityId != null)
+                this.completionRegistry.clearPartialResult(entityId);
+        }
+    }
+
+    private GradingResultDto evaluateAndStore(SubmitSubmissionDto<U> submission, UUID entityId, boolean persist, SubmissionFingerprint fingerprint, boolean writeBehind) {
         LOG.info("Executing submission of task {} for assignment {} for user {}", submission.taskId(), submission.assignmentId(), submission.userId());
 
         // evaluate submission
-        var result = this.evaluate(submission);
+        var job = GradingJob.current();
+        long start = System.nanoTime();
+        GradingDto result;
+        try {
+            result = this.evaluate(submission, this.createCriterionSink(submission, entityId, job));
+        } catch (RuntimeException ex) {
+            if (job != null && job.isTerminated())
+                throw new EvaluationCancelledException("Evaluation of submission " + entityId + " was cancelled or timed out");
+            throw ex;
+        }
+
+        // discard result if the evaluation was cancelled or timed out meanwhile
+        if (job != null && !job.complete())
+            throw new EvaluationCancelledException("Evaluation of submission " + entityId + " was cancelled or timed out");
+        if (fingerprint != null && this.resultCache != null && result != null)
+            this.resultCache.put(fingerprint, result, Duration.ofNanos(System.nanoTime() - start));
+
+        // write result behind; the entity does not have to be loaded
+        if (persist && entityId != null && writeBehind && this.resultWriter != null) {
+            this.resultWriter.write(entityId, result);
+            this.notifyResult(entityId, result, false);
+            return new GradingResultDto(entityId, result);
+        }
 
         // Load entity
         S entity = null;
@@ -122,6 +951,7 @@ private GradingResultDto execute(SubmitSubmissionDto<U> submission, UUID entityI
         if (persist && entity != null) {
             entity.setEvaluationResult(result);
             this.submissionRepository.save(entity);
+            this.notifyResult(entityId, result, true);
         }
 
         // delete entity
@@ -133,6 +963,32 @@ private GradingResultDto execute(SubmitSubmissionDto<U> submission, UUID entityI
         return new GradingResultDto(!persist || entity == null ? null : entity.getId(), result);
     }
 
+    private CriterionSink createCriterionSink(SubmitSubmissionDto<U> submission, UUID entityId, GradingJob job) {
+        if (entityId == null)
+            return CriterionSink.NONE;
+
+        // criteria might be reported by multiple threads of the evaluation
+        var lock = new ReentrantLock();
+        var criteria = new ArrayList<CriterionDto>();
+        var maxPoints = new AtomicReference<BigDecimal>();
+        return criterion -> {
+            // criteria reported after a cancellation or timeout would outlive the stored result
+            if (criterion == null || (job != null && job.isTerminated()))
+                return;
+            if (maxPoints.get() == null)
+                maxPoints.set(this.getMaxPoints(submission.taskId()));
+
+            lock.lock();
+            try {
+                criteria.add(criterion);
+                var points = criteria.stream().map(CriterionDto::points).filter(Objects::nonNull).reduce(BigDecimal.ZERO, BigDecimal::add);
+                this.completionRegistry.progress(entityId, new GradingDto(maxPoints.get(), points, null, List.copyOf(criteria)));
+            } finally {
+                lock.unlock();
+            }
+        };
+    }
+
     /**
      * Creates a new submission entity.
      *
@@ -151,18 +1007,73 @@ private GradingResultDto execute(SubmitSubmissionDto<U> submission, UUID entityI
      */
     protected abstract GradingDto evaluate(SubmitSubmissionDto<U> dto);
 
+    /**
+     * Evaluates the submission and reports each criterion as soon as it is evaluated.
+     * <p>
+     * Override this method if the criteria are evaluated one after another, so that clients can display the criteria evaluated so
+     * far (see {@link #getPartialEvaluationResult(UUID)}) while the evaluation is running. The reported criteria are only kept in
+     * memory of this node until the result is stored. The returned result must contain all criteria, as it replaces the partial
+     * result. By default, {@link #evaluate(SubmitSubmissionDto)} is called and no criteria are reported.
+     *
+     * @param dto  The submission data transfer object.
+     * @param sink The sink receiving the evaluated criteria; the criteria must not be modified afterwards.
+     * @return The evaluation results.
+     */
+    protected GradingDto evaluate(SubmitSubmissionDto<U> dto, CriterionSink sink) {
+        return this.evaluate(dto);
+    }
+
+    /**
+     * Returns the evaluation artifact of the current version of the task, building it if it is not cached.
+     * <p>
+     * Use this method in {@link #evaluate(SubmitSubmissionDto)} to retrieve data derived from the task (e.g. the parsed reference
+     * solution) instead of computing it for each submission. The artifacts are built in advance if the task service prepares them
+     * with the same names.
+     *
+     * @param taskId  The task identifier.
+     * @param name    The name of the artifact.
+     * @param builder Builds the artifact; must not return {@code null}.
+     * @param <A>     The artifact type.
+     * @return The artifact.
+     * @see TaskArtifactCache#get(long, String, Supplier)
+     */
+    protected <A> A getTaskArtifact(long taskId, String name, Supplier<A> builder) {
+        if (this.artifactCache == null)
+            return builder.get();
+        return this.artifactCache.get(taskId, name, builder);
+    }
+
     private S createSubmission(SubmitSubmissionDto<U> dto) {
         LOG.info("Persisting submission of task {} for assignment {} for user {}", dto.taskId(), dto.assignmentId(), dto.userId());
+        return this.submissionRepository.saveAndFlush(this.prepareSubmission(dto));
+    }
 
+    private List<S> createSubmissions(List<SubmitSubmissionDto<U>> dtos) {
+        LOG.info("Persisting batch of {} submissions", dtos.size());
+        return this.submissionRepository.saveAllAndFlush(dtos.stream().map(this::prepareSubmission).toList());
+    }
+
+    private S prepareSubmission(SubmitSubmissionDto<U> dto) {
         S entity = this.createSubmissionEntity(dto);
         entity.setAssignmentId(dto.assignmentId());
         entity.setUserId(dto.userId());
-        entity.setTask(this.taskRepository.getReferenceById(dto.taskId()));
+        entity.setTask(this.getTaskReference(dto.taskId()));
         entity.setSubmissionTime(Instant.now());
         entity.setFeedbackLevel(dto.feedbackLevel());
         entity.setLanguage(dto.language());
         entity.setMode(dto.mode());
-        return this.submissionRepository.saveAndFlush(entity);
+        return entity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getTaskReference(long taskId) {
+        // a registered task is detached, which is sufficient to reference it
+        if (this.taskRegistry != null) {
+            var task = this.taskRegistry.get(taskId);
+            if (task.isPresent())
+                return (T) task.get();
+        }
+        return this.taskRepository.getReferenceById(taskId);
     }
 
     //#endregion
@@ -180,10 +1091,113 @@ private S createSubmission(SubmitSubmissionDto<U> dto) {
     @Transactional(readOnly = true)
     @PreAuthorize(AuthConstants.SUBMIT_AUTHORITY)
     public GradingDto getEvaluationResult(UUID id) {
-        var entity = this.submissionRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Submission " + id + " does not exist"));
-        if (entity.getEvaluationResult() == null)
-            return null;
+        return this.loadEvaluationResult(id);
+    }
+
+    /**
+     * Waits for the evaluation result of the specified submission without blocking the calling thread.
+     * <p>
+     * The returned future is completed as soon as the result is stored by this node or, if a {@link GradingResultNotifier} is
+     * available, by any other node.
+     *
+     * @param id      The submission identifier.
+     * @param timeout The maximum time to wait.
+     * @return The future completed with the evaluation result or with {@code null} if the result is not available within the timeout.
+     * @throws EntityNotFoundException If the submission does not exist.
+     */
+    @Override
+    @PreAuthorize(AuthConstants.SUBMIT_AUTHORITY)
+    public CompletableFuture<GradingDto> awaitEvaluationResult(UUID id, Duration timeout) {
+        var result = this.loadEvaluationResult(id);
+        if (result != null || timeout.isNegative() || timeout.isZero())
+            return CompletableFuture.completedFuture(result);
+
+        return this.awaitStoredResult(id, timeout);
+    }
+
+    /**
+     * Returns the criteria evaluated so far for the specified submission.
+     * <p>
+     * Partial results are only available for submissions evaluated by this node with an evaluation reporting its criteria (see
+     * {@link #evaluate(SubmitSubmissionDto, CriterionSink)}).
+     *
+     * @param id The submission identifier.
+     * @return The partial evaluation result or {@code null} if no criteria have been reported.
+     */
+    @Override
+    @PreAuthorize(AuthConstants.SUBMIT_AUTHORITY)
+    public GradingDto getPartialEvaluationResult(UUID id) {
+        return this.completionRegistry.getPartialResult(id);
+    }
+
+    /**
+     * Waits for the evaluation results of the specified submissions without blocking the calling thread and reports the status of
+     * the submissions until their results are available.
+     * <p>
+     * The running status and the partial results are reported for submissions evaluated by the grading executor of this node.
+     *
+     * @param ids      The submission identifiers.
+     * @param timeout  The maximum time to wait.
+     * @param listener The listener receiving the status changes; might be called by any thread.
+     * @return The futures completed with the evaluation results or with {@code null} if a result is not available within the timeout,
+     * in the order of the identifiers.
+     * @throws EntityNotFoundException If a submission does not exist.
+     */
+    @Override
+    @PreAuthorize(AuthConstants.SUBMIT_AUTHORITY)
+    public List<CompletableFuture<GradingDto>> watchEvaluations(@NotEmpty @Size(max = MAX_BATCH_SIZE) List<UUID> ids, Duration timeout, Consumer<SubmissionEventDto> listener) {
+        // fail before any listener is registered
+        var results = new ArrayList<GradingDto>(ids.size());
+        for (UUID id : ids)
+            results.add(this.loadEvaluationResult(id));
+
+        var futures = new ArrayList<CompletableFuture<GradingDto>>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            if (results.get(i) != null || timeout.isNegative() || timeout.isZero()) {
+                futures.add(CompletableFuture.completedFuture(results.get(i)));
+                continue;
+            }
+
+            var job = this.getGradingExecutor().getJob(id);
+            if (job != null && job.getState() == GradingJob.State.RUNNING) {
+                listener.accept(new SubmissionEventDto(id, SubmissionStatus.RUNNING, this.completionRegistry.getPartialResult(id)));
+            } else {
+                listener.accept(new SubmissionEventDto(id, SubmissionStatus.QUEUED, null));
+                if (job != null)
+                    job.whenStarted().thenRun(() -> listener.accept(new SubmissionEventDto(id, SubmissionStatus.RUNNING, null)));
+            }
+            futures.add(this.awaitStoredResult(id, timeout, partialResult -> listener.accept(new SubmissionEventDto(id, SubmissionStatus.RUNNING, partialResult))));
+        }
+        return futures;
+    }
 
+    private CompletableFuture<GradingDto> awaitStoredResult(UUID id, Duration timeout) {
+        return this.awaitStoredResult(id, timeout, null);
+    }
+
+    private CompletableFuture<GradingDto> awaitStoredResult(UUID id, Duration timeout, Consumer<GradingDto> onProgress) {
+        // the result might have been stored before the waiter was registered
+        var future = this.completionRegistry.await(id, timeout, () -> this.findEvaluationResult(id), onProgress);
+        var stored = this.findEvaluationResult(id);
+        if (stored != null)
+            future.complete(stored);
+        return future;
+    }
+
+    private GradingDto findEvaluationResult(UUID id) {
+        var pending = this.resultWriter == null ? null : this.resultWriter.getPending(id);
+        if (pending != null)
+            return pending;
+        return this.submissionRepository.findById(id).map(Submission::getEvaluationResult).orElse(null);
+    }
+
+    private GradingDto loadEvaluationResult(UUID id) {
+        var pending = this.resultWriter == null ? null : this.resultWriter.getPending(id);
+        if (pending != null)
+            return pending;
+
+        var entity = this.submissionRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Submission " + id + " does not exist"));
         return entity.getEvaluationResult();
     }
 
@@ -205,6 +1219,166 @@ public Page<SubmissionDto<U>> getSubmissions(Pageable page, String userFilter, L
         return this.submissionRepository.findAll(this.getFilterSpecification(userFilter, taskFilter, assignmentFilter, modeFilter), page).map(this::mapSubmissionToDto);
     }
 
+    /**
+     * Returns the requested fields of all submissions for the requested page.
+     * <p>
+     * Fields of {@link Submission} are read with a tuple query selecting only the requested columns, so that the evaluation result
+     * is not read if not requested. If the {@code submission} field is requested, the whole entities are loaded, as the submission
+     * data is mapped from the entity (see {@link #mapSubmissionToSubmissionData(Submission)}).
+     *
+     * @param page   The page and sorting information.
+     * @param filter The filter.
+     * @param fields The requested fields; all fields are returned if {@code null} or empty.
+     * @return List of submissions
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize(AuthConstants.READ_SUBMISSION_AUTHORITY)
+    public Page<SubmissionDto<U>> getSubmissions(Pageable page, SubmissionFilter filter, Collection<String> fields) {
+        LOG.debug("Loading submissions for page {} with fields {}", page, fields);
+        checkSort(page.getSort());
+        var requested = getRequestedFields(fields);
+        var specification = this.getFilterSpecification(filter);
+        if (!this.canReadTuples(requested))
+            return this.submissionRepository.findAll(specification, page).map(s -> this.mapSubmissionToDto(s, requested));
+
+        var content = this.findTuples(specification, page.getSort(), page.isPaged() ? page.getOffset() : 0, page.isPaged() ? page.getPageSize() : -1, requested);
+        return PageableExecutionUtils.getPage(content, page, () -> this.submissionRepository.count(specification));
+    }
+
+    /**
+     * Returns a slice of the submissions ordered by submission time and identifier.
+     * <p>
+     * The slice starts after the submission encoded in the cursor (keyset pagination), so that loading a slice costs the same
+     * regardless of how many submissions precede it, provided that the submission table has an index on
+     * {@code (submission_time, id)}. No count query is executed. Fields are read as in
+     * {@link #getSubmissions(Pageable, SubmissionFilter, Collection)}; the identifier and the submission time are always included.
+     *
+     * @param filter    The filter.
+     * @param cursor    The cursor returned with the previous slice or {@code null} for the first slice.
+     * @param size      The maximum number of submissions of the slice.
+     * @param direction The direction of the order.
+     * @param fields    The requested fields; all fields are returned if {@code null} or empty.
+     * @return The slice of submissions.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize(AuthConstants.READ_SUBMISSION_AUTHORITY)
+    public SubmissionSliceDto<U> getSubmissionSlice(SubmissionFilter filter, String cursor, int size, Sort.Direction direction, Collection<String> fields) {
+        LOG.debug("Loading submission slice after {} with fields {}", cursor, fields);
+        var requested = getRequestedFields(fields);
+        if (requested != null)
+            requested.add("submissionTime");
+
+        var sort = Sort.by(direction, "submissionTime", "id");
+        var specification = this.getFilterSpecification(filter);
+        if (cursor != null)
+            specification = specification.and(KeysetSpecification.decode(cursor, direction));
+
+        // one more submission is loaded to detect whether there is a next slice
+        List<SubmissionDto<U>> content;
+        if (this.canReadTuples(requested)) {
+            content = this.findTuples(specification, sort, 0, size + 1, requested);
+        } else {
+            List<S> entities = this.submissionRepository.findBy(specification, q -> q.sortBy(sort).limit(size + 1).all());
+            content = entities.stream().map(s -> this.mapSubmissionToDto(s, requested)).toList();
+        }
+
+        if (content.size() <= size)
+            return new SubmissionSliceDto<>(content, false, null);
+
+        content = content.subList(0, size);
+        var last = content.getLast();
+        return new SubmissionSliceDto<>(List.copyOf(content), true, KeysetSpecification.encode(last.submissionTime(), last.id()));
+    }
+
+    /**
+     * Returns the class of the submission entity, which is resolved from the type arguments of the implementing class.
+     *
+     * @return The entity class or {@code null} if it cannot be resolved.
+     */
+    @SuppressWarnings("unchecked")
+    protected Class<S> getSubmissionClass() {
+        var types = GenericTypeResolver.resolveTypeArguments(this.getClass(), BaseSubmissionService.class);
+        return types == null ? null : (Class<S>) types[1];
+    }
+
+    private static void checkSort(Sort sort) {
+        var unknown = sort.stream().map(Sort.Order::getProperty).filter(p -> !SORT_FIELDS.contains(p)).toList();
+        if (!unknown.isEmpty())
+            throw new ConstraintViolationException("Sorting by " + unknown + " is not supported, allowed are " + SORT_FIELDS, Set.of());
+    }
+
+    private static Set<String> getRequestedFields(Collection<String> fields) {
+        if (fields == null || fields.isEmpty())
+            return null;
+
+        var unknown = fields.stream().filter(f -> !SUBMISSION_FIELDS.contains(f)).toList();
+        if (!unknown.isEmpty())
+            throw new ConstraintViolationException("Unknown submission fields " + unknown + ", allowed are " + SUBMISSION_FIELDS, Set.of());
+
+        var requested = new HashSet<>(fields);
+        requested.add("id");
+        return requested;
+    }
+
+    private boolean canReadTuples(Set<String> fields) {
+        return fields != null && !fields.contains("submission") && this.entityManager != null && this.getSubmissionClass() != null;
+    }
+
+    private List<SubmissionDto<U>> findTuples(Specification<S> specification, Sort sort, long offset, int limit, Set<String> fields) {
+        var cb = this.entityManager.getCriteriaBuilder();
+        var query = cb.createTupleQuery();
+        Root<S> root = query.from(this.getSubmissionClass());
+        query.multiselect(fields.stream().map(f -> getFieldPath(root, f).alias(f)).toArray(Selection[]::new));
+        query.where(specification.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        var typedQuery = this.entityManager.createQuery(query);
+        if (limit >= 0) {
+            typedQuery.setFirstResult((int) offset);
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList().stream().map(t -> BaseSubmissionService.<U>mapTupleToDto(t, fields)).toList();
+    }
+
+    private static Path<?> getFieldPath(Root<?> root, String field) {
+        return "taskId".equals(field) ? root.get("task").get("id") : root.get(field);
+    }
+
+    private SubmissionDto<U> mapSubmissionToDto(S submission, Set<String> fields) {
+        if (fields == null)
+            return this.mapSubmissionToDto(submission);
+
+        return new SubmissionDto<>(
+            submission.getId(),
+            fields.contains("userId") ? submission.getUserId() : null,
+            fields.contains("assignmentId") ? submission.getAssignmentId() : null,
+            fields.contains("taskId") ? submission.getTask().getId() : 0,
+            fields.contains("submissionTime") ? submission.getSubmissionTime() : null,
+            fields.contains("language") ? submission.getLanguage() : null,
+            fields.contains("feedbackLevel") ? submission.getFeedbackLevel() : 0,
+            fields.contains("mode") ? submission.getMode() : null,
+            fields.contains("submission") ? this.mapSubmissionToSubmissionData(submission) : null,
+            fields.contains("evaluationResult") ? submission.getEvaluationResult() : null
+        );
+    }
+
+    private static <X> SubmissionDto<X> mapTupleToDto(Tuple tuple, Set<String> fields) {
+        return new SubmissionDto<>(
+            tuple.get("id", UUID.class),
+            fields.contains("userId") ? tuple.get("userId", String.class) : null,
+            fields.contains("assignmentId") ? tuple.get("assignmentId", String.class) : null,
+            fields.contains("taskId") ? tuple.get("taskId", Long.class) : 0,
+            fields.contains("submissionTime") ? tuple.get("submissionTime", Instant.class) : null,
+            fields.contains("language") ? tuple.get("language", String.class) : null,
+            fields.contains("feedbackLevel") ? tuple.get("feedbackLevel", Integer.class) : 0,
+            fields.contains("mode") ? tuple.get("mode", SubmissionMode.class) : null,
+            null,
+            fields.contains("evaluationResult") ? tuple.get("evaluationResult", GradingDto.class) : null
+        );
+    }
+
     /**
      * Returns the filter specification for the given filter parameters.
      *
@@ -215,7 +1389,17 @@ public Page<SubmissionDto<U>> getSubmissions(Pageable page, String userFilter, L
      * @return The filter specification.
      */
     protected Specification<S> getFilterSpecification(String userFilter, Long taskFilter, String assignmentFilter, SubmissionMode modeFilter) {
-        return new FilterSpecification<>(userFilter, taskFilter, assignmentFilter, modeFilter);
+        return this.getFilterSpecification(SubmissionFilter.of(userFilter, taskFilter, assignmentFilter, modeFilter));
+    }
+
+    /**
+     * Returns the filter specification for the given filter.
+     *
+     * @param filter The filter.
+     * @return The filter specification.
+     */
+    protected Specification<S> getFilterSpecification(SubmissionFilter filter) {
+        return new FilterSpecification<>(filter);
     }
 
     /**
@@ -248,24 +1432,64 @@ protected SubmissionDto<U> mapSubmissionToDto(S submission) {
      */
     protected abstract U mapSubmissionToSubmissionData(S submission);
 
-    private record FilterSpecification<X>(String user, Long taskId, String assignmentId, SubmissionMode mode) implements Specification<X> {
+    private record FilterSpecification<X>(SubmissionFilter filter) implements Specification<X> {
 
         @Override
         public Predicate toPredicate(@NonNull Root<X> root, @NonNull CriteriaQuery<?> query, @NonNull CriteriaBuilder criteriaBuilder) {
-            var predicates = new ArrayList<Predicate>();
+            if (this.filter == null)
+                return criteriaBuilder.and();
 
-            if (this.user != null)
-                predicates.add(criteriaBuilder.equal(root.get("userId"), this.user));
-            if (this.assignmentId != null)
-                predicates.add(criteriaBuilder.equal(root.get("assignmentId"), this.assignmentId));
-            if (this.taskId != null)
-                predicates.add(criteriaBuilder.equal(root.get("task").get("id"), this.taskId));
-            if (this.mode != null)
-                predicates.add(criteriaBuilder.equal(root.get("mode"), criteriaBuilder.literal(this.mode.name().toLowerCase())));
+            var predicates = new ArrayList<Predicate>();
+            addIn(predicates, root.get("userId"), this.filter.userIds());
+            addIn(predicates, root.get("assignmentId"), this.filter.assignmentIds());
+            addIn(predicates, root.get("task").get("id"), this.filter.taskIds());
+            if (this.filter.modes() != null && !this.filter.modes().isEmpty())
+                predicates.add(root.get("mode").in(this.filter.modes().stream().map(m -> criteriaBuilder.literal(m.name().toLowerCase())).toArray(Expression[]::new)));
+            if (this.filter.submittedFrom() != null)
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("submissionTime"), this.filter.submittedFrom()));
+            if (this.filter.submittedTo() != null)
+                predicates.add(criteriaBuilder.lessThan(root.get("submissionTime"), this.filter.submittedTo()));
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         }
 
+        private static void addIn(List<Predicate> predicates, Path<?> path, Collection<?> values) {
+            if (values != null && !values.isEmpty())
+                predicates.add(path.in(values));
+        }
+
+    }
+
+    private record KeysetSpecification<X>(Instant submissionTime, UUID id, Sort.Direction direction) implements Specification<X> {
+
+        static String encode(Instant submissionTime, UUID id) {
+            String key = submissionTime + "_" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static <X> KeysetSpecification<X> decode(String cursor, Sort.Direction direction) {
+            try {
+                String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = key.indexOf('_');
+                return new KeysetSpecification<>(Instant.parse(key.substring(0, separator)), UUID.fromString(key.substring(separator + 1)), direction);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+                throw new ConstraintViolationException("Invalid cursor " + cursor, Set.of());
+            }
+        }
+
+        @Override
+        public Predicate toPredicate(@NonNull Root<X> root, @NonNull CriteriaQuery<?> query, @NonNull CriteriaBuilder criteriaBuilder) {
+            Path<Instant> time = root.get("submissionTime");
+            Path<UUID> submissionId = root.get("id");
+            if (this.direction.isAscending())
+                return criteriaBuilder.or(
+                    criteriaBuilder.greaterThan(time, this.submissionTime),
+                    criteriaBuilder.and(criteriaBuilder.equal(time, this.submissionTime), criteriaBuilder.greaterThan(submissionId, this.id)));
+            return criteriaBuilder.or(
+                criteriaBuilder.lessThan(time, this.submissionTime),
+                criteriaBuilder.and(criteriaBuilder.equal(time, this.submissionTime), criteriaBuilder.lessThan(submissionId, this.id)));
+        }
+
     }
 
     //#endregion
@@ -283,4 +1507,46 @@ public void delete(UUID id) {
         this.submissionRepository.deleteById(id);
     }
 
+    private final class QueueWorker implements SubmissionQueue.Worker {
+        @Override
+        public int getAvailableCapacity() {
+            return getGradingExecutor().getAvailableCapacity();
+        }
+
+        @Override
+        public void process(UUID submissionId) {
+            S entity = submissionRepository.findById(submissionId).orElse(null);
+            if (entity == null) {
+                LOG.warn("Queued submission {} does not exist anymore", submissionId);
+                submissionQueue.complete(submissionId);
+                return;
+            }
+
+            var dto = new SubmitSubmissionDto<>(entity.getUserId(), entity.getAssignmentId(), entity.getTask().getId(), entity.getLanguage(),
+                entity.getMode(), entity.getFeedbackLevel(), mapSubmissionToSubmissionData(entity));
+            var fingerprint = createFingerprint(dto);
+            var cached = getCachedResult(fingerprint);
+            if (cached != null) {
+                saveResult(submissionId, cached);
+                submissionQueue.complete(submissionId);
+                return;
+            }
+            executeQueued(dto, submissionId, fingerprint);
+        }
+
+        @Override
+        public void fail(UUID submissionId) {
+            S entity = submissionRepository.findById(submissionId).orElse(null);
+            if (entity == null || entity.getEvaluationResult() != null)
+                return;
+
+            failFlight(submissionId, leaderFlights.get(submissionId));
+            saveResult(submissionId, createFailedResult(entity.getTask().getId(), entity.getLanguage()));
+        }
+    }
+
+    private static final class DefaultGradingExecutorHolder {
+        private static final GradingExecutor INSTANCE = new GradingExecutor(new GradingConfiguration());
+    }
+
 }
@@ -1,14 +1,18 @@
 package at.jku.dke.etutor.task_app.services;
 
 import at.jku.dke.etutor.task_app.auth.AuthConstants;
+import at.jku.dke.etutor.task_app.controllers.TaskResponseCache;
 import at.jku.dke.etutor.task_app.data.entities.TaskGroup;
 import at.jku.dke.etutor.task_app.data.repositories.TaskGroupRepository;
 import at.jku.dke.etutor.task_app.dto.ModifyTaskGroupDto;
 import at.jku.dke.etutor.task_app.dto.TaskGroupModificationResponseDto;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidation;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidationNotifier;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,6 +37,9 @@
      */
     protected final TaskGroupRepository<G> repository;
 
+    private TaskInvalidationNotifier invalidationNotifier;
+    private TaskResponseCache responseCache;
+
     /**
      * Creates a new instance of class {@link BaseTaskGroupService}.
      *
@@ -42,6 +49,26 @@ protected BaseTaskGroupService(TaskGroupRepository<G> repository) {
         this.repository = repository;
     }
 
+    /**
+     * Sets the notifier announcing modified task groups to the task caches of all nodes.
+     *
+     * @param invalidationNotifier The invalidation notifier.
+     */
+    @Autowired(required = false)
+    public void setInvalidationNotifier(TaskInvalidationNotifier invalidationNotifier) {
+        this.invalidationNotifier = invalidationNotifier;
+    }
+
+    /**
+     * Sets the cache of the responses of the task group endpoints, whose entries are invalidated after a task group has been modified.
+     *
+     * @param responseCache The response cache.
+     */
+    @Autowired(required = false)
+    public void setResponseCache(TaskResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
     //#region --- View ---
 
     /**
@@ -106,6 +133,8 @@ public TaskGroupModificationResponseDto update(long id, @Valid ModifyTaskGroupDt
 
         taskGroup = this.repository.save(taskGroup);
         this.afterUpdate(taskGroup, dto);
+        this.invalidateResponses(id);
+        this.announceAfterCommit(id);
 
         return this.mapToReturnData(taskGroup, false);
     }
@@ -122,6 +151,22 @@ public void delete(long id) {
         this.beforeDelete(id);
         this.repository.deleteById(id);
         this.afterDelete(id);
+        this.invalidateResponses(id);
+        this.announceAfterCommit(id);
+    }
+
+    private void invalidateResponses(long id) {
+        if (this.responseCache == null)
+            return;
+
+        // the response caches of all nodes invalidate the task group again on the announcement after commit,
+        // as reads until then still see the old task group
+        this.responseCache.invalidate(TaskResponseCache.ResourceType.TASK_GROUP, id);
+    }
+
+    private void announceAfterCommit(long id) {
+        if (this.invalidationNotifier != null)
+            this.invalidationNotifier.publishAfterCommit(TaskInvalidation.taskGroup(id));
     }
 
     //#endregion
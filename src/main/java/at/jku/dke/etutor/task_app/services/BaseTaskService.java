@@ -1,19 +1,28 @@
 package at.jku.dke.etutor.task_app.services;
 
 import at.jku.dke.etutor.task_app.auth.AuthConstants;
+import at.jku.dke.etutor.task_app.controllers.TaskResponseCache;
 import at.jku.dke.etutor.task_app.data.entities.Task;
 import at.jku.dke.etutor.task_app.data.repositories.TaskRepository;
 import at.jku.dke.etutor.task_app.dto.ModifyTaskDto;
 import at.jku.dke.etutor.task_app.dto.TaskModificationResponseDto;
+import at.jku.dke.etutor.task_app.grading.SubmissionFingerprinter;
+import at.jku.dke.etutor.task_app.grading.TaskArtifactCache;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidation;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidationNotifier;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * This class provides methods for managing {@link Task}s.
@@ -33,6 +42,11 @@
      */
     protected final TaskRepository<T> repository;
 
+    private SubmissionFingerprinter submissionFingerprinter;
+    private TaskArtifactCache artifactCache;
+    private TaskInvalidationNotifier invalidationNotifier;
+    private TaskResponseCache responseCache;
+
     /**
      * Creates a new instance of class {@link BaseTaskService}.
      *
@@ -42,6 +56,47 @@ protected BaseTaskService(TaskRepository<T> repository) {
         this.repository = repository;
     }
 
+    /**
+     * Sets the fingerprinter of submissions, whose task version is incremented if a task is modified, so that cached and shared
+     * evaluation results of the previous version are not reused.
+     *
+     * @param submissionFingerprinter The submission fingerprinter.
+     */
+    @Autowired(required = false)
+    public void setSubmissionFingerprinter(SubmissionFingerprinter submissionFingerprinter) {
+        this.submissionFingerprinter = submissionFingerprinter;
+    }
+
+    /**
+     * Sets the cache of the evaluation artifacts of the tasks.
+     *
+     * @param artifactCache The artifact cache.
+     */
+    @Autowired(required = false)
+    public void setArtifactCache(TaskArtifactCache artifactCache) {
+        this.artifactCache = artifactCache;
+    }
+
+    /**
+     * Sets the notifier announcing modified tasks to the task caches of all nodes.
+     *
+     * @param invalidationNotifier The invalidation notifier.
+     */
+    @Autowired(required = false)
+    public void setInvalidationNotifier(TaskInvalidationNotifier invalidationNotifier) {
+        this.invalidationNotifier = invalidationNotifier;
+    }
+
+    /**
+     * Sets the cache of the responses of the task endpoints, whose entries are invalidated after a task has been modified.
+     *
+     * @param responseCache The response cache.
+     */
+    @Autowired(required = false)
+    public void setResponseCache(TaskResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
     //#region --- View ---
 
     /**
@@ -85,6 +140,8 @@ public TaskModificationResponseDto create(long id, @Valid ModifyTaskDto<S> dto)
         this.beforeCreate(task, dto);
         task = this.repository.save(task);
         this.afterCreate(task, dto);
+        this.announceAfterCommit(id);
+        this.prepareArtifactsAfterCommit(task);
 
         return this.mapToReturnData(task, true);
     }
@@ -110,6 +167,10 @@ public TaskModificationResponseDto update(long id, @Valid ModifyTaskDto<S> dto)
 
         task = this.repository.save(task);
         this.afterUpdate(task, dto);
+        this.invalidateResults(id);
+        this.invalidateResponses(id);
+        this.announceAfterCommit(id);
+        this.prepareArtifactsAfterCommit(task);
 
         return this.mapToReturnData(task, false);
     }
@@ -126,6 +187,96 @@ public void delete(long id) {
         this.beforeDelete(id);
         this.repository.deleteById(id);
         this.afterDelete(id);
+        this.invalidateResults(id);
+        this.invalidateResponses(id);
+        this.announceAfterCommit(id);
+    }
+
+    private void invalidateResults(long id) {
+        if (this.submissionFingerprinter == null)
+            return;
+
+        // the fingerprinters of all nodes invalidate the task again on the announcement after commit,
+        // as evaluations running until then still see the old task
+        this.submissionFingerprinter.invalidateTask(id);
+    }
+
+    private void invalidateResponses(long id) {
+        if (this.responseCache == null)
+            return;
+
+        // the response caches of all nodes invalidate the task again on the announcement after commit,
+        // as reads until then still see the old task
+        this.responseCache.invalidate(TaskResponseCache.ResourceType.TASK, id);
+    }
+
+    private void announceAfterCommit(long id) {
+        if (this.invalidationNotifier != null)
+            this.invalidationNotifier.publishAfterCommit(TaskInvalidation.task(id));
+    }
+
+    private void prepareArtifactsAfterCommit(T task) {
+        if (this.artifactCache == null)
+            return;
+        // artifacts built before commit would be discarded by the invalidation after commit
+        this.runAfterCommit(() -> this.prepareArtifactsSafely(task));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED)
+                        action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void prepareArtifactsSafely(T task) {
+        try {
+            this.prepareArtifacts(task);
+        } catch (RuntimeException ex) {
+            LOG.warn("Could not prepare the evaluation artifacts of task {}", task.getId(), ex);
+        }
+    }
+
+    //#endregion
+
+    //#region --- Artifacts ---
+
+    /**
+     * Returns the evaluation artifact of the current version of the task, building it if it is not cached.
+     * <p>
+     * Use this method in {@link #prepareArtifacts(Task)} to build the artifacts in advance.
+     *
+     * @param taskId  The task identifier.
+     * @param name    The name of the artifact.
+     * @param builder Builds the artifact; must not return {@code null}.
+     * @param <A>     The artifact type.
+     * @return The artifact.
+     * @see TaskArtifactCache#get(long, String, Supplier)
+     */
+    protected <A> A getTaskArtifact(long taskId, String name, Supplier<A> builder) {
+        if (this.artifactCache == null)
+            return builder.get();
+        return this.artifactCache.get(taskId, name, builder);
+    }
+
+    /**
+     * Called after a task has been created or updated to build the artifacts required to evaluate its submissions, so that the first
+     * evaluation does not have to build them.
+     * <p>
+     * This method runs after the transaction has been committed; failures are logged and ignored, the artifacts are built on first
+     * use then. Override this method to build the artifacts using {@link #getTaskArtifact(long, String, Supplier)}; the evaluation
+     * retrieves them with the same names. Lazy associations of the task must have been loaded before.
+     *
+     * @param task The created or updated task.
+     */
+    protected void prepareArtifacts(T task) {
     }
 
     //#endregion
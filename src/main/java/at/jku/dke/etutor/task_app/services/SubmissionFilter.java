@@ -0,0 +1,40 @@
+package at.jku.dke.etutor.task_app.services;
+
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Filter of submission listings.
+ * <p>
+ * {@code null} or empty collections do not restrict the submissions; otherwise, the attribute has to equal one of the values.
+ *
+ * @param userIds       The user identifiers.
+ * @param taskIds       The task identifiers.
+ * @param assignmentIds The assignment identifiers.
+ * @param modes         The submission modes.
+ * @param submittedFrom The minimum submission time (inclusive), might be {@code null}.
+ * @param submittedTo   The maximum submission time (exclusive), might be {@code null}.
+ */
+public record SubmissionFilter(Collection<String> userIds, Collection<Long> taskIds, Collection<String> assignmentIds,
+                               Collection<SubmissionMode> modes, Instant submittedFrom, Instant submittedTo) {
+
+    /**
+     * Creates a filter for single values.
+     *
+     * @param userId       The user identifier, might be {@code null}.
+     * @param taskId       The task identifier, might be {@code null}.
+     * @param assignmentId The assignment identifier, might be {@code null}.
+     * @param mode         The submission mode, might be {@code null}.
+     * @return The filter.
+     */
+    public static SubmissionFilter of(String userId, Long taskId, String assignmentId, SubmissionMode mode) {
+        return new SubmissionFilter(single(userId), single(taskId), single(assignmentId), single(mode), null, null);
+    }
+
+    private static <X> List<X> single(X value) {
+        return value == null ? null : List.of(value);
+    }
+}
@@ -4,11 +4,22 @@
 import at.jku.dke.etutor.task_app.dto.*;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Interface for classes that manage {@link Submission}s.
@@ -17,11 +28,17 @@
  */
 @Validated
 public interface SubmissionService<U> {
+    /**
+     * The maximum number of submissions of a batch.
+     */
+    int MAX_BATCH_SIZE = 1000;
+
     /**
      * Enqueues the submission for evaluation.
      *
      * @param submission The submission.
      * @return The submission identifier.
+     * @throws at.jku.dke.etutor.task_app.grading.GradingRejectedException If the submission cannot be accepted because the grading capacity is exhausted.
      */
     UUID enqueue(@Valid SubmitSubmissionDto<U> submission);
 
@@ -31,9 +48,38 @@
      * @param submission The submission.
      * @param persist    Whether the submission should be stored permanently.
      * @return The evaluation results.
+     * @throws at.jku.dke.etutor.task_app.grading.GradingRejectedException If the submission cannot be evaluated because the grading capacity is exhausted.
      */
     GradingResultDto execute(@Valid SubmitSubmissionDto<U> submission, boolean persist);
 
+    /**
+     * Enqueues all submissions for evaluation.
+     *
+     * @param submissions The submissions.
+     * @return The submission identifiers in the order of the submissions.
+     */
+    List<UUID> enqueueAll(@NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid SubmitSubmissionDto<U>> submissions);
+
+    /**
+     * Executes all submissions in parallel.
+     *
+     * @param submissions The submissions.
+     * @param persist     Whether the submissions should be stored permanently.
+     * @return The futures of the evaluation results in the order of the submissions; a future completes exceptionally if the
+     * evaluation of the submission failed, with an {@link at.jku.dke.etutor.task_app.grading.EvaluationFailedException} carrying
+     * the submission identifier if the submission has been stored.
+     */
+    List<CompletableFuture<GradingResultDto>> executeAll(@NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid SubmitSubmissionDto<U>> submissions, boolean persist);
+
+    /**
+     * Cancels the queued or running evaluation of the specified submission.
+     *
+     * @param id The submission identifier.
+     * @return {@code true} if the evaluation was cancelled; {@code false} if the submission has already been evaluated or is not queued or evaluated by this node.
+     * @throws EntityNotFoundException If the submission does not exist.
+     */
+    boolean cancel(UUID id);
+
     /**
      * Returns the evaluation results for the specified submission.
      *
@@ -43,6 +89,42 @@
      */
     GradingDto getEvaluationResult(UUID id);
 
+    /**
+     * Waits for the evaluation result of the specified submission without blocking the calling thread.
+     *
+     * @param id      The submission identifier.
+     * @param timeout The maximum time to wait.
+     * @return The future completed with the evaluation result or with {@code null} if the result is not available within the timeout.
+     * @throws EntityNotFoundException If the submission does not exist.
+     */
+    CompletableFuture<GradingDto> awaitEvaluationResult(UUID id, Duration timeout);
+
+    /**
+     * Returns the criteria evaluated so far for the specified submission while it is evaluated.
+     *
+     * @param id The submission identifier.
+     * @return The partial evaluation result or {@code null} if no criteria have been reported.
+     */
+    GradingDto getPartialEvaluationResult(UUID id);
+
+    /**
+     * Waits for the evaluation results of the specified submissions without blocking the calling thread and reports the status of
+     * the submissions until their results are available.
+     * <p>
+     * The listener is called with the current status of each submission without a result ({@link SubmissionStatus#QUEUED} or
+     * {@link SubmissionStatus#RUNNING}), as soon as the evaluation of a queued submission is started and whenever a criterion has
+     * been evaluated ({@link SubmissionStatus#RUNNING} with the partial result). The status of submissions evaluated by other nodes
+     * is reported as {@link SubmissionStatus#QUEUED} until the result is available.
+     *
+     * @param ids      The submission identifiers.
+     * @param timeout  The maximum time to wait.
+     * @param listener The listener receiving the status changes; might be called by any thread.
+     * @return The futures completed with the evaluation results or with {@code null} if a result is not available within the timeout,
+     * in the order of the identifiers.
+     * @throws EntityNotFoundException If a submission does not exist.
+     */
+    List<CompletableFuture<GradingDto>> watchEvaluations(@NotEmpty @Size(max = MAX_BATCH_SIZE) List<UUID> ids, Duration timeout, Consumer<SubmissionEventDto> listener);
+
     /**
      * Returns all submissions for the requested page.
      *
@@ -55,6 +137,37 @@
      */
     Page<SubmissionDto<U>> getSubmissions(Pageable page, String userFilter, Long taskFilter, String assignmentFilter, SubmissionMode modeFilter);
 
+    /**
+     * Returns the requested fields of all submissions for the requested page.
+     * <p>
+     * Only the columns of the requested fields are read; fields that are not requested are {@code null} (or {@code 0} for numeric
+     * fields) in the returned DTOs. The identifier is always included. Allowed fields are the components of {@link SubmissionDto}.
+     *
+     * @param page   The page and sorting information.
+     * @param filter The filter.
+     * @param fields The requested fields; all fields are returned if {@code null} or empty.
+     * @return List of submissions
+     * @throws jakarta.validation.ConstraintViolationException If an unknown field or sort property is requested.
+     */
+    Page<SubmissionDto<U>> getSubmissions(Pageable page, SubmissionFilter filter, Collection<String> fields);
+
+    /**
+     * Returns a slice of the submissions ordered by submission time and identifier, starting after the submission encoded in the
+     * cursor.
+     * <p>
+     * Fields are returned as in {@link #getSubmissions(Pageable, SubmissionFilter, Collection)}; the submission time is always
+     * included.
+     *
+     * @param filter    The filter.
+     * @param cursor    The cursor returned with the previous slice or {@code null} for the first slice.
+     * @param size      The maximum number of submissions of the slice.
+     * @param direction The direction of the order.
+     * @param fields    The requested fields; all fields are returned if {@code null} or empty.
+     * @return The slice of submissions.
+     * @throws jakarta.validation.ConstraintViolationException If an unknown field is requested or the cursor is invalid.
+     */
+    SubmissionSliceDto<U> getSubmissionSlice(SubmissionFilter filter, String cursor, @Min(1) @Max(MAX_BATCH_SIZE) int size, @NotNull Sort.Direction direction, Collection<String> fields);
+
     /**
      * Deletes the submission with the specified identifier.
      *
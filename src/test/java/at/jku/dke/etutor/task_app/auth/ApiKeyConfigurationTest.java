@@ -16,6 +16,7 @@
 clients.api-keys[1].name=task-submission
 clients.api-keys[1].key=task-submit-key
 clients.api-keys[1].roles[0]=SUBMIT
+clients.api-keys[1].callback-url=http://localhost:8080/results
 
 clients.api-keys[2].name=task-check
 clients.api-keys[2].key=task-check-key
@@ -76,4 +77,34 @@ void getApiKeyBlank() {
         // Assert
         assertTrue(key.isEmpty());
     }
+
+    @Test
+    void getApiKeyByName() {
+        // Act
+        var key = keyConfiguration.getApiKeyByName("task-submission");
+
+        // Assert
+        assertTrue(key.isPresent());
+        assertEquals("task-submit-key", key.get().key());
+        assertEquals("http://localhost:8080/results", key.get().callbackUrl());
+    }
+
+    @Test
+    void getApiKeyByNameWithoutCallbackUrl() {
+        // Act
+        var key = keyConfiguration.getApiKeyByName("task-check");
+
+        // Assert
+        assertTrue(key.isPresent());
+        assertNull(key.get().callbackUrl());
+    }
+
+    @Test
+    void getApiKeyByNameNotExisting() {
+        // Act
+        var key = keyConfiguration.getApiKeyByName("not-existing");
+
+        // Assert
+        assertTrue(key.isEmpty());
+    }
 }
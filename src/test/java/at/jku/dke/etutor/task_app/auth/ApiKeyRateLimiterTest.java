@@ -0,0 +1,115 @@
+package at.jku.dke.etutor.task_app.auth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiKeyRateLimiterTest {
+    private static final ApiKeyConfiguration.ApiKey ADMIN = new ApiKeyConfiguration.ApiKey("admin", "admin-key", List.of("CRUD", "SUBMIT"));
+    private static final ApiKeyConfiguration.ApiKey PLAG_CHECK = new ApiKeyConfiguration.ApiKey("plag-check", "plag-key", List.of("READ_SUBMISSION"));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tryAcquireWithoutLimit() {
+        // Arrange
+        var limiter = new ApiKeyRateLimiter(createApiKeyConfiguration(), new RateLimitConfiguration());
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++)
+            assertEquals(0, limiter.tryAcquire(ADMIN, 0));
+        assertEquals(1000, limiter.getRequestCounts().get("admin"));
+        assertEquals(0, limiter.getRejectedCounts().get("admin"));
+    }
+
+    @Test
+    void tryAcquireBurstAndRefill() {
+        // Arrange
+        var config = new RateLimitConfiguration();
+        config.setApiKeys(Map.of("plag-check", new RateLimitConfiguration.Limit(3, 10)));
+        var limiter = new ApiKeyRateLimiter(createApiKeyConfiguration(), config);
+        long now = System.nanoTime();
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire(PLAG_CHECK, now));
+        assertEquals(0, limiter.tryAcquire(PLAG_CHECK, now));
+        assertEquals(0, limiter.tryAcquire(PLAG_CHECK, now));
+        assertEquals(100_000_000, limiter.tryAcquire(PLAG_CHECK, now));
+        assertEquals(0, limiter.tryAcquire(PLAG_CHECK, now + 100_000_000));
+        assertTrue(limiter.tryAcquire(PLAG_CHECK, now + 100_000_000) > 0);
+        assertEquals(0, limiter.tryAcquire(ADMIN, now));
+        assertEquals(6, limiter.getRequestCounts().get("plag-check"));
+        assertEquals(2, limiter.getRejectedCounts().get("plag-check"));
+    }
+
+    @Test
+    void tryAcquireDoesNotAccumulateTokensBeyondCapacity() {
+        // Arrange
+        var config = new RateLimitConfiguration();
+        config.setApiKeys(Map.of("plag-check", new RateLimitConfiguration.Limit(2, 1)));
+        var limiter = new ApiKeyRateLimiter(createApiKeyConfiguration(), config);
+        long later = System.nanoTime() + 3_600_000_000_000L;
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire(PLAG_CHECK, later));
+        assertEquals(0, limiter.tryAcquire(PLAG_CHECK, later));
+        assertTrue(limiter.tryAcquire(PLAG_CHECK, later) > 0);
+    }
+
+    @Test
+    void tryAcquireUsesMostGenerousRoleLimit() {
+        // Arrange
+        var config = new RateLimitConfiguration();
+        config.setRoles(Map.of("CRUD", new RateLimitConfiguration.Limit(1, 1), "SUBMIT", new RateLimitConfiguration.Limit(2, 100)));
+        var limiter = new ApiKeyRateLimiter(createApiKeyConfiguration(), config);
+        long now = System.nanoTime();
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire(ADMIN, now));
+        assertEquals(0, limiter.tryAcquire(ADMIN, now));
+        assertEquals(10_000_000, limiter.tryAcquire(ADMIN, now));
+        assertEquals(0, limiter.tryAcquire(PLAG_CHECK, now));
+    }
+
+    @Test
+    void tryAcquireUnknownApiKey() {
+        // Arrange
+        var limiter = new ApiKeyRateLimiter(createApiKeyConfiguration(), new RateLimitConfiguration());
+
+        // Act
+        var result = limiter.tryAcquire(new ApiKeyConfiguration.ApiKey("other", "other-key", List.of("SUBMIT")));
+
+        // Assert
+        assertEquals(0, result);
+        assertFalse(limiter.getRequestCounts().containsKey("other"));
+    }
+
+    @Test
+    void recordGradings() {
+        // Arrange
+        var limiter = new ApiKeyRateLimiter(createApiKeyConfiguration(), new RateLimitConfiguration());
+        SecurityContextHolder.getContext().setAuthentication(new ApiKeyAuthentication(ADMIN));
+
+        // Act
+        limiter.recordGradings(1);
+        limiter.recordGradings(5);
+
+        // Assert
+        assertEquals(6, limiter.getGradingCounts().get("admin"));
+        assertEquals(0, limiter.getGradingCounts().get("plag-check"));
+    }
+
+    private static ApiKeyConfiguration createApiKeyConfiguration() {
+        var config = new ApiKeyConfiguration();
+        config.setApiKeys(List.of(ADMIN, PLAG_CHECK));
+        return config;
+    }
+}
@@ -0,0 +1,127 @@
+package at.jku.dke.etutor.task_app.auth;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitFilterTest {
+    private static final ApiKeyConfiguration.ApiKey API_KEY = new ApiKeyConfiguration.ApiKey("plag-check", "plag-key", List.of("READ_SUBMISSION"));
+
+    private ApiKeyRateLimiter rateLimiter;
+    private RateLimitFilter filter;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        this.rateLimiter = Mockito.mock(ApiKeyRateLimiter.class);
+        this.filter = new RateLimitFilter(this.rateLimiter);
+        this.request = Mockito.mock(HttpServletRequest.class);
+        this.response = Mockito.mock(HttpServletResponse.class);
+        this.chain = Mockito.mock(FilterChain.class);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter() throws ServletException, IOException {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(new ApiKeyAuthentication(API_KEY));
+        Mockito.when(rateLimiter.tryAcquire(API_KEY)).thenReturn(0L);
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        Mockito.verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterUnauthenticated() throws ServletException, IOException {
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        Mockito.verify(chain).doFilter(request, response);
+        Mockito.verifyNoInteractions(rateLimiter);
+    }
+
+    @Test
+    void doFilterRateLimitExceeded() throws ServletException, IOException {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(new ApiKeyAuthentication(API_KEY));
+        Mockito.when(rateLimiter.tryAcquire(API_KEY)).thenReturn(1_500_000_000L);
+        var body = new StringWriter();
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        Mockito.verifyNoInteractions(chain);
+        Mockito.verify(response).setStatus(429);
+        Mockito.verify(response).setHeader("Retry-After", "2");
+        assertTrue(body.toString().contains("\"status\":429"));
+    }
+
+    @Test
+    void doFilterAsyncDispatchTakesNoToken() throws Exception {
+        // Arrange
+        var apiKeys = new ApiKeyConfiguration();
+        apiKeys.setApiKeys(List.of(API_KEY));
+        var config = new RateLimitConfiguration();
+        config.setApiKeys(Map.of(API_KEY.name(), new RateLimitConfiguration.Limit(1, 0.001)));
+        var limiter = new ApiKeyRateLimiter(apiKeys, config);
+        var mvc = MockMvcBuilders.standaloneSetup(new AsyncController())
+            .addFilters(new RateLimitFilter(limiter))
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(new ApiKeyAuthentication(API_KEY));
+
+        // Act
+        var result = mvc.perform(get("/async")).andExpect(request().asyncStarted()).andReturn();
+        var dispatched = mvc.perform(asyncDispatch(result));
+
+        // Assert
+        dispatched.andExpect(status().isOk()).andExpect(content().string("done"));
+        mvc.perform(get("/async")).andExpect(status().isTooManyRequests());
+        assertEquals(1, limiter.getRejectedCounts().get(API_KEY.name()));
+    }
+
+    @RestController
+    private static class AsyncController {
+        @GetMapping("/async")
+        public DeferredResult<String> get() {
+            var result = new DeferredResult<String>();
+            result.setResult("done");
+            return result;
+        }
+    }
+}
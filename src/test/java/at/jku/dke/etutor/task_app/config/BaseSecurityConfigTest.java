@@ -1,5 +1,7 @@
 package at.jku.dke.etutor.task_app.config;
 
+import at.jku.dke.etutor.task_app.auth.ApiKeyRateLimiter;
+import at.jku.dke.etutor.task_app.auth.AuthenticationFilter;
 import at.jku.dke.etutor.task_app.auth.AuthenticationService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -15,10 +17,11 @@ void filterChain() throws Exception {
         // Arrange
         var http = mock(HttpSecurity.class);
         var authenticationService = mock(AuthenticationService.class);
+        var rateLimiter = mock(ApiKeyRateLimiter.class);
 
         // Act
         var config = new TestSecurityConfig();
-        config.filterChain(http, authenticationService);
+        config.filterChain(http, authenticationService, rateLimiter);
 
         // Assert
         Mockito.verify(http, Mockito.times(1)).csrf(Mockito.any());
@@ -26,6 +29,7 @@ void filterChain() throws Exception {
         Mockito.verify(http, Mockito.times(1)).authorizeHttpRequests(Mockito.any());
         Mockito.verify(http, Mockito.times(1)).sessionManagement(Mockito.any());
         Mockito.verify(http, Mockito.times(1)).addFilterBefore(Mockito.any(), Mockito.eq(UsernamePasswordAuthenticationFilter.class));
+        Mockito.verify(http, Mockito.times(1)).addFilterAfter(Mockito.any(), Mockito.eq(AuthenticationFilter.class));
         Mockito.verify(http, Mockito.times(1)).build();
     }
 
@@ -1,23 +1,39 @@
 package at.jku.dke.etutor.task_app.controllers;
 
 import at.jku.dke.etutor.task_app.dto.*;
+import at.jku.dke.etutor.task_app.grading.EvaluationFailedException;
 import at.jku.dke.etutor.task_app.services.BaseSubmissionService;
+import at.jku.dke.etutor.task_app.services.SubmissionFilter;
 import at.jku.dke.etutor.task_app.services.SubmissionService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.booleanThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class BaseSubmissionControllerTest {
 
@@ -73,20 +89,92 @@ void submitExecutePersist() {
         assertEquals(GradingResultDto.class, result.getBody().getClass());
     }
 
+    @Test
+    void enqueueBatch() {
+        // Arrange
+        var ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().enqueueAll(any())).thenReturn(ids);
+
+        // Act
+        var result = controller.enqueueBatch(List.of(
+            new SubmitSubmissionDto<>("user", "assignment", 1L, "en", SubmissionMode.SUBMIT, 1, "juhu"),
+            new SubmitSubmissionDto<>("user2", "assignment", 1L, "en", SubmissionMode.SUBMIT, 1, "juhu")));
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, result.getStatusCode());
+        assertEquals(ids, result.getBody());
+    }
+
+    @Test
+    void executeBatch() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        var pending = new CompletableFuture<GradingResultDto>();
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().executeAll(any(), booleanThat(persist -> persist))).thenReturn(List.of(
+            pending,
+            CompletableFuture.completedFuture(new GradingResultDto(id, new GradingDto(BigDecimal.TWO, BigDecimal.ONE, "ok", Collections.emptyList())))));
+        var mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        // Act
+        var started = mvc.perform(post("/api/submission/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("[{\"userId\":\"user\",\"assignmentId\":\"a\",\"taskId\":1,\"language\":\"en\",\"mode\":\"SUBMIT\",\"feedbackLevel\":1,\"submission\":\"x\"}," +
+                    "{\"userId\":\"user2\",\"assignmentId\":\"a\",\"taskId\":1,\"language\":\"en\",\"mode\":\"SUBMIT\",\"feedbackLevel\":1,\"submission\":\"x\"}]"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        pending.completeExceptionally(new IllegalStateException("failed"));
+        var result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+        // Assert
+        var lines = result.getResponse().getContentAsString().lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"index\":1,\"submissionId\":\"" + id + "\""));
+        assertEquals("{\"index\":0,\"submissionId\":null,\"grading\":null}", lines.get(1));
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+    }
+
+    @Test
+    void executeBatchPersistedFailed() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().executeAll(any(), booleanThat(persist -> persist))).thenReturn(List.of(
+            CompletableFuture.failedFuture(new EvaluationFailedException(id, new IllegalStateException("failed")))));
+        var mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        // Act
+        var started = mvc.perform(post("/api/submission/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .content("[{\"userId\":\"user\",\"assignmentId\":\"a\",\"taskId\":1,\"language\":\"en\",\"mode\":\"SUBMIT\",\"feedbackLevel\":1,\"submission\":\"x\"}]"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        var result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+        // Assert
+        var lines = result.getResponse().getContentAsString().lines().toList();
+        assertEquals(List.of("{\"index\":0,\"submissionId\":\"" + id + "\",\"grading\":null}"), lines);
+    }
+
     @Test
     void getResult() {
         // Arrange
         SubmissionController controller = new SubmissionController();
-        when(controller.getSubmissionService().getEvaluationResult(any()))
-            .thenReturn(new GradingDto(BigDecimal.TWO, BigDecimal.ZERO, "bad", Collections.emptyList()));
+        when(controller.getSubmissionService().awaitEvaluationResult(any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(new GradingDto(BigDecimal.TWO, BigDecimal.ZERO, "bad", Collections.emptyList())));
 
         // Act
-        var result = controller.getResult(UUID.randomUUID(), 1, false);
+        var result = controller.getResult(UUID.randomUUID(), 1, false, false);
 
         // Assert
-        assertEquals(HttpStatus.OK, result.getStatusCode());
-        assertNotNull(result.getBody());
-        assertEquals(GradingDto.class, result.getBody().getClass());
+        var response = (ResponseEntity<?>) result.getResult();
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(GradingDto.class, response.getBody().getClass());
     }
 
 
@@ -95,119 +183,236 @@ void getResultDelete() {
         // Arrange
         var id = UUID.randomUUID();
         SubmissionController controller = new SubmissionController();
-        when(controller.getSubmissionService().getEvaluationResult(any()))
-            .thenReturn(new GradingDto(BigDecimal.TWO, BigDecimal.ZERO, "bad", Collections.emptyList()));
+        when(controller.getSubmissionService().awaitEvaluationResult(any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(new GradingDto(BigDecimal.TWO, BigDecimal.ZERO, "bad", Collections.emptyList())));
 
         // Act
-        var result = controller.getResult(id, 1, true);
+        var result = controller.getResult(id, 1, true, false);
 
         // Assert
-        assertEquals(HttpStatus.OK, result.getStatusCode());
-        assertNotNull(result.getBody());
-        assertEquals(GradingDto.class, result.getBody().getClass());
+        var response = (ResponseEntity<?>) result.getResult();
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(controller.getSubmissionService(), times(1)).delete(id);
     }
 
     @Test
-    void getResultWait() {
+    void getResultWait() throws InterruptedException {
         // Arrange
+        var future = new CompletableFuture<GradingDto>();
         SubmissionController controller = new SubmissionController();
-        when(controller.getSubmissionService().getEvaluationResult(any())).thenReturn(
-            null,
-            new GradingDto(BigDecimal.TWO, BigDecimal.ZERO, "bad", Collections.emptyList())
-        );
+        when(controller.getSubmissionService().awaitEvaluationResult(any(), eq(Duration.ofSeconds(5)))).thenReturn(future);
 
         // Act
-        long start = System.currentTimeMillis();
-        var result = controller.getResult(UUID.randomUUID(), 5, false);
-        var end = System.currentTimeMillis();
-        var diff = end - start;
+        var result = controller.getResult(UUID.randomUUID(), 5, false, false);
+        assertFalse(result.hasResult());
+        var thread = new Thread(() -> future.complete(new GradingDto(BigDecimal.TWO, BigDecimal.ZERO, "bad", Collections.emptyList())));
+        thread.start();
+        thread.join();
 
         // Assert
-        assertEquals(HttpStatus.OK, result.getStatusCode());
-        assertNotNull(result.getBody());
-        assertEquals(GradingDto.class, result.getBody().getClass());
-        assertTrue(diff >= 900, "Execution was too fast");
-        assertTrue(diff <= 900 * 3, "Execution was too slow");
+        var response = (ResponseEntity<?>) result.getResult();
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(GradingDto.class, response.getBody().getClass());
     }
 
     @Test
     void getResultTimeout() {
         // Arrange
         SubmissionController controller = new SubmissionController();
-        when(controller.getSubmissionService().getEvaluationResult(any())).thenReturn(null);
+        when(controller.getSubmissionService().awaitEvaluationResult(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 
         // Act
-        long start = System.currentTimeMillis();
-        var result = controller.getResult(UUID.randomUUID(), 3, false);
-        var end = System.currentTimeMillis();
-        var diff = end - start;
+        var result = controller.getResult(UUID.randomUUID(), 3, false, false);
 
         // Assert
-        assertEquals(HttpStatus.REQUEST_TIMEOUT, result.getStatusCode());
-        assertNull(result.getBody());
-        assertTrue(diff >= 900 * 2, "Execution was too fast");
-        assertTrue(diff <= 900 * 4, "Execution was too slow");
+        var response = (ResponseEntity<?>) result.getResult();
+        assertNotNull(response);
+        assertEquals(HttpStatus.REQUEST_TIMEOUT, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void getResultPartial() {
+        // Arrange
+        var id = UUID.randomUUID();
+        var partialResult = new GradingDto(BigDecimal.TWO, BigDecimal.ONE, null, List.of(new CriterionDto("Syntax", BigDecimal.ONE, true, "ok")));
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().awaitEvaluationResult(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(controller.getSubmissionService().getPartialEvaluationResult(id)).thenReturn(partialResult);
+
+        // Act
+        var result = controller.getResult(id, 3, true, true);
+
+        // Assert
+        var response = (ResponseEntity<?>) result.getResult();
+        assertNotNull(response);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertSame(partialResult, response.getBody());
+        verify(controller.getSubmissionService(), never()).delete(id);
     }
 
     @Test
     void getResultNegativeTimeout() {
         // Arrange
         SubmissionController controller = new SubmissionController();
-        when(controller.getSubmissionService().getEvaluationResult(any())).thenReturn(null);
+        when(controller.getSubmissionService().awaitEvaluationResult(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 
         // Act
-        long start = System.currentTimeMillis();
-        var result = controller.getResult(UUID.randomUUID(), -1, false);
-        var end = System.currentTimeMillis();
-        var diff = end - start;
+        controller.getResult(UUID.randomUUID(), -1, false, false);
 
         // Assert
-        assertEquals(HttpStatus.REQUEST_TIMEOUT, result.getStatusCode());
-        assertNull(result.getBody());
-        assertTrue(diff <= 1000, "Execution was too slow");
+        verify(controller.getSubmissionService()).awaitEvaluationResult(any(), eq(Duration.ZERO));
     }
 
     @Test
-    void getResultInterrupted() throws InterruptedException {
+    void getResultMaximumTimeout() {
         // Arrange
-        Thread thread = new Thread(() -> {
-            SubmissionController controller = new SubmissionController();
-            when(controller.getSubmissionService().getEvaluationResult(any())).thenReturn(null);
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().awaitEvaluationResult(any(), any())).thenReturn(new CompletableFuture<>());
 
-            // Act
-            var result = controller.getResult(UUID.randomUUID(), 20, false);
+        // Act
+        var result = controller.getResult(UUID.randomUUID(), 120, false, false);
 
-            // Assert
-            assertEquals(HttpStatus.REQUEST_TIMEOUT, result.getStatusCode());
-            assertNull(result.getBody());
-        });
+        // Assert
+        verify(controller.getSubmissionService()).awaitEvaluationResult(any(), eq(Duration.ofSeconds(60)));
+        assertFalse(result.hasResult());
+    }
+
+    @Test
+    void getResultFailed() {
+        // Arrange
+        var exception = new IllegalStateException("failed");
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().awaitEvaluationResult(any(), any())).thenReturn(CompletableFuture.failedFuture(exception));
 
         // Act
-        thread.start();
-        Thread.sleep(2000);
-        thread.interrupt();
+        var result = controller.getResult(UUID.randomUUID(), 1, false, false);
+
+        // Assert
+        assertSame(exception, result.getResult());
     }
 
     @Test
     void getResultNotExistingSubmission() {
         // Arrange
         SubmissionController controller = new SubmissionController();
-        when(controller.getSubmissionService().getEvaluationResult(any())).thenThrow(new EntityNotFoundException());
+        when(controller.getSubmissionService().awaitEvaluationResult(any(), any())).thenThrow(new EntityNotFoundException());
 
         // Act & Assert
-        assertThrows(EntityNotFoundException.class, () -> controller.getResult(UUID.randomUUID(), 1, false));
+        assertThrows(EntityNotFoundException.class, () -> controller.getResult(UUID.randomUUID(), 1, false, false));
+    }
+
+    @Test
+    void streamEvents() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        var pending = new CompletableFuture<GradingDto>();
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().watchEvaluations(eq(List.of(id)), eq(Duration.ofSeconds(30)), any())).thenAnswer(invocation -> {
+            Consumer<SubmissionEventDto> listener = invocation.getArgument(2);
+            listener.accept(new SubmissionEventDto(id, SubmissionStatus.QUEUED, null));
+            listener.accept(new SubmissionEventDto(id, SubmissionStatus.RUNNING, null));
+            listener.accept(new SubmissionEventDto(id, SubmissionStatus.RUNNING, new GradingDto(BigDecimal.TWO, BigDecimal.ONE, null, List.of(new CriterionDto("Syntax", BigDecimal.ONE, true, "ok")))));
+            return List.of(pending);
+        });
+        var mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        // Act
+        var started = mvc.perform(get("/api/submission/" + id + "/events?timeout=30").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        pending.complete(new GradingDto(BigDecimal.TWO, BigDecimal.ONE, "ok", Collections.emptyList()));
+        var result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+        // Assert
+        var events = result.getResponse().getContentAsString().lines().filter(line -> line.startsWith("data:")).toList();
+        assertEquals(4, events.size());
+        assertTrue(events.get(0).contains("\"status\":\"QUEUED\""));
+        assertTrue(events.get(1).contains("\"status\":\"RUNNING\""));
+        assertTrue(events.get(2).contains("\"status\":\"RUNNING\""));
+        assertTrue(events.get(2).contains("\"name\":\"Syntax\""));
+        assertTrue(events.get(3).contains("\"status\":\"DONE\""));
+        assertTrue(events.get(3).contains("\"generalFeedback\":\"ok\""));
+        assertTrue(result.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    @Test
+    void streamAllEvents() throws Exception {
+        // Arrange
+        var evaluated = UUID.randomUUID();
+        var waiting = UUID.randomUUID();
+        var pending = new CompletableFuture<GradingDto>();
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().watchEvaluations(eq(List.of(evaluated, waiting)), eq(Duration.ofSeconds(60)), any())).thenAnswer(invocation -> {
+            Consumer<SubmissionEventDto> listener = invocation.getArgument(2);
+            listener.accept(new SubmissionEventDto(waiting, SubmissionStatus.QUEUED, null));
+            return List.of(CompletableFuture.completedFuture(new GradingDto(BigDecimal.TWO, BigDecimal.ONE, "ok", Collections.emptyList())), pending);
+        });
+        var mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        // Act
+        var started = mvc.perform(get("/api/submission/events?id=" + evaluated + "&id=" + waiting + "&id=" + evaluated).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        pending.complete(null);
+        var result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+        // Assert
+        var events = result.getResponse().getContentAsString().lines().filter(line -> line.startsWith("data:")).toList();
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).contains("\"submissionId\":\"" + waiting + "\",\"status\":\"QUEUED\""));
+        assertTrue(events.get(1).contains("\"submissionId\":\"" + evaluated + "\",\"status\":\"DONE\""));
+    }
+
+    @Test
+    void streamEventsNotExistingSubmission() {
+        // Arrange
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().watchEvaluations(any(), any(), any())).thenThrow(new EntityNotFoundException());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> controller.streamEvents(UUID.randomUUID(), 10));
+    }
+
+    @Test
+    void cancel() {
+        // Arrange
+        var id = UUID.randomUUID();
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().cancel(id)).thenReturn(true);
+
+        // Act
+        var result = controller.cancel(id);
+
+        // Assert
+        assertEquals(HttpStatus.NO_CONTENT, result.getStatusCode());
+    }
+
+    @Test
+    void cancelNotRunning() {
+        // Arrange
+        var id = UUID.randomUUID();
+        SubmissionController controller = new SubmissionController();
+        when(controller.getSubmissionService().cancel(id)).thenReturn(false);
+
+        // Act
+        var result = controller.cancel(id);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, result.getStatusCode());
     }
 
     @Test
     void getSubmissions() {
         // Arrange
         SubmissionController controller = new SubmissionController();
-        when(controller.getSubmissionService().getSubmissions(null, null, null, null, null))
+        when(controller.getSubmissionService().getSubmissions(null, new SubmissionFilter(List.of("user"), null, null, null, null, null), List.of("id")))
             .thenReturn(new PageImpl<>(List.of(new SubmissionDto<>(UUID.randomUUID(), "user", "assignment", 1L, null, "de", 0, null, "submission", null))));
 
         // Act
-        var result = controller.getSubmissions(null, null, null, null, null);
+        var result = controller.getSubmissions(null, List.of("user"), null, null, null, null, null, List.of("id"));
 
         // Assert
         assertEquals(HttpStatus.OK, result.getStatusCode());
@@ -215,6 +420,24 @@ void getSubmissions() {
         assertEquals(1, result.getBody().getContent().size());
     }
 
+    @Test
+    void getSubmissionSlice() {
+        // Arrange
+        SubmissionController controller = new SubmissionController();
+        var filter = new SubmissionFilter(null, List.of(1L, 2L), null, null, Instant.EPOCH, null);
+        when(controller.getSubmissionService().getSubmissionSlice(filter, "cursor", 10, Sort.Direction.ASC, null))
+            .thenReturn(new SubmissionSliceDto<>(List.of(new SubmissionDto<>(UUID.randomUUID(), "user", "assignment", 1L, Instant.EPOCH, "de", 0, null, "submission", null)), true, "next"));
+
+        // Act
+        var result = controller.getSubmissionSlice("cursor", 10, Sort.Direction.ASC, null, List.of(1L, 2L), null, null, Instant.EPOCH, null, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals("next", result.getBody().nextCursor());
+    }
+
+    @RestController
     private static class SubmissionController extends BaseSubmissionController<String> {
         public SubmissionController() {
             //noinspection unchecked
@@ -7,6 +7,7 @@
 import at.jku.dke.etutor.task_app.dto.TaskStatus;
 import at.jku.dke.etutor.task_app.services.BaseTaskService;
 import at.jku.dke.etutor.task_app.services.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
@@ -16,8 +17,7 @@
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class BaseTaskControllerTest {
 
@@ -37,6 +37,26 @@ void get() {
         assertEquals(new TaskDto(entity.getData()), result.getBody());
     }
 
+    @Test
+    void getWithResponseCache() {
+        // Arrange
+        var controller = new TaskController();
+        controller.setResponseCache(new TaskResponseCache(new TaskResponseCacheConfiguration(), new ObjectMapper()));
+        final long id = 2L;
+        var entity = new TestTask(9L);
+        when(controller.getTaskService().get(id)).thenReturn(Optional.of(entity));
+
+        // Act
+        var first = controller.get(id);
+        var second = controller.get(id);
+
+        // Assert
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertNotNull(second.getHeaders().getETag());
+        assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        verify(controller.getTaskService(), times(1)).get(id);
+    }
+
     @Test
     void getNotExisting() {
         // Arrange
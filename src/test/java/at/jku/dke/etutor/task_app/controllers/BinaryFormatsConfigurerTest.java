@@ -0,0 +1,129 @@
+package at.jku.dke.etutor.task_app.controllers;
+
+import at.jku.dke.etutor.task_app.dto.CriterionDto;
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import at.jku.dke.etutor.task_app.services.BaseSubmissionService;
+import at.jku.dke.etutor.task_app.services.SubmissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BinaryFormatsConfigurerTest {
+    private static final GradingDto RESULT = new GradingDto(BigDecimal.TWO, BigDecimal.ONE, "ok",
+        List.of(new CriterionDto("Syntax", BigDecimal.ONE, true, "<p>valid</p>")));
+
+    @Test
+    void extendMessageConvertersAddsBinaryFormats() {
+        // Arrange
+        var converters = new ArrayList<HttpMessageConverter<?>>(List.of(new MappingJackson2HttpMessageConverter()));
+
+        // Act
+        new BinaryFormatsConfigurer().extendMessageConverters(converters);
+        new BinaryFormatsConfigurer().extendMessageConverters(converters);
+
+        // Assert
+        assertEquals(3, converters.size());
+        assertInstanceOf(MappingJackson2HttpMessageConverter.class, converters.get(0));
+        assertInstanceOf(MappingJackson2CborHttpMessageConverter.class, converters.get(1));
+        assertInstanceOf(MappingJackson2SmileHttpMessageConverter.class, converters.get(2));
+    }
+
+    @Test
+    void getResultAcceptCbor() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        var mvc = createMvc(id);
+
+        // Act
+        var started = mvc.perform(get("/api/submission/" + id + "/result").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        var result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, result.getResponse().getContentType());
+        assertEquals(RESULT, new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), GradingDto.class));
+    }
+
+    @Test
+    void getResultAcceptSmile() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        var mvc = createMvc(id);
+
+        // Act
+        var started = mvc.perform(get("/api/submission/" + id + "/result").accept(BinaryFormatsConfigurer.APPLICATION_SMILE_VALUE))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        var result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+        // Assert
+        assertEquals(BinaryFormatsConfigurer.APPLICATION_SMILE_VALUE, result.getResponse().getContentType());
+        assertEquals(RESULT, new SmileMapper().readValue(result.getResponse().getContentAsByteArray(), GradingDto.class));
+    }
+
+    @Test
+    void getResultDefaultsToJson() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        var mvc = createMvc(id);
+
+        // Act
+        var started = mvc.perform(get("/api/submission/" + id + "/result"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        var result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, result.getResponse().getContentType());
+        assertEquals(RESULT, new ObjectMapper().readValue(result.getResponse().getContentAsByteArray(), GradingDto.class));
+    }
+
+    private static MockMvc createMvc(UUID id) {
+        var controller = new SubmissionController();
+        when(controller.getSubmissionService().awaitEvaluationResult(eq(id), any(Duration.class)))
+            .thenReturn(CompletableFuture.completedFuture(RESULT));
+
+        var converters = new ArrayList<HttpMessageConverter<?>>(List.of(new MappingJackson2HttpMessageConverter()));
+        new BinaryFormatsConfigurer().extendMessageConverters(converters);
+        return MockMvcBuilders.standaloneSetup(controller)
+            .setMessageConverters(converters.toArray(HttpMessageConverter[]::new))
+            .build();
+    }
+
+    @RestController
+    private static class SubmissionController extends BaseSubmissionController<String> {
+        public SubmissionController() {
+            //noinspection unchecked
+            super(mock(BaseSubmissionService.class));
+        }
+
+        public SubmissionService<String> getSubmissionService() {
+            return submissionService;
+        }
+    }
+}
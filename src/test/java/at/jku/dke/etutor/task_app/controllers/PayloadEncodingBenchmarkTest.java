@@ -0,0 +1,90 @@
+package at.jku.dke.etutor.task_app.controllers;
+
+import at.jku.dke.etutor.task_app.dto.CriterionDto;
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares payload size and serialization CPU time of a page of grading results in JSON, gzip compressed JSON and the binary
+ * formats CBOR and Smile.
+ */
+class PayloadEncodingBenchmarkTest {
+    private static final Logger LOG = LoggerFactory.getLogger(PayloadEncodingBenchmarkTest.class);
+    private static final int ITERATIONS = 50;
+
+    @Test
+    void compareEncodings() throws Exception {
+        // Arrange
+        var page = createPage();
+        var encoders = new LinkedHashMap<String, Encoder>();
+        var json = new ObjectMapper();
+        encoders.put("json", json::writeValueAsBytes);
+        encoders.put("json+gzip", value -> gzip(json.writeValueAsBytes(value)));
+        encoders.put("cbor", new CBORMapper()::writeValueAsBytes);
+        encoders.put("smile", new SmileMapper()::writeValueAsBytes);
+
+        // Act
+        var sizes = new LinkedHashMap<String, Integer>();
+        var threads = ManagementFactory.getThreadMXBean();
+        for (var encoder : encoders.entrySet()) {
+            int size = encoder.getValue().encode(page).length; // warm-up
+            long start = threads.getCurrentThreadCpuTime();
+            for (int i = 0; i < ITERATIONS; i++)
+                encoder.getValue().encode(page);
+            long cpu = (threads.getCurrentThreadCpuTime() - start) / ITERATIONS;
+
+            sizes.put(encoder.getKey(), size);
+            LOG.info("{}: {} bytes, {} us CPU per page", encoder.getKey(), size, cpu / 1000);
+        }
+
+        // Assert
+        int jsonSize = sizes.get("json");
+        assertTrue(sizes.get("json+gzip") < jsonSize / 4, "gzip should shrink repetitive HTML feedback considerably");
+        sizes.forEach((format, size) -> assertTrue(size <= jsonSize, format + " should not be larger than JSON"));
+    }
+
+    private static List<GradingDto> createPage() {
+        var page = new ArrayList<GradingDto>();
+        for (int i = 0; i < 50; i++) {
+            var criteria = new ArrayList<CriterionDto>();
+            for (int c = 0; c < 5; c++) {
+                var feedback = new StringBuilder("<table><thead><tr><th>ID</th><th>NAME</th><th>CITY</th></tr></thead><tbody>");
+                for (int r = 0; r < 20; r++)
+                    feedback.append("<tr><td>").append(i * 100 + r).append("</td><td>Customer ").append(r).append("</td><td>Linz</td></tr>");
+                feedback.append("</tbody></table>");
+                criteria.add(new CriterionDto("Criterion " + c, BigDecimal.ONE, c % 2 == 0, feedback.toString()));
+            }
+            page.add(new GradingDto(BigDecimal.TEN, BigDecimal.valueOf(i % 10), "<p>Your solution is <strong>partially</strong> correct.</p>", criteria));
+        }
+        return page;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        byte[] encode(Object value) throws IOException;
+    }
+}
@@ -1,5 +1,6 @@
 package at.jku.dke.etutor.task_app.controllers;
 
+import at.jku.dke.etutor.task_app.grading.GradingRejectedException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Payload;
@@ -13,6 +14,7 @@
 import org.hibernate.validator.internal.util.annotation.ConstraintAnnotationDescriptor;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.security.access.AccessDeniedException;
@@ -21,6 +23,7 @@
 
 import java.lang.annotation.Annotation;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Locale;
 import java.util.Set;
 
@@ -198,4 +201,22 @@ void handleDataIntegrityViolationExceptionWithoutCause() {
         assertEquals("Data integrity violation", problem.getDetail());
         assertEquals("http://etutor.dke.uni-linz.ac.at/errors/validation-error/data-integrity", problem.getType().toString());
     }
+
+    @Test
+    void handleGradingRejectedException() {
+        // Arrange
+        var request = mock(WebRequest.class);
+        var ex = new GradingRejectedException("Queue full", Duration.ofSeconds(15), null);
+
+        // Act
+        var result = new ProblemDetailsExceptionHandler().handleGradingRejectedException(ex, request);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, result.getStatusCode());
+        assertEquals("15", result.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        var problem = (ProblemDetail) result.getBody();
+        assertNotNull(problem);
+        assertEquals("Queue full", problem.getDetail());
+        assertEquals("http://etutor.dke.uni-linz.ac.at/errors/grading-rejected", problem.getType().toString());
+    }
 }
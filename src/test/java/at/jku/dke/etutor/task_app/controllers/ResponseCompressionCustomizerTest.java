@@ -0,0 +1,35 @@
+package at.jku.dke.etutor.task_app.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResponseCompressionCustomizerTest {
+
+    @Test
+    void customize() {
+        // Arrange
+        var config = new ResponseCompressionConfiguration();
+        config.setMinResponseSize(DataSize.ofKilobytes(4));
+        config.setMimeTypes(List.of(MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE));
+        var factory = mock(ConfigurableServletWebServerFactory.class);
+        var captor = ArgumentCaptor.forClass(Compression.class);
+
+        // Act
+        new ResponseCompressionCustomizer(config).customize(factory);
+
+        // Assert
+        verify(factory).setCompression(captor.capture());
+        assertTrue(captor.getValue().getEnabled());
+        assertEquals(DataSize.ofKilobytes(4), captor.getValue().getMinResponseSize());
+        assertArrayEquals(new String[]{MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE}, captor.getValue().getMimeTypes());
+    }
+}
@@ -0,0 +1,152 @@
+package at.jku.dke.etutor.task_app.controllers;
+
+import at.jku.dke.etutor.task_app.grading.LocalTaskInvalidationChannel;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidation;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidationNotifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskResponseCacheTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getCachesSerializedBody() {
+        // Arrange
+        var cache = new TaskResponseCache(new TaskResponseCacheConfiguration(), new ObjectMapper());
+        var loads = new AtomicInteger();
+
+        // Act
+        var first = cache.get(TaskResponseCache.ResourceType.TASK, 1, () -> new Dto("value-" + loads.incrementAndGet()));
+        var second = cache.get(TaskResponseCache.ResourceType.TASK, 1, () -> new Dto("value-" + loads.incrementAndGet()));
+
+        // Assert
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals("{\"value\":\"value-1\"}", new String((byte[]) (Object) second.getBody(), StandardCharsets.UTF_8));
+        assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void getReturnsNotModifiedForCurrentETag() {
+        // Arrange
+        var cache = new TaskResponseCache(new TaskResponseCacheConfiguration(), new ObjectMapper());
+        var etag = cache.get(TaskResponseCache.ResourceType.TASK_GROUP, 1, () -> new Dto("value")).getHeaders().getETag();
+        var request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag.substring(2));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // Act
+        var result = cache.get(TaskResponseCache.ResourceType.TASK_GROUP, 1, () -> fail("must not load the task group"));
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertEquals(etag, result.getHeaders().getETag());
+        assertNull(result.getBody());
+        assertEquals(1, cache.getNotModifiedCount());
+    }
+
+    @Test
+    void invalidateChangesETag() {
+        // Arrange
+        var cache = new TaskResponseCache(new TaskResponseCacheConfiguration(), new ObjectMapper());
+        var etag = cache.get(TaskResponseCache.ResourceType.TASK, 1, () -> new Dto("old")).getHeaders().getETag();
+        var otherEtag = cache.get(TaskResponseCache.ResourceType.TASK_GROUP, 1, () -> new Dto("group")).getHeaders().getETag();
+        var request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // Act
+        cache.invalidate(TaskResponseCache.ResourceType.TASK, 1);
+        var result = cache.get(TaskResponseCache.ResourceType.TASK, 1, () -> new Dto("new"));
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertNotEquals(etag, result.getHeaders().getETag());
+        assertEquals("{\"value\":\"new\"}", new String((byte[]) (Object) result.getBody(), StandardCharsets.UTF_8));
+        assertEquals(otherEtag, cache.get(TaskResponseCache.ResourceType.TASK_GROUP, 1, () -> new Dto("group")).getHeaders().getETag());
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    void invalidatesOnModificationOnOtherNode() {
+        // Arrange
+        var channel = new LocalTaskInvalidationChannel();
+        var nodeA = new TaskInvalidationNotifier(channel);
+        var nodeB = new TaskResponseCache(new TaskResponseCacheConfiguration(), new ObjectMapper());
+        nodeB.setInvalidationNotifier(new TaskInvalidationNotifier(channel));
+        var taskEtag = nodeB.get(TaskResponseCache.ResourceType.TASK, 1, () -> new Dto("old")).getHeaders().getETag();
+        var groupEtag = nodeB.get(TaskResponseCache.ResourceType.TASK_GROUP, 1, () -> new Dto("old")).getHeaders().getETag();
+
+        // Act
+        nodeA.publish(TaskInvalidation.task(1));
+        nodeA.publish(TaskInvalidation.taskGroup(1));
+        var task = nodeB.get(TaskResponseCache.ResourceType.TASK, 1, () -> new Dto("new"));
+        var group = nodeB.get(TaskResponseCache.ResourceType.TASK_GROUP, 1, () -> new Dto("new"));
+
+        // Assert
+        assertNotEquals(taskEtag, task.getHeaders().getETag());
+        assertNotEquals(groupEtag, group.getHeaders().getETag());
+        assertEquals("{\"value\":\"new\"}", new String((byte[]) (Object) task.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getWithoutBodyCacheReturnsDto() {
+        // Arrange
+        var config = new TaskResponseCacheConfiguration();
+        config.setCacheBodies(false);
+        var cache = new TaskResponseCache(config, new ObjectMapper());
+
+        // Act
+        var result = cache.get(TaskResponseCache.ResourceType.TASK, 1, () -> new Dto("value"));
+
+        // Assert
+        assertEquals(new Dto("value"), result.getBody());
+        assertNotNull(result.getHeaders().getETag());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void getForBinaryFormatReturnsDto() {
+        // Arrange
+        var cache = new TaskResponseCache(new TaskResponseCacheConfiguration(), new ObjectMapper());
+        var request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.5");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // Act
+        var result = cache.get(TaskResponseCache.ResourceType.TASK, 1, () -> new Dto("value"));
+
+        // Assert
+        assertEquals(new Dto("value"), result.getBody());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void prefersJson() {
+        // Act & Assert
+        assertTrue(TaskResponseCache.prefersJson(null));
+        assertTrue(TaskResponseCache.prefersJson("*/*"));
+        assertTrue(TaskResponseCache.prefersJson("application/json, application/cbor"));
+        assertFalse(TaskResponseCache.prefersJson("application/x-jackson-smile"));
+        assertFalse(TaskResponseCache.prefersJson("application/cbor, */*;q=0.1"));
+    }
+
+    private record Dto(String value) {
+    }
+}
@@ -0,0 +1,149 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(1000);
+
+    @Test
+    void fixedLimit() throws InterruptedException {
+        // Arrange
+        var limiter = new ConcurrencyLimiter(2);
+
+        // Act
+        var first = limiter.tryAcquire(0, TimeUnit.MILLISECONDS);
+        var second = limiter.tryAcquire(0, TimeUnit.MILLISECONDS);
+        var third = limiter.tryAcquire(10, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void fixedLimitIgnoresLatency() throws InterruptedException {
+        // Arrange
+        var limiter = new ConcurrencyLimiter(4);
+
+        // Act
+        for (int i = 0; i < 20; i++)
+            runSaturated(limiter, i < 10 ? FAST : SLOW);
+
+        // Assert
+        assertEquals(4, limiter.getLimit());
+        assertFalse(limiter.isAdaptive());
+        assertEquals(0, limiter.getLatencyEstimate());
+    }
+
+    @Test
+    void releaseWakesWaiter() throws InterruptedException {
+        // Arrange
+        var limiter = new ConcurrencyLimiter(1);
+        limiter.acquire();
+        var thread = Thread.ofPlatform().start(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Act
+        limiter.release(FAST);
+
+        // Assert
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void adaptiveLimitGrowsWithStableLatency() throws InterruptedException {
+        // Arrange
+        var limiter = new ConcurrencyLimiter(100, createConfiguration());
+
+        // Act
+        for (int i = 0; i < 50; i++)
+            runSaturated(limiter, FAST);
+
+        // Assert
+        assertTrue(limiter.getLimit() > 10, "limit: " + limiter.getLimit());
+        assertEquals(100, limiter.getLatencyEstimate(), 1);
+    }
+
+    @Test
+    void adaptiveLimitShrinksWithIncreasingLatency() throws InterruptedException {
+        // Arrange
+        var limiter = new ConcurrencyLimiter(100, createConfiguration());
+        for (int i = 0; i < 200; i++)
+            runSaturated(limiter, FAST);
+        int before = limiter.getLimit();
+
+        // Act
+        for (int i = 0; i < 20; i++)
+            runSaturated(limiter, SLOW);
+
+        // Assert
+        assertTrue(limiter.getLimit() < before, "before: " + before + ", after: " + limiter.getLimit());
+        assertTrue(limiter.getRecentLatency() > limiter.getLatencyEstimate());
+    }
+
+    @Test
+    void adaptiveLimitDoesNotGrowIfUnused() throws InterruptedException {
+        // Arrange
+        var limiter = new ConcurrencyLimiter(100, createConfiguration());
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.release(FAST);
+        }
+
+        // Assert
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void adaptiveLimitRespectsMinimum() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration();
+        config.setMinLimit(5);
+        var limiter = new ConcurrencyLimiter(100, config);
+        for (int i = 0; i < 200; i++)
+            runSaturated(limiter, FAST);
+
+        // Act
+        for (int i = 0; i < 30; i++)
+            runSaturated(limiter, SLOW * 100);
+
+        // Assert
+        assertEquals(5, limiter.getLimit());
+    }
+
+    /**
+     * Acquires all permits and releases them with the specified latency.
+     */
+    private static void runSaturated(ConcurrencyLimiter limiter, long latency) throws InterruptedException {
+        int permits = limiter.getLimit();
+        for (int i = 0; i < permits; i++)
+            assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < permits; i++)
+            limiter.release(latency);
+    }
+
+    private static GradingConfiguration.ConcurrencyLimitConfiguration createConfiguration() {
+        var config = new GradingConfiguration.ConcurrencyLimitConfiguration();
+        config.setAdaptive(true);
+        config.setMinLimit(2);
+        config.setInitialLimit(10);
+        return config;
+    }
+}
@@ -0,0 +1,140 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingBulkheadsTest {
+
+    @Test
+    void getExecutor() {
+        // Arrange
+        var config = createConfiguration(false);
+        var shared = new GradingExecutor(config);
+        var bulkheads = new GradingBulkheads(config, shared);
+
+        // Act
+        var sql = bulkheads.getExecutor("sql");
+        var other = bulkheads.getExecutor("datalog");
+        var none = bulkheads.getExecutor(null);
+
+        // Assert
+        assertNotSame(shared, sql);
+        assertSame(shared, other);
+        assertSame(shared, none);
+        assertEquals(1, sql.getMaxPoolSize());
+        assertEquals(6, sql.getQueueCapacity());
+        assertEquals(Set.of("sql"), bulkheads.getBulkheadNames());
+        assertEquals(Map.of("sql", 0), bulkheads.getQueueDepths());
+        bulkheads.destroy();
+        shared.destroy();
+    }
+
+    @Test
+    void forBulkheadInheritsSettings() {
+        // Arrange
+        var config = new GradingConfiguration();
+        config.setCorePoolSize(4);
+        config.setMaxPoolSize(8);
+        var bulkhead = new BulkheadConfiguration();
+        bulkhead.setMaxPoolSize(2);
+
+        // Act
+        var result = config.forBulkhead(bulkhead);
+
+        // Assert
+        assertEquals(2, result.getCorePoolSize());
+        assertEquals(2, result.getMaxPoolSize());
+        assertEquals(config.getQueueCapacity(), result.getQueueCapacity());
+        assertEquals(config.getMaxConcurrentEvaluations(), result.getMaxConcurrentEvaluations());
+        assertSame(config.getSubmit(), result.getSubmit());
+        assertTrue(result.getBulkheads().isEmpty());
+    }
+
+    @Test
+    void executeIsolated() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(false);
+        var shared = new GradingExecutor(config);
+        var bulkheads = new GradingBulkheads(config, shared);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var thread = new AtomicReference<String>();
+        var done = new CountDownLatch(1);
+        bulkheads.getExecutor("sql").execute(SubmissionMode.SUBMIT, () -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        bulkheads.getExecutor("sql").execute(SubmissionMode.SUBMIT, () -> {
+            thread.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        // Assert
+        assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(Map.of("sql", 1), bulkheads.getQueueDepths());
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.get().startsWith("grading-sql-"));
+        bulkheads.destroy();
+        shared.destroy();
+    }
+
+    @Test
+    void executeWorkStealing() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(true);
+        var shared = new GradingExecutor(config);
+        var bulkheads = new GradingBulkheads(config, shared);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var thread = new AtomicReference<String>();
+        var done = new CountDownLatch(1);
+        bulkheads.getExecutor("sql").execute(SubmissionMode.SUBMIT, () -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        bulkheads.getExecutor("sql").execute(SubmissionMode.SUBMIT, () -> {
+            thread.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.get().startsWith("grading-") && !thread.get().startsWith("grading-sql-"));
+        assertEquals(1, shared.getLentCount());
+        release.countDown();
+        bulkheads.destroy();
+        shared.destroy();
+    }
+
+    private static GradingConfiguration createConfiguration(boolean workStealing) {
+        var config = new GradingConfiguration();
+        config.setCorePoolSize(1);
+        config.setMaxPoolSize(2);
+        config.setQueueCapacity(5);
+
+        var bulkhead = new BulkheadConfiguration();
+        bulkhead.setMaxPoolSize(1);
+        bulkhead.setQueueCapacity(2);
+        bulkhead.setWorkStealing(workStealing);
+        config.getBulkheads().put("sql", bulkhead);
+        return config;
+    }
+
+    private static void block(CountDownLatch started, CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
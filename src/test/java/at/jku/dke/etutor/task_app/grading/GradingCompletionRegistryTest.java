@@ -0,0 +1,175 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.CriterionDto;
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingCompletionRegistryTest {
+
+    @Test
+    void complete() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var id = UUID.randomUUID();
+        var result = new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of());
+        var first = registry.await(id, Duration.ofMinutes(1), () -> null);
+        var second = registry.await(id, Duration.ofMinutes(1), () -> null);
+
+        // Act
+        registry.complete(id, result);
+
+        // Assert
+        assertSame(result, first.getNow(null));
+        assertSame(result, second.getNow(null));
+        assertEquals(0, registry.getWaitingCount());
+    }
+
+    @Test
+    void completeOtherSubmission() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var future = registry.await(UUID.randomUUID(), Duration.ofMinutes(1), () -> null);
+
+        // Act
+        registry.complete(UUID.randomUUID(), new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of()));
+
+        // Assert
+        assertFalse(future.isDone());
+        assertEquals(1, registry.getWaitingCount());
+    }
+
+    @Test
+    void progress() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var id = UUID.randomUUID();
+        var partialResult = new GradingDto(BigDecimal.TEN, BigDecimal.ONE, null, List.of(new CriterionDto("Syntax", BigDecimal.ONE, true, "ok")));
+        var received = new ArrayList<GradingDto>();
+        var future = registry.await(id, Duration.ofMinutes(1), () -> null, received::add);
+
+        // Act
+        registry.progress(id, partialResult);
+
+        // Assert
+        assertFalse(future.isDone());
+        assertEquals(List.of(partialResult), received);
+        assertSame(partialResult, registry.getPartialResult(id));
+    }
+
+    @Test
+    void completeRemovesPartialResult() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var id = UUID.randomUUID();
+        registry.progress(id, new GradingDto(BigDecimal.TEN, BigDecimal.ONE, null, List.of()));
+
+        // Act
+        registry.complete(id, new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of()));
+
+        // Assert
+        assertNull(registry.getPartialResult(id));
+    }
+
+    @Test
+    void awaitTimeout() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+
+        // Act
+        var result = registry.await(UUID.randomUUID(), Duration.ofMillis(50), () -> null).orTimeout(5, TimeUnit.SECONDS).join();
+
+        // Assert
+        assertNull(result);
+        assertEquals(0, registry.getWaitingCount());
+    }
+
+    @Test
+    void awaitCancelledByCaller() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var id = UUID.randomUUID();
+        var cancelled = registry.await(id, Duration.ofMinutes(1), () -> null);
+        var waiting = registry.await(id, Duration.ofMinutes(1), () -> null);
+
+        // Act
+        cancelled.cancel(false);
+
+        // Assert
+        assertEquals(1, registry.getWaitingCount());
+        waiting.cancel(false);
+        assertEquals(0, registry.getWaitingCount());
+    }
+
+    @Test
+    void reloadStoredResult() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var id = UUID.randomUUID();
+        var result = new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of());
+        var future = registry.await(id, Duration.ofMinutes(1), () -> result);
+
+        // Act
+        registry.reload(id);
+
+        // Assert
+        assertSame(result, future.getNow(null));
+        assertEquals(0, registry.getWaitingCount());
+    }
+
+    @Test
+    void reloadMissingResult() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var id = UUID.randomUUID();
+        var future = registry.await(id, Duration.ofMinutes(1), () -> null);
+
+        // Act
+        registry.reload(id);
+
+        // Assert
+        assertFalse(future.isDone());
+        assertEquals(1, registry.getWaitingCount());
+    }
+
+    @Test
+    void reloadFailingLoader() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var id = UUID.randomUUID();
+        var future = registry.await(id, Duration.ofMinutes(1), () -> {
+            throw new IllegalStateException("down");
+        });
+
+        // Act
+        registry.reload(id);
+
+        // Assert
+        assertFalse(future.isDone());
+    }
+
+    @Test
+    void reloadAll() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var result = new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of());
+        var stored = registry.await(UUID.randomUUID(), Duration.ofMinutes(1), () -> result);
+        var missing = registry.await(UUID.randomUUID(), Duration.ofMinutes(1), () -> null);
+
+        // Act
+        registry.reloadAll();
+
+        // Assert
+        assertSame(result, stored.getNow(null));
+        assertFalse(missing.isDone());
+        assertEquals(1, registry.getWaitingCount());
+    }
+}
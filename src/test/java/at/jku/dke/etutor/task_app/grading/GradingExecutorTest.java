@@ -0,0 +1,558 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingExecutorTest {
+
+    @Test
+    void execute() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+        var latch = new CountDownLatch(1);
+        var thread = new AtomicReference<String>();
+
+        // Act
+        executor.execute(() -> {
+            thread.set(Thread.currentThread().getName());
+            latch.countDown();
+        });
+
+        // Assert
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.get().startsWith("grading-"));
+        executor.destroy();
+    }
+
+    @Test
+    void executeQueueFullAbort() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        executor.execute(() -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {
+        });
+
+        // Act & Assert
+        var ex = assertThrows(GradingRejectedException.class, () -> executor.execute(() -> {
+        }));
+        assertEquals(Duration.ofSeconds(3), ex.getRetryAfter());
+        assertEquals(1, executor.getActiveWorkers());
+        assertEquals(1, executor.getQueueDepth());
+        assertEquals(1, executor.getRejectedCount());
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void executeQueueFullCallerRuns() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.CALLER_RUNS));
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var thread = new AtomicReference<Thread>();
+        executor.execute(() -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {
+        });
+
+        // Act
+        executor.execute(() -> thread.set(Thread.currentThread()));
+
+        // Assert
+        assertEquals(Thread.currentThread(), thread.get());
+        assertEquals(1, executor.getRejectedCount());
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void executeAfterDestroy() {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.CALLER_RUNS));
+        executor.destroy();
+
+        // Act & Assert
+        assertThrows(GradingRejectedException.class, () -> executor.execute(() -> {
+        }));
+    }
+
+    @Test
+    void constructorInvalidPoolSize() {
+        // Arrange
+        var config = createConfiguration(GradingConfiguration.RejectionPolicy.ABORT);
+        config.setCorePoolSize(2);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new GradingExecutor(config));
+    }
+
+    @Test
+    void statistics() {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+
+        // Assert
+        assertEquals(0, executor.getQueueDepth());
+        assertEquals(3, executor.getQueueCapacity());
+        assertEquals(0, executor.getActiveWorkers());
+        assertEquals(0, executor.getPoolSize());
+        assertEquals(1, executor.getMaxPoolSize());
+        assertEquals(0, executor.getCompletedCount());
+        assertEquals(0, executor.getRejectedCount());
+        executor.destroy();
+    }
+
+    @Test
+    void executeVirtualThreads() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(GradingConfiguration.RejectionPolicy.ABORT);
+        config.setVirtualThreads(true);
+        var executor = new GradingExecutor(config);
+        var latch = new CountDownLatch(1);
+        var thread = new AtomicReference<Thread>();
+
+        // Act
+        executor.execute(() -> {
+            thread.set(Thread.currentThread());
+            latch.countDown();
+        });
+
+        // Assert
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.get().isVirtual());
+        assertTrue(thread.get().getName().startsWith("grading-"));
+        assertTrue(executor.isVirtualThreads());
+        executor.destroy();
+    }
+
+    @Test
+    void executeVirtualThreadsQueueFull() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(GradingConfiguration.RejectionPolicy.ABORT);
+        config.setVirtualThreads(true);
+        config.setMaxConcurrentEvaluations(1);
+        var executor = new GradingExecutor(config);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        executor.execute(() -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {
+        });
+
+        // Act & Assert
+        assertThrows(GradingRejectedException.class, () -> executor.execute(() -> {
+        }));
+        assertEquals(1, executor.getRunningEvaluations());
+        assertEquals(1, executor.getQueueDepth());
+        assertEquals(1, executor.getRejectedCount());
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void evaluateInCallingThread() {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+
+        // Act
+        var result = executor.evaluateInCallingThread(() -> Thread.currentThread().getName());
+
+        // Assert
+        assertEquals(Thread.currentThread().getName(), result);
+        assertEquals(0, executor.getRunningEvaluations());
+        assertEquals(1, executor.getCompletedCount());
+        executor.destroy();
+    }
+
+    @Test
+    void evaluateInCallingThreadAdaptiveLimit() {
+        // Arrange
+        var config = createConfiguration(GradingConfiguration.RejectionPolicy.ABORT);
+        config.setMaxConcurrentEvaluations(50);
+        config.getConcurrencyLimit().setAdaptive(true);
+        config.getConcurrencyLimit().setMinLimit(1);
+        config.getConcurrencyLimit().setInitialLimit(1);
+        var executor = new GradingExecutor(config);
+        assertEquals(1, executor.getConcurrencyLimit());
+
+        // Act
+        for (int i = 0; i < 10; i++)
+            executor.evaluateInCallingThread(() -> "result");
+
+        // Assert
+        assertTrue(executor.getConcurrencyLimit() > 1);
+        assertTrue(executor.getLatencyEstimate() > 0);
+        executor.destroy();
+    }
+
+    @Test
+    void evaluateInCallingThreadNoSlotAvailable() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(GradingConfiguration.RejectionPolicy.ABORT);
+        config.setMaxConcurrentEvaluations(1);
+        config.setSlotTimeout(Duration.ofMillis(50));
+        var executor = new GradingExecutor(config);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        executor.execute(() -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThrows(GradingRejectedException.class, () -> executor.evaluateInCallingThread(() -> "result"));
+        assertEquals(1, executor.getRejectedCount());
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void executePrefersInteractiveLanes() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(GradingConfiguration.RejectionPolicy.ABORT);
+        config.setQueueCapacity(5);
+        var executor = new GradingExecutor(config);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var done = new CountDownLatch(3);
+        var order = new CopyOnWriteArrayList<String>();
+        executor.execute(SubmissionMode.SUBMIT, () -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        executor.execute(SubmissionMode.SUBMIT, () -> record(order, "submit1", done));
+        executor.execute(SubmissionMode.SUBMIT, () -> record(order, "submit2", done));
+        executor.execute(SubmissionMode.RUN, () -> record(order, "run", done));
+        release.countDown();
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("run", "submit1", "submit2"), order);
+        executor.destroy();
+    }
+
+    @Test
+    void executeLaneMaxShare() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(GradingConfiguration.RejectionPolicy.ABORT);
+        config.setMaxPoolSize(4);
+        config.setQueueCapacity(5);
+        config.getSubmit().setMaxShare(0.5);
+        var executor = new GradingExecutor(config);
+        var started = new CountDownLatch(2);
+        var release = new CountDownLatch(1);
+        var run = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++)
+            executor.execute(SubmissionMode.SUBMIT, () -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        executor.execute(SubmissionMode.RUN, run::countDown);
+
+        // Assert
+        assertTrue(run.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getLaneRunningTasks().get("SUBMIT"));
+        assertEquals(2, executor.getLaneQueueDepths().get("SUBMIT"));
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void executeLaneQueueCapacity() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(GradingConfiguration.RejectionPolicy.ABORT);
+        config.getSubmit().setQueueCapacity(2);
+        var executor = new GradingExecutor(config);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        executor.execute(SubmissionMode.SUBMIT, () -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        executor.execute(SubmissionMode.SUBMIT, () -> {
+        });
+        executor.execute(SubmissionMode.SUBMIT, () -> {
+        });
+        executor.execute(SubmissionMode.DIAGNOSE, () -> {
+        });
+
+        // Assert
+        assertThrows(GradingRejectedException.class, () -> executor.execute(SubmissionMode.SUBMIT, () -> {
+        }));
+        assertThrows(GradingRejectedException.class, () -> executor.execute(SubmissionMode.DIAGNOSE, () -> {
+        }));
+        assertEquals(4, executor.getQueueCapacity());
+        assertEquals(0, executor.getAvailableCapacity(SubmissionMode.SUBMIT));
+        assertEquals(1, executor.getAvailableCapacity(SubmissionMode.RUN));
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void waitTimeHistogram() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+        var latch = new CountDownLatch(1);
+
+        // Act
+        executor.execute(SubmissionMode.DIAGNOSE, latch::countDown);
+
+        // Assert
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, executor.getWaitTimeHistogram(SubmissionMode.DIAGNOSE).getCount());
+        assertEquals(0, executor.getWaitTimeHistogram(SubmissionMode.SUBMIT).getCount());
+        assertEquals(1L, executor.getLaneWaitTimes().get("DIAGNOSE").get("+Inf"));
+        executor.destroy();
+    }
+
+    @Test
+    void executeJobTimeout() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+        var timedOut = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var job = new GradingJob(UUID.randomUUID(), SubmissionMode.RUN, Duration.ofMillis(50), timedOut::countDown);
+
+        // Act
+        executor.execute(job, () -> {
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+            }
+        });
+
+        // Assert
+        assertTrue(timedOut.await(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(GradingJob.State.TIMED_OUT, job.getState());
+        assertFalse(executor.cancel(job.getId()));
+        executor.destroy();
+        assertTrue(executor.awaitTermination(Duration.ofSeconds(5)));
+        assertEquals(1, executor.getTimedOutCount());
+    }
+
+    @Test
+    void cancelRunningJob() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var job = new GradingJob(UUID.randomUUID(), SubmissionMode.RUN, null, null);
+        executor.execute(job, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException ex) {
+                GradingJob.current().complete();
+                interrupted.countDown();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        var result = executor.cancel(job.getId());
+
+        // Assert
+        assertTrue(result);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(GradingJob.State.CANCELLED, job.getState());
+        executor.destroy();
+    }
+
+    @Test
+    void getJobWhileQueued() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        executor.execute(() -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var job = new GradingJob(UUID.randomUUID(), SubmissionMode.SUBMIT, null, null);
+        var executed = new CountDownLatch(1);
+        executor.execute(job, executed::countDown);
+
+        // Act
+        var result = executor.getJob(job.getId());
+
+        // Assert
+        assertSame(job, result);
+        assertFalse(job.whenStarted().isDone());
+        release.countDown();
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertTrue(job.whenStarted().isDone());
+        job.whenFinished().orTimeout(5, TimeUnit.SECONDS).join();
+        assertNull(executor.getJob(job.getId()));
+        executor.destroy();
+    }
+
+    @Test
+    void cancelQueuedJob() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executed = new CountDownLatch(1);
+        var after = new CountDownLatch(1);
+        executor.execute(() -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var job = new GradingJob(UUID.randomUUID(), SubmissionMode.SUBMIT, null, null);
+        executor.execute(job, executed::countDown);
+
+        // Act
+        var result = executor.cancel(job.getId());
+        release.countDown();
+
+        // Assert
+        assertTrue(result);
+        assertEquals(GradingJob.State.CANCELLED, job.whenFinished().getNow(null));
+        executor.execute(SubmissionMode.RUN, after::countDown);
+        assertTrue(after.await(5, TimeUnit.SECONDS));
+        assertEquals(1, executed.getCount());
+        assertFalse(executor.cancel(job.getId()));
+        executor.destroy();
+    }
+
+    @Test
+    void evaluateInCallingThreadJobTimeout() {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+        var job = new GradingJob(UUID.randomUUID(), SubmissionMode.RUN, Duration.ofMillis(50), null);
+
+        // Act
+        var result = executor.evaluateInCallingThread(job, () -> {
+            try {
+                Thread.sleep(10000);
+                return "completed";
+            } catch (InterruptedException ex) {
+                return "interrupted";
+            }
+        });
+
+        // Assert
+        assertEquals("interrupted", result);
+        assertEquals(GradingJob.State.TIMED_OUT, job.getState());
+        assertEquals(GradingJob.State.TIMED_OUT, job.whenFinished().getNow(null));
+        assertFalse(Thread.currentThread().isInterrupted());
+        executor.destroy();
+    }
+
+    @Test
+    void getEvaluationTimeout() {
+        // Arrange
+        var config = createConfiguration(GradingConfiguration.RejectionPolicy.ABORT);
+        config.setEvaluationTimeout(Duration.ofSeconds(30));
+        config.getRun().setTimeout(Duration.ofSeconds(5));
+        var executor = new GradingExecutor(config);
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(5), executor.getEvaluationTimeout(SubmissionMode.RUN));
+        assertEquals(Duration.ofSeconds(30), executor.getEvaluationTimeout(SubmissionMode.SUBMIT));
+        executor.destroy();
+    }
+
+    @Test
+    void getEvaluationTimeoutNotLimitedByDefault() {
+        // Arrange
+        var executor = new GradingExecutor(new GradingConfiguration());
+
+        // Act & Assert
+        assertNull(executor.getEvaluationTimeout(SubmissionMode.SUBMIT));
+        executor.destroy();
+    }
+
+    @Test
+    void drainFinishesQueuedTasksAndRejectsNewTasks() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.CALLER_RUNS));
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executed = new CountDownLatch(1);
+        executor.execute(() -> block(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(executed::countDown);
+
+        // Act
+        executor.drain();
+
+        // Assert
+        assertTrue(executor.isDraining());
+        assertEquals(0, executor.getAvailableCapacity());
+        var ex = assertThrows(GradingRejectedException.class, () -> executor.execute(() -> {
+        }));
+        assertEquals(Duration.ofSeconds(3), ex.getRetryAfter());
+        assertFalse(executor.awaitIdle(Duration.ofMillis(50)));
+        release.countDown();
+        assertTrue(executor.awaitIdle(Duration.ofSeconds(5)));
+        assertEquals(0, executed.getCount());
+        executor.destroy();
+    }
+
+    @Test
+    void handBack() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration(GradingConfiguration.RejectionPolicy.ABORT));
+        var started = new CountDownLatch(1);
+        var running = new GradingJob(UUID.randomUUID(), SubmissionMode.SUBMIT, null, null);
+        var queued = new GradingJob(UUID.randomUUID(), SubmissionMode.SUBMIT, null, null);
+        var executed = new CountDownLatch(1);
+        executor.execute(running, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException ex) {
+                GradingJob.throwIfCancelled();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(queued, executed::countDown);
+        executor.drain();
+
+        // Act
+        var result = executor.handBack();
+
+        // Assert
+        assertEquals(2, result);
+        assertEquals(GradingJob.State.HANDED_BACK, queued.whenFinished().getNow(null));
+        assertEquals(GradingJob.State.HANDED_BACK, running.whenFinished().orTimeout(5, TimeUnit.SECONDS).join());
+        assertTrue(executor.awaitIdle(Duration.ofSeconds(5)));
+        assertEquals(1, executed.getCount());
+        assertEquals(2, executor.getHandedBackCount());
+        executor.destroy();
+    }
+
+    private static GradingConfiguration createConfiguration(GradingConfiguration.RejectionPolicy policy) {
+        var config = new GradingConfiguration();
+        config.setCorePoolSize(1);
+        config.setMaxPoolSize(1);
+        config.setQueueCapacity(1);
+        config.setRejectionPolicy(policy);
+        config.setRetryAfter(Duration.ofSeconds(3));
+        return config;
+    }
+
+    private static void block(CountDownLatch started, CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void record(List<String> order, String name, CountDownLatch done) {
+        order.add(name);
+        done.countDown();
+    }
+}
@@ -0,0 +1,71 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingResultCacheTest {
+
+    private static final GradingDto RESULT = new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of());
+
+    @Test
+    void getPut() {
+        // Arrange
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        var cache = new GradingResultCache(new GradingCacheConfiguration(), fingerprinter);
+        var fingerprint = fingerprinter.create(1, "SELECT 1", SubmissionMode.RUN, 1, "de");
+
+        // Act
+        var before = cache.get(fingerprint);
+        cache.put(fingerprint, RESULT, Duration.ofMillis(300));
+        var after = cache.get(fingerprint);
+
+        // Assert
+        assertNull(before);
+        assertEquals(RESULT, after);
+        assertEquals(0.5, cache.getHitRatio());
+        assertEquals(Duration.ofMillis(300), cache.getSavedEvaluationTime());
+    }
+
+    @Test
+    void invalidateTask() {
+        // Arrange
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        var cache = new GradingResultCache(new GradingCacheConfiguration(), fingerprinter);
+        var fingerprint = fingerprinter.create(1, "SELECT 1", SubmissionMode.RUN, 1, "de");
+        var otherFingerprint = fingerprinter.create(2, "SELECT 1", SubmissionMode.RUN, 1, "de");
+        cache.put(fingerprint, RESULT, Duration.ofMillis(10));
+        cache.put(otherFingerprint, RESULT, Duration.ofMillis(10));
+
+        // Act
+        fingerprinter.invalidateTask(1);
+
+        // Assert
+        assertEquals(1, cache.getSize());
+        assertNull(cache.get(fingerprint));
+        assertNull(cache.get(fingerprinter.create(1, "SELECT 1", SubmissionMode.RUN, 1, "de")));
+        assertEquals(RESULT, cache.get(otherFingerprint));
+    }
+
+    @Test
+    void putIgnoresOutdatedTaskVersion() {
+        // Arrange
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        var cache = new GradingResultCache(new GradingCacheConfiguration(), fingerprinter);
+        var fingerprint = fingerprinter.create(1, "SELECT 1", SubmissionMode.RUN, 1, "de");
+        fingerprinter.invalidateTask(1);
+
+        // Act
+        cache.put(fingerprint, RESULT, Duration.ofMillis(10));
+
+        // Assert
+        assertEquals(0, cache.getSize());
+    }
+}
@@ -0,0 +1,133 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GradingResultNotifierTest {
+
+    @Test
+    void constructorInvalidChannel() {
+        // Arrange
+        var config = createConfiguration();
+        config.setChannel("grading; DROP TABLE task");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new GradingResultNotifier(mock(JdbcTemplate.class), new GradingCompletionRegistry(), config));
+    }
+
+    @Test
+    void publish() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var notifier = new GradingResultNotifier(jdbc, new GradingCompletionRegistry(), createConfiguration());
+        var id = UUID.randomUUID();
+
+        // Act
+        notifier.publish(id);
+
+        // Assert
+        verify(jdbc).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class), eq("my_channel"), eq(id.toString()));
+        assertEquals(1, notifier.getPublishedCount());
+    }
+
+    @Test
+    void publishSplitsLargePayloads() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var notifier = new GradingResultNotifier(jdbc, new GradingCompletionRegistry(), createConfiguration());
+        var ids = IntStream.range(0, 250).mapToObj(i -> UUID.randomUUID()).toList();
+
+        // Act
+        notifier.publish(ids);
+
+        // Assert
+        verify(jdbc).query(anyString(), any(ResultSetExtractor.class), eq("my_channel"), argThat((String payload) -> payload.split(",").length == 200));
+        verify(jdbc).query(anyString(), any(ResultSetExtractor.class), eq("my_channel"), argThat((String payload) -> payload.split(",").length == 50));
+        assertEquals(2, notifier.getPublishedCount());
+    }
+
+    @Test
+    void publishFailure() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), any(Object[].class))).thenThrow(new DataAccessResourceFailureException("down"));
+        var notifier = new GradingResultNotifier(jdbc, new GradingCompletionRegistry(), createConfiguration());
+
+        // Act
+        assertDoesNotThrow(() -> notifier.publish(UUID.randomUUID()));
+
+        // Assert
+        assertEquals(0, notifier.getPublishedCount());
+    }
+
+    @Test
+    void receive() {
+        // Arrange
+        var registry = new GradingCompletionRegistry();
+        var notifier = new GradingResultNotifier(mock(JdbcTemplate.class), registry, createConfiguration());
+        var id = UUID.randomUUID();
+        var result = createResult();
+        var future = registry.await(id, Duration.ofMinutes(1), () -> result);
+
+        // Act
+        notifier.receive(UUID.randomUUID() + ",invalid," + id);
+
+        // Assert
+        assertSame(result, future.getNow(null));
+        assertEquals(1, notifier.getReceivedCount());
+    }
+
+    @Test
+    void pollWithoutConnection() throws SQLException {
+        // Arrange
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("down"));
+        var jdbc = mock(JdbcTemplate.class);
+        when(jdbc.getDataSource()).thenReturn(dataSource);
+        var registry = new GradingCompletionRegistry();
+        var notifier = new GradingResultNotifier(jdbc, registry, createConfiguration());
+        var result = createResult();
+        var future = registry.await(UUID.randomUUID(), Duration.ofMinutes(1), () -> result);
+
+        // Act
+        notifier.start();
+
+        try {
+            // Assert
+            assertSame(result, future.orTimeout(5, TimeUnit.SECONDS).join());
+            assertFalse(notifier.isListening());
+            verify(dataSource, atLeastOnce()).getConnection();
+        } finally {
+            notifier.stop();
+        }
+        assertFalse(notifier.isRunning());
+    }
+
+    private static GradingDto createResult() {
+        return new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of());
+    }
+
+    private static GradingNotificationConfiguration createConfiguration() {
+        var config = new GradingNotificationConfiguration();
+        config.setEnabled(true);
+        config.setChannel("my_channel");
+        config.setPollInterval(Duration.ofMillis(20));
+        return config;
+    }
+}
@@ -0,0 +1,199 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.GradingDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GradingResultWriterTest {
+
+    @Test
+    void constructorInvalidTableName() {
+        // Arrange
+        var config = createConfiguration();
+        config.setTableName("submission; DROP TABLE task");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new GradingResultWriter(mock(JdbcTemplate.class), new ObjectMapper(), config));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeNotRunning() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var writer = new GradingResultWriter(jdbc, new ObjectMapper(), createConfiguration());
+        var id = UUID.randomUUID();
+
+        // Act
+        writer.write(id, createResult());
+
+        // Assert
+        verify(jdbc).batchUpdate(eq("UPDATE my_submission SET evaluation_result = CAST(? AS jsonb) WHERE id = ?"), (List<Object[]>) argThat(args -> {
+            var list = (List<Object[]>) args;
+            return list.size() == 1 && ((String) list.getFirst()[0]).contains("\"generalFeedback\":\"ok\"") && list.getFirst()[1].equals(id);
+        }));
+        assertEquals(1, writer.getWrittenCount());
+        assertNull(writer.getPending(id));
+    }
+
+    @Test
+    void writeBuffersWhileRunning() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var writer = new GradingResultWriter(jdbc, new ObjectMapper(), createConfiguration());
+        var id = UUID.randomUUID();
+        var result = createResult();
+        writer.start();
+
+        try {
+            // Act
+            writer.write(id, result);
+
+            // Assert
+            assertSame(result, writer.getPending(id));
+            assertEquals(1, writer.getPendingCount());
+            verifyNoInteractions(jdbc);
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesBatch() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var writer = new GradingResultWriter(jdbc, new ObjectMapper(), createConfiguration());
+        writer.start();
+        writer.write(UUID.randomUUID(), createResult());
+        writer.write(UUID.randomUUID(), createResult());
+
+        try {
+            // Act
+            writer.flush();
+
+            // Assert
+            verify(jdbc).batchUpdate(anyString(), (List<Object[]>) argThat(args -> ((List<Object[]>) args).size() == 2));
+            assertEquals(0, writer.getPendingCount());
+            assertEquals(2, writer.getWrittenCount());
+            assertEquals(1, writer.getBatchCount());
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void flushPublishesResults() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var notifier = mock(GradingResultNotifier.class);
+        var writer = new GradingResultWriter(jdbc, new ObjectMapper(), createConfiguration());
+        writer.setResultNotifier(notifier);
+        var id = UUID.randomUUID();
+        writer.start();
+        writer.write(id, createResult());
+
+        try {
+            // Act
+            writer.flush();
+
+            // Assert
+            verify(notifier).publish(Set.of(id));
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushFailureKeepsResults() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var writer = new GradingResultWriter(jdbc, new ObjectMapper(), createConfiguration());
+        var id = UUID.randomUUID();
+        var result = createResult();
+        when(jdbc.batchUpdate(anyString(), any(List.class))).thenThrow(new DataAccessResourceFailureException("down"));
+        writer.start();
+        writer.write(id, result);
+
+        try {
+            // Act
+            writer.flush();
+
+            // Assert
+            assertSame(result, writer.getPending(id));
+            assertEquals(1, writer.getFailedBatchCount());
+            assertEquals(0, writer.getWrittenCount());
+        } finally {
+            reset(jdbc);
+            writer.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeBufferFull() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var config = createConfiguration();
+        config.setMaxPending(2);
+        var writer = new GradingResultWriter(jdbc, new ObjectMapper(), config);
+        writer.start();
+
+        try {
+            // Act
+            writer.write(UUID.randomUUID(), createResult());
+            writer.write(UUID.randomUUID(), createResult());
+
+            // Assert
+            verify(jdbc).batchUpdate(anyString(), (List<Object[]>) argThat(args -> ((List<Object[]>) args).size() == 2));
+            assertEquals(0, writer.getPendingCount());
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stopFlushes() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var writer = new GradingResultWriter(jdbc, new ObjectMapper(), createConfiguration());
+        writer.start();
+        writer.write(UUID.randomUUID(), createResult());
+
+        // Act
+        writer.stop();
+
+        // Assert
+        assertFalse(writer.isRunning());
+        verify(jdbc).batchUpdate(anyString(), (List<Object[]>) argThat(args -> ((List<Object[]>) args).size() == 1));
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    private static GradingDto createResult() {
+        return new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of());
+    }
+
+    private static GradingResultWriterConfiguration createConfiguration() {
+        var config = new GradingResultWriterConfiguration();
+        config.setEnabled(true);
+        config.setTableName("my_submission");
+        config.setFlushInterval(Duration.ofMinutes(1));
+        config.setBatchSize(100);
+        config.setMaxPending(1000);
+        return config;
+    }
+}
@@ -0,0 +1,90 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class GradingShutdownCoordinatorTest {
+
+    @Test
+    void stopDrainsExecutor() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(Duration.ofSeconds(5));
+        var executor = new GradingExecutor(config);
+        var publisher = mock(ApplicationEventPublisher.class);
+        var coordinator = new GradingShutdownCoordinator(config, executor, publisher);
+        coordinator.start();
+        var started = new CountDownLatch(1);
+        var finished = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            sleep(200);
+            finished.countDown();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        coordinator.stop();
+
+        // Assert
+        assertFalse(coordinator.isRunning());
+        assertEquals(0, finished.getCount());
+        assertTrue(executor.isDraining());
+        assertEquals(0, executor.getHandedBackCount());
+        verify(publisher).publishEvent(argThat((AvailabilityChangeEvent<?> event) -> event.getState() == ReadinessState.REFUSING_TRAFFIC));
+        executor.destroy();
+    }
+
+    @Test
+    void stopHandsBackUnfinishedJobs() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration(Duration.ofMillis(100));
+        var executor = new GradingExecutor(config);
+        var coordinator = new GradingShutdownCoordinator(config, executor, mock(ApplicationEventPublisher.class));
+        coordinator.start();
+        var started = new CountDownLatch(1);
+        var job = new GradingJob(UUID.randomUUID(), SubmissionMode.SUBMIT, null, null);
+        executor.execute(job, () -> {
+            started.countDown();
+            sleep(10000);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        coordinator.stop();
+
+        // Assert
+        assertEquals(GradingJob.State.HANDED_BACK, job.getState());
+        assertEquals(1, executor.getHandedBackCount());
+        assertTrue(executor.awaitIdle(Duration.ZERO));
+        executor.destroy();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static GradingConfiguration createConfiguration(Duration gracePeriod) {
+        var config = new GradingConfiguration();
+        config.setCorePoolSize(1);
+        config.setMaxPoolSize(1);
+        config.setShutdownGracePeriod(gracePeriod);
+        return config;
+    }
+}
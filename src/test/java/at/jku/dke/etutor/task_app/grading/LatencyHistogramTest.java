@@ -0,0 +1,63 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void constructorInvalidBounds() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(10, 5));
+    }
+
+    @Test
+    void record() {
+        // Arrange
+        var histogram = new LatencyHistogram(10, 100);
+
+        // Act
+        histogram.record(Duration.ofMillis(5));
+        histogram.record(Duration.ofMillis(10));
+        histogram.record(Duration.ofMillis(50));
+        histogram.record(Duration.ofMillis(500));
+        histogram.record(-1);
+
+        // Assert
+        assertEquals(5, histogram.getCount());
+        assertEquals(Duration.ofMillis(565), histogram.getSum());
+        assertEquals(Duration.ofMillis(500), histogram.getMax());
+        var map = histogram.toMap();
+        assertEquals(3L, map.get("10ms"));
+        assertEquals(4L, map.get("100ms"));
+        assertEquals(5L, map.get("+Inf"));
+    }
+
+    @Test
+    void getPercentile() {
+        // Arrange
+        var histogram = new LatencyHistogram(10, 100);
+        for (int i = 0; i < 9; i++)
+            histogram.record(Duration.ofMillis(1));
+        histogram.record(Duration.ofMillis(200));
+
+        // Act & Assert
+        assertEquals(Duration.ofMillis(10), histogram.getPercentile(0.5));
+        assertEquals(Duration.ofMillis(10), histogram.getPercentile(0.9));
+        assertEquals(Duration.ofMillis(200), histogram.getPercentile(0.99));
+    }
+
+    @Test
+    void getPercentileEmpty() {
+        // Arrange
+        var histogram = new LatencyHistogram();
+
+        // Act & Assert
+        assertEquals(Duration.ZERO, histogram.getPercentile(0.5));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(2));
+    }
+}
@@ -0,0 +1,220 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.auth.ApiKeyAuthentication;
+import at.jku.dke.etutor.task_app.auth.ApiKeyConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ResultCallbackDispatcherTest {
+    private static final String RESULT = "{\"maxPoints\":10,\"points\":1,\"generalFeedback\":\"ok\",\"criteria\":[]}";
+
+    private HttpServer server;
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/results", exchange -> {
+            this.requests.add(new Request(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8),
+                exchange.getRequestHeaders().getFirst(ResultCallbackDispatcher.SIGNATURE_HEADER)));
+            exchange.sendResponseHeaders(this.status, -1);
+            exchange.close();
+        });
+        this.server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        this.server.stop(0);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void constructorInvalidTableName() {
+        // Arrange
+        var config = createConfiguration();
+        config.setTableName("result_callback; DROP TABLE task");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ResultCallbackDispatcher(mock(JdbcTemplate.class), new ObjectMapper(), new ApiKeyConfiguration(), config));
+    }
+
+    @Test
+    void register() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var dispatcher = new ResultCallbackDispatcher(jdbc, new ObjectMapper(), new ApiKeyConfiguration(), createConfiguration());
+        SecurityContextHolder.getContext().setAuthentication(new ApiKeyAuthentication(this.createApiKey()));
+        var id = UUID.randomUUID();
+
+        // Act
+        var result = dispatcher.register(List.of(id));
+
+        // Assert
+        assertTrue(result);
+        verify(jdbc).batchUpdate(startsWith("INSERT INTO my_callback"), argThat((List<Object[]> args) ->
+            args.size() == 1 && args.getFirst()[0].equals(id) && args.getFirst()[1].equals("admin")));
+    }
+
+    @Test
+    void registerWithoutCallbackUrl() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var dispatcher = new ResultCallbackDispatcher(jdbc, new ObjectMapper(), new ApiKeyConfiguration(), createConfiguration());
+        SecurityContextHolder.getContext().setAuthentication(new ApiKeyAuthentication(new ApiKeyConfiguration.ApiKey("admin", "key", List.of("SUBMIT"))));
+
+        // Act
+        var result = dispatcher.register(List.of(UUID.randomUUID()));
+
+        // Assert
+        assertFalse(result);
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void dispatchDeliversBatchPerClient() throws Exception {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var first = UUID.randomUUID();
+        var second = UUID.randomUUID();
+        mockClaim(jdbc, List.of(first, second), 0);
+        var dispatcher = new ResultCallbackDispatcher(jdbc, new ObjectMapper(), this.createApiKeyConfiguration(), createConfiguration());
+
+        // Act
+        var count = dispatcher.dispatch();
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(1, this.requests.size());
+        var request = this.requests.getFirst();
+        assertTrue(request.body().contains("\"submissionId\":\"" + first + "\""));
+        assertTrue(request.body().contains("\"submissionId\":\"" + second + "\""));
+        assertEquals("sha256=" + sign("key", request.body()), request.signature());
+        verify(jdbc).batchUpdate(startsWith("DELETE FROM my_callback"), argThat((List<Object[]> args) -> args.size() == 2));
+        assertEquals(2, dispatcher.getDeliveredCount());
+    }
+
+    @Test
+    void dispatchRetriesFailedDelivery() throws Exception {
+        // Arrange
+        this.status = 500;
+        var jdbc = mock(JdbcTemplate.class);
+        var id = UUID.randomUUID();
+        mockClaim(jdbc, List.of(id), 2);
+        var dispatcher = new ResultCallbackDispatcher(jdbc, new ObjectMapper(), this.createApiKeyConfiguration(), createConfiguration());
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(1, this.requests.size());
+        verify(jdbc).batchUpdate(contains("attempts = attempts + 1"), argThat((List<Object[]> args) ->
+            args.size() == 1 && args.getFirst()[0].equals(3) && (long) args.getFirst()[1] >= 2000 && args.getFirst()[2].equals(id)));
+        verify(jdbc, never()).batchUpdate(startsWith("DELETE"), anyList());
+        assertEquals(1, dispatcher.getFailedRequestCount());
+        assertEquals(1, dispatcher.getFailedCallbackCount());
+    }
+
+    @Test
+    void dispatchDiscardsCallbacksWithoutUrl() throws Exception {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        mockClaim(jdbc, List.of(UUID.randomUUID()), 0);
+        var dispatcher = new ResultCallbackDispatcher(jdbc, new ObjectMapper(), new ApiKeyConfiguration(), createConfiguration());
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertTrue(this.requests.isEmpty());
+        verify(jdbc).batchUpdate(startsWith("DELETE FROM my_callback"), argThat((List<Object[]> args) -> args.size() == 1));
+    }
+
+    @Test
+    void getBackoff() {
+        // Arrange
+        var dispatcher = new ResultCallbackDispatcher(mock(JdbcTemplate.class), new ObjectMapper(), new ApiKeyConfiguration(), createConfiguration());
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertTrue(dispatcher.getBackoff(0) >= 500 && dispatcher.getBackoff(0) <= 1000);
+            assertTrue(dispatcher.getBackoff(3) >= 4000 && dispatcher.getBackoff(3) <= 8000);
+            assertTrue(dispatcher.getBackoff(40) >= 30000 && dispatcher.getBackoff(40) <= 60000);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void mockClaim(JdbcTemplate jdbc, List<UUID> ids, int attempts) throws SQLException {
+        var rows = new ArrayList<ResultSet>();
+        for (UUID id : ids) {
+            var rs = mock(ResultSet.class);
+            when(rs.getObject("submission_id", UUID.class)).thenReturn(id);
+            when(rs.getString("client")).thenReturn("admin");
+            when(rs.getInt("attempts")).thenReturn(attempts);
+            when(rs.getString("evaluation_result")).thenReturn(RESULT);
+            rows.add(rs);
+        }
+        when(jdbc.query(startsWith("WITH claimed"), any(RowMapper.class), any(), any())).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            var result = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++)
+                result.add(mapper.mapRow(rows.get(i), i));
+            return result;
+        });
+    }
+
+    private static String sign(String secret, String body) throws Exception {
+        var mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ApiKeyConfiguration.ApiKey createApiKey() {
+        return new ApiKeyConfiguration.ApiKey("admin", "key", List.of("SUBMIT"), "http://localhost:" + this.server.getAddress().getPort() + "/results");
+    }
+
+    private ApiKeyConfiguration createApiKeyConfiguration() {
+        var config = new ApiKeyConfiguration();
+        config.setApiKeys(List.of(this.createApiKey()));
+        return config;
+    }
+
+    private static ResultCallbackConfiguration createConfiguration() {
+        var config = new ResultCallbackConfiguration();
+        config.setEnabled(true);
+        config.setTableName("my_callback");
+        config.setMaxAttempts(3);
+        config.setInitialBackoff(Duration.ofSeconds(1));
+        config.setMaxBackoff(Duration.ofMinutes(1));
+        config.setRequestTimeout(Duration.ofSeconds(5));
+        return config;
+    }
+
+    private record Request(String body, String signature) {
+    }
+}
@@ -0,0 +1,175 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SandboxPoolTest {
+    private static final String ECHO_WORKER = "while IFS= read -r line; do if [ \"$line\" = sleep ]; then sleep 10; fi; echo \"$$:$line\"; done";
+
+    private SandboxPool pool;
+
+    @AfterEach
+    void stopPool() {
+        if (this.pool != null)
+            this.pool.stop();
+    }
+
+    @Test
+    void constructorWithoutCommand() {
+        // Arrange
+        var config = createConfiguration(ECHO_WORKER);
+        config.setCommand(List.of());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SandboxPool(config));
+    }
+
+    @Test
+    void startPreforksWorkers() {
+        // Arrange
+        var config = createConfiguration(ECHO_WORKER);
+        config.setSize(2);
+        this.pool = new SandboxPool(config);
+
+        // Act
+        this.pool.start();
+
+        // Assert
+        assertTrue(this.pool.isRunning());
+        assertEquals(2, this.pool.getWorkerCount());
+        assertEquals(2, this.pool.getIdleWorkerCount());
+    }
+
+    @Test
+    void executeReusesWorker() {
+        // Arrange
+        this.pool = new SandboxPool(createConfiguration(ECHO_WORKER));
+        this.pool.start();
+
+        // Act
+        var first = this.pool.execute("first");
+        var second = this.pool.execute("second");
+
+        // Assert
+        assertTrue(first.endsWith(":first"));
+        assertTrue(second.endsWith(":second"));
+        assertEquals(pid(first), pid(second));
+        assertEquals(2, this.pool.getCompletedJobCount());
+        assertEquals(0, this.pool.getRecycledWorkerCount());
+    }
+
+    @Test
+    void executeRecyclesWorkerAfterMaxJobs() {
+        // Arrange
+        var config = createConfiguration(ECHO_WORKER);
+        config.setMaxJobsPerWorker(1);
+        this.pool = new SandboxPool(config);
+        this.pool.start();
+
+        // Act
+        var first = this.pool.execute("first");
+        var second = this.pool.execute("second");
+
+        // Assert
+        assertNotEquals(pid(first), pid(second));
+        assertEquals(2, this.pool.getRecycledWorkerCount());
+    }
+
+    @Test
+    void executeTimeout() {
+        // Arrange
+        this.pool = new SandboxPool(createConfiguration(ECHO_WORKER));
+        this.pool.start();
+
+        // Act & Assert
+        assertThrows(SandboxTimeoutException.class, () -> this.pool.execute("sleep", Duration.ofMillis(200)));
+        assertEquals(1, this.pool.getTimedOutJobCount());
+        assertTrue(this.pool.execute("next").endsWith(":next"));
+    }
+
+    @Test
+    void executeWorkerCrash() {
+        // Arrange
+        this.pool = new SandboxPool(createConfiguration("read -r line; exit 3"));
+        this.pool.start();
+
+        // Act
+        var ex = assertThrows(SandboxException.class, () -> this.pool.execute("crash"));
+
+        // Assert
+        assertFalse(ex instanceof SandboxTimeoutException);
+        assertEquals(1, this.pool.getFailedJobCount());
+    }
+
+    @Test
+    void executeRequestWithLineBreak() {
+        // Arrange
+        this.pool = new SandboxPool(createConfiguration(ECHO_WORKER));
+        this.pool.start();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> this.pool.execute("first\nsecond"));
+        assertEquals(1, this.pool.getIdleWorkerCount());
+    }
+
+    @Test
+    void startWithFailingHealthCheck() {
+        // Arrange
+        var config = createConfiguration("read -r line; exit 1");
+        config.setHealthCheckRequest("ping");
+        this.pool = new SandboxPool(config);
+
+        // Act
+        this.pool.start();
+
+        // Assert
+        assertEquals(0, this.pool.getWorkerCount());
+        assertEquals(1, this.pool.getFailedStartCount());
+        assertThrows(GradingRejectedException.class, () -> this.pool.execute("first"));
+    }
+
+    @Test
+    void healthCheckKeepsOtherWorkersAvailable() throws InterruptedException {
+        // Arrange
+        var config = createConfiguration("while IFS= read -r line; do if [ \"$line\" = ping ]; then sleep 1; fi; echo \"$$:$line\"; done");
+        config.setSize(2);
+        config.setHealthCheckRequest("ping");
+        config.setHealthCheckInterval(Duration.ofMillis(100));
+        this.pool = new SandboxPool(config);
+        this.pool.start();
+
+        // Act
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (this.pool.getIdleWorkerCount() == 2 && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        int idleDuringCheck = this.pool.getIdleWorkerCount();
+        long start = System.nanoTime();
+        var response = this.pool.execute("job");
+        var duration = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(1, idleDuringCheck);
+        assertTrue(response.endsWith(":job"));
+        assertTrue(duration.compareTo(Duration.ofMillis(500)) < 0, "job waited for the health check: " + duration);
+    }
+
+    private static String pid(String response) {
+        return response.substring(0, response.indexOf(':'));
+    }
+
+    private static SandboxConfiguration createConfiguration(String script) {
+        var config = new SandboxConfiguration();
+        config.setEnabled(true);
+        config.setCommand(List.of("sh", "-c", script));
+        config.setSize(1);
+        config.setAcquireTimeout(Duration.ofSeconds(2));
+        config.setJobTimeout(Duration.ofSeconds(5));
+        config.setHealthCheckTimeout(Duration.ofSeconds(2));
+        return config;
+    }
+}
@@ -0,0 +1,59 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void join() {
+        // Arrange
+        var singleFlight = new SingleFlight<String, Integer>();
+
+        // Act
+        var leader = singleFlight.join("a");
+        var follower = singleFlight.join("a");
+        var other = singleFlight.join("b");
+
+        // Assert
+        assertTrue(leader.leader());
+        assertFalse(follower.leader());
+        assertTrue(other.leader());
+        assertSame(leader.future(), follower.future());
+        assertEquals(2, singleFlight.getInFlightCount());
+        assertEquals(1, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void joinAfterCompletion() {
+        // Arrange
+        var singleFlight = new SingleFlight<String, Integer>();
+        var first = singleFlight.join("a");
+
+        // Act
+        first.future().complete(1);
+        var second = singleFlight.join("a");
+
+        // Assert
+        assertTrue(second.leader());
+        assertNotSame(first.future(), second.future());
+    }
+
+    @Test
+    void joinAfterFailure() {
+        // Arrange
+        var singleFlight = new SingleFlight<String, Integer>();
+        var first = singleFlight.join("a");
+        var follower = singleFlight.join("a");
+
+        // Act
+        first.future().completeExceptionally(new IllegalStateException("test"));
+        var second = singleFlight.join("a");
+
+        // Assert
+        assertTrue(follower.future().isCompletedExceptionally());
+        assertTrue(second.leader());
+        assertEquals(1, singleFlight.getInFlightCount());
+    }
+}
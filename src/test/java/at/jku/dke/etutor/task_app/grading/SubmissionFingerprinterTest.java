@@ -0,0 +1,94 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.dto.SubmissionMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubmissionFingerprinterTest {
+
+    @Test
+    void createIgnoresPropertyOrder() {
+        // Arrange
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        var first = new LinkedHashMap<String, Object>();
+        first.put("a", 1);
+        first.put("b", new BigDecimal("1.50"));
+        var second = new LinkedHashMap<String, Object>();
+        second.put("b", new BigDecimal("1.50"));
+        second.put("a", 1);
+
+        // Act
+        var firstFingerprint = fingerprinter.create(1, first, SubmissionMode.RUN, 1, "de");
+        var secondFingerprint = fingerprinter.create(1, second, SubmissionMode.RUN, 1, "de");
+
+        // Assert
+        assertEquals(firstFingerprint, secondFingerprint);
+        assertEquals(64, firstFingerprint.hash().length());
+        assertNotEquals(firstFingerprint, fingerprinter.create(1, first, SubmissionMode.SUBMIT, 1, "de"));
+        assertNotEquals(firstFingerprint, fingerprinter.create(1, first, SubmissionMode.RUN, 2, "de"));
+        assertNotEquals(firstFingerprint, fingerprinter.create(1, first, SubmissionMode.RUN, 1, "en"));
+        assertNotEquals(firstFingerprint, fingerprinter.create(2, first, SubmissionMode.RUN, 1, "de"));
+    }
+
+    @Test
+    void invalidateTask() {
+        // Arrange
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        var invalidated = new AtomicLong();
+        fingerprinter.addInvalidationListener(invalidated::set);
+        var before = fingerprinter.create(1, "SELECT 1", SubmissionMode.RUN, 1, "de");
+        var otherTask = fingerprinter.create(2, "SELECT 1", SubmissionMode.RUN, 1, "de");
+
+        // Act
+        fingerprinter.invalidateTask(1);
+        var after = fingerprinter.create(1, "SELECT 1", SubmissionMode.RUN, 1, "de");
+
+        // Assert
+        assertEquals(1, invalidated.get());
+        assertFalse(fingerprinter.isCurrent(before));
+        assertTrue(fingerprinter.isCurrent(after));
+        assertTrue(fingerprinter.isCurrent(otherTask));
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void invalidateTaskOnOtherNode() {
+        // Arrange
+        var channel = new LocalTaskInvalidationChannel();
+        var nodeA = new SubmissionFingerprinter(new ObjectMapper());
+        var nodeB = new SubmissionFingerprinter(new ObjectMapper());
+        var notifierA = new TaskInvalidationNotifier(channel);
+        nodeA.setInvalidationNotifier(notifierA);
+        nodeB.setInvalidationNotifier(new TaskInvalidationNotifier(channel));
+        var before = nodeB.create(1, "SELECT 1", SubmissionMode.RUN, 1, "de");
+
+        // Act
+        notifierA.publish(TaskInvalidation.task(1));
+
+        // Assert
+        assertEquals(1, nodeA.getTaskVersion(1));
+        assertEquals(1, nodeB.getTaskVersion(1));
+        assertFalse(nodeB.isCurrent(before));
+        assertNotEquals(before, nodeB.create(1, "SELECT 1", SubmissionMode.RUN, 1, "de"));
+    }
+
+    @Test
+    void invalidateTaskGroupKeepsVersions() {
+        // Arrange
+        var channel = new LocalTaskInvalidationChannel();
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        fingerprinter.setInvalidationNotifier(new TaskInvalidationNotifier(channel));
+
+        // Act
+        channel.publish(TaskInvalidation.taskGroup(1));
+
+        // Assert
+        assertEquals(0, fingerprinter.getTaskVersion(1));
+    }
+}
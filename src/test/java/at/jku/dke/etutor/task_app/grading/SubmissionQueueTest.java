@@ -0,0 +1,347 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SubmissionQueueTest {
+
+    @Test
+    void constructorInvalidTableName() {
+        // Arrange
+        var config = createConfiguration();
+        config.setTableName("queue; DROP TABLE submission");
+        var jdbc = mock(JdbcTemplate.class);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SubmissionQueue(jdbc, config));
+    }
+
+    @Test
+    void constructorNodeId() {
+        // Arrange
+        var config = createConfiguration();
+        config.setNodeId(null);
+        var jdbc = mock(JdbcTemplate.class);
+
+        // Act
+        var queue = new SubmissionQueue(jdbc, config);
+
+        // Assert
+        assertNotNull(queue.getNodeId());
+        assertFalse(queue.getNodeId().isBlank());
+    }
+
+    @Test
+    void add() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var id = UUID.randomUUID();
+
+        // Act
+        queue.add("test", id);
+
+        // Assert
+        verify(jdbc).update(startsWith("INSERT INTO my_queue "), eq(id), eq("test"));
+    }
+
+    @Test
+    void tryClaim() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var id = UUID.randomUUID();
+        when(jdbc.update(contains("WHERE submission_id = ? AND state = 'QUEUED'"), eq("node1"), eq(60000L), eq(id))).thenReturn(1);
+
+        // Act
+        var result = queue.tryClaim(id);
+
+        // Assert
+        assertTrue(result);
+        assertEquals(1, queue.getLeasedCount());
+    }
+
+    @Test
+    void tryClaimAlreadyClaimed() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        when(jdbc.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        // Act
+        var result = queue.tryClaim(UUID.randomUUID());
+
+        // Assert
+        assertFalse(result);
+        assertEquals(0, queue.getLeasedCount());
+    }
+
+    @Test
+    void complete() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var id = UUID.randomUUID();
+        when(jdbc.update(anyString(), any(Object[].class))).thenReturn(1);
+        queue.tryClaim(id);
+
+        // Act
+        queue.complete(id);
+
+        // Assert
+        verify(jdbc).update("DELETE FROM my_queue WHERE submission_id = ?", id);
+        assertEquals(0, queue.getLeasedCount());
+    }
+
+    @Test
+    void release() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var id = UUID.randomUUID();
+
+        // Act
+        queue.release(id);
+
+        // Assert
+        verify(jdbc).query(contains("CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'QUEUED' END"), any(RowMapper.class), eq(2), eq(id), eq("node1"));
+    }
+
+    @Test
+    void releaseMaxAttemptsReached() throws SQLException {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var worker = new TestWorker(1);
+        queue.register("test", worker);
+        var id = UUID.randomUUID();
+        var failed = UUID.randomUUID();
+        mockReturnedRows(jdbc, "submission_id = ? AND lease_owner = ? RETURNING", new Object[]{id, "test", "QUEUED"}, new Object[]{failed, "test", "FAILED"});
+
+        // Act
+        queue.release(id);
+
+        // Assert
+        assertEquals(List.of(failed), worker.failed);
+    }
+
+    @Test
+    void reapMaxAttemptsReached() throws SQLException {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var worker = new TestWorker(1);
+        queue.register("test", worker);
+        var returned = UUID.randomUUID();
+        var failed = UUID.randomUUID();
+        var otherQueue = UUID.randomUUID();
+        mockReturnedRows(jdbc, "lease_expires_at < now() RETURNING",
+            new Object[]{returned, "test", "QUEUED"}, new Object[]{failed, "test", "FAILED"}, new Object[]{otherQueue, "other", "FAILED"});
+
+        // Act
+        var result = queue.reap();
+
+        // Assert
+        assertEquals(3, result);
+        assertEquals(List.of(failed), worker.failed);
+    }
+
+    @Test
+    void requeue() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var id = UUID.randomUUID();
+
+        // Act
+        queue.requeue(id);
+
+        // Assert
+        verify(jdbc).update(contains("attempts = attempts - 1"), eq(id), eq("node1"));
+    }
+
+    @Test
+    void remove() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var id = UUID.randomUUID();
+        when(jdbc.update(contains("state <> 'RUNNING' OR lease_owner = ?"), eq(id), eq("node1"))).thenReturn(1);
+
+        // Act
+        var result = queue.remove(id);
+
+        // Assert
+        assertTrue(result);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void renewLeases() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var id = UUID.randomUUID();
+        when(jdbc.update(anyString(), any(Object[].class))).thenReturn(1);
+        queue.tryClaim(id);
+
+        // Act
+        queue.renewLeases();
+
+        // Assert
+        verify(jdbc).batchUpdate(startsWith("UPDATE my_queue SET lease_expires_at"), (List<Object[]>) argThat(args -> {
+            var list = (List<Object[]>) args;
+            return list.size() == 1 && list.getFirst()[1].equals(id) && list.getFirst()[2].equals("node1");
+        }));
+    }
+
+    @Test
+    void renewLeasesNothingLeased() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+
+        // Act
+        queue.renewLeases();
+
+        // Assert
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void poll() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        var worker = new TestWorker(5);
+        queue.register("test", worker);
+        when(jdbc.queryForList(contains("FOR UPDATE SKIP LOCKED"), eq(UUID.class), eq("node1"), eq(60000L), eq("test"), eq(3))).thenReturn(ids);
+
+        // Act
+        queue.poll();
+
+        // Assert
+        assertEquals(ids, worker.processed);
+        assertEquals(2, queue.getLeasedCount());
+        verify(jdbc).query(contains("WHERE state = 'RUNNING' AND lease_expires_at < now()"), any(RowMapper.class), eq(2));
+    }
+
+    @Test
+    void pollNoCapacity() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        queue.register("test", new TestWorker(0));
+
+        // Act
+        queue.poll();
+
+        // Assert
+        verify(jdbc, never()).queryForList(anyString(), eq(UUID.class), any(Object[].class));
+    }
+
+    @Test
+    void pollWorkerFails() {
+        // Arrange
+        var jdbc = mock(JdbcTemplate.class);
+        var queue = new SubmissionQueue(jdbc, createConfiguration());
+        var id = UUID.randomUUID();
+        queue.register("test", new SubmissionQueue.Worker() {
+            @Override
+            public int getAvailableCapacity() {
+                return 1;
+            }
+
+            @Override
+            public void process(UUID submissionId) {
+                throw new IllegalStateException("test");
+            }
+        });
+        when(jdbc.queryForList(anyString(), eq(UUID.class), any(Object[].class))).thenReturn(List.of(id));
+
+        // Act
+        queue.poll();
+
+        // Assert
+        verify(jdbc).query(contains("CASE WHEN attempts >= ?"), any(RowMapper.class), eq(2), eq(id), eq("node1"));
+        assertEquals(0, queue.getLeasedCount());
+    }
+
+    @Test
+    void startStop() {
+        // Arrange
+        var queue = new SubmissionQueue(mock(JdbcTemplate.class), createConfiguration());
+
+        // Act & Assert
+        assertFalse(queue.isRunning());
+        queue.start();
+        assertTrue(queue.isRunning());
+        queue.stop();
+        assertFalse(queue.isRunning());
+    }
+
+    private static SubmissionQueueConfiguration createConfiguration() {
+        var config = new SubmissionQueueConfiguration();
+        config.setEnabled(true);
+        config.setTableName("my_queue");
+        config.setNodeId("node1");
+        config.setBatchSize(3);
+        config.setLeaseDuration(Duration.ofMinutes(1));
+        config.setMaxAttempts(2);
+        return config;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void mockReturnedRows(JdbcTemplate jdbc, String sql, Object[]... rows) throws SQLException {
+        var mapped = new ArrayList<>();
+        when(jdbc.query(contains(sql), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(1);
+            for (int i = 0; i < rows.length; i++) {
+                var rs = mock(ResultSet.class);
+                when(rs.getObject("submission_id", UUID.class)).thenReturn((UUID) rows[i][0]);
+                when(rs.getString("queue")).thenReturn((String) rows[i][1]);
+                when(rs.getString("state")).thenReturn((String) rows[i][2]);
+                mapped.add(mapper.mapRow(rs, i));
+            }
+            return mapped;
+        });
+    }
+
+    private static class TestWorker implements SubmissionQueue.Worker {
+        private final int capacity;
+        private final List<UUID> processed = new ArrayList<>();
+        private final List<UUID> failed = new ArrayList<>();
+
+        TestWorker(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public int getAvailableCapacity() {
+            return this.capacity;
+        }
+
+        @Override
+        public void process(UUID submissionId) {
+            this.processed.add(submissionId);
+        }
+
+        @Override
+        public void fail(UUID submissionId) {
+            this.failed.add(submissionId);
+        }
+    }
+}
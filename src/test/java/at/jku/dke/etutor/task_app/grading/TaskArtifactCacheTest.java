@@ -0,0 +1,189 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskArtifactCacheTest {
+
+    @Test
+    void getBuildsOnce() {
+        // Arrange
+        var cache = new TaskArtifactCache(new TaskArtifactCacheConfiguration(), new SubmissionFingerprinter(new ObjectMapper()));
+        var builds = new AtomicInteger();
+
+        // Act
+        var first = cache.get(1, "solution", () -> "artifact-" + builds.incrementAndGet());
+        var second = cache.get(1, "solution", () -> "artifact-" + builds.incrementAndGet());
+        var other = cache.get(1, "expected", () -> "expected-" + builds.incrementAndGet());
+
+        // Assert
+        assertEquals("artifact-1", first);
+        assertEquals("artifact-1", second);
+        assertEquals("expected-2", other);
+        assertEquals(2, cache.getBuildCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void invalidateTask() {
+        // Arrange
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        var cache = new TaskArtifactCache(new TaskArtifactCacheConfiguration(), fingerprinter);
+        cache.get(1, "solution", () -> "old");
+        cache.get(2, "solution", () -> "other");
+
+        // Act
+        fingerprinter.invalidateTask(1);
+
+        // Assert
+        assertEquals(1, cache.getSize());
+        assertEquals("new", cache.get(1, "solution", () -> "new"));
+        assertEquals("other", cache.get(2, "solution", () -> "rebuilt"));
+    }
+
+    @Test
+    void getDoesNotCacheFailures() {
+        // Arrange
+        var cache = new TaskArtifactCache(new TaskArtifactCacheConfiguration(), new SubmissionFingerprinter(new ObjectMapper()));
+
+        // Act
+        var ex = assertThrows(IllegalArgumentException.class, () -> cache.get(1, "solution", () -> {
+            throw new IllegalArgumentException("invalid solution");
+        }));
+        var result = cache.get(1, "solution", () -> "artifact");
+
+        // Assert
+        assertEquals("invalid solution", ex.getMessage());
+        assertEquals("artifact", result);
+    }
+
+    @Test
+    void getReadsSpilledArtifact(@TempDir Path directory) throws IOException {
+        // Arrange
+        var config = new TaskArtifactCacheConfiguration();
+        config.setSpillDirectory(directory);
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        var cache = new TaskArtifactCache(config, fingerprinter);
+        cache.get(1, "solution", () -> "artifact");
+        cache.clear();
+
+        // Act
+        var result = cache.get(1, "solution", () -> "rebuilt");
+        fingerprinter.invalidateTask(1);
+
+        // Assert
+        assertEquals("artifact", result);
+        assertEquals(1, cache.getSpillHitCount());
+        assertEquals(1, cache.getBuildCount());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void getReadsSpilledArtifactOfAllowedClass(@TempDir Path directory) {
+        // Arrange
+        var config = new TaskArtifactCacheConfiguration();
+        config.setSpillDirectory(directory);
+        var cache = new TaskArtifactCache(config, new SubmissionFingerprinter(new ObjectMapper()));
+        cache.get(1, "solution", () -> new Artifact(List.of("a", "b")));
+        cache.clear();
+
+        // Act
+        var result = cache.get(1, "solution", () -> new Artifact(List.of()));
+
+        // Assert
+        assertEquals(new Artifact(List.of("a", "b")), result);
+        assertEquals(1, cache.getSpillHitCount());
+    }
+
+    @Test
+    void getRebuildsSpilledArtifactRejectedByFilter(@TempDir Path directory) {
+        // Arrange
+        var config = new TaskArtifactCacheConfiguration();
+        config.setSpillDirectory(directory);
+        config.setSpillFilter("java.base/*;!*");
+        var cache = new TaskArtifactCache(config, new SubmissionFingerprinter(new ObjectMapper()));
+        cache.get(1, "solution", () -> new Artifact(List.of("a")));
+        cache.clear();
+
+        // Act
+        var result = cache.get(1, "solution", () -> new Artifact(List.of("rebuilt")));
+
+        // Assert
+        assertEquals(new Artifact(List.of("rebuilt")), result);
+        assertEquals(0, cache.getSpillHitCount());
+        assertEquals(2, cache.getBuildCount());
+    }
+
+    @Test
+    void constructorClearsSpillDirectory(@TempDir Path directory) throws IOException {
+        // Arrange
+        var config = new TaskArtifactCacheConfiguration();
+        config.setSpillDirectory(directory);
+        new TaskArtifactCache(config, new SubmissionFingerprinter(new ObjectMapper())).get(1, "solution", () -> "artifact");
+
+        // Act
+        var cache = new TaskArtifactCache(config, new SubmissionFingerprinter(new ObjectMapper()));
+
+        // Assert
+        assertEquals("rebuilt", cache.get(1, "solution", () -> "rebuilt"));
+        assertEquals(0, cache.getSpillHitCount());
+    }
+
+    @Test
+    void getBuildsOnceForConcurrentCallers() throws Exception {
+        // Arrange
+        var cache = new TaskArtifactCache(new TaskArtifactCacheConfiguration(), new SubmissionFingerprinter(new ObjectMapper()));
+        var builds = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        // Act
+        var results = new ArrayList<Future<String>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> cache.get(1, "solution", () -> {
+                builds.incrementAndGet();
+                started.countDown();
+                awaitUninterruptibly(release);
+                return "artifact";
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 5; i++)
+                results.add(executor.submit(() -> cache.get(1, "solution", () -> "artifact-" + builds.incrementAndGet())));
+            Thread.sleep(50);
+            release.countDown();
+
+            // Assert
+            for (var result : results)
+                assertEquals("artifact", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, builds.get());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Artifact(List<String> values) implements Serializable {
+    }
+}
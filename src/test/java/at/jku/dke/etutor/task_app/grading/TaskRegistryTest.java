@@ -0,0 +1,148 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import at.jku.dke.etutor.task_app.data.entities.BaseTaskGroup;
+import at.jku.dke.etutor.task_app.data.entities.BaseTaskInGroup;
+import at.jku.dke.etutor.task_app.data.repositories.TaskRepository;
+import at.jku.dke.etutor.task_app.dto.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskRegistryTest {
+
+    @Test
+    void startLoadsAllTasks() {
+        // Arrange
+        TaskRepository<TaskEntity> repository = mockRepository();
+        when(repository.findAll()).thenReturn(List.of(new TaskEntity(1L, 1L, BigDecimal.ONE), new TaskEntity(2L, 1L, BigDecimal.TWO)));
+        var registry = new TaskRegistry(List.of(repository), mock(PlatformTransactionManager.class));
+
+        // Act
+        registry.start();
+
+        // Assert
+        assertEquals(2, registry.getSize());
+        assertEquals(BigDecimal.TWO, registry.get(2).orElseThrow().getMaxPoints());
+        assertTrue(registry.get(3).isEmpty());
+        assertEquals(1, registry.getHitCount());
+        assertEquals(1, registry.getMissCount());
+    }
+
+    @Test
+    void invalidateRefreshesTask() {
+        // Arrange
+        TaskRepository<TaskEntity> repository = mockRepository();
+        when(repository.findAll()).thenReturn(List.of(new TaskEntity(1L, 1L, BigDecimal.ONE)));
+        when(repository.findById(1L)).thenReturn(Optional.of(new TaskEntity(1L, 1L, BigDecimal.TEN)));
+        when(repository.findById(2L)).thenReturn(Optional.of(new TaskEntity(2L, 1L, BigDecimal.TWO)));
+        var registry = new TaskRegistry(List.of(repository), mock(PlatformTransactionManager.class));
+        registry.start();
+        var before = registry.get(1).orElseThrow();
+
+        // Act
+        registry.invalidate(1);
+        registry.invalidate(2);
+
+        // Assert
+        assertEquals(BigDecimal.ONE, before.getMaxPoints());
+        assertEquals(BigDecimal.TEN, registry.get(1).orElseThrow().getMaxPoints());
+        assertEquals(BigDecimal.TWO, registry.get(2).orElseThrow().getMaxPoints());
+        assertEquals(2, registry.getRefreshCount());
+    }
+
+    @Test
+    void invalidateRemovesDeletedTask() {
+        // Arrange
+        TaskRepository<TaskEntity> repository = mockRepository();
+        when(repository.findAll()).thenReturn(List.of(new TaskEntity(1L, 1L, BigDecimal.ONE)));
+        when(repository.findById(1L)).thenReturn(Optional.empty());
+        var registry = new TaskRegistry(List.of(repository), mock(PlatformTransactionManager.class));
+        registry.start();
+
+        // Act
+        registry.invalidate(1);
+
+        // Assert
+        assertEquals(0, registry.getSize());
+        assertTrue(registry.get(1).isEmpty());
+    }
+
+    @Test
+    void invalidateTaskGroupRefreshesTasksOfGroup() {
+        // Arrange
+        TaskRepository<TaskEntity> repository = mockRepository();
+        when(repository.findAll()).thenReturn(List.of(new TaskEntity(1L, 1L, BigDecimal.ONE), new TaskEntity(2L, 2L, BigDecimal.ONE), new TaskEntity(3L, 1L, BigDecimal.ONE)));
+        when(repository.findById(anyLong())).thenReturn(Optional.empty());
+        var registry = new TaskRegistry(List.of(repository), mock(PlatformTransactionManager.class));
+        registry.start();
+
+        // Act
+        registry.invalidateTaskGroup(1);
+
+        // Assert
+        assertEquals(1, registry.getSize());
+        assertTrue(registry.get(2).isPresent());
+        verify(repository).findById(1L);
+        verify(repository).findById(3L);
+        verify(repository, never()).findById(2L);
+    }
+
+    @Test
+    void invalidatePublishesOnChannel() {
+        // Arrange
+        TaskRepository<TaskEntity> repository = mockRepository();
+        var channel = mock(TaskInvalidationChannel.class);
+        var registry = new TaskRegistry(List.of(repository), mock(PlatformTransactionManager.class));
+        registry.setInvalidationNotifier(new TaskInvalidationNotifier(channel));
+        registry.start();
+
+        // Act
+        registry.invalidate(1);
+
+        // Assert
+        verify(channel).subscribe(any());
+        verify(channel).publish(TaskInvalidation.task(1));
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    void refreshesTasksAnnouncedByOtherNodes() {
+        // Arrange
+        TaskRepository<TaskEntity> repository = mockRepository();
+        when(repository.findAll()).thenReturn(List.of(new TaskEntity(1L, 1L, BigDecimal.ONE)));
+        when(repository.findById(1L)).thenReturn(Optional.of(new TaskEntity(1L, 1L, BigDecimal.TEN)));
+        var channel = new LocalTaskInvalidationChannel();
+        var registry = new TaskRegistry(List.of(repository), mock(PlatformTransactionManager.class));
+        registry.setInvalidationNotifier(new TaskInvalidationNotifier(channel));
+        registry.start();
+
+        // Act
+        new TaskInvalidationNotifier(channel).publish(TaskInvalidation.taskGroup(1));
+
+        // Assert
+        assertEquals(BigDecimal.TEN, registry.get(1).orElseThrow().getMaxPoints());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TaskRepository<TaskEntity> mockRepository() {
+        return mock(TaskRepository.class);
+    }
+
+    private static class TaskEntity extends BaseTaskInGroup<TaskGroupEntity> {
+        TaskEntity(Long id, Long taskGroupId, BigDecimal maxPoints) {
+            super(id, maxPoints, TaskStatus.APPROVED, new TaskGroupEntity(taskGroupId));
+        }
+    }
+
+    private static class TaskGroupEntity extends BaseTaskGroup {
+        TaskGroupEntity(Long id) {
+            super(id, TaskStatus.APPROVED);
+        }
+    }
+}
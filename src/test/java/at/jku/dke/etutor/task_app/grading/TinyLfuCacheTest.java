@@ -0,0 +1,112 @@
+package at.jku.dke.etutor.task_app.grading;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TinyLfuCacheTest {
+
+    @Test
+    void constructorInvalidArguments() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TinyLfuCache<String, String>(0, null));
+        assertThrows(IllegalArgumentException.class, () -> new TinyLfuCache<String, String>(10, Duration.ZERO));
+    }
+
+    @Test
+    void getPut() {
+        // Arrange
+        var cache = new TinyLfuCache<String, String>(10, null);
+
+        // Act
+        var before = cache.get("a");
+        cache.put("a", "1");
+        var after = cache.get("a");
+
+        // Assert
+        assertNull(before);
+        assertEquals("1", after);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void putReplacesValue() {
+        // Arrange
+        var cache = new TinyLfuCache<String, String>(10, null);
+        for (int i = 0; i < 5; i++)
+            cache.put("k" + i, "v");
+
+        // Act
+        cache.put("k0", "new");
+
+        // Assert
+        assertEquals("new", cache.get("k0"));
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    void evictionKeepsFrequentEntries() {
+        // Arrange
+        var cache = new TinyLfuCache<String, String>(100, null);
+        for (int i = 0; i < 99; i++)
+            cache.put("hot" + i, "v");
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 99; i++)
+                cache.get("hot" + i);
+        }
+
+        // Act
+        for (int i = 0; i < 1000; i++)
+            cache.put("cold" + i, "v");
+
+        // Assert
+        assertEquals(100, cache.size());
+        int hot = 0;
+        for (int i = 0; i < 99; i++) {
+            if (cache.get("hot" + i) != null)
+                hot++;
+        }
+        assertTrue(hot > 90, "Frequently used entries should not be evicted, but only " + hot + " are cached");
+        assertEquals(999, cache.getEvictionCount());
+    }
+
+    @Test
+    void expiration() {
+        // Arrange
+        var time = new AtomicLong();
+        var cache = new TinyLfuCache<String, String>(10, Duration.ofSeconds(10), time::get);
+        cache.put("a", "1");
+
+        // Act
+        var before = cache.get("a");
+        time.addAndGet(Duration.ofSeconds(10).toNanos());
+        var after = cache.get("a");
+
+        // Assert
+        assertEquals("1", before);
+        assertNull(after);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidateAll() {
+        // Arrange
+        var cache = new TinyLfuCache<String, String>(10, null);
+        cache.put("a1", "1");
+        cache.put("a2", "2");
+        cache.put("b1", "3");
+
+        // Act
+        int removed = cache.invalidateAll(key -> key.startsWith("a"));
+
+        // Assert
+        assertEquals(2, removed);
+        assertNull(cache.get("a1"));
+        assertEquals("3", cache.get("b1"));
+    }
+}
@@ -7,21 +7,58 @@
 import at.jku.dke.etutor.task_app.data.repositories.SubmissionRepository;
 import at.jku.dke.etutor.task_app.data.repositories.TaskRepository;
 import at.jku.dke.etutor.task_app.dto.*;
+import at.jku.dke.etutor.task_app.grading.CriterionSink;
+import at.jku.dke.etutor.task_app.grading.EvaluationFailedException;
+import at.jku.dke.etutor.task_app.grading.GradingBulkheads;
+import at.jku.dke.etutor.task_app.grading.GradingCacheConfiguration;
+import at.jku.dke.etutor.task_app.grading.GradingConfiguration;
+import at.jku.dke.etutor.task_app.grading.GradingCompletionRegistry;
+import at.jku.dke.etutor.task_app.grading.GradingExecutor;
+import at.jku.dke.etutor.task_app.grading.GradingJob;
+import at.jku.dke.etutor.task_app.grading.GradingRejectedException;
+import at.jku.dke.etutor.task_app.grading.GradingResultCache;
+import at.jku.dke.etutor.task_app.grading.GradingResultNotifier;
+import at.jku.dke.etutor.task_app.grading.GradingResultWriter;
+import at.jku.dke.etutor.task_app.grading.ResultCallbackDispatcher;
+import at.jku.dke.etutor.task_app.grading.SubmissionFingerprinter;
+import at.jku.dke.etutor.task_app.grading.SubmissionQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -51,88 +88,1102 @@ void testGetSubmissions() {
         assertEquals(SubmissionMode.DIAGNOSE, dto.mode());
         assertEquals("solution", dto.submission().solution());
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetSubmissionsWithFieldsReadsOnlyRequestedColumns() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var entityManager = mock(EntityManager.class);
+        var criteriaBuilder = mock(CriteriaBuilder.class);
+        CriteriaQuery<Tuple> query = mock(CriteriaQuery.class);
+        Root<SubmissionEntity> root = mock(Root.class);
+        Path<Object> path = mock(Path.class);
+        TypedQuery<Tuple> typedQuery = mock(TypedQuery.class);
+        var tuple = mock(Tuple.class);
+        var id = UUID.randomUUID();
+        var time = Instant.now();
+        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        when(criteriaBuilder.createTupleQuery()).thenReturn(query);
+        when(query.from(SubmissionEntity.class)).thenReturn(root);
+        when(root.get(anyString())).thenReturn(path);
+        when(path.alias(anyString())).thenReturn(path);
+        when(entityManager.createQuery(query)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(List.of(tuple));
+        when(tuple.get("id", UUID.class)).thenReturn(id);
+        when(tuple.get("userId", String.class)).thenReturn("k123");
+        when(tuple.get("submissionTime", Instant.class)).thenReturn(time);
+        service.setEntityManager(entityManager);
+
+        // Act
+        var result = service.getSubmissions(PageRequest.of(0, 10), SubmissionFilter.of("k123", null, null, null), List.of("userId", "submissionTime"));
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        var dto = result.getContent().getFirst();
+        assertEquals(id, dto.id());
+        assertEquals("k123", dto.userId());
+        assertEquals(time, dto.submissionTime());
+        assertNull(dto.evaluationResult());
+        assertNull(dto.submission());
+        verify(root, never()).get("evaluationResult");
+        verify(typedQuery).setMaxResults(10);
+        verify(service.getSubmissionRepository(), never()).findAll(ArgumentMatchers.<Specification<SubmissionEntity>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void testGetSubmissionsWithSubmissionFieldLoadsEntities() {
+        // Arrange
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        entity.setEvaluationResult(new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of()));
+        var service = new SubmissionServiceImpl();
+        service.setEntityManager(mock(EntityManager.class));
+        when(service.getSubmissionRepository().findAll(ArgumentMatchers.<Specification<SubmissionEntity>>any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(entity)));
+
+        // Act
+        var result = service.getSubmissions(PageRequest.of(0, 10), null, List.of("submission", "taskId"));
+
+        // Assert
+        var dto = result.getContent().getFirst();
+        assertEquals(entity.getId(), dto.id());
+        assertEquals(1L, dto.taskId());
+        assertEquals("solution", dto.submission().solution());
+        assertNull(dto.userId());
+        assertNull(dto.evaluationResult());
+    }
+
+    @Test
+    void testGetSubmissionsWithUnknownField() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var fields = List.of("id", "solution");
+        var page = PageRequest.of(0, 10);
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class, () -> service.getSubmissions(page, null, fields));
+    }
+
+    @Test
+    void testGetSubmissionsWithUnsupportedSort() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var page = PageRequest.of(0, 10, Sort.by("language"));
+        var filter = SubmissionFilter.of("k123", null, null, null);
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class, () -> service.getSubmissions(page, filter, null));
+    }
+
+    @Test
+    void testGetSubmissionSlice() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var time = Instant.now();
+        var entities = new ArrayList<SubmissionEntity>();
+        for (int i = 0; i < 3; i++) {
+            var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+            entity.setSubmissionTime(time.minusSeconds(i));
+            entities.add(entity);
+        }
+        when(service.getSubmissionRepository().findBy(ArgumentMatchers.<Specification<SubmissionEntity>>any(), any())).thenReturn(entities);
+
+        // Act
+        var result = service.getSubmissionSlice(null, null, 2, Sort.Direction.DESC, null);
+
+        // Assert
+        assertTrue(result.hasNext());
+        assertEquals(2, result.content().size());
+        assertEquals("solution", result.content().getLast().submission().solution());
+        assertNotNull(result.nextCursor());
+        assertNotEquals(result.nextCursor(), service.getSubmissionSlice(null, null, 1, Sort.Direction.DESC, null).nextCursor());
+    }
+
+    @Test
+    void testGetSubmissionSliceLast() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var first = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        first.setSubmissionTime(Instant.now());
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        entity.setSubmissionTime(first.getSubmissionTime().plusSeconds(1));
+        when(service.getSubmissionRepository().findBy(ArgumentMatchers.<Specification<SubmissionEntity>>any(), any())).thenReturn(List.of(first, entity), List.of(entity));
+        var cursor = service.getSubmissionSlice(null, null, 1, Sort.Direction.ASC, null).nextCursor();
+
+        // Act
+        var result = service.getSubmissionSlice(SubmissionFilter.of("k123", null, null, null), cursor, 10, Sort.Direction.ASC, List.of("userId"));
+
+        // Assert
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+        assertEquals(1, result.content().size());
+        assertEquals("k123", result.content().getFirst().userId());
+        assertEquals(entity.getSubmissionTime(), result.content().getFirst().submissionTime());
+        assertNull(result.content().getFirst().submission());
+    }
+
+    @Test
+    void testGetSubmissionSliceInvalidCursor() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class, () -> service.getSubmissionSlice(null, "invalid", 10, Sort.Direction.ASC, null));
+    }
+    //#endregion
+
+    //#region --- getEvaluationResult ---
+    @Test
+    void testGetEvaluationResult() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var grading = new GradingDto(BigDecimal.TWO, BigDecimal.ONE, "ok", Collections.emptyList());
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        entity.setEvaluationResult(grading);
+        when(service.getSubmissionRepository().findById(any())).thenReturn(Optional.of(entity));
+
+        // Act
+        var result = service.getEvaluationResult(UUID.randomUUID());
+
+        // Assert
+        assertEquals(grading, result);
+    }
+
+    @Test
+    void testGetEvaluationResultNotAvailable() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        when(service.getSubmissionRepository().findById(any(UUID.class))).thenReturn(Optional.of(new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution")));
+
+        // Act
+        var result = service.getEvaluationResult(UUID.randomUUID());
+
+        // Assert
+        assertNull(result);
+    }
+
+    @Test
+    void testGetEvaluationResultNotExists() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        when(service.getSubmissionRepository().findById(any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> service.getEvaluationResult(UUID.randomUUID()));
+    }
+
+    @Test
+    void testAwaitEvaluationResultAvailable() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        entity.setEvaluationResult(new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of()));
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+
+        // Act
+        var result = service.awaitEvaluationResult(entity.getId(), Duration.ofSeconds(10));
+
+        // Assert
+        assertSame(entity.getEvaluationResult(), result.getNow(null));
+    }
+
+    @Test
+    void testAwaitEvaluationResultCompletedByEvaluation() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        var evaluation = new AtomicReference<Runnable>();
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenReturn(entity);
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        doAnswer(invocation -> {
+            evaluation.set(invocation.getArgument(1));
+            return null;
+        }).when(executor).execute(any(GradingJob.class), any());
+        service.enqueue(dto);
+        var result = service.awaitEvaluationResult(entity.getId(), Duration.ofSeconds(10));
+        assertFalse(result.isDone());
+
+        // Act
+        evaluation.get().run();
+
+        // Assert
+        assertTrue(result.isDone());
+        assertEquals("ok", result.getNow(null).generalFeedback());
+    }
+
+    @Test
+    void testAwaitEvaluationResultTimeout() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var id = UUID.randomUUID();
+        when(service.getSubmissionRepository().findById(id)).thenReturn(Optional.of(new SubmissionEntity(id, "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution")));
+
+        // Act
+        var result = service.awaitEvaluationResult(id, Duration.ofMillis(50));
+
+        // Assert
+        assertNull(result.orTimeout(5, TimeUnit.SECONDS).join());
+    }
+
+    @Test
+    void testAwaitEvaluationResultCompletedByOtherNode() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var registry = new GradingCompletionRegistry();
+        service.setCompletionRegistry(registry);
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        var result = service.awaitEvaluationResult(entity.getId(), Duration.ofSeconds(10));
+        entity.setEvaluationResult(new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "remote", List.of()));
+
+        // Act
+        registry.reload(entity.getId());
+
+        // Assert
+        assertTrue(result.isDone());
+        assertEquals("remote", result.getNow(null).generalFeedback());
+    }
+
+    @Test
+    void testEnqueuePublishesResult() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        var notifier = mock(GradingResultNotifier.class);
+        service.setGradingExecutor(executor);
+        service.setResultNotifier(notifier);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenReturn(entity);
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(executor).execute(any(GradingJob.class), any());
+
+        // Act
+        service.enqueue(dto);
+
+        // Assert
+        verify(notifier).publish(entity.getId());
+    }
+
+    @Test
+    void testWatchEvaluationsAvailable() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        entity.setEvaluationResult(new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of()));
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        var statuses = new ArrayList<SubmissionStatus>();
+
+        // Act
+        var result = service.watchEvaluations(List.of(entity.getId()), Duration.ofSeconds(10), event -> statuses.add(event.status()));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertSame(entity.getEvaluationResult(), result.getFirst().getNow(null));
+        assertTrue(statuses.isEmpty());
+    }
+
+    @Test
+    void testWatchEvaluationsQueued() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        when(executor.getJob(entity.getId())).thenReturn(new GradingJob(entity.getId(), SubmissionMode.DIAGNOSE, null, null));
+        var statuses = new ArrayList<SubmissionStatus>();
+
+        // Act
+        var result = service.watchEvaluations(List.of(entity.getId()), Duration.ofSeconds(10), event -> statuses.add(event.status()));
+
+        // Assert
+        assertFalse(result.getFirst().isDone());
+        assertEquals(List.of(SubmissionStatus.QUEUED), statuses);
+        result.getFirst().cancel(false);
+    }
+
+    @Test
+    void testWatchEvaluationsRunning() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(new GradingConfiguration());
+        var service = new SubmissionServiceImpl();
+        service.evaluationDuration = Duration.ofMillis(200);
+        service.setGradingExecutor(executor);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenReturn(entity);
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        var running = new CountDownLatch(1);
+        service.enqueue(dto);
+
+        // Act
+        var result = service.watchEvaluations(List.of(entity.getId()), Duration.ofSeconds(10), event -> {
+            if (event.status() == SubmissionStatus.RUNNING)
+                running.countDown();
+        });
+
+        // Assert
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertEquals("ok", result.getFirst().orTimeout(5, TimeUnit.SECONDS).join().generalFeedback());
+        executor.destroy();
+    }
+
+    @Test
+    void testWatchEvaluationsPartialResult() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(new GradingConfiguration());
+        var service = new SubmissionServiceImpl();
+        service.evaluationDuration = Duration.ofMillis(500);
+        service.reportedCriterion = new CountDownLatch(1);
+        service.setGradingExecutor(executor);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenReturn(entity);
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        when(service.getTaskRepository().findById(1L)).thenReturn(Optional.of(new TaskEntity(1L)));
+        var partialResults = new ArrayList<GradingDto>();
+        var result = service.watchEvaluations(List.of(service.enqueue(dto)), Duration.ofSeconds(10), event -> {
+            if (event.status() == SubmissionStatus.RUNNING && event.grading() != null)
+                partialResults.add(event.grading());
+        });
+
+        // Act
+        assertTrue(service.reportedCriterion.await(5, TimeUnit.SECONDS));
+        var partialResult = service.getPartialEvaluationResult(entity.getId());
+
+        // Assert
+        assertNotNull(partialResult);
+        assertEquals(BigDecimal.ONE, partialResult.points());
+        assertEquals(List.of(new CriterionDto("Syntax", BigDecimal.ONE, true, "ok")), partialResult.criteria());
+        assertEquals("ok", result.getFirst().orTimeout(5, TimeUnit.SECONDS).join().generalFeedback());
+        assertEquals(List.of(partialResult), partialResults);
+        assertNull(service.getPartialEvaluationResult(entity.getId()));
+        executor.destroy();
+    }
+
+    @Test
+    void testEvaluationFailureDiscardsPartialResult() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        service.reportedCriterion = new CountDownLatch(1);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenReturn(entity);
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(EntityNotFoundException.class, () -> service.execute(dto, true));
+
+        // Assert
+        assertEquals(0, service.reportedCriterion.getCount());
+        assertNull(service.getPartialEvaluationResult(entity.getId()));
+    }
+
+    @Test
+    void testWatchEvaluationsNotExists() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var existing = UUID.randomUUID();
+        when(service.getSubmissionRepository().findById(existing)).thenReturn(Optional.of(new SubmissionEntity(existing, "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution")));
+        when(service.getSubmissionRepository().findById(argThat(id -> !existing.equals(id)))).thenReturn(Optional.empty());
+        var statuses = new ArrayList<SubmissionStatus>();
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> service.watchEvaluations(List.of(existing, UUID.randomUUID()), Duration.ofSeconds(1), event -> statuses.add(event.status())));
+        assertTrue(statuses.isEmpty());
+    }
+
+    @Test
+    void testEnqueueRegistersCallback() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        var dispatcher = mock(ResultCallbackDispatcher.class);
+        service.setGradingExecutor(executor);
+        service.setCallbackDispatcher(dispatcher);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenReturn(entity);
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(executor).execute(any(GradingJob.class), any());
+
+        // Act
+        service.enqueue(dto);
+
+        // Assert
+        verify(dispatcher).register(List.of(entity.getId()));
+        verify(dispatcher).wakeUp();
+    }
+
+    @Test
+    void testEnqueueCallbackFailure() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        var dispatcher = mock(ResultCallbackDispatcher.class);
+        service.setGradingExecutor(executor);
+        service.setCallbackDispatcher(dispatcher);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenReturn(entity);
+        when(dispatcher.register(any())).thenThrow(new IllegalStateException("down"));
+
+        // Act
+        var result = service.enqueue(dto);
+
+        // Assert
+        assertEquals(entity.getId(), result);
+        verify(executor).execute(any(GradingJob.class), any());
+    }
+
+    @Test
+    void testAwaitEvaluationResultNotExists() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        when(service.getSubmissionRepository().findById(any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> service.awaitEvaluationResult(UUID.randomUUID(), Duration.ofSeconds(1)));
+    }
     //#endregion
 
-    //#region --- getEvaluationResult ---
+    //#region --- execute ---
+    @Test
+    void testExecutePersist() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        var result = service.execute(dto, true);
+
+        // Assert
+        assertNotNull(result);
+        verify(service.getSubmissionRepository(), never()).delete(any(SubmissionEntity.class));
+    }
+
+    @Test
+    void testExecuteNotPersist() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        var result = service.execute(dto, false);
+
+        // Assert
+        assertNotNull(result);
+        verify(service.getSubmissionRepository(), never()).save(any());
+    }
+    //#endregion
+
+    //#region --- enqueue ---
+    @Test
+    void testEnqueue() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var id = UUID.randomUUID();
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            var entity = invocation.getArgument(0);
+            ((SubmissionEntity) entity).setId(id);
+            return entity;
+        });
+
+        // Act
+        var result = service.enqueue(dto);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(id, result);
+    }
+
+    @Test
+    void testEnqueueUsesGradingExecutor() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            var entity = invocation.getArgument(0);
+            ((SubmissionEntity) entity).setId(UUID.randomUUID());
+            return entity;
+        });
+
+        // Act
+        service.enqueue(dto);
+
+        // Assert
+        verify(executor, times(1)).execute(argThat((GradingJob job) -> job.getMode() == SubmissionMode.DIAGNOSE), any());
+    }
+
+    @Test
+    void testEnqueueRejected() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var id = UUID.randomUUID();
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            var entity = invocation.getArgument(0);
+            ((SubmissionEntity) entity).setId(id);
+            return entity;
+        });
+        doThrow(new GradingRejectedException("full", Duration.ofSeconds(1), null)).when(executor).execute(argThat((GradingJob job) -> job.getMode() == SubmissionMode.DIAGNOSE), any());
+
+        // Act & Assert
+        assertThrows(GradingRejectedException.class, () -> service.enqueue(dto));
+        verify(service.getSubmissionRepository(), times(1)).deleteById(id);
+    }
+
+    @Test
+    void testGetGradingExecutorUsesBulkhead() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var shared = mock(GradingExecutor.class);
+        var bulkheadExecutor = mock(GradingExecutor.class);
+        var bulkheads = mock(GradingBulkheads.class);
+        when(bulkheads.getExecutor("sqlSubmissionService")).thenReturn(bulkheadExecutor);
+        service.setGradingExecutor(shared);
+        service.setGradingBulkheads(bulkheads);
+        service.setBeanName("sqlSubmissionService");
+
+        // Act
+        var result = service.getGradingExecutor();
+
+        // Assert
+        assertSame(bulkheadExecutor, result);
+    }
+
+    @Test
+    void testEnqueueWithQueue() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        var queue = mock(SubmissionQueue.class);
+        service.setGradingExecutor(executor);
+        service.setSubmissionQueue(queue);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var id = UUID.randomUUID();
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            var entity = invocation.getArgument(0);
+            ((SubmissionEntity) entity).setId(id);
+            return entity;
+        });
+        when(executor.getAvailableCapacity(SubmissionMode.DIAGNOSE)).thenReturn(1);
+        when(queue.tryClaim(id)).thenReturn(true);
+
+        // Act
+        var result = service.enqueue(dto);
+
+        // Assert
+        assertEquals(id, result);
+        verify(queue).register(eq(SubmissionServiceImpl.class.getName()), any());
+        verify(queue).add(SubmissionServiceImpl.class.getName(), id);
+        verify(executor).execute(argThat((GradingJob job) -> job.getMode() == SubmissionMode.DIAGNOSE), any());
+    }
+
+    @Test
+    void testEnqueueWithQueueNoCapacity() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        var queue = mock(SubmissionQueue.class);
+        service.setGradingExecutor(executor);
+        service.setSubmissionQueue(queue);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var id = UUID.randomUUID();
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            var entity = invocation.getArgument(0);
+            ((SubmissionEntity) entity).setId(id);
+            return entity;
+        });
+        when(executor.getAvailableCapacity(SubmissionMode.DIAGNOSE)).thenReturn(0);
+
+        // Act
+        var result = service.enqueue(dto);
+
+        // Assert
+        assertEquals(id, result);
+        verify(queue).add(SubmissionServiceImpl.class.getName(), id);
+        verify(queue, never()).tryClaim(any());
+        verify(executor, never()).execute(argThat((GradingJob job) -> job.getMode() == SubmissionMode.DIAGNOSE), any());
+    }
+
+    @Test
+    void testEnqueueWithQueueExecutorBusy() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        var queue = mock(SubmissionQueue.class);
+        service.setGradingExecutor(executor);
+        service.setSubmissionQueue(queue);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var id = UUID.randomUUID();
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            var entity = invocation.getArgument(0);
+            ((SubmissionEntity) entity).setId(id);
+            return entity;
+        });
+        when(executor.getAvailableCapacity(SubmissionMode.DIAGNOSE)).thenReturn(1);
+        when(queue.tryClaim(id)).thenReturn(true);
+        doThrow(new GradingRejectedException("full", Duration.ofSeconds(1), null)).when(executor).execute(argThat((GradingJob job) -> job.getMode() == SubmissionMode.DIAGNOSE), any());
+
+        // Act
+        var result = service.enqueue(dto);
+
+        // Assert
+        assertEquals(id, result);
+        verify(queue).requeue(id);
+        verify(service.getSubmissionRepository(), never()).deleteById(any());
+    }
+
     @Test
-    void testGetEvaluationResult() {
+    void testEnqueueWithQueueHandedBack() {
         // Arrange
         var service = new SubmissionServiceImpl();
-        var grading = new GradingDto(BigDecimal.TWO, BigDecimal.ONE, "ok", Collections.emptyList());
-        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
-        entity.setEvaluationResult(grading);
-        when(service.getSubmissionRepository().findById(any())).thenReturn(Optional.of(entity));
+        var executor = mock(GradingExecutor.class);
+        var queue = mock(SubmissionQueue.class);
+        service.setGradingExecutor(executor);
+        service.setSubmissionQueue(queue);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var id = UUID.randomUUID();
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            var entity = invocation.getArgument(0);
+            ((SubmissionEntity) entity).setId(id);
+            return entity;
+        });
+        when(executor.getAvailableCapacity(SubmissionMode.DIAGNOSE)).thenReturn(1);
+        when(queue.tryClaim(id)).thenReturn(true);
+        var job = new AtomicReference<GradingJob>();
+        doAnswer(invocation -> {
+            job.set(invocation.getArgument(0));
+            return null;
+        }).when(executor).execute(argThat((GradingJob j) -> j.getMode() == SubmissionMode.DIAGNOSE), any());
+        service.enqueue(dto);
 
         // Act
-        var result = service.getEvaluationResult(UUID.randomUUID());
+        job.get().handBack();
 
         // Assert
-        assertEquals(grading, result);
+        verify(queue).requeue(id);
+        verify(queue, never()).complete(any());
     }
 
     @Test
-    void testGetEvaluationResultNotAvailable() {
+    void testQueuedSubmissionFailed() {
         // Arrange
         var service = new SubmissionServiceImpl();
-        when(service.getSubmissionRepository().findById(any(UUID.class))).thenReturn(Optional.of(new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution")));
+        var queue = mock(SubmissionQueue.class);
+        var notifier = mock(GradingResultNotifier.class);
+        service.setCompletionRegistry(new GradingCompletionRegistry());
+        service.setResultNotifier(notifier);
+        service.setSubmissionQueue(queue);
+        var worker = ArgumentCaptor.forClass(SubmissionQueue.Worker.class);
+        verify(queue).register(eq(SubmissionServiceImpl.class.getName()), worker.capture());
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "en", 1, SubmissionMode.SUBMIT, "solution");
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        var result = service.awaitEvaluationResult(entity.getId(), Duration.ofSeconds(10));
 
         // Act
-        var result = service.getEvaluationResult(UUID.randomUUID());
+        worker.getValue().fail(entity.getId());
 
         // Assert
-        assertNull(result);
+        assertEquals("The evaluation failed. Please try again later.", entity.getEvaluationResult().generalFeedback());
+        assertTrue(result.isDone());
+        assertEquals(entity.getEvaluationResult(), result.getNow(null));
+        verify(notifier).publish(entity.getId());
     }
 
     @Test
-    void testGetEvaluationResultNotExists() {
+    void testQueuedSubmissionFailedAlreadyEvaluated() {
         // Arrange
         var service = new SubmissionServiceImpl();
-        when(service.getSubmissionRepository().findById(any())).thenReturn(Optional.empty());
+        var queue = mock(SubmissionQueue.class);
+        service.setSubmissionQueue(queue);
+        var worker = ArgumentCaptor.forClass(SubmissionQueue.Worker.class);
+        verify(queue).register(eq(SubmissionServiceImpl.class.getName()), worker.capture());
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "en", 1, SubmissionMode.SUBMIT, "solution");
+        entity.setEvaluationResult(new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of()));
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
 
-        // Act & Assert
-        assertThrows(EntityNotFoundException.class, () -> service.getEvaluationResult(UUID.randomUUID()));
+        // Act
+        worker.getValue().fail(entity.getId());
+
+        // Assert
+        assertEquals("ok", entity.getEvaluationResult().generalFeedback());
+        verify(service.getSubmissionRepository(), never()).save(any());
+    }
+
+    @Test
+    void testExecuteTimeout() {
+        // Arrange
+        var config = new GradingConfiguration();
+        config.setEvaluationTimeout(Duration.ofMillis(50));
+        var executor = new GradingExecutor(config);
+        var service = new SubmissionServiceImpl();
+        service.evaluationDuration = Duration.ofSeconds(10);
+        service.setGradingExecutor(executor);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "en", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        when(service.getTaskRepository().findById(1L)).thenReturn(Optional.of(new TaskEntity(1L)));
+
+        // Act
+        var result = service.execute(dto, false);
+
+        // Assert
+        assertNull(result.submissionId());
+        assertEquals(BigDecimal.ZERO, result.grading().points());
+        assertEquals("The evaluation was aborted because it took longer than 1 seconds.", result.grading().generalFeedback());
+        assertEquals(1, executor.getTimedOutCount());
+        assertFalse(Thread.currentThread().isInterrupted());
+        executor.destroy();
+    }
+
+    @Test
+    void testEnqueueTimeoutStoresResult() throws InterruptedException {
+        // Arrange
+        var config = new GradingConfiguration();
+        config.setEvaluationTimeout(Duration.ofMillis(50));
+        var executor = new GradingExecutor(config);
+        var service = new SubmissionServiceImpl();
+        service.evaluationDuration = Duration.ofSeconds(10);
+        service.setGradingExecutor(executor);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var id = UUID.randomUUID();
+        var entity = new SubmissionEntity();
+        entity.setId(id);
+        var stored = new CountDownLatch(1);
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenReturn(entity);
+        when(service.getSubmissionRepository().findById(id)).thenReturn(Optional.of(entity));
+        when(service.getSubmissionRepository().save(any())).thenAnswer(invocation -> {
+            stored.countDown();
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        service.enqueue(dto);
+
+        // Assert
+        assertTrue(stored.await(5, TimeUnit.SECONDS));
+        assertNotNull(entity.getEvaluationResult());
+        assertTrue(entity.getEvaluationResult().generalFeedback().startsWith("Die Auswertung wurde abgebrochen"));
+        executor.destroy();
     }
     //#endregion
 
-    //#region --- execute ---
+    //#region --- cache ---
     @Test
-    void testExecutePersist() {
+    void testExecuteUsesCache() {
         // Arrange
         var service = new SubmissionServiceImpl();
+        enableResultCache(service);
         var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var other = new SubmitSubmissionDto<>("k456", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+
+        // Act
+        var first = service.execute(dto, false);
+        var second = service.execute(other, false);
+
+        // Assert
+        assertEquals(first.grading(), second.grading());
+        assertEquals(1, service.evaluations);
+    }
+
+    @Test
+    void testExecuteCacheDistinguishesSubmissions() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        enableResultCache(service);
+
+        // Act
+        service.execute(new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution")), false);
+        service.execute(new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 2, new AdditionalData("solution")), false);
+        service.execute(new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("other")), false);
+
+        // Assert
+        assertEquals(3, service.evaluations);
+    }
+
+    @Test
+    void testEnqueueUsesCache() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        enableResultCache(service);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        when(executor.evaluateInCallingThread(any(GradingJob.class), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
         when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
-        when(service.getSubmissionRepository().save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            var entity = invocation.getArgument(0);
+            ((SubmissionEntity) entity).setId(UUID.randomUUID());
+            return entity;
+        });
+        service.execute(dto, false);
 
         // Act
-        var result = service.execute(dto, true);
+        service.enqueue(dto);
 
         // Assert
-        assertNotNull(result);
-        verify(service.getSubmissionRepository(), never()).delete(any(SubmissionEntity.class));
+        verify(executor, never()).execute(any(GradingJob.class), any());
+        verify(service.getSubmissionRepository()).save(argThat(entity -> entity.getEvaluationResult() != null));
     }
 
     @Test
-    void testExecuteNotPersist() {
+    void testNotCacheable() {
         // Arrange
         var service = new SubmissionServiceImpl();
+        service.cacheable = false;
+        enableResultCache(service);
         var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+
+        // Act
+        service.execute(dto, false);
+        service.execute(dto, false);
+
+        // Assert
+        assertEquals(2, service.evaluations);
+    }
+
+    @Test
+    void testExecuteSharesInFlightEvaluation() throws Exception {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        service.setSubmissionFingerprinter(new SubmissionFingerprinter(new ObjectMapper()));
+        service.evaluationDuration = Duration.ofMillis(500);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.RUN, 1, new AdditionalData("solution"));
+        var other = new SubmitSubmissionDto<>("k456", "quiz1", 1L, "de", SubmissionMode.RUN, 1, new AdditionalData("solution"));
+
+        // Act
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            var first = executor.submit(() -> service.execute(dto, false));
+            Thread.sleep(100);
+            var second = executor.submit(() -> service.execute(other, false));
+
+            // Assert
+            assertEquals(first.get(5, TimeUnit.SECONDS).grading(), second.get(5, TimeUnit.SECONDS).grading());
+        }
+        assertEquals(1, service.evaluations);
+    }
+
+    @Test
+    void testEnqueueSharesInFlightEvaluation() throws InterruptedException {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = new GradingExecutor(new GradingConfiguration());
+        service.setGradingExecutor(executor);
+        service.setSubmissionFingerprinter(new SubmissionFingerprinter(new ObjectMapper()));
+        service.evaluationDuration = Duration.ofMillis(300);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.RUN, 1, new AdditionalData("solution"));
+        var entities = new ConcurrentHashMap<UUID, SubmissionEntity>();
+        var stored = new CountDownLatch(2);
         when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
-        when(service.getSubmissionRepository().save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            SubmissionEntity entity = invocation.getArgument(0);
+            entity.setId(UUID.randomUUID());
+            entities.put(entity.getId(), entity);
+            return entity;
+        });
+        when(service.getSubmissionRepository().findById(any())).thenAnswer(invocation -> Optional.ofNullable(entities.get(invocation.<UUID>getArgument(0))));
+        when(service.getSubmissionRepository().save(any())).thenAnswer(invocation -> {
+            stored.countDown();
+            return invocation.getArgument(0);
+        });
 
         // Act
-        var result = service.execute(dto, false);
+        var first = service.enqueue(dto);
+        var second = service.enqueue(dto);
 
         // Assert
-        assertNotNull(result);
-        verify(service.getSubmissionRepository(), never()).save(any());
+        assertTrue(stored.await(5, TimeUnit.SECONDS));
+        assertNotNull(entities.get(first).getEvaluationResult());
+        assertEquals(entities.get(first).getEvaluationResult(), entities.get(second).getEvaluationResult());
+        assertEquals(1, service.evaluations);
+        executor.destroy();
+    }
+
+    @Test
+    void testEnqueueCancelledLeaderFallsBack() throws InterruptedException {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = new GradingExecutor(new GradingConfiguration());
+        service.setGradingExecutor(executor);
+        service.setSubmissionFingerprinter(new SubmissionFingerprinter(new ObjectMapper()));
+        service.evaluationDuration = Duration.ofMillis(300);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.RUN, 1, new AdditionalData("solution"));
+        var entities = new ConcurrentHashMap<UUID, SubmissionEntity>();
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getTaskRepository().findById(anyLong())).thenReturn(Optional.of(new TaskEntity(1L)));
+        when(service.getSubmissionRepository().saveAndFlush(any())).thenAnswer(invocation -> {
+            SubmissionEntity entity = invocation.getArgument(0);
+            entity.setId(UUID.randomUUID());
+            entity.setTask(new TaskEntity(1L));
+            entities.put(entity.getId(), entity);
+            return entity;
+        });
+        when(service.getSubmissionRepository().findById(any())).thenAnswer(invocation -> Optional.ofNullable(entities.get(invocation.<UUID>getArgument(0))));
+        var first = service.enqueue(dto);
+        var second = service.enqueue(dto);
+        Thread.sleep(100);
+
+        // Act
+        var cancelled = service.cancel(first);
+
+        // Assert
+        assertTrue(cancelled);
+        for (int i = 0; i < 50 && entities.get(second).getEvaluationResult() == null; i++)
+            Thread.sleep(100);
+        assertEquals("Die Auswertung wurde abgebrochen.", entities.get(first).getEvaluationResult().generalFeedback());
+        assertEquals("ok", entities.get(second).getEvaluationResult().generalFeedback());
+        assertEquals(2, service.evaluations);
+        executor.destroy();
     }
     //#endregion
 
-    //#region --- enqueue ---
+    //#region --- batch ---
     @Test
-    void testEnqueue() {
+    void testEnqueueAll() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var dtos = List.of(
+            new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution1")),
+            new SubmitSubmissionDto<>("k456", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution2")));
+        var ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
+        when(service.getSubmissionRepository().saveAllAndFlush(any())).thenAnswer(invocation -> {
+            List<SubmissionEntity> entities = invocation.getArgument(0);
+            for (int i = 0; i < entities.size(); i++)
+                entities.get(i).setId(ids.get(i));
+            return entities;
+        });
+
+        // Act
+        var result = service.enqueueAll(dtos);
+
+        // Assert
+        assertEquals(ids, result);
+        verify(service.getSubmissionRepository(), never()).saveAndFlush(any());
+        verify(executor, times(2)).execute(any(GradingJob.class), any());
+    }
+
+    @Test
+    void testEnqueueAllRejectedEvaluatesInCallingThread() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.DIAGNOSE, "solution");
+        when(service.getSubmissionRepository().saveAllAndFlush(any())).thenReturn(List.of(entity));
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+        doThrow(new GradingRejectedException("full", Duration.ofSeconds(1), null)).when(executor).execute(any(GradingJob.class), any());
+        when(executor.evaluateInCallingThread(any(GradingJob.class), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+
+        // Act
+        var result = service.enqueueAll(List.of(dto));
+
+        // Assert
+        assertEquals(List.of(entity.getId()), result);
+        assertEquals(1, service.evaluations);
+        assertNotNull(entity.getEvaluationResult());
+        verify(service.getSubmissionRepository(), never()).deleteById(any());
+    }
+
+    @Test
+    void testExecuteAll() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var dtos = List.of(
+            new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.RUN, 1, new AdditionalData("solution1")),
+            new SubmitSubmissionDto<>("k456", "quiz1", 1L, "de", SubmissionMode.RUN, 1, new AdditionalData("solution2")));
+
+        // Act
+        var result = service.executeAll(dtos, false);
+
+        // Assert
+        assertEquals(2, result.size());
+        for (var future : result) {
+            var grading = future.orTimeout(5, TimeUnit.SECONDS).join();
+            assertNull(grading.submissionId());
+            assertEquals("ok", grading.grading().generalFeedback());
+        }
+        assertEquals(2, service.evaluations);
+        verify(service.getSubmissionRepository(), never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    void testExecuteAllPersistedFailed() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.RUN, 1, new AdditionalData("fail"));
+        var entity = new SubmissionEntity(UUID.randomUUID(), "k123", "quiz1", new TaskEntity(1L), "de", 1, SubmissionMode.RUN, "fail");
+        when(service.getSubmissionRepository().saveAllAndFlush(any())).thenReturn(List.of(entity));
+        when(service.getSubmissionRepository().findById(entity.getId())).thenReturn(Optional.of(entity));
+
+        // Act
+        var result = service.executeAll(List.of(dto), true);
+
+        // Assert
+        var ex = assertThrows(CompletionException.class, () -> result.getFirst().orTimeout(5, TimeUnit.SECONDS).join());
+        var failed = assertInstanceOf(EvaluationFailedException.class, ex.getCause());
+        assertEquals(entity.getId(), failed.getSubmissionId());
+        assertEquals("evaluation failed", failed.getCause().getMessage());
+    }
+
+    @Test
+    void testExecuteAllCancelledBeforeStart() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "en", SubmissionMode.RUN, 1, new AdditionalData("solution"));
+        doAnswer(invocation -> ((GradingJob) invocation.getArgument(0)).cancel()).when(executor).execute(any(GradingJob.class), any());
+
+        // Act
+        var result = service.executeAll(List.of(dto), false);
+
+        // Assert
+        var grading = result.getFirst().getNow(null);
+        assertNotNull(grading);
+        assertEquals("The evaluation was cancelled.", grading.grading().generalFeedback());
+        assertEquals(0, service.evaluations);
+    }
+    //#endregion
+
+    //#region --- write-behind ---
+    @Test
+    void testEnqueueUsesResultWriter() {
         // Arrange
         var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        var writer = mock(GradingResultWriter.class);
+        service.setGradingExecutor(executor);
+        service.setResultWriter(writer);
         var dto = new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, new AdditionalData("solution"));
         var id = UUID.randomUUID();
         when(service.getTaskRepository().getReferenceById(anyLong())).thenReturn(new TaskEntity(1L));
@@ -141,13 +1192,126 @@ void testEnqueue() {
             ((SubmissionEntity) entity).setId(id);
             return entity;
         });
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(executor).execute(any(GradingJob.class), any());
 
         // Act
-        var result = service.enqueue(dto);
+        service.enqueue(dto);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(id, result);
+        verify(writer).write(eq(id), argThat(result -> "ok".equals(result.generalFeedback())));
+        verify(service.getSubmissionRepository(), never()).findById(any());
+        verify(service.getSubmissionRepository(), never()).save(any());
+    }
+
+    @Test
+    void testGetEvaluationResultPendingInResultWriter() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var writer = mock(GradingResultWriter.class);
+        service.setResultWriter(writer);
+        var id = UUID.randomUUID();
+        var result = new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of());
+        when(writer.getPending(id)).thenReturn(result);
+
+        // Act
+        var actual = service.getEvaluationResult(id);
+
+        // Assert
+        assertSame(result, actual);
+        verify(service.getSubmissionRepository(), never()).findById(any());
+    }
+    //#endregion
+
+    //#region --- cancel ---
+    @Test
+    void testCancel() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var id = UUID.randomUUID();
+        var entity = new SubmissionEntity(id, "k123", "quiz1", new TaskEntity(1L), "en", 1, SubmissionMode.SUBMIT, "solution");
+        when(service.getSubmissionRepository().findById(id)).thenReturn(Optional.of(entity));
+        when(executor.cancel(id)).thenReturn(true);
+
+        // Act
+        var result = service.cancel(id);
+
+        // Assert
+        assertTrue(result);
+        assertEquals("The evaluation was cancelled.", entity.getEvaluationResult().generalFeedback());
+        verify(service.getSubmissionRepository()).save(entity);
+    }
+
+    @Test
+    void testCancelQueued() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        var queue = mock(SubmissionQueue.class);
+        service.setGradingExecutor(executor);
+        service.setSubmissionQueue(queue);
+        var id = UUID.randomUUID();
+        var entity = new SubmissionEntity(id, "k123", "quiz1", new TaskEntity(1L), "en", 1, SubmissionMode.SUBMIT, "solution");
+        when(service.getSubmissionRepository().findById(id)).thenReturn(Optional.of(entity));
+        when(queue.remove(id)).thenReturn(true);
+
+        // Act
+        var result = service.cancel(id);
+
+        // Assert
+        assertTrue(result);
+        assertNotNull(entity.getEvaluationResult());
+    }
+
+    @Test
+    void testCancelNotRunning() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var id = UUID.randomUUID();
+        var entity = new SubmissionEntity(id, "k123", "quiz1", new TaskEntity(1L), "en", 1, SubmissionMode.SUBMIT, "solution");
+        when(service.getSubmissionRepository().findById(id)).thenReturn(Optional.of(entity));
+
+        // Act
+        var result = service.cancel(id);
+
+        // Assert
+        assertFalse(result);
+        verify(service.getSubmissionRepository(), never()).save(any());
+    }
+
+    @Test
+    void testCancelAlreadyEvaluated() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        var executor = mock(GradingExecutor.class);
+        service.setGradingExecutor(executor);
+        var id = UUID.randomUUID();
+        var entity = new SubmissionEntity(id, "k123", "quiz1", new TaskEntity(1L), "en", 1, SubmissionMode.SUBMIT, "solution");
+        entity.setEvaluationResult(new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of()));
+        when(service.getSubmissionRepository().findById(id)).thenReturn(Optional.of(entity));
+
+        // Act
+        var result = service.cancel(id);
+
+        // Assert
+        assertFalse(result);
+        verify(executor, never()).cancel(any());
+    }
+
+    @Test
+    void testCancelNotExisting() {
+        // Arrange
+        var service = new SubmissionServiceImpl();
+        when(service.getSubmissionRepository().findById(any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> service.cancel(UUID.randomUUID()));
     }
     //#endregion
 
@@ -172,14 +1336,36 @@ void testAuthorities() throws NoSuchMethodException {
         var execute = BaseSubmissionService.class.getMethod("execute", SubmitSubmissionDto.class, boolean.class).getAnnotation(PreAuthorize.class);
         var getEvaluationResult = BaseSubmissionService.class.getMethod("getEvaluationResult", UUID.class).getAnnotation(PreAuthorize.class);
         var getSubmissions = BaseSubmissionService.class.getMethod("getSubmissions", Pageable.class, String.class, Long.class, String.class, SubmissionMode.class).getAnnotation(PreAuthorize.class);
+        var cancel = BaseSubmissionService.class.getMethod("cancel", UUID.class).getAnnotation(PreAuthorize.class);
+        var awaitEvaluationResult = BaseSubmissionService.class.getMethod("awaitEvaluationResult", UUID.class, Duration.class).getAnnotation(PreAuthorize.class);
+        var watchEvaluations = BaseSubmissionService.class.getMethod("watchEvaluations", List.class, Duration.class, Consumer.class).getAnnotation(PreAuthorize.class);
+        var getPartialEvaluationResult = BaseSubmissionService.class.getMethod("getPartialEvaluationResult", UUID.class).getAnnotation(PreAuthorize.class);
+        var enqueueAll = BaseSubmissionService.class.getMethod("enqueueAll", List.class).getAnnotation(PreAuthorize.class);
+        var executeAll = BaseSubmissionService.class.getMethod("executeAll", List.class, boolean.class).getAnnotation(PreAuthorize.class);
 
         assertEquals(AuthConstants.SUBMIT_AUTHORITY, enqueue.value());
         assertEquals(AuthConstants.SUBMIT_AUTHORITY, execute.value());
         assertEquals(AuthConstants.SUBMIT_AUTHORITY, getEvaluationResult.value());
         assertEquals(AuthConstants.READ_SUBMISSION_AUTHORITY, getSubmissions.value());
+        assertEquals(AuthConstants.SUBMIT_AUTHORITY, cancel.value());
+        assertEquals(AuthConstants.SUBMIT_AUTHORITY, awaitEvaluationResult.value());
+        assertEquals(AuthConstants.SUBMIT_AUTHORITY, watchEvaluations.value());
+        assertEquals(AuthConstants.SUBMIT_AUTHORITY, getPartialEvaluationResult.value());
+        assertEquals(AuthConstants.SUBMIT_AUTHORITY, enqueueAll.value());
+        assertEquals(AuthConstants.SUBMIT_AUTHORITY, executeAll.value());
+    }
+
+    private static void enableResultCache(SubmissionServiceImpl service) {
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        service.setSubmissionFingerprinter(fingerprinter);
+        service.setResultCache(new GradingResultCache(new GradingCacheConfiguration(), fingerprinter));
     }
 
     private static class SubmissionServiceImpl extends BaseSubmissionService<TaskEntity, SubmissionEntity, AdditionalData> {
+        private Duration evaluationDuration;
+        private boolean cacheable = true;
+        private int evaluations;
+        private CountDownLatch reportedCriterion;
 
         protected SubmissionServiceImpl() {
             //noinspection unchecked
@@ -203,9 +1389,33 @@ protected SubmissionEntity createSubmissionEntity(SubmitSubmissionDto<Additional
 
         @Override
         protected GradingDto evaluate(SubmitSubmissionDto<AdditionalData> dto) {
+            this.evaluations++;
+            if ("fail".equals(dto.submission().solution()))
+                throw new IllegalStateException("evaluation failed");
+            if (this.evaluationDuration != null) {
+                try {
+                    Thread.sleep(this.evaluationDuration);
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException("interrupted", ex);
+                }
+            }
             return new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of(new CriterionDto("Syntax", BigDecimal.ONE, true, "ok")));
         }
 
+        @Override
+        protected GradingDto evaluate(SubmitSubmissionDto<AdditionalData> dto, CriterionSink sink) {
+            if (this.reportedCriterion != null) {
+                sink.accept(new CriterionDto("Syntax", BigDecimal.ONE, true, "ok"));
+                this.reportedCriterion.countDown();
+            }
+            return this.evaluate(dto);
+        }
+
+        @Override
+        protected boolean isCacheable(SubmitSubmissionDto<AdditionalData> submission) {
+            return this.cacheable;
+        }
+
         @Override
         protected AdditionalData mapSubmissionToSubmissionData(SubmissionEntity submission) {
             return new AdditionalData(submission.getSolution());
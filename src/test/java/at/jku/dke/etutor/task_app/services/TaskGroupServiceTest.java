@@ -5,6 +5,8 @@
 import at.jku.dke.etutor.task_app.data.repositories.TaskGroupRepository;
 import at.jku.dke.etutor.task_app.dto.ModifyTaskGroupDto;
 import at.jku.dke.etutor.task_app.dto.TaskStatus;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidation;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidationNotifier;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DuplicateKeyException;
@@ -136,6 +138,21 @@ void testDelete() {
         assertEquals(id, service.afterDeleteCalled);
     }
 
+    @Test
+    void testDeleteAnnouncesInvalidation() {
+        // Arrange
+        final long id = 3L;
+        var service = new TaskGroupServiceImpl();
+        var notifier = mock(TaskInvalidationNotifier.class);
+        service.setInvalidationNotifier(notifier);
+
+        // Act
+        service.delete(id);
+
+        // Assert
+        verify(notifier).publishAfterCommit(TaskInvalidation.taskGroup(id));
+    }
+
     @Test
     void testDeleteNotExists() {
         // Act
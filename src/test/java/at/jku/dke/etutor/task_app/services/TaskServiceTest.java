@@ -7,6 +7,12 @@
 import at.jku.dke.etutor.task_app.data.repositories.TaskRepository;
 import at.jku.dke.etutor.task_app.dto.ModifyTaskDto;
 import at.jku.dke.etutor.task_app.dto.TaskStatus;
+import at.jku.dke.etutor.task_app.grading.SubmissionFingerprinter;
+import at.jku.dke.etutor.task_app.grading.TaskArtifactCache;
+import at.jku.dke.etutor.task_app.grading.TaskArtifactCacheConfiguration;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidation;
+import at.jku.dke.etutor.task_app.grading.TaskInvalidationNotifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.Test;
@@ -132,6 +138,52 @@ void testUpdate() {
         assertInstanceOf(PersistedEntity.class, service.afterUpdateCalled);
     }
 
+    @Test
+    void testUpdateInvalidatesSubmissionFingerprints() {
+        // Arrange
+        final long id = 3L;
+
+        var service = new TaskServiceImpl();
+        var cache = mock(SubmissionFingerprinter.class);
+        service.setSubmissionFingerprinter(cache);
+        var dto = new ModifyTaskDto<>(2L, BigDecimal.TEN, "test", TaskStatus.APPROVED, new AdditionalData("some data"));
+        var entity = new TaskEntity(id, TaskStatus.DRAFT, new TaskGroupEntity(1L), "old data", BigDecimal.TWO);
+        when(service.getRepository().findById(id)).thenReturn(Optional.of(entity));
+        when(service.getTaskGroupRepository().getReferenceById(2L)).thenReturn(new TaskGroupEntity(2L));
+        when(service.getRepository().save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        service.update(id, dto);
+
+        // Assert
+        verify(cache).invalidateTask(id);
+    }
+
+    @Test
+    void testUpdatePreparesArtifacts() {
+        // Arrange
+        final long id = 3L;
+
+        var service = new TaskServiceImpl();
+        var fingerprinter = new SubmissionFingerprinter(new ObjectMapper());
+        var artifactCache = new TaskArtifactCache(new TaskArtifactCacheConfiguration(), fingerprinter);
+        service.setSubmissionFingerprinter(fingerprinter);
+        service.setArtifactCache(artifactCache);
+        var dto = new ModifyTaskDto<>(2L, BigDecimal.TEN, "test", TaskStatus.APPROVED, new AdditionalData("some data"));
+        var entity = new TaskEntity(id, TaskStatus.DRAFT, new TaskGroupEntity(1L), "old data", BigDecimal.TWO);
+        when(service.getRepository().findById(id)).thenReturn(Optional.of(entity));
+        when(service.getTaskGroupRepository().getReferenceById(2L)).thenReturn(new TaskGroupEntity(2L));
+        when(service.getRepository().save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        artifactCache.get(id, "data", () -> "old data");
+
+        // Act
+        service.update(id, dto);
+
+        // Assert
+        assertEquals(2, artifactCache.getBuildCount());
+        assertEquals("some data", artifactCache.get(id, "data", () -> "rebuilt"));
+    }
+
     @Test
     void testUpdateNullGroupId() {
         // Act
@@ -177,6 +229,36 @@ void testDelete() {
         assertEquals(id, service.afterDeleteCalled);
     }
 
+    @Test
+    void testDeleteInvalidatesSubmissionFingerprints() {
+        // Arrange
+        final long id = 3L;
+        var service = new TaskServiceImpl();
+        var cache = mock(SubmissionFingerprinter.class);
+        service.setSubmissionFingerprinter(cache);
+
+        // Act
+        service.delete(id);
+
+        // Assert
+        verify(cache).invalidateTask(id);
+    }
+
+    @Test
+    void testDeleteAnnouncesInvalidation() {
+        // Arrange
+        final long id = 3L;
+        var service = new TaskServiceImpl();
+        var notifier = mock(TaskInvalidationNotifier.class);
+        service.setInvalidationNotifier(notifier);
+
+        // Act
+        service.delete(id);
+
+        // Assert
+        verify(notifier).publishAfterCommit(TaskInvalidation.task(id));
+    }
+
     @Test
     void testDeleteNotExists() {
         // Act
@@ -250,6 +332,11 @@ protected void beforeDelete(long id) {
             this.beforeDeleteCalled = id;
         }
 
+        @Override
+        protected void prepareArtifacts(TaskEntity task) {
+            this.getTaskArtifact(task.getId(), "data", task::getSomeData);
+        }
+
         @Override
         protected void afterDelete(long id) {
             this.afterDeleteCalled = id;
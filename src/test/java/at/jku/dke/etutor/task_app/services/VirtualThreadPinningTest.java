@@ -0,0 +1,198 @@
+package at.jku.dke.etutor.task_app.services;
+
+import at.jku.dke.etutor.task_app.data.entities.BaseSubmission;
+import at.jku.dke.etutor.task_app.data.entities.BaseTaskInGroup;
+import at.jku.dke.etutor.task_app.data.entities.TaskGroup;
+import at.jku.dke.etutor.task_app.data.repositories.SubmissionRepository;
+import at.jku.dke.etutor.task_app.data.repositories.TaskRepository;
+import at.jku.dke.etutor.task_app.dto.*;
+import at.jku.dke.etutor.task_app.grading.GradingConfiguration;
+import at.jku.dke.etutor.task_app.grading.GradingExecutor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that the grading hot path does not pin virtual threads (e.g. because of blocking inside {@code synchronized} blocks).
+ */
+class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Test
+    void detectsPinning() throws InterruptedException {
+        // Arrange
+        var lock = new Object();
+
+        // Act
+        var events = recordPinnedEvents(() -> {
+            var thread = Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    sleep();
+                }
+            });
+            join(thread);
+        });
+
+        // Assert
+        assertFalse(events.isEmpty(), "Pinning check does not detect pinned virtual threads");
+    }
+
+    @Test
+    void enqueueDoesNotPin() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration());
+        var service = new SubmissionServiceImpl(10);
+        service.setGradingExecutor(executor);
+
+        // Act
+        var events = recordPinnedEvents(() -> {
+            for (int i = 0; i < 10; i++)
+                service.enqueue(createSubmission());
+            await(service.latch);
+        });
+
+        // Assert
+        assertEquals(List.of(), events.stream().map(VirtualThreadPinningTest::describe).toList());
+        executor.destroy();
+    }
+
+    @Test
+    void executeDoesNotPin() throws InterruptedException {
+        // Arrange
+        var executor = new GradingExecutor(createConfiguration());
+        var service = new SubmissionServiceImpl(10);
+        service.setGradingExecutor(executor);
+
+        // Act
+        var events = recordPinnedEvents(() -> {
+            var threads = new CopyOnWriteArrayList<Thread>();
+            for (int i = 0; i < 10; i++)
+                threads.add(Thread.ofVirtual().start(() -> service.execute(createSubmission(), true)));
+            threads.forEach(VirtualThreadPinningTest::join);
+        });
+
+        // Assert
+        assertEquals(List.of(), events.stream().map(VirtualThreadPinningTest::describe).toList());
+        assertEquals(0, service.latch.getCount());
+        executor.destroy();
+    }
+
+    private static List<RecordedEvent> recordPinnedEvents(Runnable action) throws InterruptedException {
+        var events = new CopyOnWriteArrayList<RecordedEvent>();
+        try (var stream = new RecordingStream()) {
+            stream.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            stream.onEvent(PINNED_EVENT, events::add);
+            var started = new CountDownLatch(1);
+            stream.onFlush(started::countDown);
+            stream.startAsync();
+            assertTrue(started.await(10, TimeUnit.SECONDS), "Recording did not start");
+
+            action.run();
+
+            stream.stop();
+        }
+        return events;
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace() == null ? event.toString() : event.getStackTrace().getFrames().stream()
+            .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName())
+            .toList()
+            .toString();
+    }
+
+    private static GradingConfiguration createConfiguration() {
+        var config = new GradingConfiguration();
+        config.setVirtualThreads(true);
+        config.setMaxConcurrentEvaluations(5);
+        return config;
+    }
+
+    private static SubmitSubmissionDto<String> createSubmission() {
+        return new SubmitSubmissionDto<>("k123", "quiz1", 1L, "de", SubmissionMode.DIAGNOSE, 1, "solution");
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            assertTrue(thread.join(Duration.ofSeconds(10)));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class SubmissionServiceImpl extends BaseSubmissionService<TaskEntity, SubmissionEntity, String> {
+        private final CountDownLatch latch;
+
+        @SuppressWarnings("unchecked")
+        SubmissionServiceImpl(int expectedEvaluations) {
+            super(mock(SubmissionRepository.class), mock(TaskRepository.class));
+            this.latch = new CountDownLatch(expectedEvaluations);
+            when(this.taskRepository.getReferenceById(anyLong())).thenReturn(new TaskEntity());
+            when(this.submissionRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+                SubmissionEntity entity = invocation.getArgument(0);
+                entity.setId(UUID.randomUUID());
+                return entity;
+            });
+            when(this.submissionRepository.findById(any())).thenAnswer(invocation -> Optional.of(new SubmissionEntity()));
+        }
+
+        @Override
+        protected SubmissionEntity createSubmissionEntity(SubmitSubmissionDto<String> dto) {
+            return new SubmissionEntity();
+        }
+
+        @Override
+        protected GradingDto evaluate(SubmitSubmissionDto<String> dto) {
+            // simulates I/O, e.g. executing a query on an exercise database
+            sleep();
+            this.latch.countDown();
+            return new GradingDto(BigDecimal.TEN, BigDecimal.ONE, "ok", List.of());
+        }
+
+        @Override
+        protected String mapSubmissionToSubmissionData(SubmissionEntity submission) {
+            return null;
+        }
+    }
+
+    private static class SubmissionEntity extends BaseSubmission<TaskEntity> {
+    }
+
+    private static class TaskEntity extends BaseTaskInGroup<TaskGroup> {
+        TaskEntity() {
+            super(1L, BigDecimal.ZERO, TaskStatus.APPROVED, null);
+        }
+    }
+}